@@ -39,10 +39,7 @@ public class CentralityResult {
 
     public void export(
             final String propertyName, final NodePropertyExporter exporter) {
-        exporter.write(
-                propertyName,
-                result,
-                HugeDoubleArray.Translator.INSTANCE);
+        exporter.write(NodePropertyExporter.NodeProperty.of(propertyName, result));
     }
 
     public void export(String propertyName, NodePropertyExporter exporter, DoubleUnaryOperator normalizationFunction) {
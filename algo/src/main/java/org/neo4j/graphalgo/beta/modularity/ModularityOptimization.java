@@ -30,6 +30,7 @@ import org.neo4j.graphalgo.beta.k1coloring.K1Coloring;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
@@ -38,6 +39,7 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.logging.Log;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.LongStream;
@@ -64,7 +66,10 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
     private final AllocationTracker tracker;
     private final Log log;
 
+    private boolean vertexPruning = false;
+
     private int iterationCounter;
+    private long[] activeNodesPerIteration;
     private boolean didConverge = false;
     private double totalNodeWeight = 0.0;
     private double modularity = -1.0;
@@ -77,6 +82,9 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
     private HugeDoubleArray nodeCommunityInfluences;
     private HugeAtomicDoubleArray communityWeights;
     private HugeAtomicDoubleArray communityWeightUpdates;
+    // nodes that are revisited in the current and the next iteration if vertex pruning is enabled
+    private HugeAtomicBitSet activeNodes;
+    private HugeAtomicBitSet nextActiveNodes;
 
     public ModularityOptimization(
         final Graph graph,
@@ -115,6 +123,17 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
         }
     }
 
+    /**
+     * After the first iteration, only nodes are revisited that changed their community in the previous iteration
+     * or that have a neighbour which changed its community, all other nodes would keep their community anyway.
+     * Pruning requires the relationships to be traversable in both directions, i.e. an undirected graph or
+     * {@link Direction#BOTH}, otherwise all nodes are revisited.
+     */
+    public ModularityOptimization withVertexPruning(boolean vertexPruning) {
+        this.vertexPruning = vertexPruning;
+        return this;
+    }
+
     @Override
     public ModularityOptimization compute() {
         try (ProgressTimer timer = ProgressTimer.start(millis -> log.info("Modularity Optimization - Initialization finished after %dms", millis))) {
@@ -123,10 +142,23 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
             init();
         }
 
+        boolean prune = vertexPruning && (graph.isUndirected() || direction == Direction.BOTH);
+        if (vertexPruning && !prune) {
+            log.warn("Modularity Optimization - Vertex pruning requires an undirected graph or direction BOTH, all nodes are revisited");
+        }
+        if (prune) {
+            this.nextActiveNodes = HugeAtomicBitSet.create(nodeCount, tracker);
+        }
+        this.activeNodesPerIteration = new long[maxIterations];
+
         for(iterationCounter = 0; iterationCounter < maxIterations; iterationCounter++) {
             boolean hasConverged;
-            try (ProgressTimer timer = ProgressTimer.start(millis -> log.info("Modularity Optimization - Iteration %d finished after %dms", iterationCounter + 1,  millis))) {
-                nodeCommunityInfluences.fill(0.0);
+            long activeNodeCount = activeNodes == null ? nodeCount : activeNodes.cardinality();
+            activeNodesPerIteration[iterationCounter] = activeNodeCount;
+            try (ProgressTimer timer = ProgressTimer.start(millis -> log.info("Modularity Optimization - Iteration %d finished after %dms with %d active nodes", iterationCounter + 1,  millis, activeNodeCount))) {
+                if (!prune) {
+                    nodeCommunityInfluences.fill(0.0);
+                }
 
                 long currentColor = colorsUsed.nextSetBit(0);
                 while (currentColor != -1) {
@@ -136,6 +168,16 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
                 }
 
                  hasConverged = !updateModularity();
+
+                if (prune) {
+                    // the influences of skipped nodes are kept from the iteration they were last visited in
+                    HugeAtomicBitSet visited = activeNodes == null
+                        ? HugeAtomicBitSet.create(nodeCount, tracker)
+                        : activeNodes;
+                    visited.clear();
+                    activeNodes = nextActiveNodes;
+                    nextActiveNodes = visited;
+                }
             }
 
             if (hasConverged) {
@@ -179,7 +221,7 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
         long nextAvailableInternalCommunityId = -1;
 
         for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
-            long seedCommunity = (long) seedProperty.nodeProperty(nodeId, -1);
+            long seedCommunity = seedProperty.longNodeProperty(nodeId, -1L);
             seedCommunity = seedCommunity >= 0 ? seedCommunity : graph.toOriginalNodeId(nodeId) + maxSeedCommunity;
             if (communityMapping.getOrDefault(seedCommunity, -1) < 0 ) {
                 communityMapping.addTo(seedCommunity, ++nextAvailableInternalCommunityId);
@@ -273,7 +315,9 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
                     cumulativeNodeWeights,
                     nodeCommunityInfluences,
                     communityWeights,
-                    communityWeightUpdates
+                    communityWeightUpdates,
+                    activeNodes,
+                    nextActiveNodes
                 )
             );
         }
@@ -323,6 +367,14 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
         this.nodeCommunityInfluences.release();
         this.colors.release();
         this.colorsUsed = null;
+        if (this.activeNodes != null) {
+            this.activeNodes.release();
+            this.activeNodes = null;
+        }
+        if (this.nextActiveNodes != null) {
+            this.nextActiveNodes.release();
+            this.nextActiveNodes = null;
+        }
     }
 
     public long getCommunityId(long nodeId) {
@@ -336,6 +388,13 @@ public final class ModularityOptimization extends Algorithm<ModularityOptimizati
         return this.iterationCounter;
     }
 
+    /**
+     * The number of nodes that were visited in each iteration, which is the node count unless vertex pruning is enabled.
+     */
+    public long[] activeNodesPerIteration() {
+        return Arrays.copyOf(this.activeNodesPerIteration, this.iterationCounter);
+    }
+
     public double getModularity() {
         return this.modularity;
     }
@@ -62,4 +62,9 @@ public interface ModularityOptimizationConfig extends
     default int batchSize() {
         return ParallelUtil.DEFAULT_BATCH_SIZE;
     }
+
+    @Value.Default
+    default boolean vertexPruning() {
+        return false;
+    }
 }
@@ -27,6 +27,7 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
@@ -48,6 +49,10 @@ public class ModularityOptimizationFactory<T extends ModularityOptimizationConfi
                     MemoryRange.of(0, HugeLongArray.memoryEstimation(nodeCount))
             )
             .perNode("communityWeightUpdates", HugeAtomicDoubleArray::memoryEstimation)
+            .rangePerNode(
+                "activeNodes", (nodeCount) ->
+                    MemoryRange.of(0, 2 * HugeAtomicBitSet.memoryEstimation(nodeCount))
+            )
             .perThread("ModularityOptimizationTask", MemoryEstimations.builder()
                 .rangePerNode(
                     "communityInfluences",
@@ -78,6 +83,6 @@ public class ModularityOptimizationFactory<T extends ModularityOptimizationConfi
             Pools.DEFAULT,
             tracker,
             log
-        );
+        ).withVertexPruning(configuration.vertexPruning());
     }
 }
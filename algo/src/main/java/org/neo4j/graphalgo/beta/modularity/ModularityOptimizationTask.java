@@ -23,8 +23,10 @@ import com.carrotsearch.hppc.LongDoubleHashMap;
 import com.carrotsearch.hppc.LongDoubleMap;
 import com.carrotsearch.hppc.cursors.LongDoubleCursor;
 import org.apache.commons.lang3.mutable.MutableDouble;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
@@ -46,6 +48,8 @@ final class ModularityOptimizationTask implements Runnable {
     private final HugeDoubleArray nodeCommunityInfluences;
     private final HugeAtomicDoubleArray communityWeights;
     private final HugeAtomicDoubleArray communityWeightUpdates;
+    private final @Nullable HugeAtomicBitSet activeNodes;
+    private final @Nullable HugeAtomicBitSet nextActiveNodes;
 
     ModularityOptimizationTask(
         Graph graph,
@@ -60,7 +64,9 @@ final class ModularityOptimizationTask implements Runnable {
         HugeDoubleArray cumulativeNodeWeights,
         HugeDoubleArray nodeCommunityInfluences,
         HugeAtomicDoubleArray communityWeights,
-        HugeAtomicDoubleArray communityWeightUpdates
+        HugeAtomicDoubleArray communityWeightUpdates,
+        @Nullable HugeAtomicBitSet activeNodes,
+        @Nullable HugeAtomicBitSet nextActiveNodes
     ) {
         this.graph = graph;
         this.batchStart = batchStart;
@@ -76,6 +82,20 @@ final class ModularityOptimizationTask implements Runnable {
         this.nodeCommunityInfluences = nodeCommunityInfluences;
         this.colors = colors;
         this.direction = direction;
+        this.activeNodes = activeNodes;
+        this.nextActiveNodes = nextActiveNodes;
+    }
+
+    // neighbours that have a later color are also revisited in the current iteration
+    private void activateNeighbourhood(long nodeId) {
+        nextActiveNodes.set(nodeId);
+        localGraph.forEachRelationship(nodeId, direction, (s, t) -> {
+            nextActiveNodes.set(t);
+            if (activeNodes != null) {
+                activeNodes.set(t);
+            }
+            return true;
+        });
     }
 
     @Override
@@ -83,7 +103,7 @@ final class ModularityOptimizationTask implements Runnable {
         LongDoubleMap reuseCommunityInfluences = new LongDoubleHashMap(50);
         for (long nodeId = batchStart; nodeId < batchEnd; nodeId++) {
 
-            if (colors.get(nodeId) != color) {
+            if (colors.get(nodeId) != color || (activeNodes != null && !activeNodes.get(nodeId))) {
                 continue;
             }
 
@@ -144,6 +164,10 @@ final class ModularityOptimizationTask implements Runnable {
             nextCommunities.set(nodeId, nextCommunity);
             communityWeightUpdates.update(currentCommunity, agg -> agg - cumulativeNodeWeight);
             communityWeightUpdates.update(nextCommunity, agg -> agg + cumulativeNodeWeight);
+
+            if (nextActiveNodes != null && nextCommunity != currentCommunity) {
+                activateNeighbourhood(nodeId);
+            }
         }
 
     }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Combines messages that are sent to the same node within one superstep,
+ * so that only a single value has to be stored per receiving node.
+ * <p>
+ * The combine function must be commutative and associative, as the order in which messages arrive is undefined.
+ * A reserved {@code NaN} bit pattern marks the absence of a message, {@code NaN} should not be sent when a combiner is used.
+ * <p>
+ * Computations with a {@link ValueType#LONG} message type combine via {@link #combine(long, long)},
+ * which falls back to the double function unless it is overridden.
+ */
+@FunctionalInterface
+public interface Combiner {
+
+    double combine(double current, double message);
+
+    default long combine(long current, long message) {
+        return (long) combine((double) current, (double) message);
+    }
+
+    Combiner SUM = of(Double::sum, Long::sum);
+
+    Combiner MIN = of(Math::min, Math::min);
+
+    Combiner MAX = of(Math::max, Math::max);
+
+    static Combiner of(DoubleBinaryOperator combineFunction) {
+        return combineFunction::applyAsDouble;
+    }
+
+    static Combiner of(DoubleBinaryOperator doubleCombineFunction, LongBinaryOperator longCombineFunction) {
+        return new Combiner() {
+            @Override
+            public double combine(double current, double message) {
+                return doubleCombineFunction.applyAsDouble(current, message);
+            }
+
+            @Override
+            public long combine(long current, long message) {
+                return longCombineFunction.applyAsLong(current, message);
+            }
+        };
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Primitive storage for the messages sent between supersteps.
+ * <p>
+ * Messages are double-buffered: they are sent into the buffer for the next superstep
+ * while the buffer of the current superstep is read, {@link #swap()} exchanges both at the synchronization barrier.
+ * <p>
+ * Messages are stored as raw 64 bits, a long message as is and a double message as its raw long bits,
+ * see {@link Messages} for the decoding.
+ */
+abstract class MessageStore {
+
+    /**
+     * Marks the absence of a combined message, a NaN that is not produced by any arithmetic operation.
+     * The same value can not be sent as a long message to a combining store.
+     */
+    static final long NO_MESSAGE = 0x7FF8_0000_0000_0001L;
+
+    abstract void send(long targetNodeId, long message);
+
+    /**
+     * Initializes the given messages with the messages for the given node and removes them from the store.
+     */
+    abstract void receive(long nodeId, Messages messages);
+
+    abstract void swap();
+
+    abstract void release();
+
+    static MessageStore of(
+        Graph graph,
+        PregelConfig config,
+        PregelComputation computation,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        return computation.combiner()
+            .<MessageStore>map(combiner -> new Combining(
+                graph.nodeCount(),
+                combiner,
+                computation.messageType(),
+                config.isAsynchronous(),
+                tracker
+            ))
+            .orElseGet(() -> new Queues(graph, config.getMessageDirection(), concurrency, executor, tracker));
+    }
+
+    /**
+     * Stores a single combined message per node.
+     * In asynchronous mode, a single buffer is used and messages can be received in the same superstep they were sent.
+     */
+    static final class Combining extends MessageStore {
+
+        private final Combiner combiner;
+        private final boolean isLongMessage;
+        private final boolean isAsynchronous;
+
+        private HugeAtomicLongArray current;
+        private HugeAtomicLongArray next;
+
+        Combining(
+            long nodeCount,
+            Combiner combiner,
+            ValueType messageType,
+            boolean isAsynchronous,
+            AllocationTracker tracker
+        ) {
+            this.combiner = combiner;
+            this.isLongMessage = messageType == ValueType.LONG;
+            this.isAsynchronous = isAsynchronous;
+            this.next = HugeAtomicLongArray.newArray(nodeCount, nodeId -> NO_MESSAGE, tracker);
+            this.current = isAsynchronous
+                ? next
+                : HugeAtomicLongArray.newArray(nodeCount, nodeId -> NO_MESSAGE, tracker);
+        }
+
+        @Override
+        void send(long targetNodeId, long message) {
+            // a CAS loop instead of HugeAtomicLongArray#update, which would capture the message in a lambda per send
+            long previous;
+            long combined;
+            do {
+                previous = next.get(targetNodeId);
+                combined = previous == NO_MESSAGE ? message : combine(previous, message);
+            } while (!next.compareAndSet(targetNodeId, previous, combined));
+        }
+
+        @Override
+        void receive(long nodeId, Messages messages) {
+            long value;
+            do {
+                value = current.get(nodeId);
+            } while (value != NO_MESSAGE && !current.compareAndSet(nodeId, value, NO_MESSAGE));
+            messages.init(value);
+        }
+
+        private long combine(long current, long message) {
+            if (isLongMessage) {
+                return combiner.combine(current, message);
+            }
+            return Double.doubleToRawLongBits(combiner.combine(
+                Double.longBitsToDouble(current),
+                Double.longBitsToDouble(message)
+            ));
+        }
+
+        @Override
+        void swap() {
+            if (!isAsynchronous) {
+                HugeAtomicLongArray tmp = current;
+                current = next;
+                next = tmp;
+            }
+        }
+
+        @Override
+        void release() {
+            current.release();
+            if (!isAsynchronous) {
+                next.release();
+            }
+        }
+    }
+
+    /**
+     * Stores all messages of a node in a contiguous range whose size is the number of relationships
+     * the node can receive messages from. Messages exceeding that range, e.g. if a node sends messages
+     * multiple times within one superstep, are kept in a boxed overflow queue.
+     */
+    static final class Queues extends MessageStore {
+
+        private final HugeLongArray offsets;
+
+        private Buffer current;
+        private Buffer next;
+
+        Queues(Graph graph, Direction messageDirection, int concurrency, ExecutorService executor, AllocationTracker tracker) {
+            long nodeCount = graph.nodeCount();
+            this.offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+            long capacity = computeOffsets(graph, messageDirection, offsets, concurrency, executor, tracker);
+            this.current = new Buffer(nodeCount, capacity, tracker);
+            this.next = new Buffer(nodeCount, capacity, tracker);
+        }
+
+        @Override
+        void send(long targetNodeId, long message) {
+            next.add(targetNodeId, offsets.get(targetNodeId), offsets.get(targetNodeId + 1), message);
+        }
+
+        @Override
+        void receive(long nodeId, Messages messages) {
+            current.read(nodeId, offsets.get(nodeId), offsets.get(nodeId + 1), messages);
+        }
+
+        @Override
+        void swap() {
+            Buffer tmp = current;
+            current = next;
+            next = tmp;
+        }
+
+        @Override
+        void release() {
+            offsets.release();
+            current.release();
+            next.release();
+        }
+
+        private static long computeOffsets(
+            Graph graph,
+            Direction messageDirection,
+            HugeLongArray offsets,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker
+        ) {
+            long nodeCount = graph.nodeCount();
+            Direction receiveDirection = messageDirection.reverse();
+            Direction loadDirection = graph.getLoadDirection();
+
+            if (loadDirection == Direction.BOTH || loadDirection == receiveDirection) {
+                ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+                    for (long nodeId = start; nodeId < end; nodeId++) {
+                        offsets.set(nodeId, graph.degree(nodeId, receiveDirection));
+                    }
+                });
+            } else {
+                // the receiving side is not loaded, count the relationships a message can arrive on
+                HugeAtomicLongArray counts = HugeAtomicLongArray.newArray(nodeCount, tracker);
+                ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+                    RelationshipIterator localGraph = graph.concurrentCopy();
+                    for (long nodeId = start; nodeId < end; nodeId++) {
+                        localGraph.forEachRelationship(nodeId, messageDirection, (source, target) -> {
+                            counts.update(target, count -> count + 1);
+                            return true;
+                        });
+                    }
+                });
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    offsets.set(nodeId, counts.get(nodeId));
+                }
+                counts.release();
+            }
+
+            long sum = 0L;
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                long degree = offsets.get(nodeId);
+                offsets.set(nodeId, sum);
+                sum += degree;
+            }
+            offsets.set(nodeCount, sum);
+            return sum;
+        }
+
+        private static final class Buffer {
+            private final HugeLongArray messages;
+            private final HugeAtomicLongArray counts;
+            private final Map<Long, Queue<Long>> overflow;
+
+            Buffer(long nodeCount, long capacity, AllocationTracker tracker) {
+                this.messages = HugeLongArray.newArray(capacity, tracker);
+                this.counts = HugeAtomicLongArray.newArray(nodeCount, tracker);
+                this.overflow = new ConcurrentHashMap<>();
+            }
+
+            void add(long nodeId, long start, long end, long message) {
+                long count;
+                do {
+                    count = counts.get(nodeId);
+                } while (!counts.compareAndSet(nodeId, count, count + 1));
+
+                if (start + count < end) {
+                    messages.set(start + count, message);
+                } else {
+                    overflow.computeIfAbsent(nodeId, ignore -> new ConcurrentLinkedQueue<>()).add(message);
+                }
+            }
+
+            void read(long nodeId, long start, long end, Messages target) {
+                long count = counts.get(nodeId);
+                counts.set(nodeId, 0L);
+                Queue<Long> overflowMessages = count > end - start ? overflow.remove(nodeId) : null;
+                target.init(messages, start, Math.min(end, start + count), overflowMessages);
+            }
+
+            void release() {
+                messages.release();
+                counts.release();
+                overflow.clear();
+            }
+        }
+    }
+}
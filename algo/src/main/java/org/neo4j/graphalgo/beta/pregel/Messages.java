@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Iterates over the messages that a node received in the previous superstep.
+ * The instance is reused for every node that is computed by the same thread and must not be stored.
+ * <p>
+ * Messages are read either as doubles via {@link #next()} or as longs via {@link #nextLong()},
+ * a message of the other {@link ValueType} is converted by a primitive cast.
+ */
+public final class Messages {
+
+    private final boolean isLongMessage;
+
+    private HugeLongArray values;
+    private long index;
+    private long end;
+
+    private boolean hasCombinedValue;
+    private long combinedValue;
+
+    private @Nullable Queue<Long> overflow;
+
+    Messages(ValueType messageType) {
+        this.isLongMessage = messageType == ValueType.LONG;
+    }
+
+    public boolean hasNext() {
+        return hasCombinedValue || index < end || (overflow != null && !overflow.isEmpty());
+    }
+
+    public double next() {
+        long message = nextMessage();
+        return isLongMessage ? (double) message : Double.longBitsToDouble(message);
+    }
+
+    public long nextLong() {
+        long message = nextMessage();
+        return isLongMessage ? message : (long) Double.longBitsToDouble(message);
+    }
+
+    private long nextMessage() {
+        if (hasCombinedValue) {
+            hasCombinedValue = false;
+            return combinedValue;
+        }
+        if (index < end) {
+            return values.get(index++);
+        }
+        if (overflow != null) {
+            Long message = overflow.poll();
+            if (message != null) {
+                return message;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    public boolean isEmpty() {
+        return !hasNext();
+    }
+
+    void clear() {
+        this.values = null;
+        this.index = 0L;
+        this.end = 0L;
+        this.hasCombinedValue = false;
+        this.overflow = null;
+    }
+
+    void init(HugeLongArray values, long start, long end, @Nullable Queue<Long> overflow) {
+        clear();
+        this.values = values;
+        this.index = start;
+        this.end = end;
+        this.overflow = overflow;
+    }
+
+    void init(long combinedValue) {
+        clear();
+        this.hasCombinedValue = combinedValue != MessageStore.NO_MESSAGE;
+        this.combinedValue = combinedValue;
+    }
+}
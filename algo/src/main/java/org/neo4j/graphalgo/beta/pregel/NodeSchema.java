@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declares the named, typed values a {@link PregelComputation} stores for every node
+ * in addition to the default double node value.
+ * Every element is stored in a separate primitive column, see {@link NodeState}.
+ */
+public final class NodeSchema {
+
+    private static final NodeSchema EMPTY = new NodeSchema(Collections.emptyMap());
+
+    private final Map<String, ValueType> elements;
+
+    private NodeSchema(Map<String, ValueType> elements) {
+        this.elements = elements;
+    }
+
+    public static NodeSchema empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<String> keys() {
+        return new ArrayList<>(elements.keySet());
+    }
+
+    public ValueType type(String key) {
+        ValueType type = elements.get(key);
+        if (type == null) {
+            throw new IllegalArgumentException(String.format(
+                "Node schema does not contain the key `%s`, available keys are %s.",
+                key,
+                elements.keySet()
+            ));
+        }
+        return type;
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, ValueType> elements = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String key, ValueType type) {
+            if (elements.putIfAbsent(key, type) != null) {
+                throw new IllegalArgumentException(String.format(
+                    "Node schema already contains the key `%s`.",
+                    key
+                ));
+            }
+            return this;
+        }
+
+        public NodeSchema build() {
+            return new NodeSchema(Collections.unmodifiableMap(new LinkedHashMap<>(elements)));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented storage of the values declared by a {@link NodeSchema}.
+ * Each element is kept in its own huge array, reading and writing a value does not allocate.
+ */
+public final class NodeState {
+
+    private final NodeSchema schema;
+    private final Map<String, HugeLongArray> longColumns;
+    private final Map<String, HugeDoubleArray> doubleColumns;
+    private final Map<String, HugeObjectArray<long[]>> longArrayColumns;
+
+    public static MemoryEstimation memoryEstimation(NodeSchema schema) {
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(NodeState.class);
+        for (String key : schema.keys()) {
+            switch (schema.type(key)) {
+                case LONG:
+                    builder.perNode(key, HugeLongArray::memoryEstimation);
+                    break;
+                case DOUBLE:
+                    builder.perNode(key, HugeDoubleArray::memoryEstimation);
+                    break;
+                case LONG_ARRAY:
+                    // the size of the arrays is not known upfront, only the references are estimated
+                    builder.perNode(key, MemoryUsage::sizeOfObjectArray);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported value type: " + schema.type(key));
+            }
+        }
+        return builder.build();
+    }
+
+    static NodeState of(NodeSchema schema, long nodeCount, AllocationTracker tracker) {
+        Map<String, HugeLongArray> longColumns = new HashMap<>();
+        Map<String, HugeDoubleArray> doubleColumns = new HashMap<>();
+        Map<String, HugeObjectArray<long[]>> longArrayColumns = new HashMap<>();
+
+        for (String key : schema.keys()) {
+            switch (schema.type(key)) {
+                case LONG:
+                    longColumns.put(key, HugeLongArray.newArray(nodeCount, tracker));
+                    break;
+                case DOUBLE:
+                    doubleColumns.put(key, HugeDoubleArray.newArray(nodeCount, tracker));
+                    break;
+                case LONG_ARRAY:
+                    longArrayColumns.put(key, HugeObjectArray.newArray(long[].class, nodeCount, tracker));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported value type: " + schema.type(key));
+            }
+        }
+
+        return new NodeState(schema, longColumns, doubleColumns, longArrayColumns);
+    }
+
+    private NodeState(
+        NodeSchema schema,
+        Map<String, HugeLongArray> longColumns,
+        Map<String, HugeDoubleArray> doubleColumns,
+        Map<String, HugeObjectArray<long[]>> longArrayColumns
+    ) {
+        this.schema = schema;
+        this.longColumns = longColumns;
+        this.doubleColumns = doubleColumns;
+        this.longArrayColumns = longArrayColumns;
+    }
+
+    public NodeSchema schema() {
+        return schema;
+    }
+
+    public HugeLongArray longProperties(String key) {
+        return column(longColumns, key, ValueType.LONG);
+    }
+
+    public HugeDoubleArray doubleProperties(String key) {
+        return column(doubleColumns, key, ValueType.DOUBLE);
+    }
+
+    public HugeObjectArray<long[]> longArrayProperties(String key) {
+        return column(longArrayColumns, key, ValueType.LONG_ARRAY);
+    }
+
+    public void release() {
+        longColumns.values().forEach(HugeLongArray::release);
+        doubleColumns.values().forEach(HugeDoubleArray::release);
+        longArrayColumns.values().forEach(HugeObjectArray::release);
+    }
+
+    private <T> T column(Map<String, T> columns, String key, ValueType expectedType) {
+        T column = columns.get(key);
+        if (column == null) {
+            throw new IllegalArgumentException(String.format(
+                "Expected node value `%s` to be of type %s, but was %s.",
+                key,
+                expectedType,
+                schema.type(key)
+            ));
+        }
+        return column;
+    }
+}
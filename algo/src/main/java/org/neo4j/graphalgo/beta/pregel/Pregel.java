@@ -19,36 +19,36 @@
  */
 package org.neo4j.graphalgo.beta.pregel;
 
-import com.carrotsearch.hppc.BitSet;
-import org.jctools.queues.MpscArrayQueue;
-import org.jctools.queues.MpscLinkedQueue;
-import org.neo4j.collection.primitive.PrimitiveLongCollections;
-import org.neo4j.collection.primitive.PrimitiveLongIterable;
-import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Degrees;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipIterator;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
-import org.neo4j.graphalgo.core.utils.LazyMappingCollection;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 import org.neo4j.graphdb.Direction;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.ExecutorService;
-import java.util.function.Function;
 import java.util.stream.LongStream;
 
 public final class Pregel {
 
-    // Marks the end of messages from the previous iteration in synchronous mode.
-    private static final Double TERMINATION_SYMBOL = Double.NaN;
+    // If less than this fraction of nodes is active, only the active nodes are visited
+    // instead of scanning all nodes for their active bit.
+    static final double SPARSE_FRONTIER_THRESHOLD = 0.05;
 
     private final PregelConfig config;
 
@@ -58,14 +58,53 @@ public final class Pregel {
 
     private final HugeDoubleArray nodeValues;
 
-    private final HugeObjectArray<? extends Queue<Double>> messageQueues;
+    private final NodeState nodeState;
 
     private final int batchSize;
     private final int concurrency;
     private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private final List<SuperstepStatistics> superstepStatistics;
 
     private int iterations;
 
+    /**
+     * Estimates the memory of a Pregel run, messages are stored per node if the computation declares a {@link Combiner},
+     * otherwise per relationship.
+     */
+    public static MemoryEstimation memoryEstimation(boolean isAsynchronous, boolean hasCombiner) {
+        return memoryEstimation(NodeSchema.empty(), isAsynchronous, hasCombiner);
+    }
+
+    public static MemoryEstimation memoryEstimation(NodeSchema nodeSchema, boolean isAsynchronous, boolean hasCombiner) {
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(Pregel.class)
+            .perNode("node values", HugeDoubleArray::memoryEstimation)
+            .add("node state", NodeState.memoryEstimation(nodeSchema))
+            .perNode("active nodes", nodeCount -> 2 * HugeAtomicBitSet.memoryEstimation(nodeCount))
+            .perNode("vote bits", HugeAtomicBitSet::memoryEstimation)
+            .rangePerNode("worklist", nodeCount -> MemoryRange.of(
+                0L,
+                HugeLongArray.memoryEstimation((long) Math.ceil(nodeCount * SPARSE_FRONTIER_THRESHOLD))
+            ))
+            .perThread("compute step", MemoryEstimations.builder(ComputeStep.class)
+                .field("messages", Messages.class)
+                .build());
+
+        if (hasCombiner) {
+            int buffers = isAsynchronous ? 1 : 2;
+            builder.perNode("combined messages", nodeCount -> buffers * HugeAtomicLongArray.memoryEstimation(nodeCount));
+        } else {
+            builder
+                .perNode("message offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+                .perNode("message counts", nodeCount -> 2 * HugeAtomicLongArray.memoryEstimation(nodeCount))
+                .perGraphDimension("messages", (dimensions, concurrency) ->
+                    MemoryRange.of(2 * HugeLongArray.memoryEstimation(dimensions.maxRelCount())));
+        }
+
+        return builder.build();
+    }
+
     public static Pregel withDefaultNodeValues(
             final Graph graph,
             final PregelConfig config,
@@ -133,104 +172,167 @@ public final class Pregel {
             final int concurrency,
             final ExecutorService executor,
             final AllocationTracker tracker) {
+        if (computation.messageType() == ValueType.LONG_ARRAY) {
+            throw new IllegalArgumentException(String.format(
+                "Messages must be of type %s or %s, but got %s.",
+                ValueType.DOUBLE,
+                ValueType.LONG,
+                ValueType.LONG_ARRAY
+            ));
+        }
         this.graph = graph;
         this.config = config;
         this.computation = computation;
         this.nodeValues = initialNodeValues;
+        this.nodeState = NodeState.of(computation.nodeSchema(), graph.nodeCount(), tracker);
         this.batchSize = batchSize;
         this.concurrency = concurrency;
         this.executor = executor;
-
-        Direction loadDirection = graph.getLoadDirection();
-
-        // If the graph can compute degrees in both directions,
-        // we can compute the maximum number of received messages
-        // which allows us to use ArrayQueues instead of LinkedQueues.
-        this.messageQueues = (loadDirection == Direction.BOTH)
-                ? initArrayQueues(graph, tracker)
-                : initLinkedQueues(graph, tracker);
+        this.tracker = tracker;
+        this.superstepStatistics = new ArrayList<>();
     }
 
     public HugeDoubleArray run(final int maxIterations) {
         iterations = 0;
+        superstepStatistics.clear();
+        long nodeCount = graph.nodeCount();
         boolean canHalt = false;
-        // Tracks if a node received messages in the previous iteration
-        // TODO: try RoaringBitSet instead
-        BitSet receiverBits = new BitSet(graph.nodeCount());
-        // Tracks if a node voted to halt in the previous iteration
-        BitSet voteBits = new BitSet(graph.nodeCount());
 
-        // TODO: maybe try degree partitioning or clustering (better locality)
-        Collection<PrimitiveLongIterable> nodeBatches = LazyBatchCollection.of(
-                graph.nodeCount(),
-                batchSize,
-                (start, length) -> () -> PrimitiveLongCollections.range(start, start + length - 1L));
+        // Nodes that are computed in the current iteration and nodes that are scheduled for the next iteration.
+        // A node is active if it received messages in the previous iteration or did not vote to halt.
+        HugeAtomicBitSet activeNodes = HugeAtomicBitSet.create(nodeCount, tracker);
+        HugeAtomicBitSet nextActiveNodes = HugeAtomicBitSet.create(nodeCount, tracker);
+        // Tracks if a node voted to halt
+        HugeAtomicBitSet voteBits = HugeAtomicBitSet.create(nodeCount, tracker);
+        // In the first iteration, all nodes are active
+        long activeNodeCount = nodeCount;
+
+        // Without a combiner, messages are always delivered in the next superstep,
+        // with a combiner in asynchronous mode, they may be received in the same superstep.
+        MessageStore messageStore = MessageStore.of(graph, config, computation, concurrency, executor, tracker);
 
         while (iterations < maxIterations && !canHalt) {
             int iteration = iterations++;
 
-            final List<ComputeStep> computeSteps = runComputeSteps(nodeBatches, iteration, receiverBits, voteBits);
+            // Synchronization barrier:
+            // Messages sent in the previous iteration become visible.
+            if (iteration > 0) {
+                messageStore.swap();
+            }
 
-            receiverBits = unionBitSets(computeSteps, ComputeStep::getSenders);
-            voteBits = unionBitSets(computeSteps, ComputeStep::getVotes);
+            ProgressTimer timer = ProgressTimer.start();
+
+            boolean sparse = iteration > 0 && activeNodeCount < nodeCount * SPARSE_FRONTIER_THRESHOLD;
+            HugeLongArray worklist = sparse ? worklist(activeNodes, activeNodeCount) : null;
+
+            final List<ComputeStep> computeSteps = runComputeSteps(
+                sparse ? activeNodeCount : nodeCount,
+                worklist,
+                iteration,
+                activeNodes,
+                nextActiveNodes,
+                voteBits,
+                messageStore
+            );
+
+            timer.stop();
+            superstepStatistics.add(ImmutableSuperstepStatistics.of(
+                iteration,
+                activeNodeCount,
+                sparse,
+                timer.getDuration()
+            ));
+
+            if (worklist != null) {
+                for (long i = 0; i < activeNodeCount; i++) {
+                    activeNodes.clear(worklist.get(i));
+                }
+                worklist.release();
+            } else {
+                activeNodes.clear();
+            }
+
+            HugeAtomicBitSet tmp = activeNodes;
+            activeNodes = nextActiveNodes;
+            nextActiveNodes = tmp;
+
+            activeNodeCount = 0L;
+            boolean hasSentMessages = false;
+            for (ComputeStep computeStep : computeSteps) {
+                activeNodeCount += computeStep.getActivatedNodes();
+                hasSentMessages |= computeStep.hasSentMessages();
+            }
 
             // No messages have been sent
-            if (receiverBits.nextSetBit(0) == -1) {
+            if (!hasSentMessages) {
                 canHalt = true;
             }
         }
+
+        messageStore.release();
+        activeNodes.release();
+        nextActiveNodes.release();
+        voteBits.release();
         return nodeValues;
     }
 
+    /**
+     * Returns the values declared by {@link PregelComputation#nodeSchema()}, they are not released by the run.
+     */
+    public NodeState nodeState() {
+        return nodeState;
+    }
+
     public int getIterations() {
         return iterations;
     }
 
-    private BitSet unionBitSets(Collection<ComputeStep> computeSteps, Function<ComputeStep, BitSet> fn) {
-        return ParallelUtil.parallelStream(computeSteps.stream(), stream ->
-                stream.map(fn).reduce((bitSet1, bitSet2) -> {
-                    bitSet1.union(bitSet2);
-                    return bitSet1;
-                }).orElseGet(BitSet::new));
+    /**
+     * Returns the number of active nodes, the scheduling mode and the duration of each executed superstep.
+     */
+    public List<SuperstepStatistics> getSuperstepStatistics() {
+        return superstepStatistics;
+    }
+
+    private HugeLongArray worklist(HugeAtomicBitSet activeNodes, long activeNodeCount) {
+        HugeLongArray worklist = HugeLongArray.newArray(activeNodeCount, tracker);
+        long index = 0L;
+        for (long nodeId = activeNodes.nextSetBit(0); nodeId != -1; nodeId = activeNodes.nextSetBit(nodeId + 1)) {
+            worklist.set(index++, nodeId);
+        }
+        return worklist;
     }
 
     private List<ComputeStep> runComputeSteps(
-            Collection<PrimitiveLongIterable> nodeBatches,
+            long size,
+            HugeLongArray worklist,
             final int iteration,
-            BitSet messageBits,
-            BitSet voteToHaltBits) {
+            HugeAtomicBitSet activeNodes,
+            HugeAtomicBitSet nextActiveNodes,
+            HugeAtomicBitSet voteBits,
+            MessageStore messageStore) {
 
-        final List<ComputeStep> tasks = new ArrayList<>(nodeBatches.size());
+        final List<ComputeStep> tasks = new ArrayList<>();
 
-        if (!config.isAsynchronous()) {
-            // Synchronization barrier:
-            // Add termination flag to message queues that
-            // received messages in the previous iteration.
-            if (iteration > 0) {
-                ParallelUtil.parallelStreamConsume(
-                        LongStream.range(0, graph.nodeCount()),
-                        nodeIds -> nodeIds.forEach(nodeId -> {
-                            if (messageBits.get(nodeId)) {
-                                messageQueues.get(nodeId).add(TERMINATION_SYMBOL);
-                            }
-                        }));
-            }
-        }
-
-        Collection<ComputeStep> computeSteps = LazyMappingCollection.of(
-                nodeBatches,
-                nodeBatch -> {
+        // TODO: maybe try degree partitioning or clustering (better locality)
+        Collection<ComputeStep> computeSteps = LazyBatchCollection.of(
+                size,
+                batchSize,
+                (start, length) -> {
                     ComputeStep task = new ComputeStep(
                             computation,
                             config,
-                            graph.nodeCount(),
                             iteration,
-                            nodeBatch,
+                            start,
+                            start + length,
+                            worklist,
                             graph,
                             nodeValues,
-                            messageBits,
-                            voteToHaltBits,
-                            messageQueues,
+                            nodeState,
+                            activeNodes,
+                            nextActiveNodes,
+                            voteBits,
+                            messageStore,
                             graph);
                     tasks.add(task);
                     return task;
@@ -240,109 +342,104 @@ public final class Pregel {
         return tasks;
     }
 
-    @SuppressWarnings({"unchecked", "InstantiatingObjectToGetClassObject"})
-    private HugeObjectArray<MpscArrayQueue<Double>> initArrayQueues(
-            Graph graph,
-            AllocationTracker tracker) {
-        Direction receiveDirection = config.getMessageDirection().reverse();
-        // In sync mode, we need to reserve space for the termination symbol.
-        int minSize = config.isAsynchronous() ? 0 : 1;
-
-        Class<MpscArrayQueue<Double>> queueClass = (Class<MpscArrayQueue<Double>>) new MpscArrayQueue<>(0).getClass();
-
-        HugeObjectArray<MpscArrayQueue<Double>> messageQueues = HugeObjectArray.newArray(
-                queueClass,
-                graph.nodeCount(),
-                tracker);
-
-        ParallelUtil.parallelStreamConsume(
-                LongStream.range(0, graph.nodeCount()),
-                nodeIds -> nodeIds.forEach(nodeId ->
-                        messageQueues.set(
-                                nodeId,
-                                // We init 2 * degree since we store at most messages from two iterations.
-                                new MpscArrayQueue<Double>(minSize + 2 * graph.degree(nodeId, receiveDirection)))));
-
-        return messageQueues;
-    }
-
-    @SuppressWarnings({"unchecked"})
-    private HugeObjectArray<MpscLinkedQueue<Double>> initLinkedQueues(Graph graph, AllocationTracker tracker) {
-        Class<MpscLinkedQueue<Double>> queueClass = (Class<MpscLinkedQueue<Double>>) MpscLinkedQueue
-                .newMpscLinkedQueue()
-                .getClass();
-
-        HugeObjectArray<MpscLinkedQueue<Double>> messageQueues = HugeObjectArray.newArray(
-                queueClass,
-                graph.nodeCount(),
-                tracker);
-
-        ParallelUtil.parallelStreamConsume(
-                LongStream.range(0, graph.nodeCount()),
-                nodeIds -> nodeIds.forEach(nodeId -> messageQueues.set(nodeId, MpscLinkedQueue.newMpscLinkedQueue())));
-
-        return messageQueues;
-    }
-
-    public static final class ComputeStep implements Runnable {
+    public static final class ComputeStep implements Runnable, RelationshipConsumer {
 
         private final int iteration;
         private final PregelComputation computation;
         private final PregelContext pregelContext;
-        private final BitSet senderBits;
-        private final BitSet receiverBits;
-        private final BitSet voteBits;
-        private final PrimitiveLongIterable nodeBatch;
+        private final long start;
+        private final long end;
+        private final HugeLongArray worklist;
+        private final HugeAtomicBitSet activeNodes;
+        private final HugeAtomicBitSet nextActiveNodes;
+        private final HugeAtomicBitSet voteBits;
         private final Degrees degrees;
         private final HugeDoubleArray nodeValues;
-        private final HugeObjectArray<? extends Queue<Double>> messageQueues;
+        private final NodeState nodeState;
+        private final boolean isLongMessage;
+        private final MessageStore messageStore;
+        private final Messages messages;
         private final RelationshipIterator relationshipIterator;
 
+        private long activatedNodes;
+        private boolean hasSentMessages;
+        private long pendingMessage;
+
+        // the columns that have been resolved last, computations usually access them with the same key constants
+        private String longColumnKey;
+        private HugeLongArray longColumn;
+        private String doubleColumnKey;
+        private HugeDoubleArray doubleColumn;
+        private String longArrayColumnKey;
+        private HugeObjectArray<long[]> longArrayColumn;
+
         private ComputeStep(
                 final PregelComputation computation,
                 final PregelConfig config,
-                final long globalNodeCount,
                 final int iteration,
-                final PrimitiveLongIterable nodeBatch,
+                final long start,
+                final long end,
+                final HugeLongArray worklist,
                 final Degrees degrees,
                 final HugeDoubleArray nodeValues,
-                final BitSet receiverBits,
-                final BitSet voteBits,
-                final HugeObjectArray<? extends Queue<Double>> messageQueues,
+                final NodeState nodeState,
+                final HugeAtomicBitSet activeNodes,
+                final HugeAtomicBitSet nextActiveNodes,
+                final HugeAtomicBitSet voteBits,
+                final MessageStore messageStore,
                 final RelationshipIterator relationshipIterator) {
             this.iteration = iteration;
             this.computation = computation;
-            this.senderBits = new BitSet(globalNodeCount);
-            this.receiverBits = receiverBits;
+            this.start = start;
+            this.end = end;
+            this.worklist = worklist;
+            this.activeNodes = activeNodes;
+            this.nextActiveNodes = nextActiveNodes;
             this.voteBits = voteBits;
-            this.nodeBatch = nodeBatch;
             this.degrees = degrees;
             this.nodeValues = nodeValues;
-            this.messageQueues = messageQueues;
+            this.nodeState = nodeState;
+            this.isLongMessage = computation.messageType() == ValueType.LONG;
+            this.messageStore = messageStore;
+            this.messages = new Messages(computation.messageType());
             this.relationshipIterator = relationshipIterator.concurrentCopy();
             this.pregelContext = new PregelContext(this, config);
         }
 
         @Override
         public void run() {
-            final PrimitiveLongIterator nodesIterator = nodeBatch.iterator();
+            for (long index = start; index < end; index++) {
+                final long nodeId;
+                if (worklist != null) {
+                    nodeId = worklist.get(index);
+                } else if (iteration == 0 || activeNodes.get(index)) {
+                    nodeId = index;
+                } else {
+                    continue;
+                }
 
-            while (nodesIterator.hasNext()) {
-                final long nodeId = nodesIterator.next();
+                voteBits.clear(nodeId);
+                if (iteration > 0) {
+                    messageStore.receive(nodeId, messages);
+                } else {
+                    // in asynchronous mode, messages of the initial superstep must not be consumed by it
+                    messages.clear();
+                }
+                computation.compute(pregelContext, nodeId, messages);
 
-                if (receiverBits.get(nodeId) || !voteBits.get(nodeId)) {
-                    voteBits.clear(nodeId);
-                    computation.compute(pregelContext, nodeId, receiveMessages(nodeId));
+                if (!voteBits.get(nodeId)) {
+                    activate(nodeId);
                 }
             }
+            messages.clear();
         }
 
-        BitSet getSenders() {
-            return senderBits;
+        long getActivatedNodes() {
+            return activatedNodes;
         }
 
-        BitSet getVotes() {
-            return voteBits;
+        boolean hasSentMessages() {
+            return hasSentMessages;
         }
 
         public int getIteration() {
@@ -361,20 +458,62 @@ public final class Pregel {
             nodeValues.set(nodeId, value);
         }
 
+        HugeLongArray longNodeValues(String key) {
+            if (key != longColumnKey) {
+                longColumn = nodeState.longProperties(key);
+                longColumnKey = key;
+            }
+            return longColumn;
+        }
+
+        HugeDoubleArray doubleNodeValues(String key) {
+            if (key != doubleColumnKey) {
+                doubleColumn = nodeState.doubleProperties(key);
+                doubleColumnKey = key;
+            }
+            return doubleColumn;
+        }
+
+        HugeObjectArray<long[]> longArrayNodeValues(String key) {
+            if (key != longArrayColumnKey) {
+                longArrayColumn = nodeState.longArrayProperties(key);
+                longArrayColumnKey = key;
+            }
+            return longArrayColumn;
+        }
+
         void voteToHalt(long nodeId) {
             voteBits.set(nodeId);
         }
 
         void sendMessages(final long nodeId, final double message, Direction direction) {
-            relationshipIterator.forEachRelationship(nodeId, direction, (sourceNodeId, targetNodeId) -> {
-                messageQueues.get(targetNodeId).add(message);
-                senderBits.set(targetNodeId);
-                return true;
-            });
+            send(nodeId, isLongMessage ? (long) message : Double.doubleToRawLongBits(message), direction);
         }
 
-        private Queue<Double> receiveMessages(final long nodeId) {
-            return receiverBits.get(nodeId) ? messageQueues.get(nodeId) : null;
+        void sendMessages(final long nodeId, final long message, Direction direction) {
+            send(nodeId, isLongMessage ? message : Double.doubleToRawLongBits((double) message), direction);
+        }
+
+        private void send(final long nodeId, final long message, Direction direction) {
+            pendingMessage = message;
+            relationshipIterator.forEachRelationship(nodeId, direction, this);
+        }
+
+        /**
+         * Delivers the message of the current {@link #send(long, long, Direction)} call to the target node.
+         */
+        @Override
+        public boolean accept(final long sourceNodeId, final long targetNodeId) {
+            messageStore.send(targetNodeId, pendingMessage);
+            activate(targetNodeId);
+            hasSentMessages = true;
+            return true;
+        }
+
+        private void activate(long nodeId) {
+            if (!nextActiveNodes.getAndSet(nodeId)) {
+                activatedNodes++;
+            }
         }
     }
 }
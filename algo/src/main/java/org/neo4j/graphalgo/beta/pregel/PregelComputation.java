@@ -19,10 +19,33 @@
  */
 package org.neo4j.graphalgo.beta.pregel;
 
-import java.util.Queue;
+import java.util.Optional;
 
 @FunctionalInterface
 public interface PregelComputation {
 
-    void compute(PregelContext context, long nodeId, Queue<Double> messages);
+    void compute(PregelContext context, long nodeId, Messages messages);
+
+    /**
+     * If present, all messages sent to a node within one superstep are combined into a single message.
+     */
+    default Optional<Combiner> combiner() {
+        return Optional.empty();
+    }
+
+    /**
+     * Declares the values that are stored per node in addition to the default node value,
+     * they are accessed by key via {@link PregelContext} and returned by {@link Pregel#nodeState()}.
+     */
+    default NodeSchema nodeSchema() {
+        return NodeSchema.empty();
+    }
+
+    /**
+     * The type of the messages that are sent and received, must be either {@link ValueType#DOUBLE} or {@link ValueType#LONG}.
+     * Long messages are stored without loss of precision.
+     */
+    default ValueType messageType() {
+        return ValueType.DOUBLE;
+    }
 }
@@ -51,6 +51,30 @@ public final class PregelContext {
         computeStep.setNodeValue(nodeId, value);
     }
 
+    public long longNodeValue(String key, long nodeId) {
+        return computeStep.longNodeValues(key).get(nodeId);
+    }
+
+    public void setLongNodeValue(String key, long nodeId, long value) {
+        computeStep.longNodeValues(key).set(nodeId, value);
+    }
+
+    public double doubleNodeValue(String key, long nodeId) {
+        return computeStep.doubleNodeValues(key).get(nodeId);
+    }
+
+    public void setDoubleNodeValue(String key, long nodeId, double value) {
+        computeStep.doubleNodeValues(key).set(nodeId, value);
+    }
+
+    public long[] longArrayNodeValue(String key, long nodeId) {
+        return computeStep.longArrayNodeValues(key).get(nodeId);
+    }
+
+    public void setLongArrayNodeValue(String key, long nodeId, long[] value) {
+        computeStep.longArrayNodeValues(key).set(nodeId, value);
+    }
+
     public void sendMessages(long nodeId, double message) {
         sendMessages(nodeId, message, config.getMessageDirection());
     }
@@ -59,6 +83,18 @@ public final class PregelContext {
         computeStep.sendMessages(nodeId, message, direction);
     }
 
+    /**
+     * Sends a long message, it is only stored without loss of precision if the computation
+     * declares {@link ValueType#LONG} as its message type.
+     */
+    public void sendMessages(long nodeId, long message) {
+        sendMessages(nodeId, message, config.getMessageDirection());
+    }
+
+    public void sendMessages(long nodeId, long message, Direction direction) {
+        computeStep.sendMessages(nodeId, message, direction);
+    }
+
     public int getDegree(long nodeId) {
         return getDegree(nodeId, config.getMessageDirection());
     }
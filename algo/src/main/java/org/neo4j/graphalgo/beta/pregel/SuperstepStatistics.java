@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.neo4j.graphalgo.annotation.ValueClass;
+
+@ValueClass
+public interface SuperstepStatistics {
+
+    int iteration();
+
+    /**
+     * The number of nodes that were scheduled for computation, i.e. received messages or did not vote to halt.
+     */
+    long activeNodes();
+
+    /**
+     * {@code true} if only the active nodes were visited, {@code false} if all nodes were scanned.
+     */
+    boolean sparse();
+
+    long computeMillis();
+}
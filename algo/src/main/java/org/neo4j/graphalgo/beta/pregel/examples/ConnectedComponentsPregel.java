@@ -19,15 +19,18 @@
  */
 package org.neo4j.graphalgo.beta.pregel.examples;
 
+import org.neo4j.graphalgo.beta.pregel.Combiner;
+import org.neo4j.graphalgo.beta.pregel.Messages;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelContext;
+import org.neo4j.graphalgo.beta.pregel.ValueType;
 
-import java.util.Queue;
+import java.util.Optional;
 
 public class ConnectedComponentsPregel implements PregelComputation {
 
     @Override
-    public void compute(PregelContext pregel, final long nodeId, Queue<Double> messages) {
+    public void compute(PregelContext pregel, final long nodeId, Messages messages) {
         if (pregel.isInitialSuperStep()) {
             // Inremental computation
             double currentValue = pregel.getNodeValue(nodeId);
@@ -35,19 +38,17 @@ public class ConnectedComponentsPregel implements PregelComputation {
                 pregel.sendMessages(nodeId, nodeId);
                 pregel.setNodeValue(nodeId, nodeId);
             } else {
-                pregel.sendMessages(nodeId, currentValue);
+                pregel.sendMessages(nodeId, (long) currentValue);
             }
         } else {
             long newComponentId = (long) pregel.getNodeValue(nodeId);
             boolean hasChanged = false;
 
-            if (messages != null) {
-                Double message;
-                while ((message = messages.poll()) != null) {
-                    if (message < newComponentId) {
-                        newComponentId = message.longValue();
-                        hasChanged = true;
-                    }
+            while (messages.hasNext()) {
+                long message = messages.nextLong();
+                if (message < newComponentId) {
+                    newComponentId = message;
+                    hasChanged = true;
                 }
             }
 
@@ -59,4 +60,14 @@ public class ConnectedComponentsPregel implements PregelComputation {
             pregel.voteToHalt(nodeId);
         }
     }
+
+    @Override
+    public Optional<Combiner> combiner() {
+        return Optional.of(Combiner.MIN);
+    }
+
+    @Override
+    public ValueType messageType() {
+        return ValueType.LONG;
+    }
 }
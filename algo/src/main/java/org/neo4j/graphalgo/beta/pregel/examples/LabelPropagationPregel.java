@@ -19,11 +19,11 @@
  */
 package org.neo4j.graphalgo.beta.pregel.examples;
 
+import org.neo4j.graphalgo.beta.pregel.Messages;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelContext;
 
 import java.util.Arrays;
-import java.util.Queue;
 
 /**
  * Basic implementation potentially suffering from osciallating vertex states due to synchronous computation.
@@ -31,12 +31,12 @@ import java.util.Queue;
 public class LabelPropagationPregel implements PregelComputation {
 
     @Override
-    public void compute(PregelContext pregel, long nodeId, Queue<Double> messages) {
+    public void compute(PregelContext pregel, long nodeId, Messages messages) {
         if (pregel.isInitialSuperStep()) {
             pregel.setNodeValue(nodeId, nodeId);
             pregel.sendMessages(nodeId, nodeId);
         } else {
-            if (messages != null) {
+            if (!messages.isEmpty()) {
                 long oldValue = (long) pregel.getNodeValue(nodeId);
                 long newValue = oldValue;
 
@@ -45,9 +45,11 @@ public class LabelPropagationPregel implements PregelComputation {
                 long[] buffer = new long[pregel.getDegree(nodeId)];
 
                 int messageCount = 0;
-                Double nextMessage;
-                while (!(nextMessage = messages.poll()).isNaN()) {
-                    buffer[messageCount++] = nextMessage.longValue();
+                while (messages.hasNext()) {
+                    if (messageCount == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, Math.max(1, 2 * messageCount));
+                    }
+                    buffer[messageCount++] = (long) messages.next();
                 }
 
                 int maxOccurences = 1;
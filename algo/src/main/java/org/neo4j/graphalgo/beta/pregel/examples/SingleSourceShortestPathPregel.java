@@ -19,10 +19,12 @@
  */
 package org.neo4j.graphalgo.beta.pregel.examples;
 
+import org.neo4j.graphalgo.beta.pregel.Combiner;
+import org.neo4j.graphalgo.beta.pregel.Messages;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelContext;
 
-import java.util.Queue;
+import java.util.Optional;
 
 public class SingleSourceShortestPathPregel implements PregelComputation {
 
@@ -33,7 +35,7 @@ public class SingleSourceShortestPathPregel implements PregelComputation {
     }
 
     @Override
-    public void compute(PregelContext pregel, long nodeId, Queue<Double> messages) {
+    public void compute(PregelContext pregel, long nodeId, Messages messages) {
         if (pregel.isInitialSuperStep()) {
             if (nodeId == startNode) {
                 pregel.setNodeValue(nodeId, 0);
@@ -46,13 +48,11 @@ public class SingleSourceShortestPathPregel implements PregelComputation {
             long newDistance = (long) pregel.getNodeValue(nodeId);
             boolean hasChanged = false;
 
-            if (messages != null) {
-                Double message;
-                while ((message = messages.poll()) != null) {
-                    if (message < newDistance) {
-                        newDistance = message.longValue();
-                        hasChanged = true;
-                    }
+            while (messages.hasNext()) {
+                double message = messages.next();
+                if (message < newDistance) {
+                    newDistance = (long) message;
+                    hasChanged = true;
                 }
             }
 
@@ -65,4 +65,9 @@ public class SingleSourceShortestPathPregel implements PregelComputation {
         }
 
     }
+
+    @Override
+    public Optional<Combiner> combiner() {
+        return Optional.of(Combiner.MIN);
+    }
 }
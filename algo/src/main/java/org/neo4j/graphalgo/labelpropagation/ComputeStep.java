@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.labelpropagation;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Graph;
@@ -37,19 +38,22 @@ final class ComputeStep implements Step {
     private final ProgressLogger progressLogger;
     private final double maxNode;
     private final ComputeStepConsumer consumer;
+    private final @Nullable Frontier.Local frontier;
 
     ComputeStep(
             Graph graph,
             NodeProperties nodeWeights,
             ProgressLogger progressLogger,
             HugeLongArray existingLabels,
-            PrimitiveLongIterable nodes) {
+            PrimitiveLongIterable nodes,
+            @Nullable Frontier frontier) {
         this.existingLabels = existingLabels;
         this.progressLogger = progressLogger;
         this.maxNode = (double) graph.nodeCount() - 1L;
         this.localRelationshipIterator = graph.concurrentCopy();
         this.nodes = nodes;
         this.consumer = new ComputeStepConsumer(nodeWeights, existingLabels);
+        this.frontier = frontier != null ? frontier.local(localRelationshipIterator) : null;
     }
 
     @Override
@@ -59,9 +63,12 @@ final class ComputeStep implements Step {
 
     boolean didChange = true;
     long iteration = 0L;
+    // number of nodes that were recomputed in the last run
+    long computedNodes = 0L;
 
     @Override
     public void run() {
+        computedNodes = 0L;
         if (this.didChange) {
             iteration++;
             this.didChange = iterateAll(nodes.iterator());
@@ -82,12 +89,19 @@ final class ComputeStep implements Step {
     }
 
     private boolean compute(long nodeId, boolean didChange) {
+        if (frontier != null && !frontier.isActive(nodeId)) {
+            return didChange;
+        }
+        computedNodes++;
         consumer.clearVotes();
         long label = existingLabels.get(nodeId);
         localRelationshipIterator.forEachRelationship(nodeId, DEFAULT_WEIGHT, consumer);
         long newLabel = consumer.tallyVotes(label);
         if (newLabel != label) {
             existingLabels.set(nodeId, newLabel);
+            if (frontier != null) {
+                frontier.labelChanged(nodeId);
+            }
             return true;
         }
         return didChange;
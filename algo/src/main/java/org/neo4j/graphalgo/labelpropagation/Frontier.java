@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.labelpropagation;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Tracks the nodes that have to be recomputed in the next round of label propagation.
+ * The label of a node only depends on the labels of its neighbours, so only nodes with
+ * at least one neighbour whose label changed in the previous round are recomputed.
+ * <p>
+ * If the relationships can be traversed in reverse, i.e. the graph is undirected or has been loaded in both directions,
+ * a node whose label changed activates its neighbours for the next round (push).
+ * Otherwise, every node checks for a changed neighbour before it is recomputed (pull),
+ * which still avoids the vote for stable regions of the graph.
+ */
+final class Frontier {
+
+    private final @Nullable Direction pushDirection;
+
+    // push: nodes to recompute in the current round, pull: nodes whose label changed in the previous round
+    private HugeAtomicBitSet current;
+    // push: nodes to recompute in the next round, pull: nodes whose label changed in the current round
+    private HugeAtomicBitSet next;
+    private boolean initialRound;
+
+    static Frontier of(Graph graph, AllocationTracker tracker) {
+        Direction pushDirection = null;
+        if (graph.isUndirected()) {
+            pushDirection = Direction.OUTGOING;
+        } else if (graph.getLoadDirection() == Direction.BOTH) {
+            pushDirection = Direction.INCOMING;
+        }
+        return new Frontier(pushDirection, graph.nodeCount(), tracker);
+    }
+
+    private Frontier(@Nullable Direction pushDirection, long nodeCount, AllocationTracker tracker) {
+        this.pushDirection = pushDirection;
+        this.current = HugeAtomicBitSet.create(nodeCount, tracker);
+        this.next = HugeAtomicBitSet.create(nodeCount, tracker);
+        this.initialRound = true;
+    }
+
+    /**
+     * Synchronization barrier between two rounds.
+     */
+    void advance() {
+        HugeAtomicBitSet tmp = current;
+        current = next;
+        next = tmp;
+        next.clear();
+        initialRound = false;
+    }
+
+    void release() {
+        current.release();
+        next.release();
+    }
+
+    Local local(RelationshipIterator relationships) {
+        return new Local(relationships);
+    }
+
+    /**
+     * Frontier operations for a single thread, the relationship consumers are reused for all nodes.
+     */
+    final class Local {
+
+        private final RelationshipIterator relationships;
+        private final RelationshipConsumer activateNeighbour;
+        private final RelationshipConsumer findChangedNeighbour;
+
+        private boolean hasChangedNeighbour;
+
+        private Local(RelationshipIterator relationships) {
+            this.relationships = relationships;
+            this.activateNeighbour = (source, target) -> {
+                next.set(target);
+                return true;
+            };
+            this.findChangedNeighbour = (source, target) -> {
+                hasChangedNeighbour = current.get(target);
+                return !hasChangedNeighbour;
+            };
+        }
+
+        boolean isActive(long nodeId) {
+            if (initialRound) {
+                return true;
+            }
+            if (pushDirection != null) {
+                return current.get(nodeId);
+            }
+            hasChangedNeighbour = false;
+            relationships.forEachRelationship(nodeId, Direction.OUTGOING, findChangedNeighbour);
+            return hasChangedNeighbour;
+        }
+
+        void labelChanged(long nodeId) {
+            if (pushDirection != null) {
+                relationships.forEachRelationship(nodeId, pushDirection, activateNeighbour);
+            } else {
+                next.set(nodeId);
+            }
+        }
+    }
+}
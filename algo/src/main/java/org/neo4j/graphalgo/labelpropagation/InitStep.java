@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.labelpropagation;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Graph;
@@ -35,6 +36,7 @@ final class InitStep implements Step {
     private final NodeProperties nodeWeights;
     private final ProgressLogger progressLogger;
     private final long maxLabelId;
+    private final @Nullable Frontier frontier;
 
     InitStep(
             Graph graph,
@@ -43,7 +45,8 @@ final class InitStep implements Step {
             PrimitiveLongIterable nodes,
             HugeLongArray existingLabels,
             ProgressLogger progressLogger,
-            long maxLabelId) {
+            long maxLabelId,
+            @Nullable Frontier frontier) {
         this.nodeProperties = nodeProperties;
         this.existingLabels = existingLabels;
         this.nodes = nodes;
@@ -51,6 +54,7 @@ final class InitStep implements Step {
         this.nodeWeights = nodeWeights;
         this.progressLogger = progressLogger;
         this.maxLabelId = maxLabelId;
+        this.frontier = frontier;
     }
 
     @Override
@@ -71,7 +75,7 @@ final class InitStep implements Step {
             // one are as stable as we need them to be for getting deterministic results.
             long existingLabel = Double.isNaN(existingLabelValue)
                     ? maxLabelId + graph.toOriginalNodeId(nodeId) + 1L
-                    : (long) existingLabelValue;
+                    : nodeProperties.longNodeProperty(nodeId, (long) existingLabelValue);
             existingLabels.set(nodeId, existingLabel);
         }
     }
@@ -83,7 +87,8 @@ final class InitStep implements Step {
                 nodeWeights,
                 progressLogger,
                 existingLabels,
-                nodes
+                nodes,
+                frontier
         );
     }
 }
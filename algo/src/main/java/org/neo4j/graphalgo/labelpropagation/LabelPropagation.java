@@ -19,6 +19,8 @@
  */
 package org.neo4j.graphalgo.labelpropagation;
 
+import com.carrotsearch.hppc.LongArrayList;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.graphalgo.Algorithm;
@@ -27,6 +29,7 @@ import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.loading.NullPropertyMap;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphdb.Direction;
@@ -55,6 +58,8 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
     private final long maxLabelId;
     private long ranIterations;
     private boolean didConverge;
+    private final LongArrayList activeNodesPerIteration;
+    private final LongArrayList iterationMillis;
     private int batchSize;
 
     public LabelPropagation(
@@ -69,6 +74,8 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
         this.executor = executor;
         this.tracker = tracker;
         this.batchSize = ParallelUtil.DEFAULT_BATCH_SIZE;
+        this.activeNodesPerIteration = new LongArrayList();
+        this.iterationMillis = new LongArrayList();
 
         NodeProperties seedProperty = graph.nodeProperties(config.seedProperty());
         if (seedProperty == null) {
@@ -106,6 +113,18 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
         return labels;
     }
 
+    /**
+     * The number of nodes that were recomputed in each executed round,
+     * which is the node count of all unconverged batches unless the frontier mode is enabled.
+     */
+    public long[] activeNodesPerIteration() {
+        return activeNodesPerIteration.toArray();
+    }
+
+    public long[] iterationMillis() {
+        return iterationMillis.toArray();
+    }
+
     @Override
     public LabelPropagation compute() {
         if (config.maxIterations() <= 0L) {
@@ -118,13 +137,42 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
 
         ranIterations = 0L;
         didConverge = false;
+        activeNodesPerIteration.clear();
+        iterationMillis.clear();
 
-        List<StepRunner> stepRunners = stepRunners();
+        Frontier frontier = config.frontier() ? Frontier.of(graph, tracker) : null;
+        List<StepRunner> stepRunners = stepRunners(frontier);
 
         long currentIteration = 0L;
         while (currentIteration < config.maxIterations()) {
+            ProgressTimer timer = ProgressTimer.start();
             ParallelUtil.runWithConcurrency(config.concurrency(), stepRunners, 1L, MICROSECONDS, terminationFlag, executor);
+            timer.stop();
             ++currentIteration;
+
+            long activeNodes = 0L;
+            boolean didChange = false;
+            for (StepRunner stepRunner : stepRunners) {
+                if (stepRunner.current instanceof ComputeStep) {
+                    ComputeStep step = (ComputeStep) stepRunner.current;
+                    activeNodes += step.computedNodes;
+                    didChange |= step.didChange;
+                }
+            }
+            activeNodesPerIteration.add(activeNodes);
+            iterationMillis.add(timer.getDuration());
+
+            // all batches converged, further rounds would not compute anything
+            if (!didChange) {
+                break;
+            }
+            if (frontier != null) {
+                frontier.advance();
+            }
+        }
+
+        if (frontier != null) {
+            frontier.release();
         }
 
         long maxIteration = 0L;
@@ -147,7 +195,7 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
         return me();
     }
 
-    private List<StepRunner> stepRunners() {
+    private List<StepRunner> stepRunners(@Nullable Frontier frontier) {
         long nodeCount = graph.nodeCount();
         long batchSize = ParallelUtil.adjustedBatchSize(nodeCount, this.batchSize);
 
@@ -167,7 +215,8 @@ public class LabelPropagation extends Algorithm<LabelPropagation, LabelPropagati
                 iter,
                 labels,
                 getProgressLogger(),
-                maxLabelId
+                maxLabelId,
+                frontier
             );
             StepRunner task = new StepRunner(initStep);
             tasks.add(task);
@@ -38,4 +38,9 @@ public interface LabelPropagationBaseConfig extends
     default int maxIterations() {
         return 10;
     }
+
+    @Value.Default
+    default boolean frontier() {
+        return false;
+    }
 }
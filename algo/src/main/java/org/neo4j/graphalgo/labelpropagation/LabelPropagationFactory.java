@@ -19,21 +19,17 @@
  */
 package org.neo4j.graphalgo.labelpropagation;
 
-import com.carrotsearch.hppc.LongDoubleScatterMap;
 import org.neo4j.graphalgo.AlgorithmFactory;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
-import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.logging.Log;
 
-import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
-import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
-
 public class LabelPropagationFactory<CONFIG extends LabelPropagationBaseConfig> extends AlgorithmFactory<LabelPropagation, CONFIG> {
 
     private final LabelPropagationBaseConfig config;
@@ -59,24 +55,22 @@ public class LabelPropagationFactory<CONFIG extends LabelPropagationBaseConfig>
 
     @Override
     public MemoryEstimation memoryEstimation(CONFIG config) {
-        return MemoryEstimations.builder(LabelPropagation.class)
-            .perNode("labels", HugeLongArray::memoryEstimation)
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(LabelPropagation.class)
+            .perNode("labels", HugeLongArray::memoryEstimation);
+        if (config.frontier()) {
+            builder.perNode("frontier", nodeCount -> 2 * HugeAtomicBitSet.memoryEstimation(nodeCount));
+        }
+        return builder
             .perThread("votes", MemoryEstimations.builder()
                 .field("init step", InitStep.class)
                 .field("compute step", ComputeStep.class)
                 .field("step runner", StepRunner.class)
                 .field("compute step consumer", ComputeStepConsumer.class)
-                .field("votes container", LongDoubleScatterMap.class)
-                .rangePerNode("votes", nodeCount -> {
-                    long minBufferSize = MemoryUsage.sizeOfEmptyOpenHashContainer();
-                    long maxBufferSize = MemoryUsage.sizeOfOpenHashContainer(nodeCount);
-                    if (maxBufferSize < minBufferSize) {
-                        maxBufferSize = minBufferSize;
-                    }
-                    long min = sizeOfLongArray(minBufferSize) + sizeOfDoubleArray(minBufferSize);
-                    long max = sizeOfLongArray(maxBufferSize) + sizeOfDoubleArray(maxBufferSize);
-                    return MemoryRange.of(min, max);
-                }).build())
+                .field("votes container", LabelVotes.class)
+                .rangePerNode("votes", nodeCount -> MemoryRange.of(
+                    LabelVotes.memoryEstimation(0),
+                    LabelVotes.memoryEstimation(nodeCount)
+                )).build())
             .build();
     }
 }
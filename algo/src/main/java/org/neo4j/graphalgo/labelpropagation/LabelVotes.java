@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.labelpropagation;
+
+import com.carrotsearch.hppc.BitMixer;
+import org.neo4j.graphalgo.core.utils.BitUtil;
+
+import java.util.Arrays;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfIntArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+
+/**
+ * Accumulates the weighted votes of the neighbours of a single node and is reused for all nodes of a step.
+ * <p>
+ * Votes are stored in dense arrays in the order in which the labels were first seen.
+ * Most nodes only see a handful of distinct labels, for which a linear scan is cheaper than hashing.
+ * Only when a node sees more than {@link #LINEAR_SCAN_THRESHOLD} labels, an open addressing
+ * index into the dense arrays is built. Clearing only touches the slots that were used.
+ */
+final class LabelVotes {
+
+    static final int LINEAR_SCAN_THRESHOLD = 16;
+
+    private long[] labels;
+    private double[] weights;
+    // table slot of every vote, only maintained while indexed
+    private int[] slots;
+    // vote index + 1, 0 marks an empty slot
+    private int[] table;
+    private int size;
+    private boolean indexed;
+
+    LabelVotes() {
+        this.labels = new long[LINEAR_SCAN_THRESHOLD];
+        this.weights = new double[LINEAR_SCAN_THRESHOLD];
+        this.slots = new int[0];
+        this.table = new int[0];
+    }
+
+    static long memoryEstimation(long distinctLabels) {
+        long capacity = Math.max(LINEAR_SCAN_THRESHOLD, BitUtil.nextHighestPowerOfTwo(distinctLabels));
+        long votes = sizeOfLongArray(capacity) + sizeOfDoubleArray(capacity);
+        if (distinctLabels <= LINEAR_SCAN_THRESHOLD) {
+            return votes + 2 * sizeOfIntArray(0);
+        }
+        return votes + sizeOfIntArray(capacity) + sizeOfIntArray(2 * capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long label, double weight) {
+        if (!indexed) {
+            for (int i = 0; i < size; i++) {
+                if (labels[i] == label) {
+                    weights[i] += weight;
+                    return;
+                }
+            }
+            if (size < LINEAR_SCAN_THRESHOLD) {
+                append(label, weight);
+                return;
+            }
+            index();
+        }
+
+        int mask = table.length - 1;
+        int slot = slot(label, mask);
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (labels[entry - 1] == label) {
+                weights[entry - 1] += weight;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int index = size;
+        append(label, weight);
+        table[slot] = index + 1;
+        slots[index] = slot;
+        if (2 * size > table.length) {
+            rehash(2 * table.length);
+        }
+    }
+
+    /**
+     * Returns the label with the highest accumulated weight, ties are broken by the smallest label.
+     * If no votes have been cast, the given current label is returned.
+     */
+    long tally(long label) {
+        double weight = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double voteWeight = weights[i];
+            if (weight < voteWeight) {
+                weight = voteWeight;
+                label = labels[i];
+            } else if (weight == voteWeight) {
+                if (labels[i] < label) {
+                    label = labels[i];
+                }
+            }
+        }
+        return label;
+    }
+
+    void clear() {
+        if (indexed) {
+            for (int i = 0; i < size; i++) {
+                table[slots[i]] = 0;
+            }
+            indexed = false;
+        }
+        size = 0;
+    }
+
+    void release() {
+        labels = null;
+        weights = null;
+        slots = null;
+        table = null;
+        size = 0;
+        indexed = false;
+    }
+
+    private void append(long label, double weight) {
+        if (size == labels.length) {
+            int capacity = 2 * labels.length;
+            labels = Arrays.copyOf(labels, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        if (indexed && size >= slots.length) {
+            slots = Arrays.copyOf(slots, labels.length);
+        }
+        labels[size] = label;
+        weights[size] = weight;
+        size++;
+    }
+
+    private void index() {
+        if (slots.length < labels.length) {
+            slots = new int[labels.length];
+        }
+        // clearing leaves an empty table behind, which can be reused
+        if (table.length < 4 * size) {
+            table = new int[4 * size];
+        }
+        indexed = true;
+        insertAll();
+    }
+
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        insertAll();
+    }
+
+    private void insertAll() {
+        int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = slot(labels[i], mask);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+            slots[i] = slot;
+        }
+    }
+
+    private static int slot(long label, int mask) {
+        return (int) BitMixer.mixPhi(label) & mask;
+    }
+}
@@ -23,8 +23,7 @@ import org.neo4j.graphalgo.Algorithm;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.beta.modularity.ModularityOptimization;
-import org.neo4j.graphalgo.core.DeduplicationStrategy;
-import org.neo4j.graphalgo.core.loading.GraphGenerator;
+import org.neo4j.graphalgo.core.loading.CommunityGraphAggregator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
@@ -50,6 +49,8 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
     // results
     private HugeLongArray[] dendrograms;
     private double[] modularities;
+    private long[] modularityOptimizationMillis;
+    private long[] summarizationMillis;
     private int ranLevels;
 
     public Louvain(
@@ -67,6 +68,8 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
         this.tracker = tracker;
         this.dendrograms = new HugeLongArray[config.maxLevels()];
         this.modularities = new double[config.maxLevels()];
+        this.modularityOptimizationMillis = new long[config.maxLevels()];
+        this.summarizationMillis = new long[config.maxLevels()];
     }
 
     @Override
@@ -81,17 +84,21 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
 
                 assertRunning();
 
+                ProgressTimer optimizationTimer = ProgressTimer.start();
                 ModularityOptimization modularityOptimization = runModularityOptimization(
                     workingGraph,
                     nextSeedingValues
                 );
                 modularityOptimization.release();
+                modularityOptimizationMillis[ranLevels] = optimizationTimer.stop().getDuration();
 
                 modularities[ranLevels] = modularityOptimization.getModularity();
                 dendrograms[ranLevels] = HugeLongArray.newArray(rootGraph.nodeCount(), tracker);
                 long maxCommunityId = buildDendrogram(workingGraph, ranLevels, modularityOptimization);
 
+                ProgressTimer summarizationTimer = ProgressTimer.start();
                 workingGraph = summarizeGraph(workingGraph, modularityOptimization, maxCommunityId);
+                summarizationMillis[ranLevels] = summarizationTimer.stop().getDuration();
                 nextSeedingValues = new OriginalIdNodeProperties(workingGraph);
             }
 
@@ -113,12 +120,18 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
         int numLevels = levels();
         HugeLongArray[] resizedDendrogram = new HugeLongArray[numLevels];
         double[] resizedModularities = new double[numLevels];
+        long[] resizedOptimizationMillis = new long[numLevels];
+        long[] resizedSummarizationMillis = new long[numLevels];
         if (numLevels < this.dendrograms.length) {
             System.arraycopy(this.dendrograms, 0, resizedDendrogram, 0, numLevels);
             System.arraycopy(this.modularities, 0, resizedModularities, 0, numLevels);
+            System.arraycopy(this.modularityOptimizationMillis, 0, resizedOptimizationMillis, 0, numLevels);
+            System.arraycopy(this.summarizationMillis, 0, resizedSummarizationMillis, 0, numLevels);
         }
         this.dendrograms = resizedDendrogram;
         this.modularities = resizedModularities;
+        this.modularityOptimizationMillis = resizedOptimizationMillis;
+        this.summarizationMillis = resizedSummarizationMillis;
     }
 
     private long buildDendrogram(
@@ -162,39 +175,16 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
     }
 
     private Graph summarizeGraph(Graph workingGraph, ModularityOptimization modularityOptimization, long maxCommunityId) {
-        GraphGenerator.NodeImporter nodeImporter = GraphGenerator.createNodeImporter(
+        assertRunning();
+
+        return new CommunityGraphAggregator(
+            workingGraph,
+            modularityOptimization::getCommunityId,
             maxCommunityId,
+            config.concurrency(),
             executorService,
             tracker
-        );
-
-        assertRunning();
-
-        workingGraph.forEachNode((nodeId) -> {
-            nodeImporter.addNode(modularityOptimization.getCommunityId(nodeId));
-            return true;
-        });
-
-        assertRunning();
-
-        GraphGenerator.RelImporter relImporter = GraphGenerator.createRelImporter(
-            nodeImporter,
-            Direction.OUTGOING,
-            rootGraph.isUndirected(),
-            true,
-            DeduplicationStrategy.SUM
-        );
-
-        workingGraph.forEachNode((nodeId) -> {
-            long communityId = modularityOptimization.getCommunityId(nodeId);
-            workingGraph.forEachRelationship(nodeId, 1.0, (source, target, property) -> {
-                relImporter.add(communityId, modularityOptimization.getCommunityId(target), property);
-                return true;
-            });
-            return true;
-        });
-
-        return relImporter.buildGraph();
+        ).aggregate();
     }
 
     private boolean hasConverged() {
@@ -241,6 +231,20 @@ public final class Louvain extends Algorithm<Louvain, Louvain> {
         return this.modularities;
     }
 
+    /**
+     * Milliseconds spent per level in the modularity optimization.
+     */
+    public long[] modularityOptimizationMillis() {
+        return this.modularityOptimizationMillis;
+    }
+
+    /**
+     * Milliseconds spent per level in building the graph of communities for the next level.
+     */
+    public long[] summarizationMillis() {
+        return this.summarizationMillis;
+    }
+
     @Override
     public void release() {
         this.rootGraph.releaseTopology();
@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.louvain;
 import org.neo4j.graphalgo.AlgorithmFactory;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.beta.modularity.ModularityOptimizationFactory;
+import org.neo4j.graphalgo.core.loading.CommunityGraphAggregator;
 import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
@@ -53,6 +54,7 @@ public class LouvainFactory<CONFIG extends LouvainBaseConfig> extends AlgorithmF
     public MemoryEstimation memoryEstimation(CONFIG config) {
         return MemoryEstimations.builder(Louvain.class)
             .add("modularityOptimization()", ModularityOptimizationFactory.MEMORY_ESTIMATION)
+            .add("aggregate()", CommunityGraphAggregator.memoryEstimation())
             .rangePerGraphDimension("subGraph", (graphDimensions, concurrency) -> {
                 long maxGraphSize = HugeGraphFactory
                     .getMemoryEstimation(true, true, false, graphDimensions)
@@ -19,6 +19,8 @@
  */
 package org.neo4j.graphalgo.louvain;
 
+import org.immutables.value.Value;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
@@ -31,6 +33,16 @@ import java.util.Optional;
 @Configuration("LouvainWriteConfigImpl")
 public interface LouvainWriteConfig extends LouvainBaseConfig, WriteConfig {
 
+    /**
+     * If set, the final community is written to {@code writeProperty} and the intermediate communities
+     * to this property, otherwise {@code writeProperty} holds the intermediate communities.
+     */
+    @Value.Default
+    @Configuration.ConvertWith("org.apache.commons.lang3.StringUtils#trimToNull")
+    default @Nullable String intermediateCommunitiesWriteProperty() {
+        return null;
+    }
+
     static LouvainWriteConfig of(
         String username,
         Optional<String> graphName,
@@ -19,12 +19,11 @@
  */
 package org.neo4j.graphalgo.nodesim;
 
-import com.carrotsearch.hppc.ArraySizingStrategy;
 import com.carrotsearch.hppc.BitSet;
 import com.carrotsearch.hppc.LongArrayList;
 import org.neo4j.graphalgo.Algorithm;
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.core.utils.BitUtil;
 import org.neo4j.graphalgo.core.utils.Intersections;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
@@ -79,10 +78,6 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
         graph.release();
     }
 
-    // The buffer is sized on the first call to the sizing strategy to hold exactly node degree elements
-    private static final ArraySizingStrategy ARRAY_SIZING_STRATEGY =
-        (currentBufferLength, elementsCount, degree) -> elementsCount + degree;
-
     @Override
     public NodeSimilarityResult compute() {
         if (config.computeToStream()) {
@@ -147,19 +142,13 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
 
         vectors = HugeObjectArray.newArray(long[].class, graph.nodeCount(), tracker);
 
-        DegreeComputer degreeComputer = new DegreeComputer();
         VectorComputer vectorComputer = new VectorComputer();
         vectors.setAll(node -> {
-            graph.forEachRelationship(node, config.direction(), degreeComputer);
-            int degree = degreeComputer.degree;
-            degreeComputer.reset();
-            vectorComputer.reset(degree);
-            if (degree >= config.degreeCutoff()) {
+            vectorComputer.compute(graph.batchCursor(node, config.direction()), node);
+            if (vectorComputer.targetIds.size() >= config.degreeCutoff()) {
                 nodesToCompare++;
                 nodeFilter.set(node);
-
-                graph.forEachRelationship(node, config.direction(), vectorComputer);
-                return vectorComputer.targetIds.buffer;
+                return vectorComputer.targetIds.toArray();
             }
             return null;
         });
@@ -333,43 +322,25 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
         return new SetBitsIterable(nodeFilter, offset).stream();
     }
 
-    private static final class VectorComputer implements RelationshipConsumer {
-
-        long lastTarget = -1;
-        LongArrayList targetIds;
-
-        @Override
-        public boolean accept(long source, long target) {
-            if (source != target && lastTarget != target) {
-                targetIds.add(target);
-            }
-            lastTarget = target;
-            return true;
-        }
-
-        void reset(int degree) {
-            lastTarget = -1;
-            targetIds = new LongArrayList(degree, ARRAY_SIZING_STRATEGY);
-        }
-    }
-
-    private static final class DegreeComputer implements RelationshipConsumer {
-
-        long lastTarget = -1;
-        int degree = 0;
-
-        @Override
-        public boolean accept(long source, long target) {
-            if (source != target && lastTarget != target) {
-                degree++;
+    private static final class VectorComputer {
+
+        final long[] targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+        final LongArrayList targetIds = new LongArrayList();
+
+        void compute(RelationshipBatchCursor cursor, long source) {
+            long[] targets = this.targets;
+            long lastTarget = -1;
+            targetIds.clear();
+            int count;
+            while ((count = cursor.nextBatch(targets)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    long target = targets[i];
+                    if (source != target && lastTarget != target) {
+                        targetIds.add(target);
+                    }
+                    lastTarget = target;
+                }
             }
-            lastTarget = target;
-            return true;
-        }
-
-        void reset() {
-            lastTarget = -1;
-            degree = 0;
         }
     }
 }
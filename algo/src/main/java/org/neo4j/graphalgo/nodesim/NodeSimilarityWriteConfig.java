@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.nodesim;
 
+import org.immutables.value.Value;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
@@ -48,4 +49,25 @@ public interface NodeSimilarityWriteConfig extends NodeSimilarityBaseConfig, Wri
     }
 
     String writeRelationshipType();
+
+    /**
+     * The number of relationships that are written per transaction.
+     * Every batch is committed on its own, so a failing write leaves the batches committed before it in the database.
+     */
+    @Value.Default
+    default long writeBatchSize() {
+        return 10_000L;
+    }
+
+    @Value.Check
+    @Override
+    default void validate() {
+        NodeSimilarityBaseConfig.super.validate();
+        if (writeBatchSize() < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid value for writeBatchSize: must be a positive integer, but got %d",
+                writeBatchSize()
+            ));
+        }
+    }
 }
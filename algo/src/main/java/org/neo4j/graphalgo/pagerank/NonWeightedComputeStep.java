@@ -20,15 +20,16 @@
 package org.neo4j.graphalgo.pagerank;
 
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.api.RelationshipIterator;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
 
-public class NonWeightedComputeStep extends BaseComputeStep implements RelationshipConsumer {
+public class NonWeightedComputeStep extends BaseComputeStep {
 
-    private float srcRankDelta;
+    private final long[] targets = new long[RelationshipBatchCursor.BATCH_SIZE];
 
     NonWeightedComputeStep(
             double dampingFactor,
@@ -53,24 +54,26 @@ public class NonWeightedComputeStep extends BaseComputeStep implements Relations
         long startNode = this.startNode;
         long endNode = this.endNode;
         RelationshipIterator rels = this.relationshipIterator;
+        long[] targets = this.targets;
         for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
             double delta = deltas[(int) (nodeId - startNode)];
             if (delta > 0.0) {
                 int degree = degrees.degree(nodeId);
                 if (degree > 0) {
-                    srcRankDelta = (float) (delta / degree);
-                    rels.forEachRelationship(nodeId, this);
+                    float srcRankDelta = (float) (delta / degree);
+                    if (srcRankDelta != 0F) {
+                        RelationshipBatchCursor cursor = rels.batchCursor(nodeId, Direction.OUTGOING);
+                        int count;
+                        while ((count = cursor.nextBatch(targets)) > 0) {
+                            for (int i = 0; i < count; i++) {
+                                long targetNodeId = targets[i];
+                                int idx = binaryLookup(targetNodeId, starts);
+                                nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
+                            }
+                        }
+                    }
                 }
             }
         }
     }
-
-    @Override
-    public boolean accept(long sourceNodeId, long targetNodeId) {
-        if (srcRankDelta != 0F) {
-            int idx = binaryLookup(targetNodeId, starts);
-            nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
-        }
-        return true;
-    }
 }
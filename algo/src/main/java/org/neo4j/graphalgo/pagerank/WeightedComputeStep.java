@@ -20,19 +20,20 @@
 package org.neo4j.graphalgo.pagerank;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.api.RelationshipIterator;
-import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphdb.Direction;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
 import static org.neo4j.graphalgo.pagerank.PageRank.DEFAULT_WEIGHT;
 
-public class WeightedComputeStep extends BaseComputeStep implements RelationshipWithPropertyConsumer {
+public class WeightedComputeStep extends BaseComputeStep {
 
     private final HugeDoubleArray aggregatedDegrees;
-    private double sumOfWeights;
-    private double delta;
+    private final long[] targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+    private final double[] weights = new double[RelationshipBatchCursor.BATCH_SIZE];
 
     WeightedComputeStep(
             double dampingFactor,
@@ -57,29 +58,32 @@ public class WeightedComputeStep extends BaseComputeStep implements Relationship
         long startNode = this.startNode;
         long endNode = this.endNode;
         RelationshipIterator rels = this.relationshipIterator;
+        long[] targets = this.targets;
+        double[] weights = this.weights;
         for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
-            delta = deltas[(int) (nodeId - startNode)];
+            double delta = deltas[(int) (nodeId - startNode)];
             if (delta > 0.0) {
                 int degree = degrees.degree(nodeId);
                 if (degree > 0) {
-                    sumOfWeights = aggregatedDegrees.get(nodeId);
-                    rels.forEachRelationship(nodeId, DEFAULT_WEIGHT, this);
+                    double sumOfWeights = aggregatedDegrees.get(nodeId);
+                    RelationshipBatchCursor cursor = rels.batchCursor(nodeId, Direction.OUTGOING, DEFAULT_WEIGHT);
+                    int count;
+                    while ((count = cursor.nextBatch(targets, weights)) > 0) {
+                        for (int i = 0; i < count; i++) {
+                            double property = weights[i];
+                            if (property > 0) {
+                                double proportion = property / sumOfWeights;
+                                float srcRankDelta = (float) (delta * proportion);
+                                if (srcRankDelta != 0F) {
+                                    long targetNodeId = targets[i];
+                                    int idx = binaryLookup(targetNodeId, starts);
+                                    nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
+                                }
+                            }
+                        }
+                    }
                 }
             }
         }
     }
-
-    @Override
-    public boolean accept(long sourceNodeId, long targetNodeId, double property) {
-        if (property > 0) {
-            double proportion = property / sumOfWeights;
-            float srcRankDelta = (float) (delta * proportion);
-            if (srcRankDelta != 0F) {
-                int idx = binaryLookup(targetNodeId, starts);
-                nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
-            }
-        }
-
-        return true;
-    }
 }
@@ -19,32 +19,46 @@
  */
 package org.neo4j.graphalgo.wcc;
 
+import com.carrotsearch.hppc.LongIntHashMap;
 import org.neo4j.graphalgo.Algorithm;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.api.RelationshipIterator;
-import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongLongMap;
 import org.neo4j.graphalgo.core.utils.paged.dss.DisjointSetStruct;
 import org.neo4j.graphalgo.core.utils.paged.dss.HugeAtomicDisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.paged.dss.IncrementalDisjointSetStruct;
+import org.neo4j.graphdb.Direction;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Random;
 import java.util.concurrent.ExecutorService;
 
 /**
  * Parallel Union-Find Algorithm based on the
  * "Wait-free Parallel Algorithms for the Union-Find Problem" paper.
  *
+ * With {@code afforest}, the relationships are sampled first, following the
+ * "Optimizing Parallel Graph Connectivity Computation via Subgraph Sampling" paper.
+ *
  * @see HugeAtomicDisjointSetStruct
  * @see <a href="http://citeseerx.ist.psu.edu/viewdoc/download?doi=10.1.1.56.8354&rep=rep1&type=pdf">the paper</a>
+ * @see <a href="https://doi.org/10.1109/IPDPS.2018.00012">the Afforest paper</a>
  */
 public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
 
+    // number of relationships per node that are linked before the largest component is sampled
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLE_SIZE = 1024;
+    private static final long SAMPLE_SEED = 42L;
+    private static final long NO_COMPONENT = -1L;
+
     private final WccBaseConfig config;
     private final NodeProperties initialComponents;
     private final ExecutorService executor;
@@ -56,10 +70,20 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
     private Graph graph;
 
     public static MemoryEstimation memoryEstimation(boolean incremental) {
-        return MemoryEstimations
-            .builder(Wcc.class)
-            .add("dss", HugeAtomicDisjointSetStruct.memoryEstimation(incremental))
-            .build();
+        return memoryEstimation(incremental, false);
+    }
+
+    public static MemoryEstimation memoryEstimation(boolean incremental, boolean appendedRelationshipsOnly) {
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(Wcc.class);
+        if (appendedRelationshipsOnly) {
+            // the seed to root mapping is only alive while the struct is initialized
+            builder
+                .add("dss", IncrementalDisjointSetStruct.memoryEstimation())
+                .add("internalMapping", HugeLongLongMap.memoryEstimation());
+        } else {
+            builder.add("dss", HugeAtomicDisjointSetStruct.memoryEstimation(incremental));
+        }
+        return builder.build();
     }
 
     public Wcc(
@@ -105,12 +129,20 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
     }
 
     public DisjointSetStruct compute(double threshold) {
+        if (config.appendedRelationshipsOnly()) {
+            return computeAppended(threshold);
+        }
+
         long nodeCount = graph.nodeCount();
 
-        DisjointSetStruct dss = config.isIncremental()
+        HugeAtomicDisjointSetStruct dss = config.isIncremental()
             ? new HugeAtomicDisjointSetStruct(nodeCount, initialComponents, tracker)
             : new HugeAtomicDisjointSetStruct(nodeCount, tracker);
 
+        if (config.afforest()) {
+            return computeAfforest(dss, threshold);
+        }
+
         final Collection<Runnable> tasks = new ArrayList<>(threadSize);
         for (long i = 0L; i < this.nodeCount; i += batchSize) {
             WCCTask wccTask = Double.isNaN(threshold)
@@ -122,6 +154,80 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
         return dss;
     }
 
+    /**
+     * The graph only contains the relationships that have been added since the seed components were computed.
+     * All nodes of a seed component are known to be connected, which the {@link IncrementalDisjointSetStruct}
+     * represents by a shared root, so only the projected relationships have to be linked.
+     * The struct is not thread-safe, which is fine for the small number of appended relationships.
+     */
+    private DisjointSetStruct computeAppended(double threshold) {
+        IncrementalDisjointSetStruct dss = new IncrementalDisjointSetStruct(nodeCount, initialComponents, tracker);
+        WCCTask task = Double.isNaN(threshold)
+            ? new WCCTask(dss, 0L, nodeCount)
+            : new WCCWithThresholdTask(threshold, dss, 0L, nodeCount);
+        task.run();
+        return dss;
+    }
+
+    /**
+     * Links only the first {@link #NEIGHBOR_ROUNDS} relationships of every node, which usually connects
+     * most of the largest component, and estimates the largest component from a sample of nodes.
+     * The remaining relationships are only processed for nodes outside of that component.
+     * <p>
+     * Skipping the relationships of a node is only correct if the other node of every relationship
+     * processes it as well, i.e. if the graph is undirected or has been loaded in both directions.
+     * Otherwise, the remaining relationships are processed for all nodes.
+     */
+    private DisjointSetStruct computeAfforest(HugeAtomicDisjointSetStruct dss, double threshold) {
+        for (int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+            runAfforestTasks(dss, threshold, round, round + 1, NO_COMPONENT, false);
+        }
+
+        boolean undirected = graph.isUndirected();
+        boolean linkIncoming = !undirected && graph.getLoadDirection() == Direction.BOTH;
+        long largestComponent = undirected || linkIncoming
+            ? sampleLargestComponent(dss)
+            : NO_COMPONENT;
+
+        runAfforestTasks(dss, threshold, NEIGHBOR_ROUNDS, Integer.MAX_VALUE, largestComponent, linkIncoming);
+        return dss;
+    }
+
+    private void runAfforestTasks(
+        HugeAtomicDisjointSetStruct dss,
+        double threshold,
+        int from,
+        int to,
+        long skipComponent,
+        boolean linkIncoming
+    ) {
+        final Collection<Runnable> tasks = new ArrayList<>(threadSize);
+        for (long i = 0L; i < this.nodeCount; i += batchSize) {
+            tasks.add(new AfforestTask(dss, i, threshold, from, to, skipComponent, linkIncoming));
+        }
+        ParallelUtil.run(tasks, executor);
+    }
+
+    private long sampleLargestComponent(HugeAtomicDisjointSetStruct dss) {
+        if (nodeCount == 0L) {
+            return NO_COMPONENT;
+        }
+        Random random = new Random(SAMPLE_SEED);
+        LongIntHashMap sampleCounts = new LongIntHashMap(SAMPLE_SIZE);
+        long largestComponent = NO_COMPONENT;
+        int largestCount = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            long node = (long) (random.nextDouble() * nodeCount);
+            long component = dss.find(node);
+            int count = sampleCounts.addTo(component, 1);
+            if (count > largestCount) {
+                largestCount = count;
+                largestComponent = component;
+            }
+        }
+        return largestComponent;
+    }
+
     public double threshold() {
         return config.threshold();
     }
@@ -141,18 +247,24 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
         graph = null;
     }
 
-    private class WCCTask implements Runnable, RelationshipConsumer {
+    private class WCCTask implements Runnable {
 
         final DisjointSetStruct struct;
         final RelationshipIterator rels;
+        final long[] targets;
         private final long offset;
         private final long end;
 
         WCCTask(DisjointSetStruct struct, long offset) {
+            this(struct, offset, Math.min(offset + batchSize, nodeCount));
+        }
+
+        WCCTask(DisjointSetStruct struct, long offset, long end) {
             this.struct = struct;
             this.rels = graph.concurrentCopy();
+            this.targets = new long[RelationshipBatchCursor.BATCH_SIZE];
             this.offset = offset;
-            this.end = Math.min(offset + batchSize, nodeCount);
+            this.end = end;
         }
 
         @Override
@@ -167,36 +279,124 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
         }
 
         void compute(final long node) {
-            rels.forEachRelationship(node, this);
-        }
-
-        @Override
-        public boolean accept(final long sourceNodeId, final long targetNodeId) {
-            struct.union(sourceNodeId, targetNodeId);
-            return true;
+            RelationshipBatchCursor cursor = rels.batchCursor(node, Direction.OUTGOING);
+            long[] targets = this.targets;
+            int count;
+            while ((count = cursor.nextBatch(targets)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    struct.union(node, targets[i]);
+                }
+            }
         }
     }
 
-    private class WCCWithThresholdTask extends WCCTask implements RelationshipWithPropertyConsumer {
+    private class WCCWithThresholdTask extends WCCTask {
 
         private final double threshold;
+        private final double[] properties;
 
         WCCWithThresholdTask(double threshold, DisjointSetStruct struct, long offset) {
-            super(struct, offset);
+            this(threshold, struct, offset, Math.min(offset + batchSize, nodeCount));
+        }
+
+        WCCWithThresholdTask(double threshold, DisjointSetStruct struct, long offset, long end) {
+            super(struct, offset, end);
             this.threshold = threshold;
+            this.properties = new double[RelationshipBatchCursor.BATCH_SIZE];
         }
 
         @Override
         void compute(final long node) {
-            rels.forEachRelationship(node, Wcc.defaultWeight(threshold), this);
+            RelationshipBatchCursor cursor = rels.batchCursor(node, Direction.OUTGOING, Wcc.defaultWeight(threshold));
+            long[] targets = this.targets;
+            double[] properties = this.properties;
+            int count;
+            while ((count = cursor.nextBatch(targets, properties)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    if (properties[i] > threshold) {
+                        struct.union(node, targets[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private class AfforestTask implements Runnable {
+
+        private final HugeAtomicDisjointSetStruct struct;
+        private final RelationshipIterator rels;
+        private final long[] targets;
+        private final double[] properties;
+        private final double threshold;
+        private final boolean weighted;
+        // range of relationship indices to link
+        private final int from;
+        private final int to;
+        private final long skipComponent;
+        private final boolean linkIncoming;
+        private final long offset;
+        private final long end;
+
+        AfforestTask(
+            HugeAtomicDisjointSetStruct struct,
+            long offset,
+            double threshold,
+            int from,
+            int to,
+            long skipComponent,
+            boolean linkIncoming
+        ) {
+            this.struct = struct;
+            this.rels = graph.concurrentCopy();
+            this.targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+            this.properties = new double[RelationshipBatchCursor.BATCH_SIZE];
+            this.threshold = threshold;
+            this.weighted = !Double.isNaN(threshold);
+            this.from = from;
+            this.to = to;
+            this.skipComponent = skipComponent;
+            this.linkIncoming = linkIncoming;
+            this.offset = offset;
+            this.end = Math.min(offset + batchSize, nodeCount);
         }
 
         @Override
-        public boolean accept(final long sourceNodeId, final long targetNodeId, final double property) {
-            if (property > threshold) {
-                struct.union(sourceNodeId, targetNodeId);
+        public void run() {
+            for (long node = offset; node < end; node++) {
+                if (node % RUN_CHECK_NODE_COUNT == 0) {
+                    assertRunning();
+                }
+                if (skipComponent != NO_COMPONENT && struct.sameSet(node, skipComponent)) {
+                    continue;
+                }
+                link(node, Direction.OUTGOING, from, to);
+                if (linkIncoming) {
+                    link(node, Direction.INCOMING, 0, Integer.MAX_VALUE);
+                }
+            }
+            if (to == Integer.MAX_VALUE) {
+                getProgressLogger().logProgress((end - 1.0) / (nodeCount - 1.0));
+            }
+        }
+
+        private void link(long node, Direction direction, int from, int to) {
+            RelationshipBatchCursor cursor = weighted
+                ? rels.batchCursor(node, direction, Wcc.defaultWeight(threshold))
+                : rels.batchCursor(node, direction);
+            long[] targets = this.targets;
+            double[] properties = this.properties;
+            int index = 0;
+            int count;
+            while (index < to && (count = weighted ? cursor.nextBatch(targets, properties) : cursor.nextBatch(targets)) > 0) {
+                int start = Math.max(0, from - index);
+                int stop = Math.min(count, to - index);
+                for (int i = start; i < stop; i++) {
+                    if (!weighted || properties[i] > threshold) {
+                        struct.union(node, targets[i]);
+                    }
+                }
+                index += count;
             }
-            return true;
         }
     }
 }
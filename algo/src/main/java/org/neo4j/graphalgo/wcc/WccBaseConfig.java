@@ -37,6 +37,16 @@ public interface WccBaseConfig extends AlgoBaseConfig, SeedConfig, RelationshipW
         return 0D;
     }
 
+    @Value.Default
+    default boolean afforest() {
+        return false;
+    }
+
+    @Value.Default
+    default boolean appendedRelationshipsOnly() {
+        return false;
+    }
+
     @Configuration.Ignore
     default boolean isIncremental() {
         return seedProperty() != null;
@@ -51,5 +61,13 @@ public interface WccBaseConfig extends AlgoBaseConfig, SeedConfig, RelationshipW
         if (isIncremental() && consecutiveIds()) {
            throw new IllegalArgumentException("Seeding and the `consecutiveIds` option cannot be used at the same time.");
         }
+
+        if (appendedRelationshipsOnly() && !isIncremental()) {
+            throw new IllegalArgumentException("Specifying `appendedRelationshipsOnly` requires `seedProperty` to be set.");
+        }
+
+        if (appendedRelationshipsOnly() && afforest()) {
+            throw new IllegalArgumentException("The `afforest` and `appendedRelationshipsOnly` options cannot be used at the same time.");
+        }
     }
 }
@@ -42,6 +42,6 @@ public class WccFactory<CONFIG extends WccBaseConfig> extends AlgorithmFactory<W
 
     @Override
     public MemoryEstimation memoryEstimation(CONFIG config) {
-        return Wcc.memoryEstimation(config.isIncremental());
+        return Wcc.memoryEstimation(config.isIncremental(), config.appendedRelationshipsOnly());
     }
 }
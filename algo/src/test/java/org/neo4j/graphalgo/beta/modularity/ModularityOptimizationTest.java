@@ -110,6 +110,40 @@ class ModularityOptimizationTest extends AlgoTestBase {
         assertTrue(pmo.getIterations() <= 3);
     }
 
+    @Test
+    void testVertexPruning() {
+        Graph graph = new GraphLoader(db)
+            .withAnyLabel()
+            .withAnyRelationshipType()
+            .withDirection(Direction.BOTH)
+            .load(HugeGraphFactory.class);
+
+        ModularityOptimization pmo = new ModularityOptimization(
+            graph,
+            Direction.BOTH,
+            10,
+            TOLERANCE_DEFAULT,
+            null,
+            1,
+            10_000,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY,
+            NullLog.getInstance()
+        ).withVertexPruning(true);
+
+        pmo.compute();
+
+        assertEquals(0.12244, pmo.getModularity(), 0.001);
+        assertCommunities(getCommunityIds(graph.nodeCount(), pmo), new long[]{0, 1, 2, 4}, new long[]{3, 5});
+
+        long[] activeNodes = pmo.activeNodesPerIteration();
+        assertEquals(pmo.getIterations(), activeNodes.length);
+        assertEquals(graph.nodeCount(), activeNodes[0]);
+        for (int iteration = 1; iteration < activeNodes.length; iteration++) {
+            assertTrue(activeNodes[iteration] <= graph.nodeCount());
+        }
+    }
+
     @Test
     void testWeighted() {
         Graph graph = new GraphLoader(db)
@@ -290,9 +324,9 @@ class ModularityOptimizationTest extends AlgoTestBase {
 
     static Stream<Arguments> memoryEstimationTuples() {
         return Stream.of(
-            arguments(1, 5_614_088, 8_413_120),
-            arguments(4, 5_617_376, 14_413_384),
-            arguments(42, 5_659_024, 90_416_728)
+            arguments(1, 5_614_088, 8_438_256),
+            arguments(4, 5_617_376, 14_438_520),
+            arguments(42, 5_659_024, 90_441_864)
         );
     }
 }
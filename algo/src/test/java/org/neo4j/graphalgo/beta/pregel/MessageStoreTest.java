@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.FilterGraph;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
+
+class MessageStoreTest {
+
+    // in-degrees: a = 0, b = 1, c = 2
+    private static final String GRAPH =
+        "  (a)-->(b)" +
+        ", (a)-->(c)" +
+        ", (b)-->(c)";
+
+    private static final long A = 0L;
+    private static final long B = 1L;
+    private static final long C = 2L;
+
+    @Test
+    void queuesShouldDeliverMessagesAfterSwap() {
+        MessageStore store = queues(fromGdl(GRAPH));
+
+        store.send(B, 1L);
+        store.send(C, 2L);
+        store.send(C, 3L);
+        assertEquals(Collections.emptyList(), receive(store, C));
+
+        store.swap();
+        assertEquals(Collections.emptyList(), receive(store, A));
+        assertEquals(Collections.singletonList(1L), receive(store, B));
+        assertEquals(Arrays.asList(2L, 3L), receive(store, C));
+
+        store.release();
+    }
+
+    @Test
+    void queuesShouldRemoveReceivedMessages() {
+        MessageStore store = queues(fromGdl(GRAPH));
+
+        store.send(C, 42L);
+        store.swap();
+        assertEquals(Collections.singletonList(42L), receive(store, C));
+        assertEquals(Collections.emptyList(), receive(store, C));
+
+        store.swap();
+        store.swap();
+        assertEquals(Collections.emptyList(), receive(store, C));
+
+        store.release();
+    }
+
+    @Test
+    void queuesShouldKeepMessagesExceedingTheInDegreeInTheOverflow() {
+        MessageStore store = queues(fromGdl(GRAPH));
+
+        // a has no slots at all, b overflows after the first and c after the second message
+        store.send(A, 10L);
+        store.send(A, 11L);
+        for (long message = 20L; message < 25L; message++) {
+            store.send(B, message);
+        }
+        for (long message = 30L; message < 33L; message++) {
+            store.send(C, message);
+        }
+
+        store.swap();
+        assertEquals(Arrays.asList(10L, 11L), receive(store, A));
+        assertEquals(Arrays.asList(20L, 21L, 22L, 23L, 24L), receive(store, B));
+        assertEquals(Arrays.asList(30L, 31L, 32L), receive(store, C));
+
+        // both buffers are reused without returning overflow messages of a previous superstep
+        store.send(B, 25L);
+        store.send(B, 26L);
+        store.swap();
+        assertEquals(Arrays.asList(25L, 26L), receive(store, B));
+        store.send(B, 27L);
+        store.swap();
+        assertEquals(Collections.singletonList(27L), receive(store, B));
+
+        store.release();
+    }
+
+    @Test
+    void queuesShouldAcceptConcurrentMessagesThatOverflow() {
+        MessageStore store = queues(fromGdl(GRAPH));
+
+        LongStream.range(0L, 10_000L).parallel().forEach(message -> store.send(C, message));
+        store.swap();
+
+        List<Long> received = receive(store, C);
+        Collections.sort(received);
+        assertEquals(LongStream.range(0L, 10_000L).boxed().collect(Collectors.toList()), received);
+
+        store.release();
+    }
+
+    @Test
+    void queuesShouldCountIncomingRelationshipsIfOnlyTheSendingSideIsLoaded() {
+        Graph outgoingOnly = new FilterGraph(fromGdl(GRAPH)) {
+            @Override
+            public Direction getLoadDirection() {
+                return Direction.OUTGOING;
+            }
+        };
+        MessageStore store = queues(outgoingOnly);
+
+        store.send(B, 1L);
+        store.send(C, 2L);
+        store.send(C, 3L);
+        store.swap();
+        assertEquals(Collections.singletonList(1L), receive(store, B));
+        assertEquals(Arrays.asList(2L, 3L), receive(store, C));
+
+        store.release();
+    }
+
+    @Test
+    void combiningShouldCombineDoubleMessages() {
+        MessageStore store = combining(Combiner.SUM, ValueType.DOUBLE, false);
+
+        store.send(C, Double.doubleToRawLongBits(1.5));
+        store.send(C, Double.doubleToRawLongBits(2.5));
+        assertEquals(Collections.emptyList(), receiveDoubles(store, C));
+
+        store.swap();
+        assertEquals(Collections.emptyList(), receiveDoubles(store, A));
+        assertEquals(Collections.singletonList(4.0), receiveDoubles(store, C));
+        assertEquals(Collections.emptyList(), receiveDoubles(store, C));
+
+        store.release();
+    }
+
+    @Test
+    void combiningShouldCombineLongMessages() {
+        MessageStore store = combining(Combiner.MIN, ValueType.LONG, false);
+
+        store.send(B, 7L);
+        store.send(B, 3L);
+        store.send(B, 5L);
+        store.swap();
+        assertEquals(Collections.singletonList(3L), receive(store, B));
+
+        store.release();
+    }
+
+    @Test
+    void combiningShouldFallBackToTheDoubleFunctionForLongMessages() {
+        MessageStore store = combining(Combiner.of((current, message) -> current * message), ValueType.LONG, false);
+
+        store.send(B, 3L);
+        store.send(B, 4L);
+        store.swap();
+        assertEquals(Collections.singletonList(12L), receive(store, B));
+
+        store.release();
+    }
+
+    @Test
+    void combiningShouldDeliverMessagesInTheSameSuperstepIfAsynchronous() {
+        MessageStore store = combining(Combiner.SUM, ValueType.LONG, true);
+
+        store.send(B, 1L);
+        store.send(B, 2L);
+        assertEquals(Collections.singletonList(3L), receive(store, B));
+
+        store.swap();
+        assertEquals(Collections.emptyList(), receive(store, B));
+
+        store.release();
+    }
+
+    @Test
+    void combiningShouldAcceptConcurrentMessages() {
+        MessageStore store = combining(Combiner.SUM, ValueType.LONG, false);
+
+        LongStream.range(0L, 10_000L).parallel().forEach(message -> store.send(C, message));
+        store.swap();
+        assertEquals(Collections.singletonList(10_000L * 9_999L / 2), receive(store, C));
+
+        store.release();
+    }
+
+    private static MessageStore queues(Graph graph) {
+        return new MessageStore.Queues(graph, Direction.OUTGOING, 4, Pools.DEFAULT, AllocationTracker.EMPTY);
+    }
+
+    private static MessageStore combining(Combiner combiner, ValueType messageType, boolean isAsynchronous) {
+        return new MessageStore.Combining(3L, combiner, messageType, isAsynchronous, AllocationTracker.EMPTY);
+    }
+
+    private static List<Long> receive(MessageStore store, long nodeId) {
+        Messages messages = new Messages(ValueType.LONG);
+        store.receive(nodeId, messages);
+        List<Long> received = new ArrayList<>();
+        while (messages.hasNext()) {
+            received.add(messages.nextLong());
+        }
+        return received;
+    }
+
+    private static List<Double> receiveDoubles(MessageStore store, long nodeId) {
+        Messages messages = new Messages(ValueType.DOUBLE);
+        store.receive(nodeId, messages);
+        List<Double> received = new ArrayList<>();
+        while (messages.hasNext()) {
+            received.add(messages.next());
+        }
+        return received;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.AlgoTestBase;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.pregel.examples.SingleSourceShortestPathPregel;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PregelTest extends AlgoTestBase {
+
+    private static final int PATH_LENGTH = 100;
+
+    private static final String PATH_GRAPH =
+        "UNWIND range(0, " + (PATH_LENGTH - 1) + ") AS id CREATE (:Node {id: id})" +
+        " WITH count(*) AS ignore" +
+        " MATCH (a:Node), (b:Node) WHERE b.id = a.id + 1" +
+        " CREATE (a)-[:TYPE]->(b)";
+
+    private Graph graph;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(PATH_GRAPH);
+        graph = new GraphLoader(db)
+            .withAnyRelationshipType()
+            .withAnyLabel()
+            .withDirection(Direction.OUTGOING)
+            .load(HugeGraphFactory.class);
+    }
+
+    @AfterEach
+    void shutdown() {
+        db.shutdown();
+    }
+
+    @Test
+    void shouldOnlyVisitActiveNodesOnSparseFrontiers() {
+        PregelConfig config = new PregelConfig.Builder()
+            .withMessageDirection(Direction.OUTGOING)
+            .isAsynchronous(false)
+            .build();
+
+        Pregel pregelJob = Pregel.withDefaultNodeValues(
+            graph,
+            config,
+            new SingleSourceShortestPathPregel(0),
+            10,
+            Pools.DEFAULT_CONCURRENCY,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+
+        HugeDoubleArray distances = pregelJob.run(2 * PATH_LENGTH);
+
+        assertEquals(PATH_LENGTH - 1, (long) distances.get(graph.toMappedNodeId(PATH_LENGTH - 1)));
+        assertEquals(PATH_LENGTH, pregelJob.getIterations());
+
+        List<SuperstepStatistics> statistics = pregelJob.getSuperstepStatistics();
+        assertEquals(PATH_LENGTH, statistics.size());
+
+        // no node votes to halt in the initial superstep
+        assertFalse(statistics.get(0).sparse());
+        assertEquals(PATH_LENGTH, statistics.get(0).activeNodes());
+        assertFalse(statistics.get(1).sparse());
+        assertEquals(PATH_LENGTH, statistics.get(1).activeNodes());
+
+        // afterwards, only the node that received the new distance is active
+        for (int iteration = 2; iteration < PATH_LENGTH; iteration++) {
+            SuperstepStatistics superstep = statistics.get(iteration);
+            assertEquals(iteration, superstep.iteration());
+            assertTrue(superstep.sparse());
+            assertEquals(1, superstep.activeNodes());
+        }
+    }
+
+    @Test
+    void shouldStoreTypedNodeValuesAndLongMessages() {
+        // not representable as a double
+        long offset = (1L << 60) + 1;
+
+        PregelComputation computation = new PregelComputation() {
+            @Override
+            public void compute(PregelContext context, long nodeId, Messages messages) {
+                if (context.isInitialSuperStep()) {
+                    context.sendMessages(nodeId, offset + nodeId);
+                } else {
+                    long[] received = new long[0];
+                    while (messages.hasNext()) {
+                        long message = messages.nextLong();
+                        context.setLongNodeValue("predecessor", nodeId, message);
+                        received = new long[]{message - offset};
+                    }
+                    context.setDoubleNodeValue("messageCount", nodeId, received.length);
+                    context.setLongArrayNodeValue("received", nodeId, received);
+                    context.voteToHalt(nodeId);
+                }
+            }
+
+            @Override
+            public NodeSchema nodeSchema() {
+                return NodeSchema.builder()
+                    .add("predecessor", ValueType.LONG)
+                    .add("messageCount", ValueType.DOUBLE)
+                    .add("received", ValueType.LONG_ARRAY)
+                    .build();
+            }
+
+            @Override
+            public ValueType messageType() {
+                return ValueType.LONG;
+            }
+        };
+
+        Pregel pregelJob = Pregel.withDefaultNodeValues(
+            graph,
+            new PregelConfig.Builder().withMessageDirection(Direction.OUTGOING).build(),
+            computation,
+            10,
+            Pools.DEFAULT_CONCURRENCY,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+        pregelJob.run(10);
+
+        NodeState nodeState = pregelJob.nodeState();
+        HugeLongArray predecessors = nodeState.longProperties("predecessor");
+        HugeDoubleArray messageCounts = nodeState.doubleProperties("messageCount");
+        HugeObjectArray<long[]> received = nodeState.longArrayProperties("received");
+
+        long first = graph.toMappedNodeId(0);
+        assertEquals(0D, messageCounts.get(first));
+        assertArrayEquals(new long[0], received.get(first));
+
+        for (int id = 1; id < PATH_LENGTH; id++) {
+            long nodeId = graph.toMappedNodeId(id);
+            long predecessor = graph.toMappedNodeId(id - 1);
+            assertEquals(offset + predecessor, predecessors.get(nodeId));
+            assertEquals(1D, messageCounts.get(nodeId));
+            assertArrayEquals(new long[]{predecessor}, received.get(nodeId));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> nodeState.doubleProperties("predecessor"));
+        assertThrows(IllegalArgumentException.class, () -> nodeState.longProperties("unknown"));
+    }
+}
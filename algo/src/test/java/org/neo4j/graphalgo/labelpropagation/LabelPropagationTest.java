@@ -157,16 +157,32 @@ final class LabelPropagationTest extends AlgoTestBase {
         testClustering(graph, 2);
     }
 
+    @AllGraphTypesTest
+    void testFrontierClustering(Class<? extends GraphFactory> graphImpl) {
+        Graph graph = loadGraph(graphImpl);
+        LabelPropagationStreamConfig config = ImmutableLabelPropagationStreamConfig.builder().frontier(true).build();
+        for (int i = 0; i < 20; i++) {
+            LabelPropagation lp = testLPClustering(graph, 2, config);
+
+            long[] activeNodes = lp.activeNodesPerIteration();
+            assertEquals(lp.iterationMillis().length, activeNodes.length);
+            assertEquals(graph.nodeCount(), activeNodes[0]);
+            for (long active : activeNodes) {
+                assertTrue(active <= graph.nodeCount());
+            }
+        }
+    }
+
     private void testClustering(Graph graph, int batchSize) {
         for (int i = 0; i < 20; i++) {
-            testLPClustering(graph, batchSize);
+            testLPClustering(graph, batchSize, defaultConfig());
         }
     }
 
-    private void testLPClustering(Graph graph, int batchSize) {
+    private LabelPropagation testLPClustering(Graph graph, int batchSize, LabelPropagationBaseConfig config) {
         LabelPropagation lp = new LabelPropagation(
                 graph,
-                defaultConfig(),
+                config,
                 Pools.DEFAULT,
                 AllocationTracker.EMPTY
         );
@@ -189,6 +205,7 @@ final class LabelPropagationTest extends AlgoTestBase {
                 assertArrayEquals(new int[]{2, 3, 4}, ids);
             }
         }
+        return lp;
     }
 
     private static IntObjectMap<IntArrayList> groupByPartitionInt(HugeLongArray labels) {
@@ -254,26 +271,31 @@ final class LabelPropagationTest extends AlgoTestBase {
             .memoryEstimation(ImmutableLabelPropagationStreamConfig.builder().build())
             .estimate(dimensions, concurrency)
             .memoryUsage();
-        long min = 80L /* LabelPropagation.class */ +
+        long min = 88L /* LabelPropagation.class */ +
                          16L * concurrency /* StepRunner.class */ +
                          48L * concurrency /* InitStep.class */ +
-                         56L * concurrency /* ComputeStep.class */ +
+                         64L * concurrency /* ComputeStep.class */ +
                          24L * concurrency /* ComputeStepConsumer.class */ +
                          HugeLongArray.memoryEstimation(nodeCount) /* labels HugeLongArray wrapper */ +
-                /* LongDoubleScatterMap votes */
-                         56L * concurrency /* LongDoubleScatterMap.class */ +
-                         (9 * 8 + 16) * concurrency /* long[] keys */ +
-                         (9 * 8 + 16) * concurrency; /* double[] values */
-        long max = 80L /* LabelPropagation.class */ +
+                /* LabelVotes votes */
+                         40L * concurrency /* LabelVotes.class */ +
+                         (16 * 8 + 16) * concurrency /* long[] labels */ +
+                         (16 * 8 + 16) * concurrency /* double[] weights */ +
+                         16L * concurrency /* int[] slots */ +
+                         16L * concurrency; /* int[] table */
+        long capacity = BitUtil.nextHighestPowerOfTwo(nodeCount);
+        long max = 88L /* LabelPropagation.class */ +
                          16L * concurrency /* StepRunner.class */ +
                          48L * concurrency /* InitStep.class */ +
-                         56L * concurrency /* ComputeStep.class */ +
+                         64L * concurrency /* ComputeStep.class */ +
                          24L * concurrency /* ComputeStepConsumer.class */ +
                          HugeLongArray.memoryEstimation(nodeCount) /* labels HugeLongArray wrapper */ +
-                /* LongDoubleScattermap votes */
-                         56L * concurrency /* LongDoubleScatterMap.class */ +
-                         ((BitUtil.nextHighestPowerOfTwo((long) (nodeCount / 0.75)) + 1) * 8 + 16) * concurrency /* long[] keys */ +
-                         ((BitUtil.nextHighestPowerOfTwo((long) (nodeCount / 0.75)) + 1) * 8 + 16) * concurrency; /* double[] values */
+                /* LabelVotes votes */
+                         40L * concurrency /* LabelVotes.class */ +
+                         (capacity * 8 + 16) * concurrency /* long[] labels */ +
+                         (capacity * 8 + 16) * concurrency /* double[] weights */ +
+                         (capacity * 4 + 16) * concurrency /* int[] slots */ +
+                         (2 * capacity * 4 + 16) * concurrency; /* int[] table */
 
         assertEquals(min, actual.min, "min");
         assertEquals(max, actual.max, "max");
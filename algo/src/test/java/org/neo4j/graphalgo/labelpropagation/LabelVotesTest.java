@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.labelpropagation;
+
+import com.carrotsearch.hppc.LongDoubleScatterMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LabelVotesTest {
+
+    @Test
+    void shouldReturnCurrentLabelWithoutVotes() {
+        LabelVotes votes = new LabelVotes();
+        assertEquals(42L, votes.tally(42L));
+    }
+
+    @Test
+    void shouldBreakTiesBySmallestLabel() {
+        LabelVotes votes = new LabelVotes();
+        votes.add(5L, 1.0);
+        votes.add(3L, 0.5);
+        votes.add(7L, 1.0);
+        votes.add(3L, 0.5);
+        assertEquals(3L, votes.tally(9L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, LabelVotes.LINEAR_SCAN_THRESHOLD, LabelVotes.LINEAR_SCAN_THRESHOLD + 1, 100, 10_000})
+    void shouldTallyLikeAHashMap(int distinctLabels) {
+        Random random = new Random(42L);
+        LabelVotes votes = new LabelVotes();
+        LongDoubleScatterMap expectedVotes = new LongDoubleScatterMap();
+
+        // the accumulator is reused for many nodes of different degrees
+        for (int node = 0; node < 100; node++) {
+            votes.clear();
+            expectedVotes.clear();
+            int labelCount = 1 + random.nextInt(distinctLabels);
+            int degree = 1 + random.nextInt(4 * labelCount);
+            for (int i = 0; i < degree; i++) {
+                long label = random.nextInt(labelCount) * 31L;
+                double weight = random.nextInt(3);
+                votes.add(label, weight);
+                expectedVotes.addTo(label, weight);
+            }
+            assertEquals(expectedVotes.size(), votes.size());
+            assertEquals(tally(expectedVotes, node), votes.tally(node));
+        }
+    }
+
+    private static long tally(LongDoubleScatterMap votes, long label) {
+        double weight = Double.NEGATIVE_INFINITY;
+        for (LongDoubleCursor vote : votes) {
+            if (weight < vote.value) {
+                weight = vote.value;
+                label = vote.key;
+            } else if (weight == vote.value && vote.key < label) {
+                label = vote.key;
+            }
+        }
+        return label;
+    }
+}
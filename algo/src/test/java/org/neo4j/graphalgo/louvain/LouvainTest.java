@@ -356,12 +356,12 @@ class LouvainTest extends AlgoTestBase {
 
     static Stream<Arguments> memoryEstimationTuples() {
         return Stream.of(
-            arguments(1, 1, 6414185, 16338896),
-            arguments(1, 10, 6414185, 23539256),
-            arguments(4, 1, 6417473, 22143272),
-            arguments(4, 10, 6417473, 29343632),
-            arguments(42, 1, 6459121, 98116760),
-            arguments(42, 10, 6459121, 105317120)
+            arguments(1, 1, 20034297, 29959008),
+            arguments(1, 10, 20034297, 37159368),
+            arguments(4, 1, 20037585, 35763384),
+            arguments(4, 10, 20037585, 42963744),
+            arguments(42, 1, 20079233, 111736872),
+            arguments(42, 10, 20079233, 118937232)
         );
     }
 
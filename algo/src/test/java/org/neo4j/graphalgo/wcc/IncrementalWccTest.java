@@ -29,6 +29,7 @@ import org.neo4j.graphalgo.StoreLoaderBuilder;
 import org.neo4j.graphalgo.TestDatabaseCreator;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
@@ -137,6 +138,36 @@ class IncrementalWccTest extends AlgoTestBase {
             .forEach(node -> assertEquals(42, result.setIdOf(node)));
     }
 
+    @Test
+    void shouldOnlyLinkAppendedRelationships() {
+        // Given
+        // Only the relationship that was created after the seed components were computed is loaded
+        Graph graph = fromGdl(
+            "  (a {id: 1, seed: 1})" +
+            ", (b {id: 2, seed: 1})" +
+            ", (c {id: 3, seed: 2})" +
+            ", (d {id: 4, seed: 2})" +
+            ", (e {id: 5, seed: 3})" +
+            ", (b)-->(c)"
+        );
+
+        // When
+        WccStreamConfig config = ImmutableWccStreamConfig.builder()
+            .seedProperty("seed")
+            .appendedRelationshipsOnly(true)
+            .build();
+
+        DisjointSetStruct result = run(graph, config);
+
+        // Then
+        NodeProperties seeds = graph.nodeProperties("seed");
+        graph.forEachNode(nodeId -> {
+            long seed = (long) seeds.nodeProperty(nodeId);
+            assertEquals(seed == 3 ? 3 : 1, result.setIdOf(nodeId), "Node with seed " + seed + " in unexpected set");
+            return true;
+        });
+    }
+
     /**
      * Creates a line graph of the given length (i.e. numer of relationships).
      *
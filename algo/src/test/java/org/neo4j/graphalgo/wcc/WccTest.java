@@ -30,18 +30,24 @@ import org.neo4j.graphalgo.Projection;
 import org.neo4j.graphalgo.StoreLoaderBuilder;
 import org.neo4j.graphalgo.TestDatabaseCreator;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongLongMap;
 import org.neo4j.graphalgo.core.utils.paged.dss.DisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.paged.dss.IncrementalDisjointSetStruct;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.RelationshipType;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.graphalgo.QueryRunner.runInTransaction;
@@ -123,6 +129,46 @@ class WccTest extends AlgoTestBase {
         });
     }
 
+    @ParameterizedTest(name = "projection = {0}")
+    @EnumSource(Projection.class)
+    void afforestShouldComputeSameComponents(Projection projection) {
+        Graph graph = new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .addRelationshipType(RELATIONSHIP_TYPE.name())
+            .globalProjection(projection)
+            .build()
+            .graph(HugeGraphFactory.class);
+
+        assertSameComponents(graph);
+    }
+
+    @ParameterizedTest(name = "distribution = {0}")
+    @EnumSource(RelationshipDistribution.class)
+    void afforestShouldComputeSameComponentsOnGeneratedGraphs(RelationshipDistribution distribution) {
+        Graph graph = new RandomGraphGenerator(
+            10_000,
+            3,
+            distribution,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+
+        assertSameComponents(graph);
+    }
+
+    private void assertSameComponents(Graph graph) {
+        DisjointSetStruct expected = run(graph);
+        DisjointSetStruct actual = run(graph, ImmutableWccStreamConfig.builder().afforest(true).build());
+
+        assertEquals(getSetCount(expected), getSetCount(actual));
+        graph.forEachNode(nodeId -> {
+            assertEquals(expected.setIdOf(nodeId), actual.setIdOf(nodeId), "Node " + nodeId + " in unexpected set");
+            return true;
+        });
+    }
+
     @Test
     void memRecParallel() {
         GraphDimensions dimensions0 = ImmutableGraphDimensions.builder().nodeCount(0).build();
@@ -205,6 +251,16 @@ class WccTest extends AlgoTestBase {
         );
     }
 
+    @Test
+    void memRecAppendedRelationshipsOnly() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder().nodeCount(100).build();
+
+        MemoryRange expected = MemoryRange.of(MemoryUsage.sizeOfInstance(Wcc.class))
+            .add(IncrementalDisjointSetStruct.memoryEstimation().estimate(dimensions, 1).memoryUsage())
+            .add(HugeLongLongMap.memoryEstimation().estimate(dimensions, 1).memoryUsage());
+        assertEquals(expected, Wcc.memoryEstimation(true, true).estimate(dimensions, 1).memoryUsage());
+    }
+
     private void createTestGraph(int... setSizes) {
         runInTransaction(db, () -> {
             for (int setSize : setSizes) {
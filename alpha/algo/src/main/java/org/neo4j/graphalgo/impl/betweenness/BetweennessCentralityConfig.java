@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.impl.betweenness;
 
+import org.immutables.value.Value;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
@@ -30,6 +31,20 @@ import java.util.Optional;
 @Configuration("BetweennessCentralityConfigImpl")
 public interface BetweennessCentralityConfig extends BaseBetweennessCentralityConfig {
 
+    @Value.Default
+    default int sourceBatchSize() {
+        return HugeBetweennessCentrality.MAX_BATCH_SIZE;
+    }
+
+    @Value.Check
+    default void validate() {
+        if (sourceBatchSize() < 1 || sourceBatchSize() > HugeBetweennessCentrality.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                "The value of `sourceBatchSize` must be between 1 and " + HugeBetweennessCentrality.MAX_BATCH_SIZE +
+                ", but was " + sourceBatchSize() + ".");
+        }
+    }
+
     static BetweennessCentralityConfig of(
         Optional<String> graphName,
         Optional<GraphCreateConfig> implicitCreateConfig,
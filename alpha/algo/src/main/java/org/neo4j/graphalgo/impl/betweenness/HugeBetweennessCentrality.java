@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.betweenness;
+
+import org.neo4j.graphalgo.Algorithm;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeCursor;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.humanReadable;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfInstance;
+
+/**
+ * Implements Betweenness Centrality for unweighted graphs with long node ids.
+ *
+ * Like {@link BetweennessCentrality}, each task takes sources from a shared counter. Instead of a single source,
+ * a task takes a batch of up to 64 consecutive sources and traverses the graph for all of them at once,
+ * as described in [1]. Every node keeps one bit per source in the seen/visit/next sets of
+ * {@link org.neo4j.graphalgo.impl.msbfs.MultiSourceBFS}, so the relationships of a node are decoded
+ * once per level for all sources that reach it at that level.
+ * The number of shortest paths, the dependency and the distance are stored per node and source in paged arrays.
+ *
+ * The memory of a task grows linearly with the batch size. The batch size, and if required the concurrency,
+ * is reduced so that all tasks fit into the available heap. If not even a single task with one source fits,
+ * the computation fails.
+ *
+ * [1]: Then, Günnemann, Kemper, Neumann, "Efficient Batched Distance and Centrality Computation in
+ * Unweighted and Weighted Graphs", BTW 2017
+ */
+public class HugeBetweennessCentrality extends Algorithm<HugeBetweennessCentrality, HugeBetweennessCentrality> {
+
+    // one bit per source in the seen/visit/next sets
+    public static final int MAX_BATCH_SIZE = 64;
+
+    private Graph graph;
+    private final long nodeCount;
+    private final ExecutorService executorService;
+    private final int concurrency;
+    private final int batchSize;
+    private final AllocationTracker tracker;
+    private final AtomicLong sourceQueue = new AtomicLong();
+    private HugeAtomicDoubleArray centrality;
+    private Direction direction = Direction.OUTGOING;
+    private double divisor = 1.0;
+
+    /**
+     * @param graph           the graph iface
+     * @param executorService the executor service
+     * @param concurrency     desired number of threads to spawn
+     * @param batchSize       maximum number of sources traversed at once, at most {@link #MAX_BATCH_SIZE}
+     * @param tracker         the allocation tracker
+     */
+    public HugeBetweennessCentrality(
+        Graph graph,
+        ExecutorService executorService,
+        int concurrency,
+        int batchSize,
+        AllocationTracker tracker
+    ) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                "The batch size must be between 1 and " + MAX_BATCH_SIZE + ", but was " + batchSize + ".");
+        }
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.executorService = executorService;
+        this.tracker = tracker;
+        this.centrality = HugeAtomicDoubleArray.newArray(nodeCount, tracker);
+
+        long availableBytes = availableMemory();
+        validateAvailableMemory(nodeCount, availableBytes);
+        this.batchSize = batchSize(nodeCount, concurrency, batchSize, availableBytes);
+        this.concurrency = concurrency(nodeCount, concurrency, this.batchSize, availableBytes);
+    }
+
+    /**
+     * set traversal direction
+     * OUTGOING for undirected graphs!
+     */
+    public HugeBetweennessCentrality withDirection(Direction direction) {
+        if (direction == Direction.BOTH) {
+            this.direction = Direction.OUTGOING;
+            this.divisor = 2.0;
+        }
+        return this;
+    }
+
+    /**
+     * Estimates the memory for {@code batchSize} sources per task, which is an upper bound:
+     * at runtime the batch size and the concurrency may be reduced to fit into the available heap.
+     */
+    public static MemoryEstimation memoryEstimation(int batchSize) {
+        return MemoryEstimations.builder(HugeBetweennessCentrality.class)
+            .perNode("centrality", HugeAtomicDoubleArray::memoryEstimation)
+            .perThread("BCTask", MemoryEstimations.builder(BCTask.class)
+                .perNode("seen, visit, next", nodeCount -> 3 * HugeLongArray.memoryEstimation(nodeCount))
+                .perNode("sigma, delta", nodeCount -> 2 * HugeDoubleArray.memoryEstimation(nodeCount * batchSize))
+                .perNode("distance", nodeCount -> HugeIntArray.memoryEstimation(nodeCount * batchSize))
+                .build())
+            .build();
+    }
+
+    /**
+     * The largest batch size up to {@code maxBatchSize} for which {@code concurrency} tasks
+     * fit into {@code availableBytes}, but at least 1.
+     */
+    static int batchSize(long nodeCount, int concurrency, int maxBatchSize, long availableBytes) {
+        int batchSize = maxBatchSize;
+        while (batchSize > 1 && concurrency * memoryUsagePerTask(nodeCount, batchSize) > availableBytes) {
+            batchSize--;
+        }
+        return batchSize;
+    }
+
+    /**
+     * The largest concurrency up to {@code maxConcurrency} for which all tasks
+     * fit into {@code availableBytes}, but at least 1.
+     */
+    static int concurrency(long nodeCount, int maxConcurrency, int batchSize, long availableBytes) {
+        long tasks = availableBytes / memoryUsagePerTask(nodeCount, batchSize);
+        return (int) Math.max(1L, Math.min(maxConcurrency, tasks));
+    }
+
+    /**
+     * Fails if not even a single task with one source fits into {@code availableBytes}.
+     */
+    static void validateAvailableMemory(long nodeCount, long availableBytes) {
+        long minimumBytes = memoryUsagePerTask(nodeCount, 1);
+        if (minimumBytes > availableBytes) {
+            throw new IllegalStateException(String.format(
+                "Betweenness Centrality requires at least %s for a single task with one source at a time, but only %s are available.",
+                humanReadable(minimumBytes),
+                humanReadable(availableBytes)
+            ));
+        }
+    }
+
+    static long memoryUsagePerTask(long nodeCount, int batchSize) {
+        return sizeOfInstance(BCTask.class) +
+               3 * HugeLongArray.memoryEstimation(nodeCount) +
+               2 * HugeDoubleArray.memoryEstimation(nodeCount * batchSize) +
+               HugeIntArray.memoryEstimation(nodeCount * batchSize);
+    }
+
+    private static long availableMemory() {
+        Runtime rt = Runtime.getRuntime();
+
+        long max = rt.maxMemory(); // max allocated
+        long total = rt.totalMemory(); // currently allocated
+        long free = rt.freeMemory(); // unused portion of currently allocated
+
+        return max - total + free;
+    }
+
+    /**
+     * compute centrality
+     *
+     * @return itself for method chaining
+     */
+    @Override
+    public HugeBetweennessCentrality compute() {
+        if (nodeCount == 0L) {
+            return this;
+        }
+        sourceQueue.set(0L);
+        ArrayList<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executorService.submit(new BCTask()));
+        }
+        ParallelUtil.awaitTermination(futures);
+        return this;
+    }
+
+    /**
+     * get the centrality array
+     *
+     * @return array with centrality
+     */
+    public HugeAtomicDoubleArray getCentrality() {
+        return centrality;
+    }
+
+    /**
+     * the number of sources traversed at once after applying the memory limit
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * the number of tasks after applying the memory limit
+     */
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * emit the result stream
+     *
+     * @return stream if Results
+     */
+    public Stream<BetweennessCentrality.Result> resultStream() {
+        return LongStream
+            .range(0, nodeCount)
+            .mapToObj(nodeId -> new BetweennessCentrality.Result(
+                graph.toOriginalNodeId(nodeId),
+                centrality.get(nodeId)
+            ));
+    }
+
+    @Override
+    public HugeBetweennessCentrality me() {
+        return this;
+    }
+
+    /**
+     * release internal data structures
+     */
+    @Override
+    public void release() {}
+
+    /**
+     * a BCTask takes a batch of sources from the sourceQueue and adds their dependencies to the centrality
+     */
+    private final class BCTask implements Runnable {
+
+        private final RelationshipIterator relationships;
+        // one bit per source of the batch
+        private final HugeLongArray seen;
+        private final HugeLongArray visit;
+        private final HugeLongArray next;
+        private final HugeCursor<long[]> seenCursor;
+        private final HugeCursor<long[]> visitCursor;
+        private final HugeCursor<long[]> nextCursor;
+        // indexed by nodeId * batchSize + source, only valid if the bit of the source is seen
+        private final HugeDoubleArray sigma;
+        private final HugeDoubleArray delta;
+        private final HugeIntArray distance;
+
+        private final Discover discover;
+        private final Accumulate accumulate;
+
+        private BCTask() {
+            this.relationships = graph.concurrentCopy();
+            this.seen = HugeLongArray.newArray(nodeCount, tracker);
+            this.visit = HugeLongArray.newArray(nodeCount, tracker);
+            this.next = HugeLongArray.newArray(nodeCount, tracker);
+            this.seenCursor = seen.newCursor();
+            this.visitCursor = visit.newCursor();
+            this.nextCursor = next.newCursor();
+            this.sigma = HugeDoubleArray.newArray(nodeCount * batchSize, tracker);
+            this.delta = HugeDoubleArray.newArray(nodeCount * batchSize, tracker);
+            this.distance = HugeIntArray.newArray(nodeCount * batchSize, tracker);
+            this.discover = new Discover();
+            this.accumulate = new Accumulate();
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (; ; ) {
+                    long start = sourceQueue.getAndAdd(batchSize);
+                    if (start >= nodeCount || !running()) {
+                        return;
+                    }
+                    int sources = (int) Math.min(batchSize, nodeCount - start);
+                    int maxDepth = forward(start, sources);
+                    backward(maxDepth);
+                    getProgressLogger().logProgress((double) (start + sources) / nodeCount);
+                }
+            } finally {
+                seen.release();
+                visit.release();
+                next.release();
+                sigma.release();
+                delta.release();
+                distance.release();
+            }
+        }
+
+        /**
+         * level-synchronous traversal for all sources of the batch
+         *
+         * @return the depth of the last level
+         */
+        private int forward(long start, int sources) {
+            seen.fill(0L);
+            visit.fill(0L);
+            next.fill(0L);
+            for (int source = 0; source < sources; source++) {
+                long nodeId = start + source;
+                seen.set(nodeId, 1L << source);
+                visit.set(nodeId, 1L << source);
+                sigma.set(index(nodeId, source), 1.0);
+                delta.set(index(nodeId, source), 0.0);
+                distance.set(index(nodeId, source), 0);
+            }
+
+            int depth = 0;
+            while (true) {
+                discover.depth = depth + 1;
+                visit.initCursor(visitCursor);
+                while (visitCursor.next()) {
+                    long[] array = visitCursor.array;
+                    for (int i = visitCursor.offset; i < visitCursor.limit; i++) {
+                        if (array[i] != 0L) {
+                            discover.nodeId = visitCursor.base + i;
+                            discover.sources = array[i];
+                            relationships.forEachRelationship(discover.nodeId, direction, discover);
+                        }
+                    }
+                }
+
+                boolean hasNext = false;
+                next.initCursor(nextCursor);
+                while (nextCursor.next()) {
+                    long[] array = nextCursor.array;
+                    for (int i = nextCursor.offset; i < nextCursor.limit; i++) {
+                        if (array[i] != 0L) {
+                            seen.or(nextCursor.base + i, array[i]);
+                            hasNext = true;
+                        }
+                    }
+                }
+                if (!hasNext) {
+                    return depth;
+                }
+
+                depth++;
+                next.copyTo(visit, nodeCount);
+                next.fill(0L);
+            }
+        }
+
+        /**
+         * accumulates the dependencies level by level, starting at the deepest level
+         */
+        private void backward(int maxDepth) {
+            for (int depth = maxDepth; depth > 0; depth--) {
+                accumulate.depth = depth;
+                seen.initCursor(seenCursor);
+                while (seenCursor.next()) {
+                    long[] array = seenCursor.array;
+                    for (int i = seenCursor.offset; i < seenCursor.limit; i++) {
+                        if (array[i] != 0L) {
+                            accumulateDependencies(seenCursor.base + i, array[i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void accumulateDependencies(long nodeId, long seenSources) {
+            long sources = 0L;
+            for (long bits = seenSources; bits != 0L; bits &= bits - 1) {
+                int source = Long.numberOfTrailingZeros(bits);
+                if (distance.get(index(nodeId, source)) == accumulate.depth) {
+                    sources |= 1L << source;
+                }
+            }
+            if (sources == 0L) {
+                return;
+            }
+
+            accumulate.nodeId = nodeId;
+            accumulate.sources = sources;
+            relationships.forEachRelationship(nodeId, direction, accumulate);
+
+            double dependency = 0.0;
+            for (long bits = sources; bits != 0L; bits &= bits - 1) {
+                dependency += delta.get(index(nodeId, Long.numberOfTrailingZeros(bits)));
+            }
+            double value = dependency / divisor;
+            centrality.update(nodeId, current -> current + value);
+        }
+
+        private long index(long nodeId, int source) {
+            return nodeId * batchSize + source;
+        }
+
+        /**
+         * Discovers the neighbours of a node for all sources that visit the node at the current level.
+         * As the seen set is only updated after the level, a neighbour that is not yet seen by a source
+         * is one level deeper than the node for that source.
+         */
+        private final class Discover implements RelationshipConsumer {
+
+            long nodeId;
+            long sources;
+            int depth;
+
+            @Override
+            public boolean accept(long sourceNodeId, long targetNodeId) {
+                long discovered = sources & ~seen.get(targetNodeId);
+                if (discovered == 0L) {
+                    return true;
+                }
+                long first = discovered & ~next.get(targetNodeId);
+                next.or(targetNodeId, discovered);
+                for (long bits = discovered; bits != 0L; bits &= bits - 1) {
+                    int source = Long.numberOfTrailingZeros(bits);
+                    long target = index(targetNodeId, source);
+                    double paths = sigma.get(index(nodeId, source));
+                    if ((first & (1L << source)) != 0L) {
+                        sigma.set(target, paths);
+                        delta.set(target, 0.0);
+                        distance.set(target, depth);
+                    } else {
+                        sigma.addTo(target, paths);
+                    }
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Adds the dependencies of the neighbours one level deeper to a node.
+         */
+        private final class Accumulate implements RelationshipConsumer {
+
+            long nodeId;
+            long sources;
+            int depth;
+
+            @Override
+            public boolean accept(long sourceNodeId, long targetNodeId) {
+                for (long bits = sources & seen.get(targetNodeId); bits != 0L; bits &= bits - 1) {
+                    int source = Long.numberOfTrailingZeros(bits);
+                    long target = index(targetNodeId, source);
+                    if (distance.get(target) == depth + 1) {
+                        long node = index(nodeId, source);
+                        delta.addTo(node, sigma.get(node) / sigma.get(target) * (delta.get(target) + 1.0));
+                    }
+                }
+                return true;
+            }
+        }
+    }
+}
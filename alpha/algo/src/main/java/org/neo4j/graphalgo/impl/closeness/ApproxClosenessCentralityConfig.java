@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.closeness;
+
+import org.immutables.value.Value;
+import org.neo4j.graphalgo.annotation.Configuration;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.newapi.AlgoBaseConfig;
+import org.neo4j.graphalgo.newapi.GraphCreateConfig;
+import org.neo4j.graphalgo.newapi.WriteConfig;
+
+import java.util.Optional;
+
+@ValueClass
+@Configuration("ApproxClosenessCentralityConfigImpl")
+public interface ApproxClosenessCentralityConfig extends
+    AlgoBaseConfig,
+    WriteConfig
+{
+
+    @Value.Default
+    default boolean improved() {
+        return false;
+    }
+
+    @Value.Default
+    default boolean harmonic() {
+        return false;
+    }
+
+    @Value.Default
+    default int precision() {
+        return HyperBallCentrality.DEFAULT_PRECISION;
+    }
+
+    @Value.Default
+    default String writeProperty() {
+        return "centrality";
+    }
+
+    @Value.Check
+    default void validate() {
+        if (precision() < HyperBallCentrality.MIN_PRECISION || precision() > HyperBallCentrality.MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "The value of `precision` must be between " + HyperBallCentrality.MIN_PRECISION +
+                " and " + HyperBallCentrality.MAX_PRECISION + ", but was " + precision() + ".");
+        }
+    }
+
+    static ApproxClosenessCentralityConfig of(
+        Optional<String> graphName,
+        Optional<GraphCreateConfig> implicitCreateConfig,
+        String username,
+        CypherMapWrapper config
+    ) {
+        return new ApproxClosenessCentralityConfigImpl(graphName, implicitCreateConfig, username, config);
+    }
+}
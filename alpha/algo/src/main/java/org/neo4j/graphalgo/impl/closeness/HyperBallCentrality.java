@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.closeness;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import org.neo4j.graphalgo.Algorithm;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphdb.Direction;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Approximate Closeness and Harmonic Centrality
+ *
+ * Implements HyperBall [1]: every node keeps a {@link HyperLogLogCounters HyperLogLog counter} of the nodes
+ * within distance {@code t}. In iteration {@code t + 1} the counter of a node becomes the union of its own
+ * counter and the counters of its neighbours. Only neighbours whose counter changed in the previous iteration
+ * are merged, as the others are already contained in the counter of the node. The iteration stops once
+ * no counter changes, which takes as many iterations as the longest shortest path.
+ *
+ * The difference of the estimated ball sizes between two iterations is the number of nodes at that distance,
+ * which yields the farness, the harmonic centrality and the neighbourhood function of the graph.
+ * Each iteration processes every relationship once and runs in parallel over node partitions.
+ *
+ * [1]: Boldi, Vigna, "In-Core Computation of Geometric Centralities with HyperBall: A Hundred Billion Nodes and Beyond", ICDMW 2013
+ */
+public class HyperBallCentrality extends Algorithm<HyperBallCentrality, HyperBallCentrality> {
+
+    public static final int MIN_PRECISION = HyperLogLogCounters.MIN_PRECISION;
+    public static final int MAX_PRECISION = HyperLogLogCounters.MAX_PRECISION;
+    public static final int DEFAULT_PRECISION = 6;
+
+    private Graph graph;
+    private final long nodeCount;
+    private final int concurrency;
+    private final ExecutorService executorService;
+    private final AllocationTracker tracker;
+    private final int precision;
+    private final boolean wassermanFaust;
+    private final boolean harmonic;
+
+    private HugeDoubleArray farness;
+    private HugeDoubleArray inverseDistanceSum;
+    private HugeDoubleArray reachable;
+    private final DoubleArrayList neighbourhoodFunction;
+
+    /**
+     * @param precision      log2 of the number of registers per counter
+     * @param wassermanFaust whether the closeness is scaled by the size of the reachable component
+     * @param harmonic       whether the harmonic centrality is returned instead of the closeness
+     */
+    public HyperBallCentrality(
+        Graph graph,
+        AllocationTracker tracker,
+        int concurrency,
+        ExecutorService executorService,
+        int precision,
+        boolean wassermanFaust,
+        boolean harmonic
+    ) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "The precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION +
+                ", but was " + precision + ".");
+        }
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.concurrency = concurrency;
+        this.executorService = executorService;
+        this.tracker = tracker;
+        this.precision = precision;
+        this.wassermanFaust = wassermanFaust;
+        this.harmonic = harmonic;
+        this.neighbourhoodFunction = new DoubleArrayList();
+    }
+
+    public static MemoryEstimation memoryEstimation(int precision) {
+        return MemoryEstimations.builder(HyperBallCentrality.class)
+            .perNode("counters", nodeCount -> 2 * HyperLogLogCounters.memoryEstimation(nodeCount, precision))
+            .perNode("changed", nodeCount -> 2 * HugeAtomicBitSet.memoryEstimation(nodeCount))
+            .perNode("farness, harmonic, reachable", nodeCount -> 3 * HugeDoubleArray.memoryEstimation(nodeCount))
+            .perThread("buffer", MemoryUsage.sizeOfLongArray(HyperLogLogCounters.wordsPerCounter(precision)))
+            .build();
+    }
+
+    @Override
+    public HyperBallCentrality compute() {
+        farness = HugeDoubleArray.newArray(nodeCount, tracker);
+        inverseDistanceSum = HugeDoubleArray.newArray(nodeCount, tracker);
+        reachable = HugeDoubleArray.newArray(nodeCount, tracker);
+        neighbourhoodFunction.clear();
+        if (nodeCount == 0L) {
+            return this;
+        }
+
+        HyperLogLogCounters current = new HyperLogLogCounters(nodeCount, precision, tracker);
+        HyperLogLogCounters next = new HyperLogLogCounters(nodeCount, precision, tracker);
+        HugeAtomicBitSet changed = HugeAtomicBitSet.create(nodeCount, tracker);
+        HugeAtomicBitSet nextChanged = HugeAtomicBitSet.create(nodeCount, tracker);
+        initialize(current, changed);
+
+        ProgressLogger progressLogger = getProgressLogger();
+        int distance = 0;
+        long changedCount = nodeCount;
+        while (changedCount > 0L && running()) {
+            distance++;
+            changedCount = iterate(distance, current, next, changed, nextChanged);
+            progressLogger.log(changedCount + " counters changed at distance " + distance);
+
+            HyperLogLogCounters tmpCounters = current;
+            current = next;
+            next = tmpCounters;
+            HugeAtomicBitSet tmpChanged = changed;
+            changed = nextChanged;
+            nextChanged = tmpChanged;
+            nextChanged.clear();
+        }
+
+        current.release();
+        next.release();
+        changed.release();
+        nextChanged.release();
+
+        // the ball of every node contains the node itself
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                reachable.set(nodeId, Math.max(0.0, reachable.get(nodeId) - 1.0));
+            }
+        });
+        return this;
+    }
+
+    private void initialize(HyperLogLogCounters counters, HugeAtomicBitSet changed) {
+        DoubleAdder ballSizes = new DoubleAdder();
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            long[] buffer = new long[counters.wordsPerCounter()];
+            double localBallSizes = 0.0;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                counters.add(nodeId, nodeId);
+                counters.copyTo(nodeId, buffer);
+                double size = counters.estimate(buffer);
+                reachable.set(nodeId, size);
+                localBallSizes += size;
+                changed.set(nodeId);
+            }
+            ballSizes.add(localBallSizes);
+        });
+        neighbourhoodFunction.add(ballSizes.sum());
+    }
+
+    private long iterate(
+        int distance,
+        HyperLogLogCounters current,
+        HyperLogLogCounters next,
+        HugeAtomicBitSet changed,
+        HugeAtomicBitSet nextChanged
+    ) {
+        AtomicLong changedCount = new AtomicLong();
+        DoubleAdder ballSizes = new DoubleAdder();
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            RelationshipIterator relationships = graph.concurrentCopy();
+            long[] buffer = new long[current.wordsPerCounter()];
+            long localChanged = 0L;
+            double localBallSizes = 0.0;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                current.copyTo(nodeId, buffer);
+                relationships.forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                    if (changed.get(target)) {
+                        current.unionInto(target, buffer);
+                    }
+                    return true;
+                });
+                next.copyFrom(nodeId, buffer);
+
+                if (current.equalTo(nodeId, buffer)) {
+                    localBallSizes += reachable.get(nodeId);
+                    continue;
+                }
+                nextChanged.set(nodeId);
+                localChanged++;
+
+                double size = current.estimate(buffer);
+                // the estimate is not monotone, so the nodes at this distance are never counted negatively
+                double atDistance = Math.max(0.0, size - reachable.get(nodeId));
+                farness.addTo(nodeId, distance * atDistance);
+                inverseDistanceSum.addTo(nodeId, atDistance / distance);
+                reachable.set(nodeId, Math.max(size, reachable.get(nodeId)));
+                localBallSizes += reachable.get(nodeId);
+            }
+            changedCount.addAndGet(localChanged);
+            ballSizes.add(localBallSizes);
+        });
+        if (changedCount.get() > 0L) {
+            neighbourhoodFunction.add(ballSizes.sum());
+        }
+        return changedCount.get();
+    }
+
+    /**
+     * The estimated number of pairs of nodes within distance {@code t} for every distance {@code t},
+     * starting with the pairs of every node with itself.
+     */
+    public double[] neighbourhoodFunction() {
+        return neighbourhoodFunction.toArray();
+    }
+
+    /**
+     * The estimated number of pairs of nodes at exactly distance {@code t} for every distance {@code t}.
+     */
+    public double[] distanceDistribution() {
+        double[] cumulative = neighbourhoodFunction();
+        double[] distribution = new double[cumulative.length];
+        for (int distance = 0; distance < cumulative.length; distance++) {
+            distribution[distance] = distance == 0
+                ? cumulative[0]
+                : cumulative[distance] - cumulative[distance - 1];
+        }
+        return distribution;
+    }
+
+    public double centrality(long nodeId) {
+        if (harmonic) {
+            return nodeCount > 1L ? inverseDistanceSum.get(nodeId) / (nodeCount - 1) : 0.0;
+        }
+        return MSClosenessCentrality.centrality(farness.get(nodeId), reachable.get(nodeId), nodeCount, wassermanFaust);
+    }
+
+    public void export(final String propertyName, final NodePropertyExporter exporter) {
+        exporter.write(
+            propertyName,
+            this,
+            (PropertyTranslator.OfDouble<HyperBallCentrality>) HyperBallCentrality::centrality
+        );
+    }
+
+    public Stream<MSClosenessCentrality.Result> resultStream() {
+        return LongStream.range(0L, nodeCount)
+            .mapToObj(nodeId -> new MSClosenessCentrality.Result(
+                graph.toOriginalNodeId(nodeId),
+                centrality(nodeId)
+            ));
+    }
+
+    @Override
+    public HyperBallCentrality me() {
+        return this;
+    }
+
+    @Override
+    public void release() {}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.closeness;
+
+import com.carrotsearch.hppc.BitMixer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfInstance;
+
+/**
+ * An array of HyperLogLog counters [1] with {@code 2^precision} registers each.
+ *
+ * Every register is stored in one byte and eight registers are packed into a long,
+ * so that the union of two counters is a broadword maximum over {@code 2^precision / 8} longs as described in [2].
+ * The register values are at most {@code 64 - precision + 1}, so the highest bit of every byte is always zero.
+ *
+ * [1]: Flajolet, Fusy, Gandouet, Meunier, "HyperLogLog: the analysis of a near-optimal cardinality estimation algorithm", AofA 2007
+ * [2]: Boldi, Vigna, "In-Core Computation of Geometric Centralities with HyperBall: A Hundred Billion Nodes and Beyond", ICDMW 2013
+ */
+final class HyperLogLogCounters {
+
+    static final int MIN_PRECISION = 4;
+    static final int MAX_PRECISION = 16;
+
+    private static final int REGISTERS_PER_WORD = Long.BYTES;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long REGISTER_MASK = 0xFFL;
+
+    // 2^-rank for every possible register value
+    private static final double[] INVERSE_POWERS_OF_TWO = new double[Long.SIZE + 1];
+
+    static {
+        for (int rank = 0; rank < INVERSE_POWERS_OF_TWO.length; rank++) {
+            INVERSE_POWERS_OF_TWO[rank] = Math.scalb(1.0, -rank);
+        }
+    }
+
+    private final HugeLongArray words;
+    private final int precision;
+    private final int registers;
+    private final int wordsPerCounter;
+    private final double alphaMM;
+
+    HyperLogLogCounters(long counters, int precision, AllocationTracker tracker) {
+        this.precision = precision;
+        this.registers = 1 << precision;
+        this.wordsPerCounter = registers / REGISTERS_PER_WORD;
+        this.words = HugeLongArray.newArray(counters * wordsPerCounter, tracker);
+        this.alphaMM = alpha(registers) * registers * registers;
+    }
+
+    static long memoryEstimation(long counters, int precision) {
+        return sizeOfInstance(HyperLogLogCounters.class) +
+               HugeLongArray.memoryEstimation(counters * wordsPerCounter(precision));
+    }
+
+    static int wordsPerCounter(int precision) {
+        return (1 << precision) / REGISTERS_PER_WORD;
+    }
+
+    int wordsPerCounter() {
+        return wordsPerCounter;
+    }
+
+    /**
+     * Adds the given element to the counter.
+     */
+    void add(long counter, long element) {
+        long hash = BitMixer.mix64(element);
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        // the guard bit limits the rank to 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        long index = wordIndex(counter, register);
+        int shift = (register % REGISTERS_PER_WORD) * Byte.SIZE;
+        long word = words.get(index);
+        if (((word >>> shift) & REGISTER_MASK) < rank) {
+            words.set(index, (word & ~(REGISTER_MASK << shift)) | ((long) rank << shift));
+        }
+    }
+
+    /**
+     * Copies the registers of the counter into the buffer.
+     */
+    void copyTo(long counter, long[] buffer) {
+        long offset = counter * wordsPerCounter;
+        for (int i = 0; i < wordsPerCounter; i++) {
+            buffer[i] = words.get(offset + i);
+        }
+    }
+
+    /**
+     * Replaces the registers of the counter with the buffer.
+     */
+    void copyFrom(long counter, long[] buffer) {
+        long offset = counter * wordsPerCounter;
+        for (int i = 0; i < wordsPerCounter; i++) {
+            words.set(offset + i, buffer[i]);
+        }
+    }
+
+    /**
+     * Merges the registers of the counter into the buffer.
+     */
+    void unionInto(long counter, long[] buffer) {
+        long offset = counter * wordsPerCounter;
+        for (int i = 0; i < wordsPerCounter; i++) {
+            buffer[i] = max(buffer[i], words.get(offset + i));
+        }
+    }
+
+    /**
+     * Whether the registers of the counter are equal to the buffer.
+     */
+    boolean equalTo(long counter, long[] buffer) {
+        long offset = counter * wordsPerCounter;
+        for (int i = 0; i < wordsPerCounter; i++) {
+            if (buffer[i] != words.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the number of distinct elements in the buffer.
+     */
+    double estimate(long[] buffer) {
+        double sum = 0.0;
+        int zeros = 0;
+        for (long word : buffer) {
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                int rank = (int) ((word >>> shift) & REGISTER_MASK);
+                sum += INVERSE_POWERS_OF_TWO[rank];
+                if (rank == 0) {
+                    zeros++;
+                }
+            }
+        }
+        double estimate = alphaMM / sum;
+        // linear counting for small cardinalities, no large range correction is required for 64 bit hashes
+        if (estimate <= 2.5 * registers && zeros > 0) {
+            return registers * Math.log((double) registers / zeros);
+        }
+        return estimate;
+    }
+
+    long release() {
+        return words.release();
+    }
+
+    /**
+     * The byte-wise maximum of two words whose bytes are all smaller than 128.
+     */
+    static long max(long x, long y) {
+        // the highest bit of every byte is set iff the byte of x is not smaller than the byte of y
+        long greaterOrEqual = ((x | HIGH_BITS) - y) & HIGH_BITS;
+        long mask = (greaterOrEqual - (greaterOrEqual >>> 7)) | greaterOrEqual;
+        return (x & mask) | (y & ~mask);
+    }
+
+    private long wordIndex(long counter, int register) {
+        return counter * wordsPerCounter + register / REGISTERS_PER_WORD;
+    }
+
+    private static double alpha(int registers) {
+        switch (registers) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1.0 + 1.079 / registers);
+        }
+    }
+}
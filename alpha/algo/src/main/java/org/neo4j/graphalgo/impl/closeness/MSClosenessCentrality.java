@@ -140,8 +140,8 @@ public class MSClosenessCentrality extends Algorithm<MSClosenessCentrality, MSCl
                 .toArray();
     }
 
-    static double centrality(long farness, long componentSize, long nodeCount, boolean wassermanFaust) {
-        if (farness == 0L) {
+    static double centrality(double farness, double componentSize, long nodeCount, boolean wassermanFaust) {
+        if (farness == 0.0) {
             return 0.;
         }
         if (wassermanFaust) {
@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.scc;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Parallel strongly connected components based on the Multistep method [1]:
+ *
+ * <ol>
+ * <li>Trim: nodes without a remaining incoming or outgoing neighbour form a component on their own.</li>
+ * <li>Forward-backward: the component of a high degree pivot, which is usually the giant component,
+ * is the intersection of the nodes reachable from the pivot and the nodes that reach the pivot.
+ * Both searches are level-synchronous and process each level in parallel.</li>
+ * <li>Coloring: the largest node id that reaches a node is propagated along the relationships in parallel.
+ * Every node whose color is its own id is the root of a component, which consists of the nodes with the
+ * same color that reach the root. The backward searches for all roots run in parallel, as the colors are disjoint.
+ * This is repeated on the remaining nodes until all nodes are assigned to a component.</li>
+ * </ol>
+ *
+ * Each component is identified by one of its node ids.
+ * The backward searches need the reverse relationships. If the graph is neither undirected nor loaded in both
+ * directions, the reverse adjacency is built in memory first.
+ *
+ * [1]: Slota, Rajamanickam, Madduri, "BFS and Coloring-based Parallel Algorithms for Strongly Connected Components
+ * and Related Problems", IPDPS 2014
+ */
+final class MultistepScc {
+
+    private static final long NO_COMPONENT = -1L;
+    private static final long NO_COLOR = -1L;
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Graph graph;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+    private final TerminationFlag terminationFlag;
+    private final ProgressLogger progressLogger;
+    private final long nodeCount;
+
+    private final Direction forward;
+    private final @Nullable Direction backward;
+    // reverse adjacency, only built if the graph cannot be traversed backwards
+    private @Nullable HugeLongArray reverseOffsets;
+    private @Nullable HugeLongArray reverseTargets;
+
+    private HugeLongArray components;
+    private Worklist current;
+    private Worklist next;
+    private long setCount;
+    private long minSetSize;
+    private long maxSetSize;
+
+    MultistepScc(
+        Graph graph,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker,
+        TerminationFlag terminationFlag,
+        ProgressLogger progressLogger
+    ) {
+        this.graph = graph;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+        this.terminationFlag = terminationFlag;
+        this.progressLogger = progressLogger;
+        this.nodeCount = graph.nodeCount();
+
+        // the components of the reversed graph are the same
+        this.forward = graph.getLoadDirection() == Direction.INCOMING ? Direction.INCOMING : Direction.OUTGOING;
+        if (graph.isUndirected()) {
+            this.backward = forward;
+        } else if (graph.getLoadDirection() == Direction.BOTH) {
+            this.backward = Direction.INCOMING;
+        } else {
+            this.backward = null;
+        }
+    }
+
+    HugeLongArray compute() {
+        components = HugeLongArray.newArray(nodeCount, tracker);
+        components.fill(NO_COMPONENT);
+        if (nodeCount == 0L) {
+            return components;
+        }
+
+        if (backward == null) {
+            buildReverseAdjacency();
+        }
+        current = new Worklist(nodeCount);
+        next = new Worklist(nodeCount);
+
+        long trimmed = trim();
+        progressLogger.log(() -> "Trimmed " + trimmed + " nodes");
+
+        long pivotComponentSize = forwardBackward(pivot());
+        progressLogger.log(() -> "Forward-backward found a component of " + pivotComponentSize + " nodes");
+
+        long coloringRounds = coloring();
+        progressLogger.log(() -> "Coloring finished after " + coloringRounds + " rounds");
+
+        current.release();
+        next.release();
+        if (reverseOffsets != null) {
+            reverseOffsets.release();
+            reverseTargets.release();
+            reverseOffsets = null;
+            reverseTargets = null;
+        }
+        computeSetStatistics();
+        return components;
+    }
+
+    long setCount() {
+        return setCount;
+    }
+
+    long minSetSize() {
+        return minSetSize;
+    }
+
+    long maxSetSize() {
+        return maxSetSize;
+    }
+
+    private boolean isUnassigned(long nodeId) {
+        return components.get(nodeId) == NO_COMPONENT;
+    }
+
+    private void forEachNeighbour(RelationshipIterator rels, long nodeId, boolean reverse, RelationshipConsumer consumer) {
+        if (!reverse) {
+            rels.forEachRelationship(nodeId, forward, consumer);
+        } else if (backward != null) {
+            rels.forEachRelationship(nodeId, backward, consumer);
+        } else {
+            for (long i = reverseOffsets.get(nodeId), end = reverseOffsets.get(nodeId + 1); i < end; i++) {
+                if (!consumer.accept(nodeId, reverseTargets.get(i))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void buildReverseAdjacency() {
+        HugeAtomicLongArray degrees = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            RelationshipIterator rels = graph.concurrentCopy();
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                rels.forEachRelationship(nodeId, forward, (source, target) -> {
+                    degrees.update(target, degree -> degree + 1);
+                    return true;
+                });
+            }
+        });
+
+        HugeLongArray offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        long offset = 0L;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            offsets.set(nodeId, offset);
+            long degree = degrees.get(nodeId);
+            // the degrees array is reused as the insert position of every node
+            degrees.set(nodeId, offset);
+            offset += degree;
+        }
+        offsets.set(nodeCount, offset);
+
+        HugeLongArray targets = HugeLongArray.newArray(offset, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            RelationshipIterator rels = graph.concurrentCopy();
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                rels.forEachRelationship(nodeId, forward, (source, target) -> {
+                    long position;
+                    do {
+                        position = degrees.get(target);
+                    } while (!degrees.compareAndSet(target, position, position + 1));
+                    targets.set(position, source);
+                    return true;
+                });
+            }
+        });
+        degrees.release();
+
+        this.reverseOffsets = offsets;
+        this.reverseTargets = targets;
+    }
+
+    /**
+     * Repeatedly assigns nodes without an unassigned neighbour in one of the directions to their own component.
+     * A node that is concurrently trimmed by another thread is not on a cycle with the current node,
+     * so it is fine to observe either state.
+     */
+    private long trim() {
+        AtomicLong trimmed = new AtomicLong();
+        AtomicBoolean changed = new AtomicBoolean(true);
+        while (changed.get()) {
+            terminationFlag.assertRunning();
+            changed.set(false);
+            ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+                RelationshipIterator rels = graph.concurrentCopy();
+                UnassignedNeighbourConsumer consumer = new UnassignedNeighbourConsumer();
+                long localTrimmed = 0L;
+                for (long nodeId = start; nodeId < end; nodeId++) {
+                    if (!isUnassigned(nodeId)) {
+                        continue;
+                    }
+                    if (!consumer.hasUnassignedNeighbour(rels, nodeId, false) ||
+                        !consumer.hasUnassignedNeighbour(rels, nodeId, true)) {
+                        components.set(nodeId, nodeId);
+                        localTrimmed++;
+                    }
+                }
+                if (localTrimmed > 0L) {
+                    trimmed.addAndGet(localTrimmed);
+                    changed.set(true);
+                }
+            });
+        }
+        return trimmed.get();
+    }
+
+    private long pivot() {
+        Pivot pivot = new Pivot();
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            long localPivot = NO_COMPONENT;
+            long localScore = -1L;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                if (isUnassigned(nodeId)) {
+                    long score = graph.degree(nodeId, forward) * reverseDegree(nodeId);
+                    if (score > localScore) {
+                        localScore = score;
+                        localPivot = nodeId;
+                    }
+                }
+            }
+            pivot.offer(localPivot, localScore);
+        });
+        return pivot.nodeId;
+    }
+
+    private long reverseDegree(long nodeId) {
+        if (backward != null) {
+            return graph.degree(nodeId, backward);
+        }
+        return reverseOffsets.get(nodeId + 1) - reverseOffsets.get(nodeId);
+    }
+
+    private long forwardBackward(long pivot) {
+        if (pivot == NO_COMPONENT) {
+            return 0L;
+        }
+        HugeAtomicBitSet reached = HugeAtomicBitSet.create(nodeCount, tracker);
+        HugeAtomicBitSet reaching = HugeAtomicBitSet.create(nodeCount, tracker);
+
+        search(pivot, false, reached, this::isUnassigned);
+        search(pivot, true, reaching, reached::get);
+
+        AtomicLong componentSize = new AtomicLong();
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            long localSize = 0L;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                if (reaching.get(nodeId)) {
+                    components.set(nodeId, pivot);
+                    localSize++;
+                }
+            }
+            componentSize.addAndGet(localSize);
+        });
+
+        reached.release();
+        reaching.release();
+        return componentSize.get();
+    }
+
+    /**
+     * Level-synchronous search, the nodes of every level are processed in parallel.
+     */
+    private void search(long source, boolean reverse, HugeAtomicBitSet visited, LongPredicate admissible) {
+        Worklist current = this.current;
+        Worklist next = this.next;
+        current.clear();
+        visited.set(source);
+        current.add(source);
+        while (current.size() > 0L) {
+            terminationFlag.assertRunning();
+            next.clear();
+            Worklist level = current;
+            Worklist nextLevel = next;
+            ParallelUtil.readParallel(concurrency, level.size(), executor, (start, end) -> {
+                RelationshipIterator rels = graph.concurrentCopy();
+                LocalWorklist buffer = new LocalWorklist(nextLevel);
+                RelationshipConsumer visit = (nodeId, neighbour) -> {
+                    if (admissible.test(neighbour) && !visited.getAndSet(neighbour)) {
+                        buffer.add(neighbour);
+                    }
+                    return true;
+                };
+                for (long i = start; i < end; i++) {
+                    forEachNeighbour(rels, level.get(i), reverse, visit);
+                }
+                buffer.flush();
+            });
+            Worklist tmp = current;
+            current = next;
+            next = tmp;
+        }
+    }
+
+    private long coloring() {
+        HugeAtomicLongArray colors = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        HugeAtomicBitSet queued = HugeAtomicBitSet.create(nodeCount, tracker);
+
+        long rounds = 0L;
+        while (resetColors(colors, queued) > 0L) {
+            terminationFlag.assertRunning();
+            propagateColors(colors, queued);
+            assignColorComponents(colors);
+            rounds++;
+        }
+
+        colors.release();
+        queued.release();
+        return rounds;
+    }
+
+    /**
+     * Resets the colors of the unassigned nodes to their own id and queues them for propagation.
+     *
+     * @return the number of unassigned nodes
+     */
+    private long resetColors(HugeAtomicLongArray colors, HugeAtomicBitSet queued) {
+        Worklist worklist = this.current;
+        worklist.clear();
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            LocalWorklist buffer = new LocalWorklist(worklist);
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                if (isUnassigned(nodeId)) {
+                    colors.set(nodeId, nodeId);
+                    queued.set(nodeId);
+                    buffer.add(nodeId);
+                } else {
+                    colors.set(nodeId, NO_COLOR);
+                }
+            }
+            buffer.flush();
+        });
+        return worklist.size();
+    }
+
+    private void propagateColors(HugeAtomicLongArray colors, HugeAtomicBitSet queued) {
+        Worklist current = this.current;
+        Worklist next = this.next;
+        while (current.size() > 0L) {
+            terminationFlag.assertRunning();
+            next.clear();
+            Worklist round = current;
+            Worklist nextRound = next;
+            ParallelUtil.readParallel(concurrency, round.size(), executor, (start, end) -> {
+                RelationshipIterator rels = graph.concurrentCopy();
+                LocalWorklist buffer = new LocalWorklist(nextRound);
+                ColorPropagation propagation = new ColorPropagation(colors, queued, buffer);
+                for (long i = start; i < end; i++) {
+                    long nodeId = round.get(i);
+                    // dequeue before reading the color, so that a concurrent update queues the node again
+                    queued.clear(nodeId);
+                    propagation.color = colors.get(nodeId);
+                    forEachNeighbour(rels, nodeId, false, propagation);
+                }
+                buffer.flush();
+            });
+            Worklist tmp = current;
+            current = next;
+            next = tmp;
+        }
+    }
+
+    /**
+     * Every node whose color is its own id reaches all nodes of that color,
+     * so its component consists of the nodes of that color which reach it.
+     */
+    private void assignColorComponents(HugeAtomicLongArray colors) {
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            RelationshipIterator rels = graph.concurrentCopy();
+            ColorSearch search = new ColorSearch(colors);
+            for (long root = start; root < end; root++) {
+                if (colors.get(root) == root && isUnassigned(root)) {
+                    search.run(rels, root);
+                }
+            }
+        });
+    }
+
+    private void computeSetStatistics() {
+        HugeAtomicLongArray setSizes = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                setSizes.update(components.get(nodeId), size -> size + 1);
+            }
+        });
+
+        setCount = 0L;
+        minSetSize = Long.MAX_VALUE;
+        maxSetSize = 0L;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            long size = setSizes.get(nodeId);
+            if (size > 0L) {
+                setCount++;
+                minSetSize = Math.min(minSetSize, size);
+                maxSetSize = Math.max(maxSetSize, size);
+            }
+        }
+        setSizes.release();
+    }
+
+    private final class UnassignedNeighbourConsumer implements RelationshipConsumer {
+
+        private boolean found;
+
+        boolean hasUnassignedNeighbour(RelationshipIterator rels, long nodeId, boolean reverse) {
+            found = false;
+            forEachNeighbour(rels, nodeId, reverse, this);
+            return found;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            // self loops do not make a node part of a larger component
+            found = sourceNodeId != targetNodeId && isUnassigned(targetNodeId);
+            return !found;
+        }
+    }
+
+    private static final class ColorPropagation implements RelationshipConsumer {
+
+        private final HugeAtomicLongArray colors;
+        private final HugeAtomicBitSet queued;
+        private final LocalWorklist buffer;
+
+        long color;
+
+        ColorPropagation(HugeAtomicLongArray colors, HugeAtomicBitSet queued, LocalWorklist buffer) {
+            this.colors = colors;
+            this.queued = queued;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            long targetColor;
+            do {
+                targetColor = colors.get(targetNodeId);
+                if (targetColor == NO_COLOR || targetColor >= color) {
+                    return true;
+                }
+            } while (!colors.compareAndSet(targetNodeId, targetColor, color));
+            if (!queued.getAndSet(targetNodeId)) {
+                buffer.add(targetNodeId);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Backward search from a root over the nodes of its color.
+     * Only a single thread assigns the nodes of a color, so no synchronization is required.
+     */
+    private final class ColorSearch implements RelationshipConsumer {
+
+        private final HugeAtomicLongArray colors;
+        private final LongArrayList stack;
+
+        private long color;
+
+        ColorSearch(HugeAtomicLongArray colors) {
+            this.colors = colors;
+            this.stack = new LongArrayList();
+        }
+
+        void run(RelationshipIterator rels, long root) {
+            color = root;
+            components.set(root, root);
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                forEachNeighbour(rels, stack.removeLast(), true, this);
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            if (colors.get(targetNodeId) == color && isUnassigned(targetNodeId)) {
+                components.set(targetNodeId, color);
+                stack.add(targetNodeId);
+            }
+            return true;
+        }
+    }
+
+    private static final class Pivot {
+
+        private long nodeId = NO_COMPONENT;
+        private long score = -1L;
+
+        synchronized void offer(long nodeId, long score) {
+            if (score > this.score) {
+                this.score = score;
+                this.nodeId = nodeId;
+            }
+        }
+    }
+
+    /**
+     * A list of nodes which is filled by many threads at once.
+     */
+    private final class Worklist {
+
+        private final HugeLongArray nodes;
+        private final AtomicLong size;
+
+        Worklist(long capacity) {
+            this.nodes = HugeLongArray.newArray(capacity, tracker);
+            this.size = new AtomicLong();
+        }
+
+        void clear() {
+            size.set(0L);
+        }
+
+        long size() {
+            return size.get();
+        }
+
+        long get(long index) {
+            return nodes.get(index);
+        }
+
+        void add(long nodeId) {
+            nodes.set(size.getAndIncrement(), nodeId);
+        }
+
+        void addAll(long[] buffer, int length) {
+            long offset = size.getAndAdd(length);
+            for (int i = 0; i < length; i++) {
+                nodes.set(offset + i, buffer[i]);
+            }
+        }
+
+        void release() {
+            nodes.release();
+        }
+    }
+
+    /**
+     * Collects the nodes of a single thread and adds them to the shared worklist in batches.
+     */
+    private static final class LocalWorklist {
+
+        private final Worklist worklist;
+        private final long[] buffer;
+        private int length;
+
+        LocalWorklist(Worklist worklist) {
+            this.worklist = worklist;
+            this.buffer = new long[BUFFER_SIZE];
+        }
+
+        void add(long nodeId) {
+            if (length == buffer.length) {
+                flush();
+            }
+            buffer[length++] = nodeId;
+        }
+
+        void flush() {
+            worklist.addAll(buffer, length);
+            length = 0;
+        }
+    }
+}
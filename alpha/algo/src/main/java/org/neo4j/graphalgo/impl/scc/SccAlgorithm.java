@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.impl.scc;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.Algorithm;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
@@ -27,10 +28,15 @@ import org.neo4j.graphalgo.core.utils.paged.PagedLongStack;
 import org.neo4j.graphalgo.core.utils.paged.PagedSimpleBitSet;
 import org.neo4j.graphdb.Direction;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * huge iterative (non recursive) sequential strongly connected components algorithm.
  *
  * specified in:  http://code.activestate.com/recipes/578507-strongly-connected-components-of-a-directed-graph/
+ *
+ * an instance created with {@link #parallel(Graph, int, ExecutorService, AllocationTracker)}
+ * computes the same components with the parallel {@link MultistepScc} instead.
  */
 public class SccAlgorithm extends Algorithm<SccAlgorithm, HugeLongArray> {
 
@@ -56,10 +62,14 @@ public class SccAlgorithm extends Algorithm<SccAlgorithm, HugeLongArray> {
     private PagedLongStack stack;
     private PagedLongStack boundaries;
     private PagedLongStack todo; // stores pairs of (node-Id, TODO-Id)
-    private int setCount;
+    private long setCount;
 
-    private int minSetSize;
-    private int maxSetSize;
+    private long minSetSize;
+    private long maxSetSize;
+
+    private int concurrency;
+    private @Nullable ExecutorService executor;
+    private AllocationTracker tracker;
 
     public SccAlgorithm(Graph graph, AllocationTracker tracker) {
         this.graph = graph;
@@ -72,13 +82,36 @@ public class SccAlgorithm extends Algorithm<SccAlgorithm, HugeLongArray> {
         todo = new PagedLongStack(nodeCount, tracker);
     }
 
+    private SccAlgorithm(Graph graph, int concurrency, ExecutorService executor, AllocationTracker tracker) {
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+    }
+
+    /**
+     * creates an instance which computes the components in parallel
+     */
+    public static SccAlgorithm parallel(
+        Graph graph,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        return new SccAlgorithm(graph, concurrency, executor, tracker);
+    }
+
     /**
      * compute scc
      * @return
      */
     public HugeLongArray compute() {
+        if (executor != null) {
+            return computeParallel();
+        }
         setCount = 0;
-        minSetSize = Integer.MAX_VALUE;
+        minSetSize = Long.MAX_VALUE;
         maxSetSize = 0;
         index.fill(-1);
         connectedComponents.fill(-1);
@@ -89,6 +122,22 @@ public class SccAlgorithm extends Algorithm<SccAlgorithm, HugeLongArray> {
         return connectedComponents;
     }
 
+    private HugeLongArray computeParallel() {
+        MultistepScc multistep = new MultistepScc(
+            graph,
+            concurrency,
+            executor,
+            tracker,
+            terminationFlag,
+            getProgressLogger()
+        );
+        connectedComponents = multistep.compute();
+        setCount = multistep.setCount();
+        minSetSize = multistep.minSetSize();
+        maxSetSize = multistep.maxSetSize();
+        return connectedComponents;
+    }
+
     @Override
     public SccAlgorithm me() {
         return this;
@@ -168,7 +217,7 @@ public class SccAlgorithm extends Algorithm<SccAlgorithm, HugeLongArray> {
     private void postVisit(long nodeId) {
         if (boundaries.peek() == index.get(nodeId)) {
             boundaries.pop();
-            int elementCount = 0;
+            long elementCount = 0;
             long element;
             do {
                 element = stack.pop();
@@ -40,6 +40,11 @@ public interface SccConfig extends AlgoBaseConfig, WriteConfig {
         return "partition";
     }
 
+    @Value.Default
+    default boolean parallel() {
+        return false;
+    }
+
     static SccConfig of(
         String username,
         Optional<String> graphName,
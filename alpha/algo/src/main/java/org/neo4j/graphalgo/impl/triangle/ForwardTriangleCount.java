@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.triangle;
+
+import org.neo4j.graphalgo.Algorithm;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * TriangleCount counts the number of triangles in the Graph as well
+ * as the number of triangles that passes through a node.
+ *
+ * This impl implements the forward algorithm: every relationship is oriented
+ * from the node with the lower degree to the node with the higher degree (ties broken by id),
+ * which bounds the number of forward neighbours of a node by {@code O(sqrt(m))}.
+ * Every triangle {@code (u, v, w)}, where {@code u} has the lowest and {@code w} the highest rank,
+ * is found exactly once by intersecting the forward neighbours of {@code u} and {@code v}.
+ *
+ * Every thread counts the triangles per node into its own array without any synchronization,
+ * the partial counts are summed up once all nodes have been processed.
+ *
+ *  http://www.cse.cuhk.edu.hk/~jcheng/papers/triangle_kdd11.pdf
+ *  https://i11www.iti.kit.edu/extra/publications/sw-fclt-05_t.pdf
+ */
+public class ForwardTriangleCount extends Algorithm<ForwardTriangleCount, HugeAtomicLongArray> {
+
+    // nodes are taken from the queue in batches, the forward orientation keeps the work per node small
+    private static final int BATCH_SIZE = 256;
+
+    private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations
+        .builder(ForwardTriangleCount.class)
+        .perNode("triangles", HugeAtomicLongArray::memoryEstimation)
+        .perNode("offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+        // relationships that are stored in both directions are only kept in their forward direction
+        .rangePerGraphDimension("targets", (dimensions, concurrency) -> MemoryRange.of(
+            HugeLongArray.memoryEstimation(dimensions.maxRelCount() / 2),
+            HugeLongArray.memoryEstimation(dimensions.maxRelCount())
+        ))
+        .perThread("partial triangles", MemoryEstimations.builder(IntersectTask.class)
+            .perNode("triangles", HugeLongArray::memoryEstimation)
+            .build())
+        .build();
+
+    private Graph graph;
+    private ExecutorService executorService;
+    private final int concurrency;
+    private final long nodeCount;
+    private final AllocationTracker tracker;
+    private final LongAdder triangleCount;
+    private final AtomicLong queue;
+    private final AtomicLong visitedNodes;
+    private HugeAtomicLongArray triangles;
+    private double averageClusteringCoefficient;
+
+    public ForwardTriangleCount(Graph graph, ExecutorService executorService, int concurrency, AllocationTracker tracker) {
+        this.graph = graph;
+        this.tracker = tracker;
+        this.executorService = executorService;
+        this.concurrency = concurrency;
+        nodeCount = graph.nodeCount();
+        visitedNodes = new AtomicLong();
+        triangles = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        triangleCount = new LongAdder();
+        queue = new AtomicLong();
+    }
+
+    public static MemoryEstimation memoryEstimation() {
+        return MEMORY_ESTIMATION;
+    }
+
+    public long getTriangleCount() {
+        return triangleCount.longValue();
+    }
+
+    public double getAverageCoefficient() {
+        return averageClusteringCoefficient;
+    }
+
+    public HugeAtomicLongArray getTriangles() {
+        return triangles;
+    }
+
+    public HugeDoubleArray getCoefficients() {
+        final HugeDoubleArray array = HugeDoubleArray.newArray(nodeCount, tracker);
+        double sum = 0.0;
+        for (long i = 0; i < nodeCount; i++) {
+            final double c = calculateCoefficient(triangles.get(i), graph.degree(i, Direction.OUTGOING));
+            array.set(i, c);
+            sum += c;
+        }
+        averageClusteringCoefficient = sum / nodeCount;
+        return array;
+    }
+
+    @Override
+    public final ForwardTriangleCount me() {
+        return this;
+    }
+
+    @Override
+    public void release() {
+        executorService = null;
+        graph = null;
+        triangles = null;
+    }
+
+    @Override
+    public HugeAtomicLongArray compute() {
+        visitedNodes.set(0);
+        queue.set(0);
+        triangleCount.reset();
+        averageClusteringCoefficient = 0.0;
+
+        // offsets[u] to offsets[u + 1] are the forward neighbours of u in targets, sorted by id
+        HugeLongArray offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            ForwardNeighbours neighbours = new ForwardNeighbours(graph.concurrentCopy());
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                offsets.set(nodeId + 1, neighbours.load(nodeId));
+            }
+        });
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            offsets.set(nodeId + 1, offsets.get(nodeId) + offsets.get(nodeId + 1));
+        }
+
+        HugeLongArray targets = HugeLongArray.newArray(offsets.get(nodeCount), tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            ForwardNeighbours neighbours = new ForwardNeighbours(graph.concurrentCopy());
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                int degree = neighbours.load(nodeId);
+                long offset = offsets.get(nodeId);
+                for (int i = 0; i < degree; i++) {
+                    targets.set(offset + i, neighbours.buffer[i]);
+                }
+            }
+        });
+
+        // create tasks
+        final List<IntersectTask> tasks = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            tasks.add(new IntersectTask(offsets, targets));
+        }
+        // run
+        ParallelUtil.run(tasks, executorService);
+
+        offsets.release();
+        targets.release();
+
+        // merge the partial counts of all tasks
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long sum = 0L;
+                for (IntersectTask task : tasks) {
+                    sum += task.localTriangles.get(nodeId);
+                }
+                triangles.set(nodeId, sum);
+            }
+        });
+        for (IntersectTask task : tasks) {
+            task.localTriangles.release();
+        }
+        return triangles;
+    }
+
+    public Stream<IntersectingTriangleCount.Result> computeStream() {
+        return LongStream.range(0, nodeCount)
+            .mapToObj(i -> new IntersectingTriangleCount.Result(
+                graph.toOriginalNodeId(i),
+                triangles.get(i),
+                calculateCoefficient(triangles.get(i), graph.degree(i, Direction.OUTGOING))));
+    }
+
+    /**
+     * Whether the relationship between the two nodes is oriented from {@code source} to {@code target}.
+     */
+    private boolean isForward(long source, long target) {
+        int sourceDegree = graph.degree(source, Direction.OUTGOING);
+        int targetDegree = graph.degree(target, Direction.OUTGOING);
+        return sourceDegree < targetDegree || (sourceDegree == targetDegree && source < target);
+    }
+
+    private final class ForwardNeighbours implements RelationshipConsumer {
+
+        private final RelationshipIterator relationships;
+        private long[] buffer;
+        private int length;
+
+        ForwardNeighbours(RelationshipIterator relationships) {
+            this.relationships = relationships;
+            this.buffer = new long[0];
+        }
+
+        /**
+         * Loads the sorted and distinct forward neighbours of the node into the buffer.
+         *
+         * @return the number of forward neighbours
+         */
+        int load(long nodeId) {
+            int degree = graph.degree(nodeId, Direction.OUTGOING);
+            if (buffer.length < degree) {
+                buffer = new long[degree];
+            }
+            length = 0;
+            relationships.forEachRelationship(nodeId, Direction.OUTGOING, this);
+            Arrays.sort(buffer, 0, length);
+
+            int distinct = 0;
+            for (int i = 0; i < length; i++) {
+                if (distinct == 0 || buffer[distinct - 1] != buffer[i]) {
+                    buffer[distinct++] = buffer[i];
+                }
+            }
+            return length = distinct;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            if (isForward(sourceNodeId, targetNodeId)) {
+                buffer[length++] = targetNodeId;
+            }
+            return true;
+        }
+    }
+
+    private class IntersectTask implements Runnable {
+
+        private final HugeLongArray offsets;
+        private final HugeLongArray targets;
+        private final HugeLongArray localTriangles;
+        private long[] neighbours;
+
+        IntersectTask(HugeLongArray offsets, HugeLongArray targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.localTriangles = HugeLongArray.newArray(nodeCount, tracker);
+            this.neighbours = new long[0];
+        }
+
+        @Override
+        public void run() {
+            long localTriangleCount = 0L;
+            long start;
+            while ((start = queue.getAndAdd(BATCH_SIZE)) < nodeCount && running()) {
+                long end = Math.min(nodeCount, start + BATCH_SIZE);
+                for (long node = start; node < end; node++) {
+                    localTriangleCount += intersect(node);
+                }
+                getProgressLogger().logProgress(visitedNodes.addAndGet(end - start), nodeCount);
+            }
+            triangleCount.add(localTriangleCount);
+        }
+
+        /**
+         * Counts the triangles where the node has the lowest rank.
+         */
+        private long intersect(long nodeU) {
+            long offsetU = offsets.get(nodeU);
+            int degreeU = (int) (offsets.get(nodeU + 1) - offsetU);
+            if (degreeU < 2) {
+                return 0L;
+            }
+            if (neighbours.length < degreeU) {
+                neighbours = new long[degreeU];
+            }
+            for (int i = 0; i < degreeU; i++) {
+                neighbours[i] = targets.get(offsetU + i);
+            }
+
+            long trianglesOfU = 0L;
+            for (int i = 0; i < degreeU; i++) {
+                long nodeV = neighbours[i];
+                long trianglesOfV = 0L;
+
+                int indexU = 0;
+                long indexV = offsets.get(nodeV);
+                long endV = offsets.get(nodeV + 1);
+                while (indexU < degreeU && indexV < endV) {
+                    long nodeW = neighbours[indexU];
+                    long candidate = targets.get(indexV);
+                    if (nodeW < candidate) {
+                        indexU++;
+                    } else if (nodeW > candidate) {
+                        indexV++;
+                    } else {
+                        localTriangles.addTo(nodeW, 1L);
+                        trianglesOfV++;
+                        indexU++;
+                        indexV++;
+                    }
+                }
+
+                if (trianglesOfV > 0L) {
+                    localTriangles.addTo(nodeV, trianglesOfV);
+                    trianglesOfU += trianglesOfV;
+                }
+            }
+
+            if (trianglesOfU > 0L) {
+                localTriangles.addTo(nodeU, trianglesOfU);
+            }
+            return trianglesOfU;
+        }
+    }
+
+    private double calculateCoefficient(long triangles, int degree) {
+        if (triangles == 0) {
+            return 0.0;
+        }
+        return ((double) (triangles << 1)) / ((double) degree * (degree - 1));
+    }
+}
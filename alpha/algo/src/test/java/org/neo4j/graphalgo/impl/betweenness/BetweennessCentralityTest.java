@@ -32,6 +32,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -94,6 +95,22 @@ class BetweennessCentralityTest extends AlgoTestBase {
         verifyMock(testConsumer);
     }
 
+    @AllGraphTypesWithoutCypherTest
+    void testHugeBC(Class<? extends GraphFactory> graphFactory) {
+        setup(graphFactory);
+        HugeBetweennessCentrality algo = new HugeBetweennessCentrality(
+            graph,
+            Pools.DEFAULT,
+            2,
+            2,
+            AllocationTracker.EMPTY
+        );
+        algo.compute();
+        algo.resultStream()
+            .forEach(r -> testConsumer.accept(name(r.nodeId), r.centrality));
+        verifyMock(testConsumer);
+    }
+
     @AllGraphTypesWithoutCypherTest
     void testRABrandesForceCompleteSampling(Class<? extends GraphFactory> graphFactory) {
         setup(graphFactory);
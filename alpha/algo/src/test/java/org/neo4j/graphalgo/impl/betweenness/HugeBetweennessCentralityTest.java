@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.betweenness;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
+import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HugeBetweennessCentralityTest {
+
+    @ParameterizedTest(name = "distribution = {0}, batchSize = {1}, direction = {2}")
+    @CsvSource({
+        "UNIFORM, 1, OUTGOING",
+        "UNIFORM, 64, OUTGOING",
+        "RANDOM, 7, OUTGOING",
+        "POWER_LAW, 64, OUTGOING",
+        "POWER_LAW, 13, BOTH"
+    })
+    void shouldComputeSameCentralityAsBrandes(
+        RelationshipDistribution distribution,
+        int batchSize,
+        Direction direction
+    ) {
+        Graph graph = new RandomGraphGenerator(
+            1_000,
+            5,
+            distribution,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+
+        BetweennessCentrality brandes = new BetweennessCentrality(graph, Pools.DEFAULT, 4)
+            .withDirection(direction)
+            .compute();
+        HugeBetweennessCentrality batched = new HugeBetweennessCentrality(
+            graph,
+            Pools.DEFAULT,
+            4,
+            batchSize,
+            AllocationTracker.EMPTY
+        ).withDirection(direction).compute();
+
+        AtomicDoubleArray expected = brandes.getCentrality();
+        HugeAtomicDoubleArray actual = batched.getCentrality();
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            double expectedValue = expected.get(nodeId);
+            assertEquals(expectedValue, actual.get(nodeId), 1e-9 * Math.max(1.0, expectedValue), "Node " + nodeId);
+        }
+    }
+
+    @Test
+    void shouldReduceBatchSizeBeforeConcurrency() {
+        long nodeCount = 1_000_000L;
+        long perTask = HugeBetweennessCentrality.memoryUsagePerTask(nodeCount, 16);
+
+        assertEquals(64, HugeBetweennessCentrality.batchSize(nodeCount, 4, 64, Long.MAX_VALUE));
+        assertEquals(16, HugeBetweennessCentrality.batchSize(nodeCount, 4, 64, 4 * perTask));
+        assertEquals(4, HugeBetweennessCentrality.concurrency(nodeCount, 4, 16, 4 * perTask));
+    }
+
+    @Test
+    void shouldReduceConcurrencyIfSingleSourceBatchesDoNotFit() {
+        long nodeCount = 1_000_000L;
+        long perTask = HugeBetweennessCentrality.memoryUsagePerTask(nodeCount, 1);
+
+        assertEquals(1, HugeBetweennessCentrality.batchSize(nodeCount, 8, 64, 3 * perTask));
+        assertEquals(3, HugeBetweennessCentrality.concurrency(nodeCount, 8, 1, 3 * perTask));
+        assertEquals(1, HugeBetweennessCentrality.concurrency(nodeCount, 8, 1, 0L));
+    }
+
+    @Test
+    void shouldFailIfSingleSourceTaskDoesNotFit() {
+        long nodeCount = 1_000_000L;
+        long perTask = HugeBetweennessCentrality.memoryUsagePerTask(nodeCount, 1);
+
+        HugeBetweennessCentrality.validateAvailableMemory(nodeCount, perTask);
+        IllegalStateException exception = assertThrows(
+            IllegalStateException.class,
+            () -> HugeBetweennessCentrality.validateAvailableMemory(nodeCount, perTask - 1)
+        );
+        assertTrue(exception.getMessage().contains("requires at least"));
+    }
+
+    @Test
+    void shouldFailForInvalidBatchSize() {
+        Graph graph = new RandomGraphGenerator(
+            10,
+            2,
+            RelationshipDistribution.UNIFORM,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new HugeBetweennessCentrality(graph, Pools.DEFAULT, 1, 65, AllocationTracker.EMPTY)
+        );
+    }
+}
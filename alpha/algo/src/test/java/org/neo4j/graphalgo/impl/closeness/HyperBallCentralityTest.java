@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.closeness;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
+
+class HyperBallCentralityTest {
+
+    // every relationship is given in both directions
+    private static final String PATH_AND_PAIR =
+        "  (a)-->(b), (b)-->(a)" +
+        ", (b)-->(c), (c)-->(b)" +
+        ", (c)-->(d), (d)-->(c)" +
+        ", (d)-->(e), (e)-->(d)" +
+        ", (f)-->(g), (g)-->(f)";
+
+    private static final String STAR =
+        "  (center)-->(a), (a)-->(center)" +
+        ", (center)-->(b), (b)-->(center)" +
+        ", (center)-->(c), (c)-->(center)" +
+        ", (center)-->(d), (d)-->(center)";
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldApproximateClosenessCentrality(boolean wassermanFaust) {
+        Graph graph = fromGdl(PATH_AND_PAIR);
+
+        double[] expected = new MSClosenessCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            1,
+            Pools.DEFAULT,
+            wassermanFaust
+        ).compute(Direction.OUTGOING).exportToArray();
+
+        HyperBallCentrality hyperBall = new HyperBallCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            4,
+            Pools.DEFAULT,
+            HyperBallCentrality.MAX_PRECISION,
+            wassermanFaust,
+            false
+        ).compute();
+
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals(expected[nodeId], hyperBall.centrality(nodeId), 1e-3, "Node " + nodeId);
+        }
+    }
+
+    @Test
+    void shouldApproximateHarmonicCentrality() {
+        Graph graph = fromGdl(STAR);
+
+        HyperBallCentrality hyperBall = new HyperBallCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            1,
+            Pools.DEFAULT,
+            HyperBallCentrality.MAX_PRECISION,
+            false,
+            true
+        ).compute();
+
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            // the center reaches all leaves at distance 1, a leaf reaches the center at 1 and the other leaves at 2
+            double expected = graph.degree(nodeId, Direction.OUTGOING) == 4
+                ? 4.0 / 4.0
+                : (1.0 + 3.0 / 2.0) / 4.0;
+            assertEquals(expected, hyperBall.centrality(nodeId), 1e-3, "Node " + nodeId);
+        }
+    }
+
+    @Test
+    void shouldApproximateNeighbourhoodFunction() {
+        Graph graph = fromGdl(STAR);
+
+        HyperBallCentrality hyperBall = new HyperBallCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            1,
+            Pools.DEFAULT,
+            HyperBallCentrality.MAX_PRECISION,
+            false,
+            false
+        ).compute();
+
+        // 5 pairs at distance 0, 8 at distance 1 and 12 at distance 2
+        assertArrayEquals(new double[]{5.0, 13.0, 25.0}, hyperBall.neighbourhoodFunction(), 1e-2);
+        assertArrayEquals(new double[]{5.0, 8.0, 12.0}, hyperBall.distanceDistribution(), 1e-2);
+    }
+
+    @Test
+    void shouldApproximateNeighbourhoodFunctionWithinErrorBoundAtDefaultPrecision() {
+        Graph graph = RandomGraphGenerator.generate(1_000, 5, RelationshipDistribution.POWER_LAW, 42L);
+
+        double[] actual = new HyperBallCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            4,
+            Pools.DEFAULT,
+            HyperBallCentrality.DEFAULT_PRECISION,
+            false,
+            false
+        ).compute().neighbourhoodFunction();
+        long[] expected = exactNeighbourhoodFunction(graph);
+
+        // three times the relative standard error of a HyperLogLog counter with 2^precision registers
+        double relativeError = 3 * 1.04 / Math.sqrt(1 << HyperBallCentrality.DEFAULT_PRECISION);
+        assertTrue(actual.length > 1);
+        for (int distance = 0; distance < Math.max(actual.length, expected.length); distance++) {
+            double expectedPairs = expected[Math.min(distance, expected.length - 1)];
+            double actualPairs = actual[Math.min(distance, actual.length - 1)];
+            assertEquals(
+                expectedPairs,
+                actualPairs,
+                relativeError * expectedPairs,
+                "Neighbourhood function at distance " + distance
+            );
+        }
+    }
+
+    @Test
+    void shouldFailOnInvalidPrecision() {
+        Graph graph = fromGdl(STAR);
+        assertThrows(IllegalArgumentException.class, () -> new HyperBallCentrality(
+            graph,
+            AllocationTracker.EMPTY,
+            1,
+            Pools.DEFAULT,
+            HyperBallCentrality.MAX_PRECISION + 1,
+            false,
+            false
+        ));
+    }
+
+    private static long[] exactNeighbourhoodFunction(Graph graph) {
+        int nodeCount = Math.toIntExact(graph.nodeCount());
+        long[] atDistance = new long[nodeCount];
+        int[] distances = new int[nodeCount];
+        int[] queue = new int[nodeCount];
+        int maxDistance = 0;
+        for (int source = 0; source < nodeCount; source++) {
+            Arrays.fill(distances, -1);
+            distances[source] = 0;
+            queue[0] = source;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int nodeId = queue[head++];
+                atDistance[distances[nodeId]]++;
+                maxDistance = Math.max(maxDistance, distances[nodeId]);
+                int[] queueTail = {tail};
+                graph.forEachRelationship(nodeId, Direction.OUTGOING, (s, target) -> {
+                    int t = Math.toIntExact(target);
+                    if (distances[t] == -1) {
+                        distances[t] = distances[nodeId] + 1;
+                        queue[queueTail[0]++] = t;
+                    }
+                    return true;
+                });
+                tail = queueTail[0];
+            }
+        }
+        long[] cumulative = new long[maxDistance + 1];
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            cumulative[distance] = (distance == 0 ? 0L : cumulative[distance - 1]) + atDistance[distance];
+        }
+        return cumulative;
+    }
+}
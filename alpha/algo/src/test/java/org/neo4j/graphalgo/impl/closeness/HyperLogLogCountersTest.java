@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.closeness;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogCountersTest {
+
+    @Test
+    void shouldComputeByteWiseMaximum() {
+        Random random = new Random(42L);
+        for (int i = 0; i < 10_000; i++) {
+            // registers never use the highest bit of a byte
+            long x = random.nextLong() & 0x7F7F7F7F7F7F7F7FL;
+            long y = random.nextLong() & 0x7F7F7F7F7F7F7F7FL;
+            long expected = 0L;
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                long max = Math.max((x >>> shift) & 0xFFL, (y >>> shift) & 0xFFL);
+                expected |= max << shift;
+            }
+            assertEquals(expected, HyperLogLogCounters.max(x, y));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 6, 10, 16})
+    void shouldEstimateSmallCardinalities(int precision) {
+        HyperLogLogCounters counters = new HyperLogLogCounters(1, precision, AllocationTracker.EMPTY);
+        long[] buffer = new long[counters.wordsPerCounter()];
+
+        counters.copyTo(0, buffer);
+        assertEquals(0.0, counters.estimate(buffer));
+
+        counters.add(0, 42L);
+        counters.add(0, 42L);
+        counters.copyTo(0, buffer);
+        assertEquals(1.0, counters.estimate(buffer), 0.1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 12, 16})
+    void shouldEstimateLargeCardinalities(int precision) {
+        HyperLogLogCounters counters = new HyperLogLogCounters(1, precision, AllocationTracker.EMPTY);
+        long[] buffer = new long[counters.wordsPerCounter()];
+        int cardinality = 100_000;
+        for (long element = 0; element < cardinality; element++) {
+            counters.add(0, element);
+        }
+        counters.copyTo(0, buffer);
+
+        // the relative standard error is 1.04 / sqrt(2^precision)
+        double tolerance = 3 * 1.04 / Math.sqrt(1 << precision);
+        assertEquals(cardinality, counters.estimate(buffer), tolerance * cardinality);
+    }
+
+    @Test
+    void shouldEstimateUnion() {
+        HyperLogLogCounters counters = new HyperLogLogCounters(2, 12, AllocationTracker.EMPTY);
+        long[] buffer = new long[counters.wordsPerCounter()];
+        for (long element = 0; element < 50_000; element++) {
+            counters.add(0, element);
+            counters.add(1, element + 25_000);
+        }
+
+        counters.copyTo(0, buffer);
+        assertTrue(counters.equalTo(0, buffer));
+        counters.unionInto(1, buffer);
+        assertFalse(counters.equalTo(0, buffer));
+
+        assertEquals(75_000, counters.estimate(buffer), 0.05 * 75_000);
+
+        counters.copyFrom(0, buffer);
+        counters.unionInto(1, buffer);
+        assertTrue(counters.equalTo(0, buffer));
+    }
+}
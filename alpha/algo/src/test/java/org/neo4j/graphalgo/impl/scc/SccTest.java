@@ -21,20 +21,29 @@ package org.neo4j.graphalgo.impl.scc;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.neo4j.graphalgo.AlgoTestBase;
 import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.TestDatabaseCreator;
 import org.neo4j.graphalgo.TestSupport.AllGraphTypesWithoutCypherTest;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
 import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.impl.scc.SccAlgorithm;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -100,11 +109,70 @@ class SccTest extends AlgoTestBase {
         assertCC(components);
     }
 
+    @AllGraphTypesWithoutCypherTest
+    void testParallel(Class<? extends GraphFactory> graphFactory) {
+        setup(graphFactory);
+        SccAlgorithm scc = SccAlgorithm.parallel(graph, 4, Pools.DEFAULT, AllocationTracker.EMPTY);
+        HugeLongArray components = scc.compute();
+
+        assertCC(components);
+        assertEquals(3, scc.getMaxSetSize());
+        assertEquals(3, scc.getMinSetSize());
+        assertEquals(3, scc.getSetCount());
+    }
+
+    @AllGraphTypesWithoutCypherTest
+    void testParallelOutgoingOnly(Class<? extends GraphFactory> graphFactory) {
+        setup(graphFactory, Direction.OUTGOING);
+        SccAlgorithm scc = SccAlgorithm.parallel(graph, 4, Pools.DEFAULT, AllocationTracker.EMPTY);
+        HugeLongArray components = scc.compute();
+
+        assertCC(components);
+        assertEquals(3, scc.getSetCount());
+    }
+
+    @ParameterizedTest(name = "distribution = {0}")
+    @EnumSource(RelationshipDistribution.class)
+    void parallelShouldComputeSameComponentsOnGeneratedGraphs(RelationshipDistribution distribution) {
+        Graph graph = new RandomGraphGenerator(
+            10_000,
+            2,
+            distribution,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+
+        SccAlgorithm tarjan = new SccAlgorithm(graph, AllocationTracker.EMPTY);
+        HugeLongArray expected = tarjan.compute();
+        SccAlgorithm parallel = SccAlgorithm.parallel(graph, 4, Pools.DEFAULT, AllocationTracker.EMPTY);
+        HugeLongArray actual = parallel.compute();
+
+        assertEquals(tarjan.getSetCount(), parallel.getSetCount());
+        assertEquals(tarjan.getMinSetSize(), parallel.getMinSetSize());
+        assertEquals(tarjan.getMaxSetSize(), parallel.getMaxSetSize());
+
+        // both partitions identify the components by different node ids
+        Map<Long, Long> expectedToActual = new HashMap<>();
+        Map<Long, Long> actualToExpected = new HashMap<>();
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            long expectedSet = expected.get(nodeId);
+            long actualSet = actual.get(nodeId);
+            assertEquals(actualSet, (long) expectedToActual.computeIfAbsent(expectedSet, ignore -> actualSet));
+            assertEquals(expectedSet, (long) actualToExpected.computeIfAbsent(actualSet, ignore -> expectedSet));
+        }
+    }
+
     private void setup(Class<? extends GraphFactory> graphFactory) {
+        setup(graphFactory, Direction.BOTH);
+    }
+
+    private void setup(Class<? extends GraphFactory> graphFactory, Direction direction) {
         graph = new GraphLoader(db)
                 .withLabel("Node")
                 .withRelationshipType("TYPE")
                 .withRelationshipProperties(PropertyMapping.of("cost", Double.MAX_VALUE))
+                .withDirection(direction)
                 .load(graphFactory);
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.triangle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
+import org.neo4j.graphalgo.core.loading.GraphGenerator;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForwardTriangleCountTest {
+
+    @Test
+    void noTriangles() {
+        Graph graph = undirectedGraph(3, new long[][]{{0, 1}, {1, 2}});
+
+        ForwardTriangleCount triangleCount = new ForwardTriangleCount(graph, Pools.DEFAULT, 1, AllocationTracker.EMPTY);
+        HugeAtomicLongArray triangles = triangleCount.compute();
+
+        assertEquals(0L, triangleCount.getTriangleCount());
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals(0L, triangles.get(nodeId));
+        }
+    }
+
+    @Test
+    void clique() {
+        int nodeCount = 5;
+        long[][] relationships = new long[nodeCount * (nodeCount - 1) / 2][];
+        int index = 0;
+        for (int source = 0; source < nodeCount; source++) {
+            for (int target = source + 1; target < nodeCount; target++) {
+                relationships[index++] = new long[]{source, target};
+            }
+        }
+        Graph graph = undirectedGraph(nodeCount, relationships);
+
+        ForwardTriangleCount triangleCount = new ForwardTriangleCount(graph, Pools.DEFAULT, 4, AllocationTracker.EMPTY);
+        HugeAtomicLongArray triangles = triangleCount.compute();
+
+        // every node is part of (4 choose 2) triangles
+        assertEquals(10L, triangleCount.getTriangleCount());
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            assertEquals(6L, triangles.get(nodeId));
+        }
+        triangleCount.getCoefficients();
+        assertEquals(1.0, triangleCount.getAverageCoefficient(), 1e-9);
+    }
+
+    @Test
+    void shouldIgnoreSelfLoops() {
+        Graph graph = undirectedGraph(3, new long[][]{{0, 0}, {0, 1}, {1, 2}, {2, 0}, {2, 2}});
+
+        ForwardTriangleCount triangleCount = new ForwardTriangleCount(graph, Pools.DEFAULT, 1, AllocationTracker.EMPTY);
+        HugeAtomicLongArray triangles = triangleCount.compute();
+
+        assertEquals(1L, triangleCount.getTriangleCount());
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals(1L, triangles.get(nodeId));
+        }
+    }
+
+    @ParameterizedTest(name = "skew = {0}, concurrency = {1}")
+    @CsvSource({
+        "1.0, 1",
+        "1.0, 4",
+        "3.0, 1",
+        "3.0, 4"
+    })
+    void shouldCountSameTrianglesAsIntersectingTriangleCount(double skew, int concurrency) {
+        int nodeCount = 2_000;
+        Random random = new Random(42L);
+        long[][] relationships = new long[nodeCount * 10][];
+        for (int i = 0; i < relationships.length; i++) {
+            // a skew above 1 concentrates the relationships on the nodes with low ids
+            relationships[i] = new long[]{
+                random.nextInt(nodeCount),
+                (long) (nodeCount * Math.pow(random.nextDouble(), skew))
+            };
+        }
+        Graph graph = undirectedGraph(nodeCount, relationships);
+
+        IntersectingTriangleCount intersecting = new IntersectingTriangleCount(
+            graph,
+            Pools.DEFAULT,
+            concurrency,
+            AllocationTracker.EMPTY
+        );
+        PagedAtomicIntegerArray expected = intersecting.compute();
+
+        ForwardTriangleCount forward = new ForwardTriangleCount(
+            graph,
+            Pools.DEFAULT,
+            concurrency,
+            AllocationTracker.EMPTY
+        );
+        HugeAtomicLongArray actual = forward.compute();
+
+        assertEquals(intersecting.getTriangleCount(), forward.getTriangleCount());
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            assertEquals(expected.get(nodeId), actual.get(nodeId), "Node " + nodeId);
+        }
+    }
+
+    @Test
+    void shouldEstimateForwardRelationshipsAndPartialCounts() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder().nodeCount(100).maxRelCount(1000).build();
+        MemoryRange actual = ForwardTriangleCount.memoryEstimation().estimate(dimensions, 4).memoryUsage();
+
+        long fixed = MemoryUsage.sizeOfInstance(ForwardTriangleCount.class) +
+                     HugeAtomicLongArray.memoryEstimation(100) +
+                     HugeLongArray.memoryEstimation(101);
+        long partialCounts = 4 * HugeLongArray.memoryEstimation(100);
+        assertTrue(actual.min > fixed + HugeLongArray.memoryEstimation(500) + partialCounts);
+        assertEquals(HugeLongArray.memoryEstimation(1000) - HugeLongArray.memoryEstimation(500), actual.max - actual.min);
+    }
+
+    private static Graph undirectedGraph(int nodeCount, long[][] relationships) {
+        GraphGenerator.NodeImporter nodeImporter = GraphGenerator.createNodeImporter(
+            nodeCount,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+        for (int i = 0; i < nodeCount; i++) {
+            nodeImporter.addNode(i);
+        }
+
+        GraphGenerator.RelImporter relImporter = GraphGenerator.createRelImporter(
+            nodeImporter,
+            Direction.OUTGOING,
+            true,
+            false,
+            DeduplicationStrategy.SINGLE
+        );
+        for (long[] relationship : relationships) {
+            relImporter.add(relationship[0], relationship[1]);
+        }
+        return relImporter.buildGraph();
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.centrality;
+
+import org.neo4j.graphalgo.AlgoBaseProc;
+import org.neo4j.graphalgo.AlgorithmFactory;
+import org.neo4j.graphalgo.AlphaAlgorithmFactory;
+import org.neo4j.graphalgo.Projection;
+import org.neo4j.graphalgo.RelationshipProjections;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
+import org.neo4j.graphalgo.impl.closeness.ApproxClosenessCentralityConfig;
+import org.neo4j.graphalgo.impl.closeness.HyperBallCentrality;
+import org.neo4j.graphalgo.impl.closeness.MSClosenessCentrality;
+import org.neo4j.graphalgo.newapi.GraphCreateConfig;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.results.AbstractResultBuilder;
+import org.neo4j.graphalgo.results.MemoryEstimateResult;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.neo4j.procedure.Mode.READ;
+
+public class ApproxClosenessCentralityProc extends AlgoBaseProc<HyperBallCentrality, HyperBallCentrality, ApproxClosenessCentralityConfig> {
+
+    @Procedure(name = "gds.alpha.closeness.approx.stream", mode = READ)
+    public Stream<MSClosenessCentrality.Result> stream(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        ComputationResult<HyperBallCentrality, HyperBallCentrality, ApproxClosenessCentralityConfig> computationResult = compute(
+            graphNameOrConfig,
+            configuration
+        );
+
+        HyperBallCentrality algorithm = computationResult.algorithm();
+        Graph graph = computationResult.graph();
+
+        if (graph.isEmpty()) {
+            graph.release();
+            return Stream.empty();
+        }
+
+        graph.release();
+        return algorithm.resultStream();
+    }
+
+    @Procedure(name = "gds.alpha.closeness.approx.stream.estimate", mode = READ)
+    @Description(ESTIMATE_DESCRIPTION)
+    public Stream<MemoryEstimateResult> streamEstimate(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        return computeEstimate(graphNameOrConfig, configuration);
+    }
+
+    @Procedure(value = "gds.alpha.closeness.approx.write", mode = Mode.WRITE)
+    public Stream<ApproxClosenessCentralityProcResult> write(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        ComputationResult<HyperBallCentrality, HyperBallCentrality, ApproxClosenessCentralityConfig> computationResult = compute(
+            graphNameOrConfig,
+            configuration
+        );
+
+        HyperBallCentrality algorithm = computationResult.algorithm();
+        ApproxClosenessCentralityConfig config = computationResult.config();
+        Graph graph = computationResult.graph();
+
+        ApproxClosenessCentralityProcResult.Builder builder = ApproxClosenessCentralityProcResult.builder()
+            .withNeighbourhoodFunction(algorithm.neighbourhoodFunction())
+            .withDistanceDistribution(algorithm.distanceDistribution());
+        builder
+            .withNodeCount(graph.nodeCount())
+            .withWriteProperty(config.writeProperty())
+            .withComputeMillis(computationResult.computeMillis())
+            .withLoadMillis(computationResult.createMillis());
+
+        if (graph.isEmpty()) {
+            graph.release();
+            return Stream.of(builder.build());
+        }
+
+        builder.timeWrite(() -> {
+            NodePropertyExporter exporter = NodePropertyExporter.of(api, graph, algorithm.getTerminationFlag())
+                .withLog(log)
+                .parallel(Pools.DEFAULT, config.writeConcurrency())
+                .build();
+            algorithm.export(config.writeProperty(), exporter);
+        });
+
+        graph.release();
+        return Stream.of(builder.build());
+    }
+
+    @Procedure(value = "gds.alpha.closeness.approx.write.estimate", mode = READ)
+    @Description(ESTIMATE_DESCRIPTION)
+    public Stream<MemoryEstimateResult> writeEstimate(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        return computeEstimate(graphNameOrConfig, configuration);
+    }
+
+    @Override
+    protected ApproxClosenessCentralityConfig newConfig(
+        String username,
+        Optional<String> graphName,
+        Optional<GraphCreateConfig> maybeImplicitCreate,
+        CypherMapWrapper config
+    ) {
+        maybeImplicitCreate = maybeImplicitCreate.map(graphCreateConfig -> {
+            if (graphCreateConfig instanceof GraphCreateFromStoreConfig) {
+                RelationshipProjections.Builder builder = RelationshipProjections.builder();
+                graphCreateConfig.relationshipProjection().projections().forEach(
+                    (id, projection) ->
+                        builder.putProjection(id, projection.withProjection(Projection.UNDIRECTED))
+                );
+                return ImmutableGraphCreateFromStoreConfig.builder()
+                    .from(graphCreateConfig)
+                    .relationshipProjection(builder.build())
+                    .build();
+            }
+            return graphCreateConfig;
+        });
+        return ApproxClosenessCentralityConfig.of(graphName, maybeImplicitCreate, username, config);
+    }
+
+    @Override
+    protected AlgorithmFactory<HyperBallCentrality, ApproxClosenessCentralityConfig> algorithmFactory(
+        ApproxClosenessCentralityConfig config
+    ) {
+        return new AlphaAlgorithmFactory<HyperBallCentrality, ApproxClosenessCentralityConfig>() {
+            @Override
+            public HyperBallCentrality build(
+                Graph graph,
+                ApproxClosenessCentralityConfig configuration,
+                AllocationTracker tracker,
+                Log log
+            ) {
+                return new HyperBallCentrality(
+                    graph,
+                    tracker,
+                    configuration.concurrency(),
+                    Pools.DEFAULT,
+                    configuration.precision(),
+                    configuration.improved(),
+                    configuration.harmonic()
+                )
+                    .withProgressLogger(ProgressLogger.wrap(log, "HyperBallCentrality"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+            }
+
+            @Override
+            public MemoryEstimation memoryEstimation(ApproxClosenessCentralityConfig configuration) {
+                return HyperBallCentrality.memoryEstimation(configuration.precision());
+            }
+        };
+    }
+
+    public static final class ApproxClosenessCentralityProcResult {
+
+        public final long nodes;
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final boolean write;
+        public final String writeProperty;
+        public final List<Double> neighbourhoodFunction;
+        public final List<Double> distanceDistribution;
+
+        private ApproxClosenessCentralityProcResult(
+            long nodes,
+            long loadMillis,
+            long computeMillis,
+            long writeMillis,
+            boolean write,
+            String writeProperty,
+            List<Double> neighbourhoodFunction,
+            List<Double> distanceDistribution
+        ) {
+            this.nodes = nodes;
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.write = write;
+            this.writeProperty = writeProperty;
+            this.neighbourhoodFunction = neighbourhoodFunction;
+            this.distanceDistribution = distanceDistribution;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static class Builder extends AbstractResultBuilder<ApproxClosenessCentralityProcResult> {
+
+            private List<Double> neighbourhoodFunction = Collections.emptyList();
+            private List<Double> distanceDistribution = Collections.emptyList();
+
+            public Builder withNeighbourhoodFunction(double[] neighbourhoodFunction) {
+                this.neighbourhoodFunction = toList(neighbourhoodFunction);
+                return this;
+            }
+
+            public Builder withDistanceDistribution(double[] distanceDistribution) {
+                this.distanceDistribution = toList(distanceDistribution);
+                return this;
+            }
+
+            private static List<Double> toList(double[] values) {
+                return Arrays.stream(values).boxed().collect(Collectors.toList());
+            }
+
+            public ApproxClosenessCentralityProcResult build() {
+                return new ApproxClosenessCentralityProcResult(
+                    nodeCount,
+                    loadMillis,
+                    computeMillis,
+                    writeMillis,
+                    write,
+                    writeProperty,
+                    neighbourhoodFunction,
+                    distanceDistribution
+                );
+            }
+        }
+    }
+}
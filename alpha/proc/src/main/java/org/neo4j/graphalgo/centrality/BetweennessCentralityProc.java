@@ -24,18 +24,22 @@ import org.neo4j.graphalgo.AlgorithmFactory;
 import org.neo4j.graphalgo.AlphaAlgorithmFactory;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
-import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
 import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.betweenness.BetweennessCentrality;
 import org.neo4j.graphalgo.impl.betweenness.BetweennessCentralityConfig;
+import org.neo4j.graphalgo.impl.betweenness.HugeBetweennessCentrality;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.results.AbstractResultBuilder;
+import org.neo4j.graphalgo.results.MemoryEstimateResult;
 import org.neo4j.logging.Log;
+import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
@@ -51,14 +55,14 @@ import static org.neo4j.procedure.Mode.READ;
  *
  * all procedures accept {in, incoming, <, out, outgoing, >, both, <>} as direction
  */
-public class BetweennessCentralityProc extends AlgoBaseProc<BetweennessCentrality, BetweennessCentrality, BetweennessCentralityConfig> {
+public class BetweennessCentralityProc extends AlgoBaseProc<HugeBetweennessCentrality, HugeBetweennessCentrality, BetweennessCentralityConfig> {
 
     @Procedure(name = "gds.alpha.betweenness.stream", mode = READ)
     public Stream<BetweennessCentrality.Result> stream(
         @Name(value = "graphName") Object graphNameOrConfig,
         @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
     ) {
-        ComputationResult<BetweennessCentrality, BetweennessCentrality, BetweennessCentralityConfig> computationResult = compute(
+        ComputationResult<HugeBetweennessCentrality, HugeBetweennessCentrality, BetweennessCentralityConfig> computationResult = compute(
             graphNameOrConfig,
             configuration
         );
@@ -68,12 +72,21 @@ public class BetweennessCentralityProc extends AlgoBaseProc<BetweennessCentralit
         return computationResult.algorithm().resultStream();
     }
 
+    @Procedure(name = "gds.alpha.betweenness.stream.estimate", mode = READ)
+    @Description(ESTIMATE_DESCRIPTION)
+    public Stream<MemoryEstimateResult> streamEstimate(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        return computeEstimate(graphNameOrConfig, configuration);
+    }
+
     @Procedure(value = "gds.alpha.betweenness.write", mode = Mode.WRITE)
     public Stream<BetweennessCentralityProcResult> write(
         @Name(value = "graphName") Object graphNameOrConfig,
         @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
     ) {
-        ComputationResult<BetweennessCentrality, BetweennessCentrality, BetweennessCentralityConfig> computationResult = compute(
+        ComputationResult<HugeBetweennessCentrality, HugeBetweennessCentrality, BetweennessCentralityConfig> computationResult = compute(
             graphNameOrConfig,
             configuration
         );
@@ -81,7 +94,7 @@ public class BetweennessCentralityProc extends AlgoBaseProc<BetweennessCentralit
         BetweennessCentralityProcResult.Builder builder = BetweennessCentralityProcResult.builder();
 
         Graph graph = computationResult.graph();
-        BetweennessCentrality algo = computationResult.algorithm();
+        HugeBetweennessCentrality algo = computationResult.algorithm();
         BetweennessCentralityConfig config = computationResult.config();
 
         if (graph.isEmpty()) {
@@ -96,22 +109,31 @@ public class BetweennessCentralityProc extends AlgoBaseProc<BetweennessCentralit
         graph.release();
 
         builder.timeWrite(() -> {
-            AtomicDoubleArray centrality = algo.getCentrality();
+            HugeAtomicDoubleArray centrality = algo.getCentrality();
             NodePropertyExporter.of(api, graph, algo.getTerminationFlag())
                 .withLog(log)
                 .parallel(Pools.DEFAULT, config.writeConcurrency())
                 .build()
-                .write(config.writeProperty(), centrality, Translators.ATOMIC_DOUBLE_ARRAY_TRANSLATOR);
+                .write(config.writeProperty(), centrality, Translators.HUGE_ATOMIC_DOUBLE_ARRAY_TRANSLATOR);
         });
         algo.release();
         return Stream.of(builder.build());
     }
 
-    private void computeStats(BetweennessCentralityProcResult.Builder builder, AtomicDoubleArray centrality) {
+    @Procedure(value = "gds.alpha.betweenness.write.estimate", mode = READ)
+    @Description(ESTIMATE_DESCRIPTION)
+    public Stream<MemoryEstimateResult> writeEstimate(
+        @Name(value = "graphName") Object graphNameOrConfig,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        return computeEstimate(graphNameOrConfig, configuration);
+    }
+
+    private void computeStats(BetweennessCentralityProcResult.Builder builder, HugeAtomicDoubleArray centrality) {
         double min = Double.MAX_VALUE;
         double max = Double.MIN_VALUE;
         double sum = 0.0;
-        for (int i = centrality.length() - 1; i >= 0; i--) {
+        for (long i = centrality.size() - 1; i >= 0; i--) {
             double c = centrality.get(i);
             if (c < min) {
                 min = c;
@@ -137,22 +159,42 @@ public class BetweennessCentralityProc extends AlgoBaseProc<BetweennessCentralit
     }
 
     @Override
-    protected AlgorithmFactory<BetweennessCentrality, BetweennessCentralityConfig> algorithmFactory(
+    protected AlgorithmFactory<HugeBetweennessCentrality, BetweennessCentralityConfig> algorithmFactory(
         BetweennessCentralityConfig config
     ) {
-        return new AlphaAlgorithmFactory<BetweennessCentrality, BetweennessCentralityConfig>() {
+        return new AlphaAlgorithmFactory<HugeBetweennessCentrality, BetweennessCentralityConfig>() {
             @Override
-            public BetweennessCentrality build(
+            public HugeBetweennessCentrality build(
                 Graph graph,
                 BetweennessCentralityConfig configuration,
                 AllocationTracker tracker,
                 Log log
             ) {
-                return new BetweennessCentrality(graph, Pools.DEFAULT, configuration.concurrency())
+                HugeBetweennessCentrality algorithm = new HugeBetweennessCentrality(
+                    graph,
+                    Pools.DEFAULT,
+                    configuration.concurrency(),
+                    configuration.sourceBatchSize(),
+                    tracker
+                );
+                if (algorithm.batchSize() < configuration.sourceBatchSize() ||
+                    algorithm.concurrency() < configuration.concurrency()) {
+                    log.warn(
+                        "BetweennessCentrality: reduced sourceBatchSize to %d and concurrency to %d to fit into the available memory",
+                        algorithm.batchSize(),
+                        algorithm.concurrency()
+                    );
+                }
+                return algorithm
                     .withProgressLogger(ProgressLogger.wrap(log, "BetweennessCentrality"))
                     .withTerminationFlag(TerminationFlag.wrap(transaction))
                     .withDirection(configuration.direction());
             }
+
+            @Override
+            public MemoryEstimation memoryEstimation(BetweennessCentralityConfig configuration) {
+                return HugeBetweennessCentrality.memoryEstimation(configuration.sourceBatchSize());
+            }
         };
 
     }
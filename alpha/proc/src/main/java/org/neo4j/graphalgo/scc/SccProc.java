@@ -140,7 +140,10 @@ public class SccProc extends AlgoBaseProc<SccAlgorithm, HugeLongArray, SccConfig
             public SccAlgorithm build(
                 Graph graph, SccConfig configuration, AllocationTracker tracker, Log log
             ) {
-                return new SccAlgorithm(graph, tracker)
+                SccAlgorithm algorithm = configuration.parallel()
+                    ? SccAlgorithm.parallel(graph, configuration.concurrency(), Pools.DEFAULT, tracker)
+                    : new SccAlgorithm(graph, tracker);
+                return algorithm
                     .withProgressLogger(ProgressLogger.wrap(log, "Scc"))
                     .withTerminationFlag(TerminationFlag.wrap(transaction));
             }
@@ -57,7 +57,7 @@ public class AllShortestPathsProc extends AlgoBaseProc<MSBFSASPAlgorithm, Stream
             return Stream.empty();
         }
 
-        return computationResult.result();
+        return withGraphLease(computationResult.result());
     }
 
     @Override
@@ -63,7 +63,7 @@ public class BalancedTriadsProc extends TriangleBaseProc<BalancedTriads, Balance
             return Stream.empty();
         }
 
-        return computationResult.algorithm().computeStream();
+        return withGraphLease(computationResult.algorithm().computeStream());
     }
 
     @Procedure(value = "gds.alpha.balancedTriads.write", mode = Mode.WRITE)
@@ -104,12 +104,12 @@ public class BalancedTriadsProc extends TriangleBaseProc<BalancedTriads, Balance
                     PagedAtomicIntegerArray.Translator.INSTANCE);
         }
 
-        return Stream.of(builder
+        return withGraphLease(Stream.of(builder
             .withBalancedTriadCount(algorithm.getBalancedTriangleCount())
             .withUnbalancedTriadCount(algorithm.getUnbalancedTriangleCount())
             .withCommunityFunction(algorithm.getBalancedTriangles()::get)
             .build()
-        );
+        ));
     }
 
     @Override
@@ -28,10 +28,12 @@ import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
-import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
 import org.neo4j.graphalgo.core.write.NodePropertyExporter;
+import org.neo4j.graphalgo.impl.triangle.ForwardTriangleCount;
 import org.neo4j.graphalgo.impl.triangle.IntersectingTriangleCount;
 import org.neo4j.graphalgo.impl.triangle.TriangleCountConfig;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
@@ -48,7 +50,7 @@ import java.util.stream.Stream;
 
 import static org.neo4j.procedure.Mode.READ;
 
-public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCount, PagedAtomicIntegerArray, TriangleCountConfig> {
+public class TriangleCountProc extends TriangleBaseProc<ForwardTriangleCount, HugeAtomicLongArray, TriangleCountConfig> {
 
     @Procedure(name = "gds.alpha.triangleCount.stream", mode = READ)
     @Description(DESCRIPTION)
@@ -56,7 +58,7 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
         @Name(value = "graphName") Object graphNameOrConfig,
         @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
     ) {
-        ComputationResult<IntersectingTriangleCount, PagedAtomicIntegerArray, TriangleCountConfig> computationResult =
+        ComputationResult<ForwardTriangleCount, HugeAtomicLongArray, TriangleCountConfig> computationResult =
             compute(graphNameOrConfig, configuration, false, false);
 
         Graph graph = computationResult.graph();
@@ -66,7 +68,7 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
             return Stream.empty();
         }
 
-        return computationResult.algorithm().computeStream();
+        return withGraphLease(computationResult.algorithm().computeStream());
     }
 
     @Procedure(value = "gds.alpha.triangleCount.write", mode = Mode.WRITE)
@@ -75,13 +77,13 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
         @Name(value = "graphName") Object graphNameOrConfig,
         @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
     ) {
-        ComputationResult<IntersectingTriangleCount, PagedAtomicIntegerArray, TriangleCountConfig> computationResult =
+        ComputationResult<ForwardTriangleCount, HugeAtomicLongArray, TriangleCountConfig> computationResult =
             compute(graphNameOrConfig, configuration, false, false);
 
         AllocationTracker tracker = computationResult.tracker();
         TriangleCountConfig config = computationResult.config();
         Graph graph = computationResult.graph();
-        IntersectingTriangleCount algorithm = computationResult.algorithm();
+        ForwardTriangleCount algorithm = computationResult.algorithm();
 
         TriangleCountResultBuilder builder = new TriangleCountResultBuilder(true, true, tracker);
         builder.withLoadMillis(computationResult.createMillis());
@@ -96,7 +98,7 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
             .parallel(Pools.DEFAULT, config.writeConcurrency())
             .build();
 
-        PagedAtomicIntegerArray triangles = algorithm.getTriangles();
+        HugeAtomicLongArray triangles = algorithm.getTriangles();
         String clusteringCoefficientProperty = config.clusteringCoefficientProperty();
 
         try (ProgressTimer ignored = builder.timeWrite()) {
@@ -105,7 +107,7 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
                 exporter.write(
                     config.writeProperty(),
                     triangles,
-                    PagedAtomicIntegerArray.Translator.INSTANCE,
+                    HugeAtomicLongArray.Translator.INSTANCE,
                     clusteringCoefficientProperty,
                     algorithm.getCoefficients(),
                     HugeDoubleArray.Translator.INSTANCE
@@ -115,12 +117,12 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
                 exporter.write(
                     config.writeProperty(),
                     triangles,
-                    PagedAtomicIntegerArray.Translator.INSTANCE
+                    HugeAtomicLongArray.Translator.INSTANCE
                 );
             }
         }
 
-        return Stream.of(builder
+        return withGraphLease(Stream.of(builder
             .withClusteringCoefficientProperty(clusteringCoefficientProperty)
             .withAverageClusteringCoefficient(algorithm.getAverageCoefficient())
             .withTriangleCount(algorithm.getTriangleCount())
@@ -128,7 +130,7 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
             .withWriteProperty(config.writeProperty())
             .withNodeCount(graph.nodeCount())
             .build()
-        );
+        ));
     }
 
     @Override
@@ -142,16 +144,16 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
     }
 
     @Override
-    protected AlgorithmFactory<IntersectingTriangleCount, TriangleCountConfig> algorithmFactory(TriangleCountConfig config) {
-        return new AlphaAlgorithmFactory<IntersectingTriangleCount, TriangleCountConfig>() {
+    protected AlgorithmFactory<ForwardTriangleCount, TriangleCountConfig> algorithmFactory(TriangleCountConfig config) {
+        return new AlphaAlgorithmFactory<ForwardTriangleCount, TriangleCountConfig>() {
             @Override
-            public IntersectingTriangleCount build(
+            public ForwardTriangleCount build(
                 Graph graph,
                 TriangleCountConfig configuration,
                 AllocationTracker tracker,
                 Log log
             ) {
-                return new IntersectingTriangleCount(
+                return new ForwardTriangleCount(
                     graph,
                     Pools.DEFAULT,
                     configuration.concurrency(),
@@ -160,6 +162,11 @@ public class TriangleCountProc extends TriangleBaseProc<IntersectingTriangleCoun
                     .withProgressLogger(ProgressLogger.wrap(log, "TriangleCount"))
                     .withTerminationFlag(TerminationFlag.wrap(transaction));
             }
+
+            @Override
+            public MemoryEstimation memoryEstimation(TriangleCountConfig configuration) {
+                return ForwardTriangleCount.memoryEstimation();
+            }
         };
     }
 
@@ -59,7 +59,7 @@ public class TriangleProc extends TriangleBaseProc<TriangleStream, Stream<Triang
             return Stream.empty();
         }
 
-        return computationResult.result();
+        return withGraphLease(computationResult.result());
     }
 
     @Override
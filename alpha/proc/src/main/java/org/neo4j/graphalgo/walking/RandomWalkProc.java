@@ -64,11 +64,11 @@ public class RandomWalkProc extends AlgoBaseProc<RandomWalk, Stream<long[]>, Ran
             return Stream.empty();
         }
 
-        return computationResult.result()
+        return withGraphLease(computationResult.result()
             .map(nodes -> new WalkResult(
                 nodes,
                 computationResult.config().path() ? WalkPath.toPath(api, nodes) : null
-            ));
+            )));
     }
 
     @Override
@@ -23,6 +23,7 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.centrality.ApproxClosenessCentralityProc;
 import org.neo4j.graphalgo.centrality.ArticleRankProc;
 import org.neo4j.graphalgo.centrality.BetweennessCentralityProc;
 import org.neo4j.graphalgo.centrality.ClosenessCentralityProc;
@@ -73,11 +74,17 @@ class ListProcTest extends BaseProcTest {
         "gds.alpha.balancedTriads.stream",
         "gds.alpha.betweenness.write",
         "gds.alpha.betweenness.stream",
+        "gds.alpha.betweenness.write.estimate",
+        "gds.alpha.betweenness.stream.estimate",
         "gds.alpha.betweenness.sampled.write",
         "gds.alpha.betweenness.sampled.stream",
         "gds.alpha.bfs.stream",
         "gds.alpha.closeness.write",
         "gds.alpha.closeness.stream",
+        "gds.alpha.closeness.approx.write",
+        "gds.alpha.closeness.approx.stream",
+        "gds.alpha.closeness.approx.write.estimate",
+        "gds.alpha.closeness.approx.stream.estimate",
         "gds.alpha.degree.write",
         "gds.alpha.degree.stream",
         "gds.alpha.dfs.stream",
@@ -145,6 +152,7 @@ class ListProcTest extends BaseProcTest {
         db = TestDatabaseCreator.createTestDatabase();
         registerProcedures(
             AllShortestPathsProc.class,
+            ApproxClosenessCentralityProc.class,
             ApproxNearestNeighborsProc.class,
             ArticleRankProc.class,
             AsPathFunc.class,
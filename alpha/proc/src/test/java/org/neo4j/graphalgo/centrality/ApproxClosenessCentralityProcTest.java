@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.centrality;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.GdsCypher;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.impl.closeness.HyperBallCentrality;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApproxClosenessCentralityProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node {name: 'a'})" +
+        ", (b:Node {name: 'b'})" +
+        ", (c:Node {name: 'c'})" +
+        ", (d:Node {name: 'd'})" +
+        ", (e:Node {name: 'e'})" +
+        ", (a)-[:TYPE]->(b)" +
+        ", (b)-[:TYPE]->(c)" +
+        ", (c)-[:TYPE]->(d)" +
+        ", (d)-[:TYPE]->(e)";
+
+    // the path is loaded undirected
+    private static final Map<String, Double> EXPECTED_CENTRALITY = new HashMap<String, Double>() {{
+        put("a", 4.0 / 10.0);
+        put("b", 4.0 / 7.0);
+        put("c", 4.0 / 6.0);
+        put("d", 4.0 / 7.0);
+        put("e", 4.0 / 10.0);
+    }};
+
+    @BeforeEach
+    void setupGraph() throws Exception {
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(ApproxClosenessCentralityProc.class);
+        runQuery(DB_CYPHER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void testStream() {
+        String query = gdsCypher()
+            .streamMode()
+            .addParameter("precision", HyperBallCentrality.MAX_PRECISION)
+            .yields("nodeId", "centrality");
+
+        Map<String, Double> actual = new HashMap<>();
+        runQueryWithRowConsumer(
+            query + " MATCH (n) WHERE id(n) = nodeId RETURN n.name AS name, centrality",
+            row -> actual.put(row.getString("name"), row.getNumber("centrality").doubleValue())
+        );
+
+        assertCentrality(actual);
+    }
+
+    @Test
+    void testWrite() {
+        String query = gdsCypher()
+            .writeMode()
+            .addParameter("precision", HyperBallCentrality.MAX_PRECISION)
+            .yields("nodes", "writeProperty", "writeMillis", "neighbourhoodFunction", "distanceDistribution");
+
+        runQueryWithRowConsumer(query, row -> {
+            assertEquals(5L, row.getNumber("nodes").longValue());
+            assertEquals("centrality", row.getString("writeProperty"));
+            assertTrue(row.getNumber("writeMillis").longValue() >= 0L);
+            // 5 pairs at distance 0, then 8, 6, 4 and 2 pairs at distance 1 to 4
+            assertList(new double[]{5.0, 13.0, 19.0, 23.0, 25.0}, row.get("neighbourhoodFunction"));
+            assertList(new double[]{5.0, 8.0, 6.0, 4.0, 2.0}, row.get("distanceDistribution"));
+        });
+
+        Map<String, Double> actual = new HashMap<>();
+        runQueryWithRowConsumer(
+            "MATCH (n:Node) RETURN n.name AS name, n.centrality AS centrality",
+            row -> actual.put(row.getString("name"), row.getNumber("centrality").doubleValue())
+        );
+
+        assertCentrality(actual);
+    }
+
+    @Test
+    void testEstimate() {
+        long streamBytes = estimate(gdsCypher().streamEstimation(), HyperBallCentrality.DEFAULT_PRECISION);
+        long writeBytes = estimate(gdsCypher().writeEstimation(), HyperBallCentrality.DEFAULT_PRECISION);
+        assertTrue(streamBytes > 0L);
+        assertEquals(streamBytes, writeBytes);
+        assertTrue(estimate(gdsCypher().streamEstimation(), HyperBallCentrality.MAX_PRECISION) > streamBytes);
+    }
+
+    private long estimate(GdsCypher.ParametersBuildStage estimation, int precision) {
+        String query = estimation
+            .addParameter("concurrency", 1)
+            .addParameter("precision", precision)
+            .yields("bytesMin");
+        return runQuery(query, result -> ((Number) result.next().get("bytesMin")).longValue());
+    }
+
+    private void assertCentrality(Map<String, Double> actual) {
+        assertEquals(EXPECTED_CENTRALITY.keySet(), actual.keySet());
+        EXPECTED_CENTRALITY.forEach((name, centrality) ->
+            assertEquals(centrality, actual.get(name), 1e-2, "Node " + name)
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertList(double[] expected, Object actual) {
+        List<Double> values = (List<Double>) actual;
+        assertEquals(expected.length, values.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], values.get(i), 1e-2, "Distance " + i);
+        }
+    }
+
+    private GdsCypher.ModeBuildStage gdsCypher() {
+        return GdsCypher.call()
+            .withNodeLabel("Node")
+            .withRelationshipType("TYPE")
+            .algo("gds.alpha.closeness.approx");
+    }
+}
@@ -23,6 +23,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -39,6 +41,7 @@ import org.neo4j.graphdb.RelationshipType;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -199,6 +202,64 @@ class BetweennessCentralityProcTest extends BaseProcTest {
         );
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 64})
+    void testBetweennessStreamWithSourceBatchSize(int sourceBatchSize) {
+        String query = gdsCypher()
+            .streamMode()
+            .addParameter("concurrency", 2)
+            .addParameter("sourceBatchSize", sourceBatchSize)
+            .yields("nodeId", "centrality");
+
+        runQueryWithRowConsumer(query, row -> consumer.consume(
+                row.getNumber("nodeId").longValue(),
+                row.getNumber("centrality").doubleValue()
+            )
+        );
+        verify(consumer, times(10)).consume(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(6.0));
+        verify(consumer, times(1)).consume(ArgumentMatchers.eq(centerNodeId), ArgumentMatchers.eq(25.0));
+    }
+
+    @Test
+    void testBetweennessWriteWithSourceBatchSize() {
+        String query = gdsCypher()
+            .writeMode()
+            .addParameter("sourceBatchSize", 4)
+            .yields("sumCentrality", "maxCentrality", "minCentrality");
+        runQueryWithRowConsumer(query, row -> {
+                assertEquals(85.0, (double) row.getNumber("sumCentrality"), 0.01);
+                assertEquals(25.0, (double) row.getNumber("maxCentrality"), 0.01);
+                assertEquals(6.0, (double) row.getNumber("minCentrality"), 0.01);
+            }
+        );
+    }
+
+    @Test
+    void testInvalidSourceBatchSize() {
+        String query = gdsCypher()
+            .streamMode()
+            .addParameter("sourceBatchSize", 65)
+            .yields();
+        assertError(query, "The value of `sourceBatchSize` must be between 1 and 64");
+    }
+
+    @Test
+    void testEstimateGrowsWithSourceBatchSize() {
+        long bytesForOneSource = estimate(gdsCypher().streamEstimation(), 1);
+        long bytesForManySources = estimate(gdsCypher().streamEstimation(), 64);
+        assertTrue(bytesForOneSource > 0);
+        assertTrue(bytesForManySources > bytesForOneSource);
+        assertEquals(bytesForManySources, estimate(gdsCypher().writeEstimation(), 64));
+    }
+
+    private long estimate(GdsCypher.ParametersBuildStage estimation, int sourceBatchSize) {
+        String query = estimation
+            .addParameter("concurrency", 1)
+            .addParameter("sourceBatchSize", sourceBatchSize)
+            .yields("bytesMin");
+        return runQuery(query, result -> ((Number) result.next().get("bytesMin")).longValue());
+    }
+
     private GdsCypher.ModeBuildStage gdsCypher() {
         return GdsCypher.call()
             .withNodeLabel("Node")
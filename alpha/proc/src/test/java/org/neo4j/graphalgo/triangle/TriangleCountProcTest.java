@@ -24,9 +24,9 @@ import org.mockito.AdditionalMatchers;
 import org.neo4j.graphalgo.GdsCypher;
 import org.neo4j.graphalgo.Projection;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
-import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
 import org.neo4j.graphalgo.impl.triangle.BalancedTriadsConfig;
-import org.neo4j.graphalgo.impl.triangle.IntersectingTriangleCount;
+import org.neo4j.graphalgo.impl.triangle.ForwardTriangleCount;
 import org.neo4j.graphalgo.impl.triangle.TriangleCountConfig;
 
 import java.util.Optional;
@@ -39,10 +39,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-class TriangleCountProcTest extends TriangleBaseProcTest<IntersectingTriangleCount, PagedAtomicIntegerArray, TriangleCountConfig> {
+class TriangleCountProcTest extends TriangleBaseProcTest<ForwardTriangleCount, HugeAtomicLongArray, TriangleCountConfig> {
 
     @Override
-    TriangleBaseProc<IntersectingTriangleCount, PagedAtomicIntegerArray, TriangleCountConfig> newInstance() {
+    TriangleBaseProc<ForwardTriangleCount, HugeAtomicLongArray, TriangleCountConfig> newInstance() {
         return new TriangleCountProc();
     }
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.betweenness.BetweennessCentrality;
+import org.neo4j.graphalgo.impl.betweenness.HugeBetweennessCentrality;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Brandes with a single source per traversal and the batched traversal of {@link HugeBetweennessCentrality}.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HugeBetweennessCentralityBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int sourceBatchSize;
+
+    @Param({"UNIFORM", "POWER_LAW"})
+    private RelationshipDistribution distribution;
+
+    @Param({"4"})
+    private int concurrency;
+
+    private Graph graph;
+
+    @Setup
+    public void setup() {
+        graph = new RandomGraphGenerator(
+            10_000,
+            10,
+            distribution,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public void brandes(Blackhole blackhole) {
+        blackhole.consume(new BetweennessCentrality(graph, Pools.DEFAULT, concurrency)
+            .compute()
+            .getCentrality());
+    }
+
+    @Benchmark
+    public void batched(Blackhole blackhole) {
+        blackhole.consume(new HugeBetweennessCentrality(
+            graph,
+            Pools.DEFAULT,
+            concurrency,
+            sourceBatchSize,
+            AllocationTracker.EMPTY
+        ).compute().getCentrality());
+    }
+}
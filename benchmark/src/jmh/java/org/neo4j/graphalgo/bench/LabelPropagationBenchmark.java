@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.labelpropagation.ImmutableLabelPropagationStreamConfig;
+import org.neo4j.graphalgo.labelpropagation.LabelPropagation;
+import org.neo4j.graphalgo.labelpropagation.LabelPropagationStreamConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Label voting on generated graphs, the degree distribution determines
+ * how many distinct labels have to be accumulated per node.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LabelPropagationBenchmark {
+
+    @Param({"UNIFORM", "RANDOM", "POWER_LAW"})
+    private RelationshipDistribution distribution;
+
+    @Param({"10", "100"})
+    private int averageDegree;
+
+    @Param({"1", "4"})
+    private int concurrency;
+
+    private Graph graph;
+    private LabelPropagationStreamConfig config;
+
+    @Setup
+    public void setup() {
+        graph = new RandomGraphGenerator(
+            100_000,
+            averageDegree,
+            distribution,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+        config = ImmutableLabelPropagationStreamConfig
+            .builder()
+            .maxIterations(10)
+            .concurrency(concurrency)
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public void labelPropagation(Blackhole blackhole) {
+        LabelPropagation labelPropagation = new LabelPropagation(
+            graph,
+            config,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+        labelPropagation.compute();
+        blackhole.consume(labelPropagation.labels());
+        labelPropagation.release();
+    }
+}
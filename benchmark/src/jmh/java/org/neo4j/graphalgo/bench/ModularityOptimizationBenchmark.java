@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
+import org.neo4j.graphalgo.beta.modularity.ModularityOptimization;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.logging.NullLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.neo4j.graphalgo.core.utils.ParallelUtil.DEFAULT_BATCH_SIZE;
+
+/**
+ * Compares full iterations with vertex pruning, the difference between the iteration counts
+ * is the cost of the later iterations, in which fewer nodes change their community.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModularityOptimizationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean vertexPruning;
+
+    @Param({"1", "3", "10"})
+    private int maxIterations;
+
+    private Graph graph;
+
+    @Setup
+    public void setup() {
+        graph = new RandomGraphGenerator(
+            100_000,
+            10,
+            RelationshipDistribution.POWER_LAW,
+            42L,
+            Optional.empty(),
+            AllocationTracker.EMPTY
+        ).generate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public void modularityOptimization(Blackhole blackhole) {
+        ModularityOptimization modularityOptimization = new ModularityOptimization(
+            graph,
+            Direction.BOTH,
+            maxIterations,
+            0.0,
+            null,
+            4,
+            DEFAULT_BATCH_SIZE,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY,
+            NullLog.getInstance()
+        ).withVertexPruning(vertexPruning);
+        modularityOptimization.compute();
+        blackhole.consume(modularityOptimization.getModularity());
+        blackhole.consume(modularityOptimization.activeNodesPerIteration());
+        modularityOptimization.release();
+    }
+}
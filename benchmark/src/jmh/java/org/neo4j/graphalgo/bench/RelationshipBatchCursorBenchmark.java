@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.graphbuilder.GraphBuilder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the edge throughput of consumer based iteration with batch decoding.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RelationshipBatchCursorBenchmark {
+
+    private static final String LABEL = "Node";
+    private static final String RELATIONSHIP = "REL";
+    private static final int NODE_COUNT = 2_000;
+
+    @Param({"0.05", "0.5"})
+    private double connectedness;
+
+    private GraphDatabaseAPI db;
+    private Graph graph;
+    private long[] targets;
+
+    @Setup
+    public void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+            .newImpermanentDatabaseBuilder()
+            .newGraphDatabase();
+
+        GraphBuilder.create(db)
+            .setLabel(LABEL)
+            .setRelationship(RELATIONSHIP)
+            .newCompleteGraphBuilder()
+            .createCompleteGraph(NODE_COUNT, connectedness);
+
+        graph = new StoreLoaderBuilder()
+            .api(db)
+            .addNodeLabel(LABEL)
+            .addRelationshipType(RELATIONSHIP)
+            .build()
+            .graph(HugeGraphFactory.class);
+
+        targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        db.shutdown();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public long forEachRelationship() {
+        long nodeCount = graph.nodeCount();
+        long[] sum = {0L};
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            graph.forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                sum[0] += target;
+                return true;
+            });
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public long batchCursor() {
+        long nodeCount = graph.nodeCount();
+        long[] targets = this.targets;
+        long sum = 0L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            RelationshipBatchCursor cursor = graph.batchCursor(nodeId, Direction.OUTGOING);
+            int count;
+            while ((count = cursor.nextBatch(targets)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    sum += targets[i];
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.loading.GraphGenerator;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.triangle.ForwardTriangleCount;
+import org.neo4j.graphalgo.impl.triangle.IntersectingTriangleCount;
+import org.neo4j.graphdb.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the id ordered intersection with the degree ordered forward algorithm on undirected graphs.
+ * A skew above 1 concentrates the relationships on few nodes, which yields a power law like degree distribution.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TriangleCountComparisonBenchmark {
+
+    private static final int NODE_COUNT = 100_000;
+
+    @Param({"1.0", "3.0"})
+    private double skew;
+
+    @Param({"10", "50"})
+    private int averageDegree;
+
+    private Graph graph;
+
+    @Setup
+    public void setup() {
+        GraphGenerator.NodeImporter nodeImporter = GraphGenerator.createNodeImporter(
+            NODE_COUNT,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+        for (long nodeId = 0; nodeId < NODE_COUNT; nodeId++) {
+            nodeImporter.addNode(nodeId);
+        }
+
+        GraphGenerator.RelImporter relImporter = GraphGenerator.createRelImporter(
+            nodeImporter,
+            Direction.OUTGOING,
+            true,
+            false,
+            DeduplicationStrategy.SINGLE
+        );
+        Random random = new Random(42L);
+        long relationshipCount = (long) NODE_COUNT * averageDegree / 2;
+        for (long i = 0; i < relationshipCount; i++) {
+            long source = random.nextInt(NODE_COUNT);
+            long target = (long) (NODE_COUNT * Math.pow(random.nextDouble(), skew));
+            relImporter.add(source, target);
+        }
+        graph = relImporter.buildGraph();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public void intersecting(Blackhole blackhole) {
+        IntersectingTriangleCount triangleCount = new IntersectingTriangleCount(
+            graph,
+            Pools.DEFAULT,
+            Pools.DEFAULT_CONCURRENCY,
+            AllocationTracker.EMPTY
+        );
+        blackhole.consume(triangleCount.compute());
+        blackhole.consume(triangleCount.getTriangleCount());
+    }
+
+    @Benchmark
+    public void forward(Blackhole blackhole) {
+        ForwardTriangleCount triangleCount = new ForwardTriangleCount(
+            graph,
+            Pools.DEFAULT,
+            Pools.DEFAULT_CONCURRENCY,
+            AllocationTracker.EMPTY
+        );
+        blackhole.consume(triangleCount.compute());
+        blackhole.consume(triangleCount.getTriangleCount());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Fallback {@link RelationshipBatchCursor} for graphs that can only iterate relationships with a consumer.
+ * All relationships of the node are collected upfront and are then returned in batches.
+ */
+final class BufferedRelationshipBatchCursor implements RelationshipBatchCursor, RelationshipWithPropertyConsumer {
+
+    private long[] targets;
+    private double[] properties;
+    private int length;
+    private int position;
+
+    BufferedRelationshipBatchCursor(
+        RelationshipIterator relationshipIterator,
+        long nodeId,
+        Direction direction,
+        double fallbackValue
+    ) {
+        this.targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+        this.properties = new double[RelationshipBatchCursor.BATCH_SIZE];
+        relationshipIterator.forEachRelationship(nodeId, direction, fallbackValue, this);
+    }
+
+    @Override
+    public boolean accept(long sourceNodeId, long targetNodeId, double property) {
+        if (length == targets.length) {
+            int newLength = ArrayUtil.oversize(length + 1, Long.BYTES);
+            targets = Arrays.copyOf(targets, newLength);
+            properties = Arrays.copyOf(properties, newLength);
+        }
+        targets[length] = targetNodeId;
+        properties[length] = property;
+        length++;
+        return true;
+    }
+
+    @Override
+    public int nextBatch(long[] targets) {
+        int count = Math.min(targets.length, length - position);
+        System.arraycopy(this.targets, position, targets, 0, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int nextBatch(long[] targets, double[] properties) {
+        int count = Math.min(targets.length, length - position);
+        System.arraycopy(this.targets, position, targets, 0, count);
+        System.arraycopy(this.properties, position, properties, 0, count);
+        position += count;
+        return count;
+    }
+}
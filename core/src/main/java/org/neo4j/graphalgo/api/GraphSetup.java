@@ -23,6 +23,9 @@ import org.jetbrains.annotations.NotNull;
 import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.loading.NodeOrdering;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
@@ -108,6 +111,35 @@ public interface GraphSetup {
     @Deprecated
     DeduplicationStrategy deduplicationStrategy();
 
+    /**
+     * Where the compressed adjacency pages are allocated.
+     */
+    default AdjacencyStorage adjacencyStorage() {
+        return AdjacencyStorage.HEAP;
+    }
+
+    /**
+     * How the target ids in the adjacency lists are compressed.
+     */
+    default AdjacencyCodec adjacencyCodec() {
+        return AdjacencyCodec.VAR_LONG;
+    }
+
+    /**
+     * Whether to build a skip index over the adjacency lists of high-degree nodes
+     * to speed up relationship existence and property lookups.
+     */
+    default boolean indexAdjacency() {
+        return false;
+    }
+
+    /**
+     * How the internal node ids are reordered after the import.
+     */
+    default NodeOrdering nodeOrdering() {
+        return NodeOrdering.NONE;
+    }
+
     Map<String, Object> params();
 
     Log log();
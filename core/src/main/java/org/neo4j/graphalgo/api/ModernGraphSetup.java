@@ -27,6 +27,9 @@ import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjection;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.loading.NodeOrdering;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
@@ -272,6 +275,26 @@ public class ModernGraphSetup implements GraphSetup {
             .orElse(DeduplicationStrategy.DEFAULT);
     }
 
+    @Override
+    public AdjacencyStorage adjacencyStorage() {
+        return createConfig.adjacencyStorage();
+    }
+
+    @Override
+    public AdjacencyCodec adjacencyCodec() {
+        return createConfig.adjacencyCodec();
+    }
+
+    @Override
+    public boolean indexAdjacency() {
+        return createConfig.indexAdjacency();
+    }
+
+    @Override
+    public NodeOrdering nodeOrdering() {
+        return createConfig.nodeOrdering();
+    }
+
     @Override
     public Map<String, Object> params() {
         return params;
@@ -37,6 +37,15 @@ public interface NodeProperties {
         return nodeProperty(nodeId);
     }
 
+    /**
+     * Returns the property value for a node as a long or the given default value if no property had been defined.
+     * Implementations that store integral values return them without the precision loss of a double above 2^53.
+     */
+    default long longNodeProperty(long nodeId, long defaultValue) {
+        double value = nodeProperty(nodeId, Double.NaN);
+        return Double.isNaN(value) ? defaultValue : (long) value;
+    }
+
     /**
      * @return the maximum value contained in the mapping or an empty {@link OptionalLong} if the mapping is
      *         empty or the feature is not supported.
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+/**
+ * Iterates the relationships of a single node by decoding batches of target ids
+ * into a caller provided buffer, instead of calling a consumer for every relationship.
+ *
+ * @see RelationshipIterator#batchCursor(long, org.neo4j.graphdb.Direction, double)
+ */
+public interface RelationshipBatchCursor {
+
+    /**
+     * A buffer size that matches the block size of the compressed adjacency lists.
+     */
+    int BATCH_SIZE = 64;
+
+    /**
+     * Decodes up to {@code targets.length} mapped target ids into {@code targets}, starting at index 0.
+     *
+     * @return the number of target ids written, {@code 0} iff the cursor is exhausted
+     */
+    int nextBatch(long[] targets);
+
+    /**
+     * Decodes up to {@code targets.length} mapped target ids into {@code targets} and writes the
+     * relationship property of every target into {@code properties} at the same index.
+     * If the graph was loaded without a relationship property, the fallback value is used.
+     * {@code properties} must be at least as long as {@code targets}.
+     *
+     * @return the number of target ids written, {@code 0} iff the cursor is exhausted
+     */
+    int nextBatch(long[] targets, double[] properties);
+}
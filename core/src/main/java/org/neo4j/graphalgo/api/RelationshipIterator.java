@@ -71,6 +71,27 @@ public interface RelationshipIterator extends RelationshipPredicate {
         forEachRelationship(nodeId, Direction.OUTGOING, fallbackValue, consumer);
     }
 
+    /**
+     * Returns a cursor that decodes the targets of the relationships of a given node in batches,
+     * respecting the direction. If the graph was loaded with a relationship property, the property
+     * values are available through {@link RelationshipBatchCursor#nextBatch(long[], double[])}.
+     * Otherwise the fallback value will be used.
+     *
+     * The returned cursor might be reused by the next call to this method,
+     * use {@link #concurrentCopy()} for independent iterations.
+     *
+     * @param nodeId id of the node for which to iterate relationships
+     * @param direction direction of the relationships
+     * @param fallbackValue value used as relationship property if no properties were loaded
+     */
+    default RelationshipBatchCursor batchCursor(long nodeId, Direction direction, double fallbackValue) {
+        return new BufferedRelationshipBatchCursor(this, nodeId, direction, fallbackValue);
+    }
+
+    default RelationshipBatchCursor batchCursor(long nodeId, Direction direction) {
+        return batchCursor(nodeId, direction, Double.NaN);
+    }
+
     /**
      * @return a copy of this iterator that reuses new cursors internally,
      *         so that iterations happen independent from other iterations.
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Selects how the sorted target ids of an {@link AdjacencyList} are compressed.
+ * Both codecs store the difference to the previous target and are decoded in blocks of {@link #BLOCK_SIZE} targets.
+ */
+public enum AdjacencyCodec {
+    /**
+     * Every delta is stored as a variable-length long and decoded one byte at a time.
+     */
+    VAR_LONG,
+    /**
+     * Every block of deltas is bit-packed with a single bit width for the whole block.
+     * Deltas that do not fit into that width are patched in as exceptions (PFOR).
+     */
+    PACKED;
+
+    /**
+     * The number of targets that are decoded at once.
+     */
+    public static final int BLOCK_SIZE = 64;
+
+    public static AdjacencyCodec parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof AdjacencyCodec) {
+            return (AdjacencyCodec) object;
+        }
+        if (object instanceof String) {
+            try {
+                return AdjacencyCodec.valueOf(((String) object).toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                // fall through to the error listing the valid values
+            }
+        }
+        String availableCodecs = Arrays
+            .stream(AdjacencyCodec.values())
+            .map(AdjacencyCodec::name)
+            .collect(Collectors.joining(", "));
+        throw new IllegalArgumentException(String.format(
+            "Adjacency codec `%s` is not supported. Must be one of: %s.",
+            object,
+            availableCodecs
+        ));
+    }
+}
@@ -21,20 +21,30 @@ package org.neo4j.graphalgo.core.huge;
 
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
+import static org.neo4j.graphalgo.core.huge.PackedDeltaDecoding.decodeDeltaBlock;
 import static org.neo4j.graphalgo.core.huge.VarLongDecoding.decodeDeltaVLongs;
 
 final class AdjacencyDecompressingReader {
 
-    private static final int CHUNK_SIZE = 64;
+    static final int CHUNK_SIZE = AdjacencyCodec.BLOCK_SIZE;
 
+    private final AdjacencyCodec codec;
     private final long[] block;
     private int pos;
     private byte[] array;
+    private ByteBuffer buffer;
     private int offset;
 
-    AdjacencyDecompressingReader() {
+    // little endian view of the last heap page, only used for AdjacencyCodec.PACKED
+    private byte[] wrappedPage;
+    private ByteBuffer wrappedBuffer;
+
+    AdjacencyDecompressingReader(AdjacencyCodec codec) {
+        this.codec = codec;
         this.block = new long[CHUNK_SIZE];
     }
 
@@ -64,17 +74,57 @@ final class AdjacencyDecompressingReader {
         System.arraycopy(other.block, 0, block, 0, CHUNK_SIZE);
         pos = other.pos;
         array = other.array;
+        buffer = other.buffer;
         offset = other.offset;
     }
 
     int reset(byte[] adjacencyPage, int offset) {
+        if (codec == AdjacencyCodec.PACKED) {
+            return reset(wrap(adjacencyPage), offset);
+        }
         this.array = adjacencyPage;
+        this.buffer = null;
         int numAdjacencies = readInt(adjacencyPage, offset); // offset should not be 0
-        this.offset = decodeDeltaVLongs(0L, adjacencyPage, Integer.BYTES + offset, Math.min(numAdjacencies, CHUNK_SIZE), block);
+        this.offset = decodeBlock(0L, Integer.BYTES + offset, Math.min(numAdjacencies, CHUNK_SIZE));
+        pos = 0;
+        return numAdjacencies;
+    }
+
+    int reset(ByteBuffer adjacencyPage, int offset) {
+        this.array = null;
+        this.buffer = adjacencyPage;
+        int numAdjacencies = adjacencyPage.getInt(offset); // offset should not be 0
+        this.offset = decodeBlock(0L, Integer.BYTES + offset, Math.min(numAdjacencies, CHUNK_SIZE));
         pos = 0;
         return numAdjacencies;
     }
 
+    private ByteBuffer wrap(byte[] page) {
+        if (page != wrappedPage) {
+            wrappedPage = page;
+            wrappedBuffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return wrappedBuffer;
+    }
+
+    /**
+     * Continue decoding at the block that starts at {@code offset} in the current page.
+     * {@code startValue} is the last value before that block.
+     */
+    void seek(long startValue, int offset, int remaining) {
+        block[CHUNK_SIZE - 1] = startValue;
+        this.offset = offset;
+        this.offset = decodeBlock(Math.min(remaining, CHUNK_SIZE));
+        pos = 0;
+    }
+
+    /**
+     * The byte offset of the next block that would be decoded.
+     */
+    int blockOffset() {
+        return offset;
+    }
+
     long next(int remaining) {
         int pos = this.pos++;
         if (pos < CHUNK_SIZE) {
@@ -83,12 +133,45 @@ final class AdjacencyDecompressingReader {
         return readNextBlock(remaining);
     }
 
+    /**
+     * Copies the next {@code length} values into {@code out}, starting at index {@code into}.
+     * {@code remaining} is the number of values that are left to be read, including the copied ones,
+     * and must not be smaller than {@code length}.
+     */
+    void next(long[] out, int into, int length, int remaining) {
+        int end = into + length;
+        while (into < end) {
+            if (pos == CHUNK_SIZE) {
+                offset = decodeBlock(Math.min(remaining, CHUNK_SIZE));
+                pos = 0;
+            }
+            int count = Math.min(CHUNK_SIZE - pos, end - into);
+            System.arraycopy(block, pos, out, into, count);
+            pos += count;
+            into += count;
+            remaining -= count;
+        }
+    }
+
     private long readNextBlock(int remaining) {
         pos = 1;
-        offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, Math.min(remaining, CHUNK_SIZE), block);
+        offset = decodeBlock(Math.min(remaining, CHUNK_SIZE));
         return block[0];
     }
 
+    private int decodeBlock(int limit) {
+        return decodeBlock(block[CHUNK_SIZE - 1], offset, limit);
+    }
+
+    private int decodeBlock(long startValue, int offset, int limit) {
+        if (codec == AdjacencyCodec.PACKED) {
+            return decodeDeltaBlock(startValue, buffer, offset, limit, block);
+        }
+        return array != null
+            ? decodeDeltaVLongs(startValue, array, offset, limit, block)
+            : decodeDeltaVLongs(startValue, buffer, offset, limit, block);
+    }
+
     long skipUntil(long target, int remaining, MutableIntValue consumed) {
         int pos = this.pos;
         long[] block = this.block;
@@ -98,7 +181,7 @@ final class AdjacencyDecompressingReader {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] <= target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = decodeBlock(needToDecode);
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -125,7 +208,7 @@ final class AdjacencyDecompressingReader {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] < target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = decodeBlock(needToDecode);
             available -= skippedInThisBlock;
             pos = 0;
         }
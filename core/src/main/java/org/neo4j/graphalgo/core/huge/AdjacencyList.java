@@ -20,12 +20,22 @@
 package org.neo4j.graphalgo.core.huge;
 
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
+import org.neo4j.graphalgo.core.loading.PackedDeltaEncoding;
+import org.neo4j.graphalgo.core.utils.mem.DirectBuffers;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
 import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
 import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
 import static org.neo4j.graphalgo.core.utils.paged.PageUtil.indexInPage;
@@ -37,22 +47,29 @@ public final class AdjacencyList {
     public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
     public static final long PAGE_MASK = PAGE_SIZE - 1;
 
-    private final long allocatedMemory;
+    private static final ByteBuffer EMPTY_PAGE = ByteBuffer.allocate(0);
+
     private byte[][] pages;
+    private OffHeapPages offHeapPages;
+    private final AdjacencyCodec codec;
 
     public static MemoryEstimation compressedMemoryEstimation(long avgDegree, long nodeCount) {
+        return compressedMemoryEstimation(avgDegree, nodeCount, AdjacencyCodec.VAR_LONG);
+    }
+
+    public static MemoryEstimation compressedMemoryEstimation(long avgDegree, long nodeCount, AdjacencyCodec codec) {
         // Best case scenario:
         // Difference between node identifiers in each adjacency list is 1.
         // This leads to ideal compression through delta encoding.
         int deltaBestCase = 1;
-        long bestCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaBestCase);
+        long bestCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaBestCase, codec);
 
         // Worst case scenario:
         // Relationships are equally distributed across nodes, i.e. each node has the same number of rels.
         // Within each adjacency list, all identifiers have the highest possible difference between each other.
         // Highest possible difference is the number of nodes divided by the average degree.
         long deltaWorstCase = (avgDegree > 0) ? ceilDiv(nodeCount, avgDegree) : 0L;
-        long worstCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaWorstCase);
+        long worstCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaWorstCase, codec);
 
         int minPages = PageUtil.numPagesFor(bestCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
         int maxPages = PageUtil.numPagesFor(worstCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
@@ -70,11 +87,15 @@ public final class AdjacencyList {
     }
 
     public static MemoryEstimation compressedMemoryEstimation(boolean undirected) {
+        return compressedMemoryEstimation(undirected, AdjacencyCodec.VAR_LONG);
+    }
+
+    public static MemoryEstimation compressedMemoryEstimation(boolean undirected, AdjacencyCodec codec) {
         return MemoryEstimations.setup("", dim -> {
             long nodeCount = dim.nodeCount();
             long relCount = undirected ? dim.maxRelCount() * 2 : dim.maxRelCount();
             long avgDegree = (nodeCount > 0) ? ceilDiv(relCount, nodeCount) : 0L;
-            return AdjacencyList.compressedMemoryEstimation(avgDegree, nodeCount);
+            return AdjacencyList.compressedMemoryEstimation(avgDegree, nodeCount, codec);
         });
     }
 
@@ -95,6 +116,22 @@ public final class AdjacencyList {
                 .build();
     }
 
+    private static long computeAdjacencyByteSize(long avgDegree, long nodeCount, long delta, AdjacencyCodec codec) {
+        return codec == AdjacencyCodec.PACKED
+            ? computePackedAdjacencyByteSize(avgDegree, nodeCount, delta)
+            : computeAdjacencyByteSize(avgDegree, nodeCount, delta);
+    }
+
+    /* test private */
+    static long computePackedAdjacencyByteSize(long avgDegree, long nodeCount, long delta) {
+        // the first id does not fit into the bit width of the block and is stored as an exception
+        long firstAdjacencyIdAvgByteSize = (avgDegree > 0) ? 1 + ceilDiv(encodedVLongSize(nodeCount), 2) : 0L;
+        int bitsPerRelationship = Long.SIZE - Long.numberOfLeadingZeros(delta);
+        long compressedAdjacencyByteSize = PackedDeltaEncoding.encodedSize(avgDegree, bitsPerRelationship);
+        int degreeByteSize = Integer.BYTES;
+        return (degreeByteSize + firstAdjacencyIdAvgByteSize + compressedAdjacencyByteSize) * nodeCount;
+    }
+
     /* test private */
     static long computeAdjacencyByteSize(long avgDegree, long nodeCount, long delta) {
         long firstAdjacencyIdAvgByteSize = (avgDegree > 0) ? ceilDiv(encodedVLongSize(nodeCount), 2) : 0L;
@@ -105,8 +142,64 @@ public final class AdjacencyList {
     }
 
     public AdjacencyList(byte[][] pages) {
+        this(pages, AdjacencyCodec.VAR_LONG);
+    }
+
+    public AdjacencyList(byte[][] pages, AdjacencyCodec codec) {
         this.pages = pages;
-        this.allocatedMemory = memoryOfPages(pages);
+        this.codec = codec;
+    }
+
+    /**
+     * Creates an adjacency list over pages that live outside of the Java heap.
+     * The pages must use {@link java.nio.ByteOrder#LITTLE_ENDIAN} byte order.
+     * Releasing the list frees the pages, removes {@code offHeapMemory} from the {@code tracker}
+     * and deletes the {@code mappedFile}, if there is one.
+     */
+    public static AdjacencyList offHeap(
+        ByteBuffer[] pages,
+        long offHeapMemory,
+        Path mappedFile,
+        AllocationTracker tracker
+    ) {
+        return offHeap(pages, offHeapMemory, mappedFile, AdjacencyCodec.VAR_LONG, tracker);
+    }
+
+    public static AdjacencyList offHeap(
+        ByteBuffer[] pages,
+        long offHeapMemory,
+        Path mappedFile,
+        AdjacencyCodec codec,
+        AllocationTracker tracker
+    ) {
+        AdjacencyList adjacencyList = new AdjacencyList(null, codec);
+        adjacencyList.offHeapPages = new OffHeapPages(pages, offHeapMemory, mappedFile, tracker);
+        return adjacencyList;
+    }
+
+    public boolean isOffHeap() {
+        return offHeapPages != null;
+    }
+
+    public AdjacencyCodec codec() {
+        return codec;
+    }
+
+    /**
+     * Calls the {@code consumer} for every page in order.
+     * The passed buffers are independent views and may be consumed without affecting the adjacency list.
+     * Unused page slots are represented by an empty buffer.
+     */
+    public void forEachPage(Consumer<ByteBuffer> consumer) {
+        if (offHeapPages != null) {
+            for (ByteBuffer page : offHeapPages.pages) {
+                consumer.accept(page != null ? page.duplicate() : EMPTY_PAGE.duplicate());
+            }
+        } else {
+            for (byte[] page : pages) {
+                consumer.accept(page != null ? ByteBuffer.wrap(page) : EMPTY_PAGE.duplicate());
+            }
+        }
     }
 
     private static long memoryOfPages(byte[][] pages) {
@@ -120,30 +213,47 @@ public final class AdjacencyList {
     }
 
     int getDegree(long index) {
+        if (pages == null) {
+            return offHeapPages.pages[pageIndex(index, PAGE_SHIFT)].getInt(indexInPage(index, PAGE_MASK));
+        }
         return AdjacencyDecompressingReader.readInt(
                 pages[pageIndex(index, PAGE_SHIFT)],
                 indexInPage(index, PAGE_MASK));
     }
 
+    /**
+     * Releases the pages and returns the amount of freed on-heap memory.
+     * Off-heap pages are freed immediately and removed from the tracker that was given on construction.
+     */
     public final long release() {
+        if (offHeapPages != null) {
+            long memory = offHeapPages.release();
+            offHeapPages = null;
+            return memory;
+        }
         if (pages == null) {
             return 0L;
         }
+        long memory = memoryOfPages(pages);
         pages = null;
-        return allocatedMemory;
+        return memory;
     }
 
     // Cursors
 
     Cursor cursor(long offset) {
-        return new Cursor(pages).init(offset);
+        return new Cursor(pages, offHeapPages()).init(offset);
     }
 
     /**
      * Returns a new, uninitialized delta cursor. Call {@link DecompressingCursor#init(long)}.
      */
     DecompressingCursor rawDecompressingCursor() {
-        return new DecompressingCursor(pages);
+        return new DecompressingCursor(pages, offHeapPages(), codec);
+    }
+
+    private ByteBuffer[] offHeapPages() {
+        return offHeapPages != null ? offHeapPages.pages : null;
     }
 
     /**
@@ -160,20 +270,58 @@ public final class AdjacencyList {
         return reuse.init(offset);
     }
 
+    private static final class OffHeapPages {
+        private final ByteBuffer[] pages;
+        private final long offHeapMemory;
+        private final Path mappedFile;
+        private final AllocationTracker tracker;
+
+        private OffHeapPages(ByteBuffer[] pages, long offHeapMemory, Path mappedFile, AllocationTracker tracker) {
+            this.pages = pages;
+            this.offHeapMemory = offHeapMemory;
+            this.mappedFile = mappedFile;
+            this.tracker = tracker;
+        }
+
+        /**
+         * Frees the direct buffers, or unmaps the mapped buffers and removes the backing file.
+         * Cursors over the released pages must not be used afterwards.
+         */
+        private long release() {
+            for (ByteBuffer page : pages) {
+                if (page != null) {
+                    DirectBuffers.free(page);
+                }
+            }
+            tracker.removeOffHeap(offHeapMemory);
+            if (mappedFile != null) {
+                try {
+                    Files.deleteIfExists(mappedFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return MemoryUsage.sizeOfObjectArray(pages.length);
+        }
+    }
+
     public static final class Cursor extends MutableIntValue {
 
-        static final Cursor EMPTY = new Cursor(new byte[0][]);
+        static final Cursor EMPTY = new Cursor(new byte[0][], null);
 
         // TODO: free
         private final byte[][] pages;
+        private final ByteBuffer[] offHeapPages;
 
         private byte[] currentPage;
+        private ByteBuffer currentOffHeapPage;
         private int degree;
         private int offset;
         private int limit;
 
-        private Cursor(byte[][] pages) {
+        private Cursor(byte[][] pages, ByteBuffer[] offHeapPages) {
             this.pages = pages;
+            this.offHeapPages = offHeapPages;
         }
 
         public int length() {
@@ -192,15 +340,39 @@ public final class AdjacencyList {
          * It is undefined behavior if this is called after {@link #hasNextLong()} returns {@code false}.
          */
         long nextLong() {
-            long value = AdjacencyDecompressingReader.readLong(currentPage, offset);
+            long value = currentPage != null
+                ? AdjacencyDecompressingReader.readLong(currentPage, offset)
+                : currentOffHeapPage.getLong(offset);
             offset += Long.BYTES;
             return value;
         }
 
+        /**
+         * Read the next {@code length} values as doubles into {@code out}.
+         * It is undefined behavior to read more values than are left.
+         */
+        void nextDoubles(double[] out, int length) {
+            for (int i = 0; i < length; i++) {
+                out[i] = Double.longBitsToDouble(nextLong());
+            }
+        }
+
+        /**
+         * Skip the next {@code count} values.
+         */
+        void skip(int count) {
+            offset += count * Long.BYTES;
+        }
+
         Cursor init(long fromIndex) {
-            this.currentPage = pages[pageIndex(fromIndex, PAGE_SHIFT)];
             this.offset = indexInPage(fromIndex, PAGE_MASK);
-            this.degree = AdjacencyDecompressingReader.readInt(currentPage, offset);
+            if (offHeapPages == null) {
+                this.currentPage = pages[pageIndex(fromIndex, PAGE_SHIFT)];
+                this.degree = AdjacencyDecompressingReader.readInt(currentPage, offset);
+            } else {
+                this.currentOffHeapPage = offHeapPages[pageIndex(fromIndex, PAGE_SHIFT)];
+                this.degree = currentOffHeapPage.getInt(offset);
+            }
             this.offset += Integer.BYTES;
             this.limit = offset + degree * Long.BYTES;
             return this;
@@ -212,14 +384,16 @@ public final class AdjacencyList {
         public static final long NOT_FOUND = -1;
         // TODO: free
         private byte[][] pages;
+        private ByteBuffer[] offHeapPages;
         private final AdjacencyDecompressingReader decompress;
 
         private int maxTargets;
         private int currentTarget;
 
-        private DecompressingCursor(byte[][] pages) {
+        private DecompressingCursor(byte[][] pages, ByteBuffer[] offHeapPages, AdjacencyCodec codec) {
             this.pages = pages;
-            this.decompress = new AdjacencyDecompressingReader();
+            this.offHeapPages = offHeapPages;
+            this.decompress = new AdjacencyDecompressingReader(codec);
         }
 
         /**
@@ -262,6 +436,19 @@ public final class AdjacencyList {
             return decompress.next(remaining);
         }
 
+        /**
+         * Read and decode up to {@code out.length} target ids into {@code out}.
+         *
+         * @return the number of decoded target ids, {@code 0} iff there are no more targets to decode
+         */
+        int nextVLongs(long[] out) {
+            int remaining = remaining();
+            int count = Math.min(out.length, remaining);
+            decompress.next(out, 0, count, remaining);
+            currentTarget += count;
+            return count;
+        }
+
         /**
          * Read and decode target ids until it is strictly larger than (`>`) the provided {@code target}.
          * Might return an id that is less than or equal to {@code target} iff the cursor did exhaust before finding an
@@ -292,10 +479,33 @@ public final class AdjacencyList {
             return value;
         }
 
+        /**
+         * Continue decoding at the block with the given byte offset that starts with target number {@code index}.
+         * {@code startValue} must be the target id at {@code index - 1}.
+         */
+        void skipTo(long startValue, int blockOffset, int index) {
+            decompress.seek(startValue, blockOffset, maxTargets - index);
+            currentTarget = index;
+        }
+
+        /**
+         * The byte offset of the next block to decode. Only meaningful after a multiple of the block size
+         * of targets has been decoded.
+         */
+        int blockOffset() {
+            return decompress.blockOffset();
+        }
+
         DecompressingCursor init(long fromIndex) {
-            maxTargets = decompress.reset(
-                    pages[pageIndex(fromIndex, PAGE_SHIFT)],
-                    indexInPage(fromIndex, PAGE_MASK));
+            if (offHeapPages == null) {
+                maxTargets = decompress.reset(
+                        pages[pageIndex(fromIndex, PAGE_SHIFT)],
+                        indexInPage(fromIndex, PAGE_MASK));
+            } else {
+                maxTargets = decompress.reset(
+                        offHeapPages[pageIndex(fromIndex, PAGE_SHIFT)],
+                        indexInPage(fromIndex, PAGE_MASK));
+            }
             currentTarget = 0;
             return this;
         }
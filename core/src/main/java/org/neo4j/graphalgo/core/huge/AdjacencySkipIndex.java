@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.stream.LongStream;
+
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+
+/**
+ * Skip index over the delta-encoded blocks of an {@link AdjacencyList}.
+ *
+ * For every node with at least {@link #MIN_DEGREE} targets, we store one entry per decoding block
+ * (except the first one): the last target of the previous block, which is the start value for decoding
+ * the block, together with the block's byte offset and the index of its first target.
+ * A lookup does a binary search over these entries and positions a
+ * {@link AdjacencyList.DecompressingCursor} at the last block that can contain the target,
+ * so that only a single block needs to be decoded instead of the whole adjacency list.
+ *
+ * Entries are stored as pairs of longs in one array, {@code (startValue, index << 32 | byteOffset)}.
+ * The byte offset is the offset within the page of the adjacency list.
+ */
+public final class AdjacencySkipIndex {
+
+    static final int STRIDE = AdjacencyDecompressingReader.CHUNK_SIZE;
+
+    /**
+     * Nodes with a smaller degree are decoded in at most a few blocks and are not indexed.
+     */
+    public static final int MIN_DEGREE = 4 * STRIDE;
+
+    private HugeLongArray starts;
+    private HugeLongArray entries;
+
+    public static MemoryEstimation memoryEstimation(boolean undirected) {
+        return MemoryEstimations
+            .builder(AdjacencySkipIndex.class)
+            .perNode("starts", HugeLongArray::memoryEstimation)
+            .perGraphDimension("entries", (dimensions, concurrency) -> {
+                long relCount = undirected ? dimensions.maxRelCount() * 2 : dimensions.maxRelCount();
+                long maxEntries = 2 * ceilDiv(relCount, STRIDE);
+                return MemoryRange.of(
+                    HugeLongArray.memoryEstimation(0L),
+                    HugeLongArray.memoryEstimation(maxEntries)
+                );
+            })
+            .build();
+    }
+
+    public static AdjacencySkipIndex build(
+        AdjacencyList adjacency,
+        AdjacencyOffsets offsets,
+        long nodeCount,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        HugeLongArray starts = HugeLongArray.newArray(nodeCount, tracker);
+        long entryCount = 0L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            starts.set(nodeId, entryCount);
+            entryCount += entryCount(degree(nodeId, adjacency, offsets));
+        }
+
+        HugeLongArray entries = HugeLongArray.newArray(2 * entryCount, tracker);
+        ParallelUtil.parallelStreamConsume(
+            LongStream.range(0, nodeCount),
+            concurrency,
+            stream -> stream.forEach(nodeId -> {
+                long offset = offsets.get(nodeId);
+                if (offset != 0L && entryCount(adjacency.getDegree(offset)) > 0) {
+                    writeEntries(adjacency.decompressingCursor(offset), 2 * starts.get(nodeId), entries);
+                }
+            })
+        );
+
+        return new AdjacencySkipIndex(starts, entries);
+    }
+
+    private static void writeEntries(AdjacencyList.DecompressingCursor cursor, long index, HugeLongArray entries) {
+        int degree = cursor.cost();
+        int targets = 0;
+        while (cursor.hasNextVLong()) {
+            long target = cursor.nextVLong();
+            if (++targets % STRIDE == 0 && targets < degree) {
+                entries.set(index++, target);
+                entries.set(index++, ((long) targets << 32) | cursor.blockOffset());
+            }
+        }
+    }
+
+    private static int degree(long nodeId, AdjacencyList adjacency, AdjacencyOffsets offsets) {
+        long offset = offsets.get(nodeId);
+        return offset == 0L ? 0 : adjacency.getDegree(offset);
+    }
+
+    private static int entryCount(int degree) {
+        return degree >= MIN_DEGREE ? (degree - 1) / STRIDE : 0;
+    }
+
+    private AdjacencySkipIndex(HugeLongArray starts, HugeLongArray entries) {
+        this.starts = starts;
+        this.entries = entries;
+    }
+
+    /**
+     * Positions the freshly initialized {@code cursor} of {@code nodeId} at the block that contains
+     * the first occurrence of {@code target}, if that occurrence is not in the first block.
+     *
+     * @return the number of targets that have been skipped.
+     */
+    int skip(long nodeId, long target, AdjacencyList.DecompressingCursor cursor) {
+        int entryCount = entryCount(cursor.cost());
+        if (entryCount == 0) {
+            return 0;
+        }
+        long start = 2 * starts.get(nodeId);
+        int low = 0;
+        int high = entryCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(start + 2L * mid) < target) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found == -1) {
+            return 0;
+        }
+        long startValue = entries.get(start + 2L * found);
+        long position = entries.get(start + 2L * found + 1);
+        int skipped = (int) (position >>> 32);
+        cursor.skipTo(startValue, (int) position, skipped);
+        return skipped;
+    }
+
+    public long release() {
+        if (starts == null) {
+            return 0L;
+        }
+        long released = starts.release() + entries.release();
+        starts = null;
+        entries = null;
+        return released;
+    }
+}
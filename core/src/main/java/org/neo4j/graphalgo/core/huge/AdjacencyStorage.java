@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Selects where the pages of an {@link AdjacencyList} are allocated.
+ */
+public enum AdjacencyStorage {
+    /**
+     * Pages are {@code byte[]}s on the Java heap.
+     */
+    HEAP,
+    /**
+     * Pages are direct {@link java.nio.ByteBuffer}s outside of the Java heap.
+     */
+    OFF_HEAP,
+    /**
+     * Pages are mapped from a temporary file, the OS page cache decides what stays resident.
+     */
+    MAPPED;
+
+    public boolean isOffHeap() {
+        return this != HEAP;
+    }
+
+    public static AdjacencyStorage parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof AdjacencyStorage) {
+            return (AdjacencyStorage) object;
+        }
+        if (object instanceof String) {
+            try {
+                return AdjacencyStorage.valueOf(((String) object).toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                // fall through to the error listing the valid values
+            }
+        }
+        String availableStorages = Arrays
+            .stream(AdjacencyStorage.values())
+            .map(AdjacencyStorage::name)
+            .collect(Collectors.joining(", "));
+        throw new IllegalArgumentException(String.format(
+            "Adjacency storage `%s` is not supported. Must be one of: %s.",
+            object,
+            availableStorages
+        ));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+
+/**
+ * Returns the batches of a fixed number of cursors one after another.
+ * The cursor is reused for every node, the parts have to be set before each {@link #reset()}.
+ */
+final class CompositeRelationshipBatchCursor implements RelationshipBatchCursor {
+
+    private final RelationshipBatchCursor[] parts;
+    private int current;
+
+    CompositeRelationshipBatchCursor(int numberOfParts) {
+        this.parts = new RelationshipBatchCursor[numberOfParts];
+    }
+
+    CompositeRelationshipBatchCursor set(int index, RelationshipBatchCursor part) {
+        parts[index] = part;
+        return this;
+    }
+
+    CompositeRelationshipBatchCursor reset() {
+        current = 0;
+        return this;
+    }
+
+    @Override
+    public int nextBatch(long[] targets) {
+        while (current < parts.length) {
+            int count = parts[current].nextBatch(targets);
+            if (count > 0) {
+                return count;
+            }
+            current++;
+        }
+        return 0;
+    }
+
+    @Override
+    public int nextBatch(long[] targets, double[] properties) {
+        while (current < parts.length) {
+            int count = parts[current].nextBatch(targets, properties);
+            if (count > 0) {
+                return count;
+            }
+            current++;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,885 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.api.IntersectionConsumer;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.loading.IdMap;
+import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * A graph that applies a small set of changes on top of an immutable base graph.
+ * <p>
+ * Every node that is touched by a change keeps its complete adjacency list in the overlay,
+ * all other nodes are answered by the base graph. Added nodes get ids after the ids of the base graph,
+ * deleted nodes keep their id, but lose all their relationships.
+ * <p>
+ * A delta graph is never modified, a {@link Builder} stacks the nodes it changes on top of the existing overlay
+ * instead of copying it, and merges the layers once there are more than {@link RelationshipOverlay#MAX_DEPTH}.
+ * Algorithms that hold on to a graph therefore keep seeing the same snapshot.
+ * Only graphs that store their relationships as {@link Direction#OUTGOING} are supported.
+ */
+public final class DeltaGraph implements Graph {
+
+    private final Graph base;
+    private final NodeOverlay nodes;
+    private final RelationshipOverlay relationships;
+    private final long relationshipCount;
+    private final double defaultPropertyValue;
+
+    private DeltaGraph(
+        Graph base,
+        NodeOverlay nodes,
+        RelationshipOverlay relationships,
+        long relationshipCount,
+        double defaultPropertyValue
+    ) {
+        this.base = base;
+        this.nodes = nodes;
+        this.relationships = relationships;
+        this.relationshipCount = relationshipCount;
+        this.defaultPropertyValue = defaultPropertyValue;
+    }
+
+    /**
+     * The graph that all untouched nodes are read from.
+     */
+    public Graph base() {
+        return base;
+    }
+
+    public NodeOverlay nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns a delta graph with the same overlay on top of the given base graph.
+     * The base graph must have the same nodes and relationships, e.g. differ only in its node properties.
+     */
+    public DeltaGraph withBase(Graph base) {
+        return new DeltaGraph(base, nodes, relationships, relationshipCount, defaultPropertyValue);
+    }
+
+    /**
+     * The number of nodes whose adjacency list is kept in the overlay.
+     */
+    public int touchedNodes() {
+        return relationships.size();
+    }
+
+    @Override
+    public long nodeCount() {
+        return nodes.nodeCount();
+    }
+
+    @Override
+    public long relationshipCount() {
+        return relationshipCount;
+    }
+
+    @Override
+    public long toMappedNodeId(long nodeId) {
+        return nodes.toMappedNodeId(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(long nodeId) {
+        return nodes.toOriginalNodeId(nodeId);
+    }
+
+    @Override
+    public boolean contains(long nodeId) {
+        return nodes.contains(nodeId);
+    }
+
+    @Override
+    public void forEachNode(LongPredicate consumer) {
+        nodes.forEachNode(consumer);
+    }
+
+    @Override
+    public PrimitiveLongIterator nodeIterator() {
+        return nodes.nodeIterator();
+    }
+
+    @Override
+    public Collection<PrimitiveLongIterable> batchIterables(int batchSize) {
+        return nodes.batchIterables(batchSize);
+    }
+
+    @Override
+    public NodeProperties nodeProperties(String type) {
+        return nodes.nodeProperties(base, type);
+    }
+
+    @Override
+    public Set<String> availableNodeProperties() {
+        return base.availableNodeProperties();
+    }
+
+    @Override
+    public int degree(long nodeId, Direction direction) {
+        validateDirection(direction);
+        long[] nodeTargets = relationships.targets(nodeId);
+        if (nodeTargets != null) {
+            return nodeTargets.length;
+        }
+        return nodes.isBaseNode(nodeId) ? base.degree(nodeId, direction) : 0;
+    }
+
+    @Override
+    public void forEachRelationship(long nodeId, Direction direction, RelationshipConsumer consumer) {
+        validateDirection(direction);
+        long[] nodeTargets = relationships.targets(nodeId);
+        if (nodeTargets != null) {
+            for (long target : nodeTargets) {
+                if (!consumer.accept(nodeId, target)) {
+                    return;
+                }
+            }
+        } else if (nodes.isBaseNode(nodeId)) {
+            base.forEachRelationship(nodeId, direction, consumer);
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+        long nodeId,
+        Direction direction,
+        double fallbackValue,
+        RelationshipWithPropertyConsumer consumer
+    ) {
+        validateDirection(direction);
+        long[] nodeTargets = relationships.targets(nodeId);
+        if (nodeTargets != null) {
+            double[] nodeProperties = relationships.properties(nodeId);
+            for (int i = 0; i < nodeTargets.length; i++) {
+                double property = nodeProperties != null ? nodeProperties[i] : fallbackValue;
+                if (!consumer.accept(nodeId, nodeTargets[i], property)) {
+                    return;
+                }
+            }
+        } else if (nodes.isBaseNode(nodeId)) {
+            base.forEachRelationship(nodeId, direction, fallbackValue, consumer);
+        }
+    }
+
+    @Override
+    public RelationshipBatchCursor batchCursor(long nodeId, Direction direction, double fallbackValue) {
+        validateDirection(direction);
+        if (!relationships.contains(nodeId) && nodes.isBaseNode(nodeId)) {
+            return base.batchCursor(nodeId, direction, fallbackValue);
+        }
+        return Graph.super.batchCursor(nodeId, direction, fallbackValue);
+    }
+
+    @Override
+    public boolean exists(long sourceNodeId, long targetNodeId, Direction direction) {
+        validateDirection(direction);
+        long[] nodeTargets = relationships.targets(sourceNodeId);
+        if (nodeTargets != null) {
+            return indexOf(nodeTargets, targetNodeId) >= 0;
+        }
+        return nodes.isBaseNode(sourceNodeId) && base.exists(sourceNodeId, targetNodeId, direction);
+    }
+
+    @Override
+    public long getTarget(long nodeId, long index, Direction direction) {
+        validateDirection(direction);
+        long[] nodeTargets = relationships.targets(nodeId);
+        if (nodeTargets != null) {
+            return index < nodeTargets.length ? nodeTargets[(int) index] : HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND;
+        }
+        return nodes.isBaseNode(nodeId)
+            ? base.getTarget(nodeId, index, direction)
+            : HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND;
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId, double fallbackValue) {
+        long[] nodeTargets = relationships.targets(sourceNodeId);
+        if (nodeTargets != null) {
+            int index = indexOf(nodeTargets, targetNodeId);
+            double[] nodeProperties = relationships.properties(sourceNodeId);
+            if (index < 0 || nodeProperties == null) {
+                return fallbackValue;
+            }
+            return nodeProperties[index];
+        }
+        return nodes.isBaseNode(sourceNodeId)
+            ? base.relationshipProperty(sourceNodeId, targetNodeId, fallbackValue)
+            : fallbackValue;
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId) {
+        return relationshipProperty(sourceNodeId, targetNodeId, defaultPropertyValue);
+    }
+
+    @Override
+    public Graph concurrentCopy() {
+        return new DeltaGraph(
+            (Graph) base.concurrentCopy(),
+            nodes,
+            relationships,
+            relationshipCount,
+            defaultPropertyValue
+        );
+    }
+
+    @Override
+    public RelationshipIntersect intersection() {
+        return new DeltaGraphIntersect();
+    }
+
+    @Override
+    public Graph withoutProperties() {
+        return new DeltaGraph(
+            base.withoutProperties(),
+            nodes,
+            relationships.withoutProperties(),
+            relationshipCount,
+            defaultPropertyValue
+        );
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return base.isUndirected();
+    }
+
+    @Override
+    public boolean hasRelationshipProperty() {
+        return base.hasRelationshipProperty();
+    }
+
+    @Override
+    public Direction getLoadDirection() {
+        return base.getLoadDirection();
+    }
+
+    @Override
+    public void canRelease(boolean canRelease) {
+        base.canRelease(canRelease);
+    }
+
+    @Override
+    public void releaseTopology() {
+        base.releaseTopology();
+    }
+
+    @Override
+    public void releaseProperties() {
+        base.releaseProperties();
+    }
+
+    private static int indexOf(long[] nodeTargets, long target) {
+        for (int i = 0; i < nodeTargets.length; i++) {
+            if (nodeTargets[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Intersects the adjacency lists as seen through the overlay, the targets of every node are collected
+     * and sorted, as the adjacency lists of touched nodes are not ordered.
+     * An instance of this is not thread-safe.
+     */
+    private final class DeltaGraphIntersect implements RelationshipIntersect {
+
+        private final LongArrayList targetsA = new LongArrayList();
+        private final LongArrayList targetsB = new LongArrayList();
+
+        @Override
+        public void intersectAll(long nodeIdA, IntersectionConsumer consumer) {
+            forwardTargets(nodeIdA, targetsA);
+            long[] a = targetsA.buffer;
+            int degreeA = targetsA.size();
+            for (int i = 0; i < degreeA; i++) {
+                long nodeIdB = a[i];
+                forwardTargets(nodeIdB, targetsB);
+                long[] b = targetsB.buffer;
+                int degreeB = targetsB.size();
+                int j = i + 1;
+                int k = 0;
+                while (j < degreeA && k < degreeB) {
+                    if (a[j] < b[k]) {
+                        j++;
+                    } else if (a[j] > b[k]) {
+                        k++;
+                    } else {
+                        consumer.accept(nodeIdA, nodeIdB, a[j]);
+                        j++;
+                        k++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Collects the sorted targets of the given node that are larger than the node itself.
+         */
+        private void forwardTargets(long nodeId, LongArrayList buffer) {
+            buffer.clear();
+            forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                if (target > source) {
+                    buffer.add(target);
+                }
+                return true;
+            });
+            Arrays.sort(buffer.buffer, 0, buffer.size());
+        }
+    }
+
+    /**
+     * The adjacency lists of the touched nodes, as a chain of layers. Every refresh adds a layer
+     * with the nodes it changed, lookups walk the layers from the latest to the first.
+     * The layers are merged into one once the chain gets longer than {@link #MAX_DEPTH},
+     * so that lookups of untouched nodes stay cheap and refreshes only copy the overlay every few times.
+     */
+    static final class RelationshipOverlay {
+
+        static final int MAX_DEPTH = 4;
+
+        private final LongObjectHashMap<long[]> targets;
+        private final @Nullable LongObjectHashMap<double[]> properties;
+        private final @Nullable RelationshipOverlay parent;
+        private final int depth;
+        private final int size;
+
+        private RelationshipOverlay(
+            LongObjectHashMap<long[]> targets,
+            @Nullable LongObjectHashMap<double[]> properties,
+            @Nullable RelationshipOverlay parent,
+            int depth,
+            int size
+        ) {
+            this.targets = targets;
+            this.properties = properties;
+            this.parent = parent;
+            this.depth = depth;
+            this.size = size;
+        }
+
+        /**
+         * Adds a layer with the given adjacency lists on top of {@code parent}, which may be {@code null}.
+         */
+        static RelationshipOverlay push(
+            @Nullable RelationshipOverlay parent,
+            LongObjectHashMap<long[]> targets,
+            @Nullable LongObjectHashMap<double[]> properties
+        ) {
+            if (parent == null) {
+                return new RelationshipOverlay(targets, properties, null, 0, targets.size());
+            }
+            if (parent.depth + 1 >= MAX_DEPTH) {
+                return merge(parent, targets, properties);
+            }
+            int size = parent.size;
+            for (LongObjectCursor<long[]> cursor : targets) {
+                if (!parent.contains(cursor.key)) {
+                    size++;
+                }
+            }
+            return new RelationshipOverlay(targets, properties, parent, parent.depth + 1, size);
+        }
+
+        private static RelationshipOverlay merge(
+            RelationshipOverlay parent,
+            LongObjectHashMap<long[]> targets,
+            @Nullable LongObjectHashMap<double[]> properties
+        ) {
+            LongObjectHashMap<long[]> mergedTargets = new LongObjectHashMap<>(parent.size + targets.size());
+            LongObjectHashMap<double[]> mergedProperties = properties != null
+                ? new LongObjectHashMap<>(parent.size + targets.size())
+                : null;
+            for (RelationshipOverlay layer = parent; layer != null; layer = layer.parent) {
+                for (LongObjectCursor<long[]> cursor : layer.targets) {
+                    if (!targets.containsKey(cursor.key) && !mergedTargets.containsKey(cursor.key)) {
+                        mergedTargets.put(cursor.key, cursor.value);
+                        if (mergedProperties != null && layer.properties != null) {
+                            mergedProperties.put(cursor.key, layer.properties.get(cursor.key));
+                        }
+                    }
+                }
+            }
+            mergedTargets.putAll(targets);
+            if (mergedProperties != null) {
+                mergedProperties.putAll(properties);
+            }
+            return new RelationshipOverlay(mergedTargets, mergedProperties, null, 0, mergedTargets.size());
+        }
+
+        @Nullable long[] targets(long nodeId) {
+            for (RelationshipOverlay layer = this; layer != null; layer = layer.parent) {
+                long[] nodeTargets = layer.targets.get(nodeId);
+                if (nodeTargets != null) {
+                    return nodeTargets;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the properties of the adjacency list returned by {@link #targets(long)},
+         * or {@code null} if no properties are kept.
+         */
+        @Nullable double[] properties(long nodeId) {
+            for (RelationshipOverlay layer = this; layer != null; layer = layer.parent) {
+                if (layer.targets.containsKey(nodeId)) {
+                    return layer.properties != null ? layer.properties.get(nodeId) : null;
+                }
+            }
+            return null;
+        }
+
+        boolean contains(long nodeId) {
+            return targets(nodeId) != null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        RelationshipOverlay withoutProperties() {
+            return new RelationshipOverlay(
+                targets,
+                null,
+                parent != null ? parent.withoutProperties() : null,
+                depth,
+                size
+            );
+        }
+    }
+
+    private static void validateDirection(Direction direction) {
+        if (direction != Direction.OUTGOING) {
+            throw new UnsupportedOperationException("Refreshed graphs only support the OUTGOING direction, but got " + direction);
+        }
+    }
+
+    /**
+     * Added and deleted nodes, shared by all graphs of a refreshed catalog entry.
+     */
+    public static final class NodeOverlay implements IdMapping {
+
+        private final IdMapping base;
+        private final long baseNodeCount;
+        private final long[] addedNodes;
+        private final LongLongHashMap addedNodeIds;
+        private final BitSet deletedNodes;
+        private final Map<String, double[]> addedNodeProperties;
+        private final Map<String, Double> propertyDefaults;
+
+        /**
+         * Creates an overlay without changes. Added nodes without a value for a property
+         * resolve to the given default value of that property, or {@code NaN} if none is given.
+         */
+        public static NodeOverlay empty(IdMapping base, Map<String, Double> propertyDefaults) {
+            return new NodeOverlay(
+                base,
+                new long[0],
+                new LongLongHashMap(),
+                new BitSet(),
+                new HashMap<>(),
+                new HashMap<>(propertyDefaults)
+            );
+        }
+
+        private NodeOverlay(
+            IdMapping base,
+            long[] addedNodes,
+            LongLongHashMap addedNodeIds,
+            BitSet deletedNodes,
+            Map<String, double[]> addedNodeProperties,
+            Map<String, Double> propertyDefaults
+        ) {
+            this.base = base;
+            this.baseNodeCount = base.nodeCount();
+            this.addedNodes = addedNodes;
+            this.addedNodeIds = addedNodeIds;
+            this.deletedNodes = deletedNodes;
+            this.addedNodeProperties = addedNodeProperties;
+            this.propertyDefaults = propertyDefaults;
+        }
+
+        @Override
+        public long nodeCount() {
+            return baseNodeCount + addedNodes.length;
+        }
+
+        public long addedNodeCount() {
+            return addedNodes.length;
+        }
+
+        public long deletedNodeCount() {
+            return deletedNodes.cardinality();
+        }
+
+        public boolean isDeleted(long nodeId) {
+            return deletedNodes.get(nodeId);
+        }
+
+        /**
+         * Returns the mapped id of the given original node id or {@code -1} if the node is unknown or was deleted.
+         */
+        @Override
+        public long toMappedNodeId(long nodeId) {
+            long mappedId = base.toMappedNodeId(nodeId);
+            if (mappedId == -1L) {
+                mappedId = addedNodeIds.getOrDefault(nodeId, -1L);
+            }
+            return mappedId != -1L && deletedNodes.get(mappedId) ? -1L : mappedId;
+        }
+
+        @Override
+        public long toOriginalNodeId(long nodeId) {
+            if (nodeId < baseNodeCount) {
+                return base.toOriginalNodeId(nodeId);
+            }
+            long index = nodeId - baseNodeCount;
+            return index < addedNodes.length ? addedNodes[(int) index] : -1L;
+        }
+
+        @Override
+        public boolean contains(long nodeId) {
+            return toMappedNodeId(nodeId) != -1L;
+        }
+
+        void forEachNode(LongPredicate consumer) {
+            long nodeCount = nodeCount();
+            for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+                if (!consumer.test(nodeId)) {
+                    return;
+                }
+            }
+        }
+
+        PrimitiveLongIterator nodeIterator() {
+            return new IdMap.IdIterator(nodeCount());
+        }
+
+        Collection<PrimitiveLongIterable> batchIterables(int batchSize) {
+            return LazyBatchCollection.of(nodeCount(), batchSize, IdMap.IdIterable::new);
+        }
+
+        boolean isBaseNode(long nodeId) {
+            return nodeId < baseNodeCount;
+        }
+
+        NodeProperties nodeProperties(Graph baseGraph, String type) {
+            NodeProperties baseProperties = baseGraph.nodeProperties(type);
+            double[] addedProperties = addedNodeProperties.get(type);
+            if (addedNodes.length == 0 || baseProperties == null) {
+                return baseProperties;
+            }
+            double defaultValue = propertyDefaults.getOrDefault(type, Double.NaN);
+            long size = addedProperties != null
+                ? baseProperties.size() + Arrays.stream(addedProperties).filter(value -> !Double.isNaN(value)).count()
+                : baseProperties.size();
+            return new NodeProperties() {
+                @Override
+                public double nodeProperty(long nodeId) {
+                    if (nodeId < baseNodeCount) {
+                        return baseProperties.nodeProperty(nodeId);
+                    }
+                    double value = addedValue(nodeId);
+                    return Double.isNaN(value) ? defaultValue : value;
+                }
+
+                @Override
+                public double nodeProperty(long nodeId, double defaultValue) {
+                    if (nodeId < baseNodeCount) {
+                        return baseProperties.nodeProperty(nodeId, defaultValue);
+                    }
+                    double value = addedValue(nodeId);
+                    return Double.isNaN(value) ? defaultValue : value;
+                }
+
+                @Override
+                public long longNodeProperty(long nodeId, long defaultValue) {
+                    if (nodeId < baseNodeCount || (addedProperties == null && nodeId < baseProperties.size())) {
+                        return baseProperties.longNodeProperty(nodeId, defaultValue);
+                    }
+                    double value = addedValue(nodeId);
+                    return Double.isNaN(value) ? defaultValue : (long) value;
+                }
+
+                private double addedValue(long nodeId) {
+                    if (addedProperties != null) {
+                        long index = nodeId - baseNodeCount;
+                        return index < addedProperties.length ? addedProperties[(int) index] : Double.NaN;
+                    }
+                    // properties that were not loaded from the store, e.g. mutated by an algorithm,
+                    // may already cover nodes that have been added before
+                    return nodeId < baseProperties.size() ? baseProperties.nodeProperty(nodeId, Double.NaN) : Double.NaN;
+                }
+
+                @Override
+                public long size() {
+                    return size;
+                }
+            };
+        }
+
+        /**
+         * Copies this overlay, so that further nodes can be added and deleted.
+         */
+        public Builder builder() {
+            return new Builder(this);
+        }
+
+        public static final class Builder {
+
+            private final NodeOverlay previous;
+            private final LongArrayList addedNodes;
+            private final LongLongHashMap addedNodeIds;
+            private final BitSet deletedNodes;
+            private final Map<String, DoubleArrayList> addedNodeProperties;
+
+            private Builder(NodeOverlay previous) {
+                this.previous = previous;
+                this.addedNodes = LongArrayList.from(previous.addedNodes);
+                this.addedNodeIds = new LongLongHashMap(previous.addedNodeIds);
+                this.deletedNodes = (BitSet) previous.deletedNodes.clone();
+                this.addedNodeProperties = new HashMap<>();
+                previous.addedNodeProperties.forEach((key, values) ->
+                    addedNodeProperties.put(key, DoubleArrayList.from(values))
+                );
+            }
+
+            /**
+             * Adds a node and returns its mapped id. Missing properties are given as {@code NaN}.
+             */
+            public long addNode(long originalNodeId, Map<String, Double> properties) {
+                long mappedId = previous.baseNodeCount + addedNodes.size();
+                addedNodes.add(originalNodeId);
+                addedNodeIds.put(originalNodeId, mappedId);
+                properties.forEach((key, value) -> addedNodeProperties
+                    .computeIfAbsent(key, ignore -> new DoubleArrayList())
+                    .add(value)
+                );
+                return mappedId;
+            }
+
+            public void deleteNode(long mappedNodeId) {
+                deletedNodes.set(mappedNodeId);
+            }
+
+            public long toMappedNodeId(long originalNodeId) {
+                long mappedId = previous.base.toMappedNodeId(originalNodeId);
+                if (mappedId == -1L) {
+                    mappedId = addedNodeIds.getOrDefault(originalNodeId, -1L);
+                }
+                return mappedId != -1L && deletedNodes.get(mappedId) ? -1L : mappedId;
+            }
+
+            public NodeOverlay build() {
+                Map<String, double[]> properties = new HashMap<>();
+                addedNodeProperties.forEach((key, values) -> properties.put(key, values.toArray()));
+                return new NodeOverlay(
+                    previous.base,
+                    addedNodes.toArray(),
+                    addedNodeIds,
+                    deletedNodes,
+                    properties,
+                    previous.propertyDefaults
+                );
+            }
+        }
+    }
+
+    /**
+     * Applies relationship changes to a {@link HugeGraph} or an existing {@link DeltaGraph}.
+     * The adjacency list of a node is copied into the overlay the first time it is changed.
+     */
+    public static final class Builder {
+
+        private final Graph base;
+        private final boolean hasProperties;
+        private final double defaultPropertyValue;
+        private final @Nullable RelationshipOverlay previous;
+        private final LongObjectHashMap<LongArrayList> changedTargets;
+        private final LongObjectHashMap<DoubleArrayList> changedProperties;
+        private long relationshipCount;
+
+        public Builder(Graph graph, double defaultPropertyValue) {
+            if (graph.getLoadDirection() != Direction.OUTGOING) {
+                throw new IllegalArgumentException("Only graphs with a single adjacency list can be refreshed.");
+            }
+            if (graph instanceof DeltaGraph) {
+                DeltaGraph deltaGraph = (DeltaGraph) graph;
+                this.base = deltaGraph.base;
+                this.previous = deltaGraph.relationships;
+            } else {
+                this.base = graph;
+                this.previous = null;
+            }
+            this.hasProperties = graph.hasRelationshipProperty();
+            this.defaultPropertyValue = defaultPropertyValue;
+            this.relationshipCount = graph.relationshipCount();
+            this.changedTargets = new LongObjectHashMap<>();
+            this.changedProperties = new LongObjectHashMap<>();
+        }
+
+        public void addRelationship(long sourceNodeId, long targetNodeId, double property) {
+            int index = touch(sourceNodeId);
+            changedTargets.indexGet(index).add(targetNodeId);
+            if (hasProperties) {
+                changedProperties.get(sourceNodeId).add(property);
+            }
+            relationshipCount++;
+        }
+
+        /**
+         * Adds the relationship unless the source node already has a relationship to the target,
+         * returns {@code true} if the relationship has been added.
+         */
+        public boolean addRelationshipIfAbsent(long sourceNodeId, long targetNodeId, double property) {
+            if (exists(sourceNodeId, targetNodeId)) {
+                return false;
+            }
+            addRelationship(sourceNodeId, targetNodeId, property);
+            return true;
+        }
+
+        /**
+         * Removes one relationship between the given nodes, preferring one with the given property value.
+         */
+        public boolean removeRelationship(long sourceNodeId, long targetNodeId, double property) {
+            int index = touch(sourceNodeId);
+            LongArrayList nodeTargets = changedTargets.indexGet(index);
+            DoubleArrayList nodeProperties = hasProperties ? changedProperties.get(sourceNodeId) : null;
+            int candidate = -1;
+            for (int i = 0; i < nodeTargets.size(); i++) {
+                if (nodeTargets.get(i) == targetNodeId) {
+                    candidate = i;
+                    if (nodeProperties == null || Double.compare(nodeProperties.get(i), property) == 0) {
+                        break;
+                    }
+                }
+            }
+            if (candidate == -1) {
+                return false;
+            }
+            nodeTargets.remove(candidate);
+            if (nodeProperties != null) {
+                nodeProperties.remove(candidate);
+            }
+            relationshipCount--;
+            return true;
+        }
+
+        /**
+         * Removes all relationships of the given node.
+         */
+        public void isolate(long nodeId) {
+            int index = touch(nodeId);
+            LongArrayList nodeTargets = changedTargets.indexGet(index);
+            relationshipCount -= nodeTargets.size();
+            nodeTargets.clear();
+            if (hasProperties) {
+                changedProperties.get(nodeId).clear();
+            }
+        }
+
+        /**
+         * Builds the graph, {@code nodes} must contain all nodes that have been referenced by the changes.
+         */
+        public DeltaGraph build(NodeOverlay nodes) {
+            LongObjectHashMap<long[]> targets = new LongObjectHashMap<>(changedTargets.size());
+            LongObjectHashMap<double[]> properties = hasProperties
+                ? new LongObjectHashMap<>(changedTargets.size())
+                : null;
+            for (LongObjectCursor<LongArrayList> cursor : changedTargets) {
+                targets.put(cursor.key, cursor.value.toArray());
+                if (properties != null) {
+                    properties.put(cursor.key, changedProperties.get(cursor.key).toArray());
+                }
+            }
+            RelationshipOverlay relationships = RelationshipOverlay.push(previous, targets, properties);
+            return new DeltaGraph(base, nodes, relationships, relationshipCount, defaultPropertyValue);
+        }
+
+        private boolean exists(long sourceNodeId, long targetNodeId) {
+            LongArrayList nodeTargets = changedTargets.get(sourceNodeId);
+            if (nodeTargets != null) {
+                return nodeTargets.contains(targetNodeId);
+            }
+            long[] previousTargets = previous != null ? previous.targets(sourceNodeId) : null;
+            if (previousTargets != null) {
+                return indexOf(previousTargets, targetNodeId) >= 0;
+            }
+            return sourceNodeId < base.nodeCount() && base.exists(sourceNodeId, targetNodeId, Direction.OUTGOING);
+        }
+
+        private int touch(long nodeId) {
+            int index = changedTargets.indexOf(nodeId);
+            if (changedTargets.indexExists(index)) {
+                return index;
+            }
+            LongArrayList nodeTargets = new LongArrayList();
+            DoubleArrayList nodeProperties = new DoubleArrayList();
+            long[] previousTargets = previous != null ? previous.targets(nodeId) : null;
+            if (previousTargets != null) {
+                nodeTargets.add(previousTargets);
+                if (hasProperties) {
+                    nodeProperties.add(previous.properties(nodeId));
+                }
+            } else if (nodeId < base.nodeCount()) {
+                base.forEachRelationship(nodeId, Direction.OUTGOING, defaultPropertyValue, (source, target, property) -> {
+                    nodeTargets.add(target);
+                    nodeProperties.add(property);
+                    return true;
+                });
+            }
+            changedTargets.put(nodeId, nodeTargets);
+            if (hasProperties) {
+                changedProperties.put(nodeId, nodeProperties);
+            }
+            return changedTargets.indexOf(nodeId);
+        }
+    }
+}
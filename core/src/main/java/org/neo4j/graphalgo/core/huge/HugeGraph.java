@@ -24,6 +24,7 @@ import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipIntersect;
 import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
@@ -95,9 +96,17 @@ public class HugeGraph implements Graph {
     private AdjacencyOffsets inPropertyOffsets;
     private AdjacencyOffsets outPropertyOffsets;
 
+    private @Nullable AdjacencySkipIndex inSkipIndex;
+    private @Nullable AdjacencySkipIndex outSkipIndex;
+
     private AdjacencyList.DecompressingCursor emptyAdjacencyCursor;
     private AdjacencyList.DecompressingCursor inCache;
     private AdjacencyList.DecompressingCursor outCache;
+    private AdjacencyList.DecompressingCursor inBatchCache;
+    private AdjacencyList.DecompressingCursor outBatchCache;
+    private HugeRelationshipBatchCursor inBatchCursor;
+    private HugeRelationshipBatchCursor outBatchCursor;
+    private CompositeRelationshipBatchCursor bothBatchCursor;
 
     private boolean canRelease = true;
 
@@ -228,6 +237,11 @@ public class HugeGraph implements Graph {
         this.hasRelationshipProperty = hasRelationshipProperty;
         inCache = newAdjacencyCursor(this.inAdjacency);
         outCache = newAdjacencyCursor(this.outAdjacency);
+        inBatchCache = newAdjacencyCursor(this.inAdjacency);
+        outBatchCache = newAdjacencyCursor(this.outAdjacency);
+        inBatchCursor = new HugeRelationshipBatchCursor();
+        outBatchCursor = new HugeRelationshipBatchCursor();
+        bothBatchCursor = new CompositeRelationshipBatchCursor(2);
         emptyAdjacencyCursor = inCache == null ? newAdjacencyCursor(this.outAdjacency) : newAdjacencyCursor(this.inAdjacency);
     }
 
@@ -276,7 +290,8 @@ public class HugeGraph implements Graph {
                 outProperties,
                 outPropertyOffsets,
                 outAdjacency,
-                outOffsets
+                outOffsets,
+                outSkipIndex
             );
             if (!Double.isNaN(maybeValue)) {
                 return maybeValue;
@@ -285,7 +300,7 @@ public class HugeGraph implements Graph {
 
         if (inProperties != null) {
             maybeValue = findPropertyValue(targetNodeId, sourceNodeId, inProperties,
-                inPropertyOffsets, inAdjacency, inOffsets
+                inPropertyOffsets, inAdjacency, inOffsets, inSkipIndex
             );
 
             if (!Double.isNaN(maybeValue)) {
@@ -302,7 +317,8 @@ public class HugeGraph implements Graph {
         final AdjacencyList properties,
         final AdjacencyOffsets propertyOffsets,
         final AdjacencyList adjacencies,
-        final AdjacencyOffsets adjacencyOffsets
+        final AdjacencyOffsets adjacencyOffsets,
+        final @Nullable AdjacencySkipIndex skipIndex
     ) {
         long relOffset = adjacencyOffsets.get(fromId);
         if (relOffset == NO_SUCH_NODE) {
@@ -313,6 +329,15 @@ public class HugeGraph implements Graph {
         AdjacencyList.DecompressingCursor relDecompressingCursor = adjacencies.decompressingCursor(relOffset);
         AdjacencyList.Cursor propertyCursor = properties.cursor(propertyOffset);
 
+        if (skipIndex != null) {
+            int targetIndex = findTarget(fromId, toId, relDecompressingCursor, skipIndex);
+            if (targetIndex == -1) {
+                return NO_PROPERTY_VALUE;
+            }
+            propertyCursor.skip(targetIndex);
+            return Double.longBitsToDouble(propertyCursor.nextLong());
+        }
+
         while (relDecompressingCursor.hasNextVLong() && propertyCursor.hasNextLong() && relDecompressingCursor.nextVLong() != toId) {
             propertyCursor.nextLong();
         }
@@ -325,6 +350,24 @@ public class HugeGraph implements Graph {
         return Double.longBitsToDouble(doubleBits);
     }
 
+    /**
+     * Uses the skip index to find the first occurrence of {@code toId} in the sorted adjacency list of {@code fromId}.
+     *
+     * @return the index of {@code toId} in the adjacency list or -1 if {@code fromId} is not connected to {@code toId}.
+     */
+    private int findTarget(
+        final long fromId,
+        final long toId,
+        final AdjacencyList.DecompressingCursor adjacencyCursor,
+        final AdjacencySkipIndex skipIndex
+    ) {
+        skipIndex.skip(fromId, toId, adjacencyCursor);
+        if (adjacencyCursor.advance(toId) != toId) {
+            return -1;
+        }
+        return adjacencyCursor.cost() - adjacencyCursor.remaining() - 1;
+    }
+
     @Override
     public NodeProperties nodeProperties(final String type) {
         return nodeProperties.get(type);
@@ -375,6 +418,35 @@ public class HugeGraph implements Graph {
         }
     }
 
+    @Override
+    public RelationshipBatchCursor batchCursor(long nodeId, Direction direction, double fallbackValue) {
+        switch (direction) {
+            case INCOMING:
+                return inBatchCursor.init(
+                    adjacencyCursor(nodeId, inBatchCache, inOffsets, inAdjacency),
+                    hasRelationshipProperty() ? propertyCursor(nodeId, inPropertyOffsets, inProperties) : null,
+                    fallbackValue
+                );
+
+            case OUTGOING:
+                return outBatchCursor.init(
+                    adjacencyCursor(nodeId, outBatchCache, outOffsets, outAdjacency),
+                    hasRelationshipProperty() ? propertyCursor(nodeId, outPropertyOffsets, outProperties) : null,
+                    fallbackValue
+                );
+
+            default:
+                if (inOffsets == null || outOffsets == null) {
+                    return Graph.super.batchCursor(nodeId, direction, fallbackValue);
+                }
+                // same order as forEachRelationship, outgoing before incoming
+                return bothBatchCursor
+                    .set(0, batchCursor(nodeId, Direction.OUTGOING, fallbackValue))
+                    .set(1, batchCursor(nodeId, Direction.INCOMING, fallbackValue))
+                    .reset();
+        }
+    }
+
     @Override
     public int degree(
         final long node,
@@ -410,6 +482,33 @@ public class HugeGraph implements Graph {
         return idMapping;
     }
 
+    public AllocationTracker tracker() {
+        return tracker;
+    }
+
+    /**
+     * Returns the topology and relationship properties backing this graph.
+     */
+    public Relationships relationships() {
+        return new Relationships(
+            relationshipCount,
+            relationshipCount,
+            inAdjacency,
+            outAdjacency,
+            inOffsets,
+            outOffsets,
+            hasRelationshipProperty ? Optional.of(defaultPropertyValue) : Optional.empty(),
+            inProperties,
+            outProperties,
+            inPropertyOffsets,
+            outPropertyOffsets
+        );
+    }
+
+    public Map<String, NodeProperties> nodeProperties() {
+        return nodeProperties;
+    }
+
     @Override
     public boolean contains(final long nodeId) {
         return idMapping.contains(nodeId);
@@ -427,7 +526,7 @@ public class HugeGraph implements Graph {
 
     @Override
     public HugeGraph concurrentCopy() {
-        return new HugeGraph(
+        HugeGraph copy = new HugeGraph(
             tracker,
             idMapping,
             nodeProperties,
@@ -444,6 +543,8 @@ public class HugeGraph implements Graph {
             outPropertyOffsets,
             isUndirected
         );
+        copy.useSkipIndex(inSkipIndex, outSkipIndex);
+        return copy;
     }
 
     @Override
@@ -452,10 +553,16 @@ public class HugeGraph implements Graph {
     }
 
     /**
-     * O(n) !
+     * O(n) ! O(log(n)) if the graph has been loaded with a skip index.
      */
     @Override
     public boolean exists(long sourceNodeId, long targetNodeId, Direction direction) {
+        if (direction == Direction.OUTGOING && outSkipIndex != null) {
+            return findTarget(sourceNodeId, targetNodeId, adjacencyCursorForIteration(sourceNodeId, direction), outSkipIndex) != -1;
+        }
+        if (direction == Direction.INCOMING && inSkipIndex != null) {
+            return findTarget(sourceNodeId, targetNodeId, adjacencyCursorForIteration(sourceNodeId, direction), inSkipIndex) != -1;
+        }
         ExistsConsumer consumer = new ExistsConsumer(targetNodeId);
         runForEach(sourceNodeId, direction, consumer);
         return consumer.found;
@@ -558,28 +665,56 @@ public class HugeGraph implements Graph {
         this.canRelease = canRelease;
     }
 
+    /**
+     * Use the given skip indices for {@link #exists(long, long, Direction)} and relationship property lookups.
+     * The indices must have been built for the adjacency lists of this graph.
+     */
+    public void useSkipIndex(@Nullable AdjacencySkipIndex inSkipIndex, @Nullable AdjacencySkipIndex outSkipIndex) {
+        this.inSkipIndex = inSkipIndex;
+        this.outSkipIndex = outSkipIndex;
+    }
+
     @Override
     public void releaseTopology() {
         if (!canRelease) return;
         if (inAdjacency != null) {
             tracker.remove(inAdjacency.release());
             tracker.remove(inOffsets.release());
+            releaseOffHeapProperties(inProperties);
             inAdjacency = null;
             inProperties = null;
             inOffsets = null;
             inPropertyOffsets = null;
         }
+        if (inSkipIndex != null) {
+            tracker.remove(inSkipIndex.release());
+            inSkipIndex = null;
+        }
         if (outAdjacency != null) {
             tracker.remove(outAdjacency.release());
             tracker.remove(outOffsets.release());
+            releaseOffHeapProperties(outProperties);
             outAdjacency = null;
             outProperties = null;
             outOffsets = null;
             outPropertyOffsets = null;
         }
+        if (outSkipIndex != null) {
+            tracker.remove(outSkipIndex.release());
+            outSkipIndex = null;
+        }
         emptyAdjacencyCursor = null;
         inCache = null;
         outCache = null;
+        inBatchCache = null;
+        outBatchCache = null;
+    }
+
+    // off-heap pages are not reclaimed by the garbage collector
+    private void releaseOffHeapProperties(@Nullable AdjacencyList properties) {
+        if (properties != null && properties.isOffHeap()) {
+            tracker.remove(properties.release());
+        }
     }
 
     @Override
@@ -636,10 +771,37 @@ public class HugeGraph implements Graph {
                 isUndirected
             );
             graphWithoutProperties.canRelease(canRelease);
+            graphWithoutProperties.useSkipIndex(inSkipIndex, outSkipIndex);
             return graphWithoutProperties;
         }
     }
 
+    /**
+     * Returns a graph that shares the topology of this graph, but exposes the given node properties.
+     */
+    public HugeGraph withNodeProperties(Map<String, NodeProperties> nodeProperties) {
+        HugeGraph graphWithNodeProperties = new HugeGraph(
+            tracker,
+            idMapping,
+            nodeProperties,
+            relationshipCount,
+            inAdjacency,
+            outAdjacency,
+            inOffsets,
+            outOffsets,
+            hasRelationshipProperty,
+            defaultPropertyValue,
+            inProperties,
+            outProperties,
+            inPropertyOffsets,
+            outPropertyOffsets,
+            isUndirected
+        );
+        graphWithNodeProperties.canRelease(canRelease);
+        graphWithNodeProperties.useSkipIndex(inSkipIndex, outSkipIndex);
+        return graphWithNodeProperties;
+    }
+
     private AdjacencyList.DecompressingCursor newAdjacencyCursor(final AdjacencyList adjacency) {
         return adjacency != null ? adjacency.rawDecompressingCursor() : null;
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+
+import java.util.Arrays;
+
+final class HugeRelationshipBatchCursor implements RelationshipBatchCursor {
+
+    private AdjacencyList.DecompressingCursor adjacencyCursor;
+    private @Nullable AdjacencyList.Cursor propertyCursor;
+    private double fallbackValue;
+
+    HugeRelationshipBatchCursor init(
+        AdjacencyList.DecompressingCursor adjacencyCursor,
+        @Nullable AdjacencyList.Cursor propertyCursor,
+        double fallbackValue
+    ) {
+        this.adjacencyCursor = adjacencyCursor;
+        this.propertyCursor = propertyCursor;
+        this.fallbackValue = fallbackValue;
+        return this;
+    }
+
+    @Override
+    public int nextBatch(long[] targets) {
+        int count = adjacencyCursor.nextVLongs(targets);
+        if (propertyCursor != null) {
+            propertyCursor.skip(count);
+        }
+        return count;
+    }
+
+    @Override
+    public int nextBatch(long[] targets, double[] properties) {
+        int count = adjacencyCursor.nextVLongs(targets);
+        if (propertyCursor != null) {
+            propertyCursor.nextDoubles(properties, count);
+        } else {
+            Arrays.fill(properties, 0, count, fallbackValue);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes blocks that have been written by {@code PackedDeltaEncoding}.
+ *
+ * A block of {@code n} deltas is laid out as
+ * <pre>
+ * [bit width: 1 byte][exception count: 1 byte][n * bit width bits, little endian][exceptions]
+ * </pre>
+ * where every exception is the index of a delta within the block (1 byte) followed by the
+ * bits of that delta above the bit width, encoded as a variable-length long.
+ */
+final class PackedDeltaDecoding {
+
+    /**
+     * Decodes one block of {@code limit} deltas that starts at {@code offset} and writes
+     * the running sum, starting from {@code startValue}, into {@code out}.
+     * The buffer must use {@link java.nio.ByteOrder#LITTLE_ENDIAN} byte order.
+     *
+     * @return the offset of the next block
+     */
+    static int decodeDeltaBlock(
+            long startValue,
+            ByteBuffer adjacencyPage,
+            int offset,
+            int limit,
+            long[] out) {
+        int width = adjacencyPage.get(offset) & 255;
+        int exceptions = adjacencyPage.get(1 + offset) & 255;
+        offset += 2;
+
+        unpack(adjacencyPage, offset, width, limit, out);
+        offset += (width * limit + 7) >>> 3;
+
+        for (int i = 0; i < exceptions; i++) {
+            int index = adjacencyPage.get(offset++) & 255;
+            long input, high = 0L;
+            int shift = 0;
+            do {
+                input = adjacencyPage.get(offset++);
+                high += (input & 127L) << shift;
+                shift += 7;
+            } while ((input & 128L) == 0L);
+            out[index] |= high << width;
+        }
+
+        for (int i = 0; i < limit; i++) {
+            startValue += out[i];
+            out[i] = startValue;
+        }
+
+        return offset;
+    }
+
+    private static void unpack(ByteBuffer adjacencyPage, int offset, int width, int limit, long[] out) {
+        if (width == 0) {
+            for (int i = 0; i < limit; i++) {
+                out[i] = 0L;
+            }
+            return;
+        }
+        long mask = width == Long.SIZE ? -1L : (1L << width) - 1L;
+        int capacity = adjacencyPage.limit();
+        int bitPosition = 0;
+        for (int i = 0; i < limit; i++, bitPosition += width) {
+            int index = offset + (bitPosition >>> 3);
+            int shift = bitPosition & 7;
+            long word = index + Long.BYTES <= capacity
+                ? adjacencyPage.getLong(index)
+                : readPartialLong(adjacencyPage, index, capacity);
+            long value = word >>> shift;
+            if (shift + width > Long.SIZE) {
+                value |= (adjacencyPage.get(index + Long.BYTES) & 255L) << (Long.SIZE - shift);
+            }
+            out[i] = value & mask;
+        }
+    }
+
+    // reads the last few bytes of a page, missing bytes are zero
+    private static long readPartialLong(ByteBuffer adjacencyPage, int index, int capacity) {
+        long word = 0L;
+        for (int i = 0; index + i < capacity; i++) {
+            word |= (adjacencyPage.get(index + i) & 255L) << (i << 3);
+        }
+        return word;
+    }
+
+    private PackedDeltaDecoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
@@ -23,6 +23,7 @@ import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipIntersect;
 import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
@@ -38,6 +39,7 @@ public final class UnionGraph implements Graph {
 
     private final Graph first;
     private final Collection<? extends Graph> graphs;
+    private final CompositeRelationshipBatchCursor batchCursor;
 
     public static Graph of(Collection<? extends Graph> graphs) {
         if (graphs.isEmpty()) {
@@ -52,6 +54,7 @@ public final class UnionGraph implements Graph {
     private UnionGraph(Collection<? extends Graph> graphs) {
         first = Iterables.first(graphs);
         this.graphs = graphs;
+        this.batchCursor = new CompositeRelationshipBatchCursor(graphs.size());
     }
 
     @Override
@@ -132,6 +135,15 @@ public final class UnionGraph implements Graph {
         }
     }
 
+    @Override
+    public RelationshipBatchCursor batchCursor(long nodeId, Direction direction, double fallbackValue) {
+        int index = 0;
+        for (Graph graph : graphs) {
+            batchCursor.set(index++, graph.batchCursor(nodeId, direction, fallbackValue));
+        }
+        return batchCursor.reset();
+    }
+
     @Override
     public int degree(final long node, final Direction direction) {
         return Math.toIntExact(graphs.stream().mapToLong(g -> g.degree(node, direction)).sum());
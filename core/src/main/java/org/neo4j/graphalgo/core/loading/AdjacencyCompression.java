@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.core.loading;
 import com.carrotsearch.hppc.sorting.IndirectSort;
 import org.apache.lucene.util.LongsRef;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.utils.AscendingLongComparator;
 
 import java.util.Arrays;
@@ -84,6 +85,13 @@ final class AdjacencyCompression {
         return compress(data.longs, out, data.length);
     }
 
+    static int compress(LongsRef data, byte[] out, AdjacencyCodec codec) {
+        if (codec == AdjacencyCodec.PACKED) {
+            return PackedDeltaEncoding.encodeDeltas(data.longs, data.length, out, 0);
+        }
+        return compress(data.longs, out, data.length);
+    }
+
     static int compress(long[] data, byte[] out, int length) {
         return encodeVLongs(data, length, out, 0);
     }
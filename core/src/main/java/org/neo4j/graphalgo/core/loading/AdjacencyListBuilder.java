@@ -19,10 +19,21 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.utils.mem.DirectBuffers;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -31,33 +42,59 @@ import java.util.concurrent.locks.ReentrantLock;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.PAGE_MASK;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.PAGE_SHIFT;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.PAGE_SIZE;
+import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeDegree;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfByteArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArrayElements;
 
+/**
+ * Builds an {@link AdjacencyList} by handing out thread-local {@link Allocator}s.
+ * The pages are allocated according to the given {@link AdjacencyStorage},
+ * i.e. either as {@code byte[]}s on the heap, as direct buffers or mapped from a temporary file.
+ * Pages are always handled as little-endian {@link ByteBuffer}s during the build,
+ * heap pages are unwrapped into a {@code byte[][]} when the adjacency list is built.
+ */
 final class AdjacencyListBuilder {
 
-    private static final long PAGE_SIZE_IN_BYTES = sizeOfByteArray(PAGE_SIZE);
-    private static final AtomicReferenceFieldUpdater<AdjacencyListBuilder, byte[][]> PAGES_UPDATER =
-        AtomicReferenceFieldUpdater.newUpdater(AdjacencyListBuilder.class, byte[][].class, "pages");
+    private static final AtomicReferenceFieldUpdater<AdjacencyListBuilder, ByteBuffer[]> PAGES_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(AdjacencyListBuilder.class, ByteBuffer[].class, "pages");
     private static final int NO_SKIP = -1;
 
     private final AllocationTracker tracker;
+    private final AdjacencyStorage storage;
+    private final AdjacencyCodec codec;
     private final ReentrantLock growLock;
     private final AtomicInteger allocatedPages;
 
+    // only used for AdjacencyStorage.MAPPED, guarded by growLock
+    private Path mappedFile;
+    private FileChannel mappedChannel;
+    private long mappedFileSize;
+    // guarded by growLock
+    private long offHeapMemory;
+
     @SuppressWarnings("FieldMayBeFinal")
-    private volatile byte[][] pages;
+    private volatile ByteBuffer[] pages;
 
     static AdjacencyListBuilder newBuilder(AllocationTracker tracker) {
-        return new AdjacencyListBuilder(tracker);
+        return newBuilder(tracker, AdjacencyStorage.HEAP);
+    }
+
+    static AdjacencyListBuilder newBuilder(AllocationTracker tracker, AdjacencyStorage storage) {
+        return newBuilder(tracker, storage, AdjacencyCodec.VAR_LONG);
     }
 
-    private AdjacencyListBuilder(AllocationTracker tracker) {
+    static AdjacencyListBuilder newBuilder(AllocationTracker tracker, AdjacencyStorage storage, AdjacencyCodec codec) {
+        return new AdjacencyListBuilder(tracker, storage, codec);
+    }
+
+    private AdjacencyListBuilder(AllocationTracker tracker, AdjacencyStorage storage, AdjacencyCodec codec) {
         this.tracker = tracker;
+        this.storage = storage;
+        this.codec = codec;
         growLock = new ReentrantLock(true);
         allocatedPages = new AtomicInteger();
-        pages = new byte[0][];
+        pages = new ByteBuffer[0];
         tracker.add(sizeOfObjectArray(0));
     }
 
@@ -66,7 +103,19 @@ final class AdjacencyListBuilder {
     }
 
     public AdjacencyList build() {
-        return new AdjacencyList(pages);
+        ByteBuffer[] pages = this.pages;
+        if (storage == AdjacencyStorage.HEAP) {
+            byte[][] heapPages = new byte[pages.length][];
+            Arrays.setAll(heapPages, i -> pages[i] != null ? pages[i].array() : null);
+            return new AdjacencyList(heapPages, codec);
+        }
+        growLock.lock();
+        try {
+            closeMappedChannel();
+            return AdjacencyList.offHeap(pages, offHeapMemory, mappedFile, codec, tracker);
+        } finally {
+            growLock.unlock();
+        }
     }
 
     private long insertDefaultSizedPage(Allocator into) {
@@ -77,7 +126,7 @@ final class AdjacencyListBuilder {
         return intoIndex;
     }
 
-    private long insertOversizedPage(byte[] page, Allocator into) {
+    private long insertOversizedPage(int size, Allocator into) {
         int pageIndex = allocatedPages.getAndIncrement();
         grow(pageIndex + 1, pageIndex);
 
@@ -86,11 +135,13 @@ final class AdjacencyListBuilder {
         // remove the previously tracked memory. This has to happen
         // within the grow lock to avoid the `pages` reference to be
         // overwritten by another thread during `grow()`.
+        ByteBuffer page;
         growLock.lock();
         try {
-            tracker.add(sizeOfByteArray(page.length));
-            if (PAGES_UPDATER.get(this)[pageIndex] != null) {
-                tracker.remove(PAGE_SIZE_IN_BYTES);
+            page = newPage(size);
+            ByteBuffer replacedPage = PAGES_UPDATER.get(this)[pageIndex];
+            if (replacedPage != null) {
+                freePage(replacedPage);
             }
             PAGES_UPDATER.get(this)[pageIndex] = page;
         } finally {
@@ -127,34 +178,103 @@ final class AdjacencyListBuilder {
      * Callers need to acquire the {@code growLock} before entering the method.
      */
     private void setPages(int newNumPages, int skipPage) {
-        byte[][] currentPages = PAGES_UPDATER.get(this);
+        ByteBuffer[] currentPages = PAGES_UPDATER.get(this);
         tracker.add(sizeOfObjectArrayElements(newNumPages - currentPages.length));
 
-        byte[][] newPages = Arrays.copyOf(currentPages, newNumPages);
+        ByteBuffer[] newPages = Arrays.copyOf(currentPages, newNumPages);
 
         for (int i = currentPages.length; i < newNumPages; i++) {
             // Create new page for default sized pages
             if (i != skipPage) {
-                tracker.add(PAGE_SIZE_IN_BYTES);
-                newPages[i] = new byte[PAGE_SIZE];
+                newPages[i] = newPage(PAGE_SIZE);
             }
         }
         PAGES_UPDATER.set(this, newPages);
     }
 
+    /**
+     * Allocates and tracks a new page of the configured storage.
+     *
+     * This method is not thread-safe.
+     * Callers need to acquire the {@code growLock} before entering the method.
+     */
+    private ByteBuffer newPage(int size) {
+        switch (storage) {
+            case HEAP:
+                tracker.add(sizeOfByteArray(size));
+                return ByteBuffer.wrap(new byte[size]).order(ByteOrder.LITTLE_ENDIAN);
+            case OFF_HEAP:
+                offHeapMemory += size;
+                tracker.addOffHeap(size);
+                return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+            case MAPPED:
+                offHeapMemory += size;
+                tracker.addOffHeap(size);
+                return mapPage(size);
+            default:
+                throw new IllegalArgumentException("Unknown adjacency storage " + storage);
+        }
+    }
+
+    private void freePage(ByteBuffer page) {
+        int size = page.capacity();
+        if (storage == AdjacencyStorage.HEAP) {
+            tracker.remove(sizeOfByteArray(size));
+        } else {
+            // the unused region of a mapped file is not reclaimed but it is never touched either
+            offHeapMemory -= size;
+            tracker.removeOffHeap(size);
+            DirectBuffers.free(page);
+        }
+    }
+
+    private ByteBuffer mapPage(int size) {
+        try {
+            if (mappedChannel == null) {
+                mappedFile = Files.createTempFile("gds-adjacency-", ".bin");
+                mappedChannel = FileChannel.open(
+                    mappedFile,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+                );
+            }
+            ByteBuffer page = mappedChannel
+                .map(FileChannel.MapMode.READ_WRITE, mappedFileSize, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            mappedFileSize += size;
+            return page;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map adjacency page from " + mappedFile, e);
+        }
+    }
+
+    // mapped pages stay valid after the channel has been closed
+    private void closeMappedChannel() {
+        if (mappedChannel != null) {
+            try {
+                mappedChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            mappedChannel = null;
+        }
+    }
+
     static final class Allocator {
 
         private final AdjacencyListBuilder builder;
 
         private long top;
 
-        private byte[][] pages;
+        private ByteBuffer[] pages;
         private int prevOffset;
         private int toPageIndex;
         private int currentPageIndex;
 
-        public byte[] page;
-        public int offset;
+        // non-null iff the current page lives on the heap
+        private byte[] heapPage;
+        private ByteBuffer page;
+        int offset;
 
         private Allocator(AdjacencyListBuilder builder) {
             this.builder = builder;
@@ -173,6 +293,42 @@ final class AdjacencyListBuilder {
             return localAllocate(size, top);
         }
 
+        /**
+         * Writes the degree at the current offset of the allocated region.
+         */
+        void writeInt(int value) {
+            if (heapPage != null) {
+                offset = writeDegree(heapPage, offset, value);
+            } else {
+                page.putInt(offset, value);
+                offset += Integer.BYTES;
+            }
+        }
+
+        /**
+         * Copies the first {@code length} bytes of {@code bytes} into the allocated region.
+         */
+        void writeBytes(byte[] bytes, int length) {
+            if (heapPage != null) {
+                System.arraycopy(bytes, 0, heapPage, offset, length);
+            } else {
+                ByteBuffer target = page.duplicate();
+                target.position(offset);
+                target.put(bytes, 0, length);
+            }
+            offset += length;
+        }
+
+        /**
+         * Copies the first {@code length} longs of {@code values} into the allocated region.
+         */
+        void writeLongs(long[] values, int length) {
+            ByteBuffer target = page.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            target.position(offset);
+            target.asLongBuffer().put(values, 0, length);
+            offset += length * Long.BYTES;
+        }
+
         private long localAllocate(int size, long address) {
             int maxOffset = PAGE_SIZE - size;
             if (maxOffset >= offset) {
@@ -207,8 +363,7 @@ final class AdjacencyListBuilder {
          * and keep the offsets as if this page would be of the correct size, we might just get by.
          */
         private long oversizingAllocate(int size) {
-            byte[] largePage = new byte[size];
-            return builder.insertOversizedPage(largePage, this);
+            return builder.insertOversizedPage(size, this);
         }
 
         private long prefetchAllocate(int size) {
@@ -219,7 +374,7 @@ final class AdjacencyListBuilder {
 
         private boolean reset() {
             if (prevOffset != -1) {
-                page = pages[currentPageIndex];
+                setPage(pages[currentPageIndex]);
                 offset = prevOffset;
                 prevOffset = -1;
                 return true;
@@ -229,29 +384,34 @@ final class AdjacencyListBuilder {
 
         private boolean next() {
             if (++currentPageIndex <= toPageIndex) {
-                page = pages[currentPageIndex];
+                setPage(pages[currentPageIndex]);
                 offset = 0;
                 return true;
             }
-            page = null;
+            setPage(null);
             return false;
         }
 
-        private void setNewPages(byte[][] pages, long fromIndex) {
+        private void setNewPages(ByteBuffer[] pages, long fromIndex) {
             assert PageUtil.indexInPage(fromIndex, PAGE_MASK) == 0;
             this.pages = pages;
             currentPageIndex = PageUtil.pageIndex(fromIndex, PAGE_SHIFT);
             toPageIndex = currentPageIndex;
-            page = pages[currentPageIndex];
+            setPage(pages[currentPageIndex]);
             offset = 0;
         }
 
-        private void insertPage(byte[] page) {
+        private void insertPage(ByteBuffer page) {
             if (prevOffset == -1) {
                 prevOffset = offset;
             }
-            this.page = page;
+            setPage(page);
             offset = 0;
         }
+
+        private void setPage(ByteBuffer page) {
+            this.page = page;
+            this.heapPage = page != null && page.hasArray() ? page.array() : null;
+        }
     }
 }
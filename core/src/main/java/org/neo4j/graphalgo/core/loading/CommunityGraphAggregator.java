@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.apache.lucene.util.InPlaceMergeSorter;
+import org.apache.lucene.util.LongsRef;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongUnaryOperator;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Builds the graph of communities, in which every community is a node and all relationships between
+ * two communities are aggregated into a single relationship whose weight is the sum of their weights.
+ *
+ * The aggregation runs in three parallel phases without locks:
+ * <ol>
+ *     <li>Communities are assigned consecutive node ids in the order of their first member node.</li>
+ *     <li>Every batch of nodes combines the weights of its relationships per target community in a thread-local
+ *     hash map and appends them to the range of the source community, which is reserved with a CAS.</li>
+ *     <li>The ranges are sorted, merged and compressed into the adjacency list, one task per {@link ImportSizing} page.</li>
+ * </ol>
+ * The original id of a community node is its community id.
+ */
+public final class CommunityGraphAggregator {
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+
+    // community ids are node ids of the aggregated graph, so there are at most as many communities as nodes
+    private static final MemoryEstimation ESTIMATION = MemoryEstimations
+        .builder(CommunityGraphAggregator.class)
+        .perNode("first member nodes", HugeAtomicLongArray::memoryEstimation)
+        .perNode("community ids", HugeLongArray::memoryEstimation)
+        .rangePerNode(
+            "mapping from community ids to node ids",
+            nodeCount -> SparseNodeMapping.memoryEstimation(nodeCount, nodeCount)
+        )
+        .perNode("node communities", HugeLongArray::memoryEstimation)
+        .perNode("degrees", HugeAtomicLongArray::memoryEstimation)
+        .perNode("offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+        .perNode("counts", HugeAtomicLongArray::memoryEstimation)
+        .perGraphDimension(
+            "targets",
+            (dimensions, concurrency) -> MemoryRange.of(HugeLongArray.memoryEstimation(dimensions.maxRelCount()))
+        )
+        .perGraphDimension(
+            "weights",
+            (dimensions, concurrency) -> MemoryRange.of(HugeDoubleArray.memoryEstimation(dimensions.maxRelCount()))
+        )
+        .build();
+
+    private final Graph graph;
+    private final LongUnaryOperator communities;
+    private final long maxCommunityId;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    public CommunityGraphAggregator(
+        Graph graph,
+        LongUnaryOperator communities,
+        long maxCommunityId,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        this.graph = graph;
+        this.communities = communities;
+        this.maxCommunityId = maxCommunityId;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Estimates the intermediate data structures of an aggregation, not the community graph itself.
+     */
+    public static MemoryEstimation memoryEstimation() {
+        return ESTIMATION;
+    }
+
+    public HugeGraph aggregate() {
+        long nodeCount = graph.nodeCount();
+        long batchSize = ParallelUtil.adjustedBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        int batchCount = Math.toIntExact(ParallelUtil.threadCount(batchSize, nodeCount));
+
+        IdMap idMap = communityIdMap(batchSize, batchCount);
+        long communityCount = idMap.nodeCount();
+
+        HugeLongArray nodeCommunities = HugeLongArray.newArray(nodeCount, tracker);
+        HugeAtomicLongArray degrees = HugeAtomicLongArray.newArray(communityCount, tracker);
+        runBatches(batchSize, batchCount, (batch, start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long community = idMap.toMappedNodeId(communities.applyAsLong(nodeId));
+                nodeCommunities.set(nodeId, community);
+                int degree = graph.degree(nodeId, Direction.OUTGOING);
+                if (degree > 0) {
+                    degrees.getAndAdd(community, degree);
+                }
+            }
+        });
+
+        HugeLongArray offsets = HugeLongArray.newArray(communityCount + 1, tracker);
+        long capacity = 0L;
+        for (long community = 0; community < communityCount; community++) {
+            offsets.set(community, capacity);
+            capacity += degrees.get(community);
+        }
+        offsets.set(communityCount, capacity);
+        degrees.release();
+
+        HugeLongArray targets = HugeLongArray.newArray(capacity, tracker);
+        HugeDoubleArray weights = HugeDoubleArray.newArray(capacity, tracker);
+        HugeAtomicLongArray counts = HugeAtomicLongArray.newArray(communityCount, tracker);
+        runBatches(batchSize, batchCount, new AggregateBatch(graph, nodeCommunities, offsets, counts, targets, weights));
+        nodeCommunities.release();
+
+        ImportSizing sizing = ImportSizing.of(concurrency, communityCount);
+        int pageSize = sizing.pageSize();
+        int numberOfPages = sizing.numberOfPages();
+
+        AdjacencyListBuilder adjacencyBuilder = AdjacencyListBuilder.newBuilder(tracker);
+        AdjacencyListBuilder weightsBuilder = AdjacencyListBuilder.newBuilder(tracker);
+        long[][] adjacencyOffsets = new long[numberOfPages][];
+        long[][] weightOffsets = new long[numberOfPages][];
+        tracker.add(2 * sizeOfObjectArray(numberOfPages));
+
+        List<MergeTask> tasks = new ArrayList<>(numberOfPages);
+        for (int pageIndex = 0; pageIndex < numberOfPages; pageIndex++) {
+            long startCommunity = (long) pageIndex * pageSize;
+            adjacencyOffsets[pageIndex] = new long[pageSize];
+            weightOffsets[pageIndex] = new long[pageSize];
+            tracker.add(2 * sizeOfLongArray(pageSize));
+            tasks.add(new MergeTask(
+                startCommunity,
+                Math.min(communityCount, startCommunity + pageSize),
+                offsets,
+                counts,
+                targets,
+                weights,
+                adjacencyBuilder.newAllocator(),
+                weightsBuilder.newAllocator(),
+                adjacencyOffsets[pageIndex],
+                weightOffsets[pageIndex]
+            ));
+        }
+        ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+
+        offsets.release();
+        counts.release();
+        targets.release();
+        weights.release();
+
+        long relationshipCount = 0L;
+        for (MergeTask task : tasks) {
+            relationshipCount += task.relationshipCount;
+        }
+
+        return HugeGraph.create(
+            tracker,
+            idMap,
+            Collections.emptyMap(),
+            relationshipCount,
+            null,
+            adjacencyBuilder.build(),
+            null,
+            AdjacencyOffsets.of(adjacencyOffsets, pageSize),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(weightsBuilder.build()),
+            Optional.empty(),
+            Optional.of(AdjacencyOffsets.of(weightOffsets, pageSize)),
+            graph.isUndirected()
+        );
+    }
+
+    /**
+     * Assigns the ids in the same order as a sequential scan over all nodes would,
+     * so that the community graph does not depend on the concurrency.
+     */
+    private IdMap communityIdMap(long batchSize, int batchCount) {
+        HugeAtomicLongArray firstNodes = HugeAtomicLongArray.newArray(
+            maxCommunityId + 1,
+            community -> Long.MAX_VALUE,
+            tracker
+        );
+        runBatches(batchSize, batchCount, (batch, start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long community = communities.applyAsLong(nodeId);
+                long first;
+                do {
+                    first = firstNodes.get(community);
+                } while (nodeId < first && !firstNodes.compareAndSet(community, first, nodeId));
+            }
+        });
+
+        long[] batchOffsets = new long[batchCount + 1];
+        runBatches(batchSize, batchCount, (batch, start, end) -> {
+            long count = 0L;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                if (firstNodes.get(communities.applyAsLong(nodeId)) == nodeId) {
+                    count++;
+                }
+            }
+            batchOffsets[batch + 1] = count;
+        });
+        for (int batch = 0; batch < batchCount; batch++) {
+            batchOffsets[batch + 1] += batchOffsets[batch];
+        }
+
+        long communityCount = batchOffsets[batchCount];
+        HugeLongArray communityIds = HugeLongArray.newArray(communityCount, tracker);
+        SparseNodeMapping.Builder communityToNode = SparseNodeMapping.Builder.create(maxCommunityId + 1, tracker);
+        runBatches(batchSize, batchCount, (batch, start, end) -> {
+            long nextId = batchOffsets[batch];
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long community = communities.applyAsLong(nodeId);
+                if (firstNodes.get(community) == nodeId) {
+                    communityToNode.set(community, nextId);
+                    communityIds.set(nextId, community);
+                    nextId++;
+                }
+            }
+        });
+        firstNodes.release();
+
+        return new IdMap(communityIds, communityToNode.build(), communityCount);
+    }
+
+    private void runBatches(long batchSize, int batchCount, BatchConsumer consumer) {
+        long nodeCount = graph.nodeCount();
+        List<Runnable> tasks = new ArrayList<>(batchCount);
+        for (int batch = 0; batch < batchCount; batch++) {
+            int batchIndex = batch;
+            long start = batch * batchSize;
+            long end = Math.min(nodeCount, start + batchSize);
+            tasks.add(() -> consumer.accept(batchIndex, start, end));
+        }
+        ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+    }
+
+    @FunctionalInterface
+    private interface BatchConsumer {
+        void accept(int batch, long start, long end);
+    }
+
+    private static final class AggregateBatch implements BatchConsumer {
+
+        private final Graph graph;
+        private final HugeLongArray nodeCommunities;
+        private final HugeLongArray offsets;
+        private final HugeAtomicLongArray counts;
+        private final HugeLongArray targets;
+        private final HugeDoubleArray weights;
+
+        AggregateBatch(
+            Graph graph,
+            HugeLongArray nodeCommunities,
+            HugeLongArray offsets,
+            HugeAtomicLongArray counts,
+            HugeLongArray targets,
+            HugeDoubleArray weights
+        ) {
+            this.graph = graph;
+            this.nodeCommunities = nodeCommunities;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        public void accept(int batch, long start, long end) {
+            RelationshipIterator relationships = graph.concurrentCopy();
+            LongDoubleHashMap weightsByTarget = new LongDoubleHashMap();
+            RelationshipWithPropertyConsumer aggregate = (source, target, weight) -> {
+                weightsByTarget.addTo(nodeCommunities.get(target), weight);
+                return true;
+            };
+
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                weightsByTarget.clear();
+                relationships.forEachRelationship(nodeId, Direction.OUTGOING, 1.0, aggregate);
+                int size = weightsByTarget.size();
+                if (size == 0) {
+                    continue;
+                }
+
+                long community = nodeCommunities.get(nodeId);
+                long count;
+                do {
+                    count = counts.get(community);
+                } while (!counts.compareAndSet(community, count, count + size));
+
+                long index = offsets.get(community) + count;
+                for (LongDoubleCursor cursor : weightsByTarget) {
+                    targets.set(index, cursor.key);
+                    weights.set(index, cursor.value);
+                    index++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts the aggregated relationships of a range of communities by target, sums up the weights of
+     * relationships to the same target that were contributed by different member nodes and writes the
+     * compressed adjacency list.
+     * The order in which member nodes contribute depends on the scheduling of the batches, relationships to
+     * the same target are therefore also sorted by weight so that their sum does not.
+     */
+    private static final class MergeTask extends InPlaceMergeSorter implements Runnable {
+
+        private final long startCommunity;
+        private final long endCommunity;
+        private final HugeLongArray offsets;
+        private final HugeAtomicLongArray counts;
+        private final HugeLongArray allTargets;
+        private final HugeDoubleArray allWeights;
+        private final AdjacencyListBuilder.Allocator adjacencyAllocator;
+        private final AdjacencyListBuilder.Allocator weightsAllocator;
+        private final long[] adjacencyOffsets;
+        private final long[] weightOffsets;
+
+        private long[] targets;
+        private double[] weights;
+        private long[] weightBits;
+        private byte[] compressed;
+        private long relationshipCount;
+
+        MergeTask(
+            long startCommunity,
+            long endCommunity,
+            HugeLongArray offsets,
+            HugeAtomicLongArray counts,
+            HugeLongArray allTargets,
+            HugeDoubleArray allWeights,
+            AdjacencyListBuilder.Allocator adjacencyAllocator,
+            AdjacencyListBuilder.Allocator weightsAllocator,
+            long[] adjacencyOffsets,
+            long[] weightOffsets
+        ) {
+            this.startCommunity = startCommunity;
+            this.endCommunity = endCommunity;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.allTargets = allTargets;
+            this.allWeights = allWeights;
+            this.adjacencyAllocator = adjacencyAllocator;
+            this.weightsAllocator = weightsAllocator;
+            this.adjacencyOffsets = adjacencyOffsets;
+            this.weightOffsets = weightOffsets;
+            this.targets = new long[0];
+            this.weights = new double[0];
+            this.weightBits = new long[0];
+            this.compressed = new byte[0];
+        }
+
+        @Override
+        public void run() {
+            adjacencyAllocator.prepare();
+            weightsAllocator.prepare();
+            for (long community = startCommunity; community < endCommunity; community++) {
+                int localId = (int) (community - startCommunity);
+                int degree = collect(community);
+                if (degree == 0) {
+                    continue;
+                }
+                sort(0, degree);
+                degree = sumDuplicates(degree);
+                relationshipCount += degree;
+
+                for (int i = 0; i < degree; i++) {
+                    weightBits[i] = Double.doubleToLongBits(weights[i]);
+                }
+                long address = weightsAllocator.allocate(Integer.BYTES + degree * Long.BYTES);
+                weightsAllocator.writeInt(degree);
+                weightsAllocator.writeLongs(weightBits, degree);
+                weightOffsets[localId] = address;
+
+                adjacencyOffsets[localId] = writeTargets(degree);
+            }
+        }
+
+        private int collect(long community) {
+            int degree = Math.toIntExact(counts.get(community));
+            if (targets.length < degree) {
+                targets = new long[degree];
+                weights = new double[degree];
+                weightBits = new long[degree];
+            }
+            long offset = offsets.get(community);
+            for (int i = 0; i < degree; i++) {
+                targets[i] = allTargets.get(offset + i);
+                weights[i] = allWeights.get(offset + i);
+            }
+            return degree;
+        }
+
+        private int sumDuplicates(int degree) {
+            int length = 0;
+            for (int i = 1; i < degree; i++) {
+                if (targets[i] == targets[length]) {
+                    weights[length] += weights[i];
+                } else {
+                    length++;
+                    targets[length] = targets[i];
+                    weights[length] = weights[i];
+                }
+            }
+            return length + 1;
+        }
+
+        private long writeTargets(int degree) {
+            for (int i = degree - 1; i > 0; i--) {
+                targets[i] -= targets[i - 1];
+            }
+            int maxSize = degree * (Long.BYTES + 2);
+            if (compressed.length < maxSize) {
+                compressed = new byte[maxSize];
+            }
+            int requiredBytes = AdjacencyCompression.compress(new LongsRef(targets, 0, degree), compressed);
+            long address = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
+            adjacencyAllocator.writeInt(degree);
+            adjacencyAllocator.writeBytes(compressed, requiredBytes);
+            return address;
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+            int compare = Long.compare(targets[i], targets[j]);
+            return compare != 0 ? compare : Double.compare(weights[i], weights[j]);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            long target = targets[i];
+            targets[i] = targets[j];
+            targets[j] = target;
+            double weight = weights[i];
+            weights[i] = weights[j];
+            weights[j] = weight;
+        }
+    }
+}
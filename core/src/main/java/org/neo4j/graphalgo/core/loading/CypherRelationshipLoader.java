@@ -271,7 +271,9 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
             RelationshipsBuilder builder = new RelationshipsBuilder(
                 deduplicationStrategies,
                 setup.tracker(),
-                propertyKeyIds.length
+                propertyKeyIds.length,
+                setup.adjacencyStorage(),
+                setup.adjacencyCodec()
             );
 
             allBuilders.put(typeMapping, builder);
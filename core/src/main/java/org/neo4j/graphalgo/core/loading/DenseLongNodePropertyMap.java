@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.OptionalLong;
+
+/**
+ * {@link NodeProperties} implementation that stores one long value per node in a {@link HugeLongArray}.
+ * Used for integral results, e.g. community ids, that must not lose precision above 2^53
+ * when they are read back through {@link #longNodeProperty(long, long)}.
+ */
+public final class DenseLongNodePropertyMap implements NodeProperties {
+
+    private HugeLongArray properties;
+    private final long size;
+    private final OptionalLong maxValue;
+
+    /**
+     * Creates a map in which every node has a value.
+     */
+    public static DenseLongNodePropertyMap of(HugeLongArray properties, OptionalLong maxValue) {
+        return new DenseLongNodePropertyMap(properties, maxValue);
+    }
+
+    private DenseLongNodePropertyMap(HugeLongArray properties, OptionalLong maxValue) {
+        this.properties = properties;
+        this.size = properties.size();
+        this.maxValue = maxValue;
+    }
+
+    @Override
+    public double nodeProperty(long nodeId) {
+        return properties.get(nodeId);
+    }
+
+    @Override
+    public long longNodeProperty(long nodeId, long defaultValue) {
+        return properties.get(nodeId);
+    }
+
+    @Override
+    public OptionalLong getMaxPropertyValue() {
+        return maxValue;
+    }
+
+    @Override
+    public long release() {
+        long freed = 0L;
+        if (properties != null) {
+            freed += properties.release();
+            properties = null;
+        }
+        return freed;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+}
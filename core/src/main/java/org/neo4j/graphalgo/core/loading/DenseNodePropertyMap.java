@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+
+import java.util.OptionalLong;
+
+/**
+ * {@link NodeProperties} implementation that stores one value per node in a {@link HugeDoubleArray}.
+ * Which nodes have a value is tracked in a separate {@link HugeAtomicBitSet}, so every double,
+ * including {@link Double#NaN}, is a valid value. Nodes without a value resolve to the default value.
+ * If every node has a value, the bit set is omitted.
+ *
+ * Used for properties that most nodes have, where a lookup by node id is a plain array access
+ * instead of a hash probe as in {@link NodePropertyMap}.
+ */
+public final class DenseNodePropertyMap implements NodeProperties {
+
+    private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations
+            .builder(DenseNodePropertyMap.class)
+            .perNode("properties", HugeDoubleArray::memoryEstimation)
+            .perNode("presence", HugeAtomicBitSet::memoryEstimation)
+            .build();
+
+    private HugeDoubleArray properties;
+    private @Nullable HugeAtomicBitSet presence;
+    private final double defaultValue;
+    private final long size;
+    private final OptionalLong maxValue;
+
+    static MemoryEstimation memoryEstimation() {
+        return MEMORY_ESTIMATION;
+    }
+
+    /**
+     * Creates a map in which every node has a value.
+     */
+    public static DenseNodePropertyMap of(HugeDoubleArray properties, OptionalLong maxValue) {
+        return new DenseNodePropertyMap(properties, null, Double.NaN, properties.size(), maxValue);
+    }
+
+    DenseNodePropertyMap(
+        HugeDoubleArray properties,
+        @Nullable HugeAtomicBitSet presence,
+        double defaultValue,
+        long size,
+        OptionalLong maxValue
+    ) {
+        this.properties = properties;
+        this.presence = presence;
+        this.defaultValue = defaultValue;
+        this.size = size;
+        this.maxValue = maxValue;
+    }
+
+    @Override
+    public double nodeProperty(long nodeId) {
+        return nodeProperty(nodeId, defaultValue);
+    }
+
+    @Override
+    public double nodeProperty(long nodeId, double defaultValue) {
+        if (presence != null && !presence.get(nodeId)) {
+            return defaultValue;
+        }
+        return properties.get(nodeId);
+    }
+
+    @Override
+    public OptionalLong getMaxPropertyValue() {
+        return maxValue;
+    }
+
+    @Override
+    public long release() {
+        long freed = 0L;
+        if (properties != null) {
+            freed += properties.release();
+            properties = null;
+        }
+        if (presence != null) {
+            freed += presence.release();
+            presence = null;
+        }
+        return freed;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+}
@@ -21,11 +21,13 @@ package org.neo4j.graphalgo.core.loading;
 
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -38,16 +40,64 @@ public final class GraphCatalog {
     private GraphCatalog() { }
 
     public static void set(GraphCreateConfig config, GraphsByRelationshipType graph) {
-        graph.canRelease(false);
+        GraphsByRelationshipType catalogGraph = config.mergeRelationshipTypes()
+            ? graph.withMergedRelationshipTypes(new RelationshipTypeMerger(
+                config.adjacencyStorage(),
+                config.adjacencyCodec(),
+                config.mergeDeduplicationStrategy(),
+                config.indexAdjacency(),
+                config.concurrency(),
+                Pools.DEFAULT
+            ))
+            : graph;
+        catalogGraph.canRelease(false);
         userGraphCatalogs.compute(config.username(), (user, userCatalog) -> {
             if (userCatalog == null) {
                 userCatalog = new UserCatalog();
             }
-            userCatalog.set(config, graph);
+            userCatalog.set(config, catalogGraph);
             return userCatalog;
         });
     }
 
+    /**
+     * Replaces the graphs of an existing catalog entry, if it still holds the {@code expected} graphs.
+     * The previous graphs are not released, the new graphs must share their topology with them.
+     * Merged relationship types of the previous graphs that the new graphs do not share are released
+     * once all leases that have been acquired before are closed.
+     */
+    public static boolean replace(
+        String username,
+        String graphName,
+        GraphsByRelationshipType expected,
+        GraphsByRelationshipType graph
+    ) {
+        graph.canRelease(false);
+        return getUserCatalog(username).replace(graphName, expected, graph);
+    }
+
+    /**
+     * Replaces the graphs of an existing catalog entry like {@link #replace}, for graphs with a new topology.
+     * The previous graphs are released once all leases that have been acquired before are closed.
+     */
+    public static boolean replaceTopology(
+        String username,
+        String graphName,
+        GraphsByRelationshipType expected,
+        GraphsByRelationshipType graph
+    ) {
+        graph.canRelease(false);
+        return getUserCatalog(username).replaceTopology(graphName, expected, graph);
+    }
+
+    /**
+     * Returns the graphs of a catalog entry, which are not released by {@link #replaceTopology}
+     * until the returned lease is closed.
+     */
+    public static Lease acquire(String username, String graphName) {
+        return getUserCatalog(username).acquire(graphName);
+    }
+
     public static Graph get(
         String username,
         String graphName,
@@ -77,9 +127,7 @@ public final class GraphCatalog {
 
         graphRemovedConsumer.accept(graphWithConfig);
 
-        Graph graph = graphWithConfig.getGraph();
-        graph.canRelease(true);
-        graph.release();
+        graphWithConfig.graph().release();
     }
 
     public static @Nullable String getType(String username, String graphName) {
@@ -117,6 +165,7 @@ public final class GraphCatalog {
         private static final UserCatalog EMPTY = new UserCatalog();
 
         private final Map<String, GraphWithConfig> graphsByName = new ConcurrentHashMap<>();
+        private final Map<String, Readers> readersByName = new ConcurrentHashMap<>();
 
         void set(GraphCreateConfig config, GraphsByRelationshipType graph) {
             if (config.graphName() == null || graph == null) {
@@ -132,6 +181,47 @@ public final class GraphCatalog {
             graph.canRelease(false);
         }
 
+        boolean replace(String graphName, GraphsByRelationshipType expected, GraphsByRelationshipType graph) {
+            Readers readers = readersByName.computeIfAbsent(graphName, ignore -> new Readers());
+            synchronized (readers) {
+                boolean replaced = swap(graphName, expected, graph);
+                if (replaced && expected != graph) {
+                    readers.retire(expected.mergedGraphsNotSharedWith(graph));
+                }
+                return replaced;
+            }
+        }
+
+        boolean replaceTopology(String graphName, GraphsByRelationshipType expected, GraphsByRelationshipType graph) {
+            Readers readers = readersByName.computeIfAbsent(graphName, ignore -> new Readers());
+            synchronized (readers) {
+                boolean replaced = swap(graphName, expected, graph);
+                if (replaced && expected != graph) {
+                    readers.retire(expected::release);
+                }
+                return replaced;
+            }
+        }
+
+        private boolean swap(String graphName, GraphsByRelationshipType expected, GraphsByRelationshipType graph) {
+            boolean[] replaced = {false};
+            graphsByName.computeIfPresent(graphName, (name, graphWithConfig) -> {
+                if (graphWithConfig.graph() != expected) {
+                    return graphWithConfig;
+                }
+                replaced[0] = true;
+                return ImmutableGraphWithConfig.of(graph, graphWithConfig.config());
+            });
+            return replaced[0];
+        }
+
+        Lease acquire(String graphName) {
+            Readers readers = readersByName.computeIfAbsent(graphName, ignore -> new Readers());
+            synchronized (readers) {
+                return new Lease(get(graphName), readers, readers.acquire());
+            }
+        }
+
         GraphWithConfig get(String graphName) {
             if (graphsByName.containsKey(graphName)) {
                 return graphsByName.get(graphName);
@@ -171,8 +261,7 @@ public final class GraphCatalog {
             }
             GraphWithConfig graphWithConfig = graphsByName.remove(graphName);
             Graph graph = graphWithConfig.getGraph();
-            graph.canRelease(true);
-            graph.release();
+            graphWithConfig.graph().release();
             return graph;
         }
 
@@ -201,4 +290,67 @@ public final class GraphCatalog {
         }
     }
 
+
+    /**
+     * Keeps the graphs of a catalog entry from being released while an algorithm uses them.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final GraphWithConfig graphWithConfig;
+        private final Readers readers;
+        private final long generation;
+        private boolean closed;
+
+        private Lease(GraphWithConfig graphWithConfig, Readers readers, long generation) {
+            this.graphWithConfig = graphWithConfig;
+            this.readers = readers;
+            this.generation = generation;
+        }
+
+        public GraphWithConfig graphWithConfig() {
+            return graphWithConfig;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                readers.release(generation);
+            }
+        }
+    }
+
+    /**
+     * Counts the open leases of a catalog entry per topology generation. Every {@link #retire} starts
+     * a new generation, the retired graphs are released once no lease of their generation or an earlier one is open.
+     */
+    private static final class Readers {
+
+        private final TreeMap<Long, Integer> leases = new TreeMap<>();
+        private final TreeMap<Long, Runnable> retired = new TreeMap<>();
+        private long generation;
+
+        synchronized long acquire() {
+            leases.merge(generation, 1, Integer::sum);
+            return generation;
+        }
+
+        synchronized void release(long leaseGeneration) {
+            leases.computeIfPresent(leaseGeneration, (ignore, count) -> count == 1 ? null : count - 1);
+            releaseUnused();
+        }
+
+        synchronized void retire(Runnable release) {
+            retired.put(generation, release);
+            generation++;
+            releaseUnused();
+        }
+
+        private void releaseUnused() {
+            long oldestLease = leases.isEmpty() ? Long.MAX_VALUE : leases.firstKey();
+            Map<Long, Runnable> unused = retired.headMap(oldestLease);
+            unused.values().forEach(Runnable::run);
+            unused.clear();
+        }
+    }
 }
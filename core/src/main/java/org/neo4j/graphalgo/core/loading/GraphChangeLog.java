@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.ErrorState;
+import org.neo4j.graphdb.event.KernelEventHandler;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the node and relationship changes of committed transactions for catalog graphs
+ * that have been created with change tracking enabled.
+ * <p>
+ * The log is registered as a transaction event handler while at least one graph of the database is tracked,
+ * and is unregistered when the last tracked graph is dropped or the database shuts down.
+ * Every tracked graph has a position in the log, {@link #peek(String, String)} returns all changes after that
+ * position and {@link #advance(String, String, int)} moves it once the changes have been applied.
+ * Tracking starts before the graph is imported, changes that are committed during the import are marked
+ * by {@link #imported(GraphDatabaseService, String, String)}, as the import may already have seen them.
+ * Changes that have been applied by all tracked graphs are discarded. Graphs that fall behind by more than
+ * {@link #MAX_PENDING_TRANSACTIONS} transactions or {@link #MAX_PENDING_CHANGES} changes stop being tracked
+ * and have to be recreated.
+ * Only numeric properties are recorded, property updates of existing entities are not tracked.
+ */
+public final class GraphChangeLog implements TransactionEventHandler<GraphChangeLog.TransactionChanges> {
+
+    static final int MAX_PENDING_TRANSACTIONS = 100_000;
+
+    /**
+     * Bounds the memory of the log, a single transaction may record any number of changes.
+     */
+    static final long MAX_PENDING_CHANGES = 10_000_000L;
+
+    private static final Map<GraphDatabaseService, GraphChangeLog> LOGS = new ConcurrentHashMap<>();
+
+    /**
+     * Starts recording changes for the given graph, earlier changes are not visible to it.
+     */
+    public static void track(GraphDatabaseService db, String username, String graphName) {
+        LOGS.compute(db, (ignore, changeLog) -> {
+            if (changeLog == null) {
+                changeLog = new GraphChangeLog(db);
+                changeLog.register();
+            }
+            changeLog.track(username, graphName);
+            return changeLog;
+        });
+    }
+
+    /**
+     * Marks the end of the import of the given graph. The changes that have been recorded since {@link #track}
+     * have been committed while the graph was imported and may or may not be part of the graph.
+     */
+    public static void imported(GraphDatabaseService db, String username, String graphName) {
+        GraphChangeLog changeLog = LOGS.get(db);
+        if (changeLog != null) {
+            changeLog.imported(username, graphName);
+        }
+    }
+
+    /**
+     * Stops recording changes for the given graph, does nothing if no changes are recorded for the database.
+     */
+    public static void untrack(GraphDatabaseService db, String username, String graphName) {
+        LOGS.computeIfPresent(db, (ignore, changeLog) -> {
+            changeLog.untrack(username, graphName);
+            if (changeLog.isEmpty()) {
+                changeLog.unregister();
+                return null;
+            }
+            return changeLog;
+        });
+    }
+
+    /**
+     * Returns the log that records the changes for the given graph.
+     */
+    public static GraphChangeLog of(GraphDatabaseService db, String graphName) {
+        GraphChangeLog changeLog = LOGS.get(db);
+        if (changeLog == null) {
+            throw notTracked(graphName);
+        }
+        return changeLog;
+    }
+
+    private final GraphDatabaseService db;
+    private final KernelEventHandler shutdownHandler;
+    private final Object refreshLock;
+    private final List<TransactionChanges> entries;
+    private final Map<String, Map<String, Long>> positions;
+    private final Map<String, Map<String, Long>> importEnds;
+    private final Map<String, Set<String>> discarded;
+    private long firstPosition;
+    private long pendingChanges;
+    private volatile boolean tracking;
+
+    private GraphChangeLog(GraphDatabaseService db) {
+        this.db = db;
+        this.shutdownHandler = new ShutdownHandler(db);
+        this.refreshLock = new Object();
+        this.entries = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.importEnds = new HashMap<>();
+        this.discarded = new HashMap<>();
+    }
+
+    /**
+     * Refreshes and compactions replace catalog entries while holding this lock, so that a refresh
+     * never applies changes to a graph that is swapped out underneath it.
+     */
+    public Object refreshLock() {
+        return refreshLock;
+    }
+
+    private void register() {
+        db.registerTransactionEventHandler(this);
+        db.registerKernelEventHandler(shutdownHandler);
+    }
+
+    private synchronized void unregister() {
+        db.unregisterTransactionEventHandler(this);
+        db.unregisterKernelEventHandler(shutdownHandler);
+        entries.clear();
+        pendingChanges = 0L;
+        positions.clear();
+        importEnds.clear();
+        discarded.clear();
+        tracking = false;
+    }
+
+    private synchronized void track(String username, String graphName) {
+        positions.computeIfAbsent(username, ignore -> new HashMap<>()).put(graphName, endPosition());
+        removeImportEnd(username, graphName);
+        removeDiscarded(username, graphName);
+        tracking = true;
+    }
+
+    private synchronized void imported(String username, String graphName) {
+        if (isTracked(username, graphName)) {
+            importEnds.computeIfAbsent(username, ignore -> new HashMap<>()).put(graphName, endPosition());
+        }
+    }
+
+    private synchronized void untrack(String username, String graphName) {
+        removePosition(username, graphName);
+        removeImportEnd(username, graphName);
+        removeDiscarded(username, graphName);
+        tracking = !positions.isEmpty();
+        trim();
+    }
+
+    private synchronized boolean isEmpty() {
+        return positions.isEmpty() && discarded.isEmpty();
+    }
+
+    public synchronized boolean isTracked(String username, String graphName) {
+        return positions.getOrDefault(username, Collections.emptyMap()).containsKey(graphName);
+    }
+
+    /**
+     * Returns the changes that have not yet been applied to the given graph, in commit order.
+     */
+    public synchronized List<TransactionChanges> peek(String username, String graphName) {
+        long position = position(username, graphName);
+        return new ArrayList<>(entries.subList(Math.toIntExact(position - firstPosition), entries.size()));
+    }
+
+    /**
+     * Returns how many of the changes returned by {@link #peek(String, String)} have been committed
+     * while the graph was imported. These changes may already be part of the graph.
+     */
+    public synchronized int importedChanges(String username, String graphName) {
+        long position = position(username, graphName);
+        Long importEnd = importEnds.getOrDefault(username, Collections.emptyMap()).get(graphName);
+        return importEnd != null ? Math.toIntExact(Math.max(0L, importEnd - position)) : 0;
+    }
+
+    /**
+     * Marks the first {@code count} changes returned by {@link #peek(String, String)} as applied.
+     */
+    public synchronized void advance(String username, String graphName, int count) {
+        long position = Math.min(position(username, graphName) + count, endPosition());
+        positions.get(username).put(graphName, position);
+        Long importEnd = importEnds.getOrDefault(username, Collections.emptyMap()).get(graphName);
+        if (importEnd != null && importEnd <= position) {
+            removeImportEnd(username, graphName);
+        }
+        trim();
+    }
+
+    private long position(String username, String graphName) {
+        Long position = positions.getOrDefault(username, Collections.emptyMap()).get(graphName);
+        if (position != null) {
+            return position;
+        }
+        if (discarded.getOrDefault(username, Collections.emptySet()).contains(graphName)) {
+            throw new IllegalStateException(String.format(
+                "Graph `%s` has not been refreshed for more than %d transactions or %d changes and no longer tracks changes. Drop and recreate it to refresh it again.",
+                graphName,
+                MAX_PENDING_TRANSACTIONS,
+                MAX_PENDING_CHANGES
+            ));
+        }
+        throw notTracked(graphName);
+    }
+
+    private static IllegalArgumentException notTracked(String graphName) {
+        return new IllegalArgumentException(String.format(
+            "Graph `%s` does not track changes. Create it with `trackChanges: true` to refresh it.",
+            graphName
+        ));
+    }
+
+    private long endPosition() {
+        return firstPosition + entries.size();
+    }
+
+    private void trim() {
+        long minPosition = positions.values().stream()
+            .flatMap(userPositions -> userPositions.values().stream())
+            .mapToLong(Long::longValue)
+            .min()
+            .orElse(endPosition());
+        int discard = Math.toIntExact(minPosition - firstPosition);
+        if (discard > 0) {
+            List<TransactionChanges> applied = entries.subList(0, discard);
+            for (TransactionChanges changes : applied) {
+                pendingChanges -= changes.size();
+            }
+            applied.clear();
+            firstPosition = minPosition;
+        }
+    }
+
+    private boolean exceedsLimits() {
+        return entries.size() > MAX_PENDING_TRANSACTIONS || pendingChanges > MAX_PENDING_CHANGES;
+    }
+
+    /**
+     * Stops tracking the graphs that have fallen behind the most, until the log is within its limits again.
+     * Graphs that are still in the catalog are remembered, so that refreshing them fails with a meaningful error.
+     */
+    private void discardLaggingGraphs() {
+        while (exceedsLimits() && !positions.isEmpty()) {
+            positions.forEach((username, userPositions) -> userPositions.entrySet().removeIf(entry -> {
+                if (entry.getValue() != firstPosition) {
+                    return false;
+                }
+                removeImportEnd(username, entry.getKey());
+                if (GraphCatalog.exists(username, entry.getKey())) {
+                    discarded.computeIfAbsent(username, ignore -> new HashSet<>()).add(entry.getKey());
+                }
+                return true;
+            }));
+            positions.values().removeIf(Map::isEmpty);
+            tracking = !positions.isEmpty();
+            trim();
+        }
+    }
+
+    private void removePosition(String username, String graphName) {
+        Map<String, Long> userPositions = positions.get(username);
+        if (userPositions != null) {
+            userPositions.remove(graphName);
+            if (userPositions.isEmpty()) {
+                positions.remove(username);
+            }
+        }
+    }
+
+    private void removeImportEnd(String username, String graphName) {
+        Map<String, Long> userImportEnds = importEnds.get(username);
+        if (userImportEnds != null) {
+            userImportEnds.remove(graphName);
+            if (userImportEnds.isEmpty()) {
+                importEnds.remove(username);
+            }
+        }
+    }
+
+    private void removeDiscarded(String username, String graphName) {
+        Set<String> userGraphs = discarded.get(username);
+        if (userGraphs != null) {
+            userGraphs.remove(graphName);
+            if (userGraphs.isEmpty()) {
+                discarded.remove(username);
+            }
+        }
+    }
+
+    @Override
+    public TransactionChanges beforeCommit(TransactionData data) {
+        if (!tracking) {
+            return null;
+        }
+
+        TransactionChanges changes = new TransactionChanges();
+        for (Node node : data.createdNodes()) {
+            Set<String> labels = new HashSet<>();
+            for (Label label : node.getLabels()) {
+                labels.add(label.name());
+            }
+            changes.createdNodes.add(new NodeChange(node.getId(), labels, numericProperties(node.getAllProperties())));
+        }
+        for (Node node : data.deletedNodes()) {
+            changes.deletedNodes.add(node.getId());
+        }
+        for (Relationship relationship : data.createdRelationships()) {
+            changes.createdRelationships.add(new RelationshipChange(
+                relationship.getStartNodeId(),
+                relationship.getEndNodeId(),
+                relationship.getType().name(),
+                numericProperties(relationship.getAllProperties())
+            ));
+        }
+
+        Map<Long, Map<String, Double>> removedProperties = new HashMap<>();
+        for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+            Object value = entry.previouslyCommitedValue();
+            if (value instanceof Number) {
+                removedProperties
+                    .computeIfAbsent(entry.entity().getId(), ignore -> new HashMap<>())
+                    .put(entry.key(), ((Number) value).doubleValue());
+            }
+        }
+        for (Relationship relationship : data.deletedRelationships()) {
+            changes.deletedRelationships.add(new RelationshipChange(
+                relationship.getStartNodeId(),
+                relationship.getEndNodeId(),
+                relationship.getType().name(),
+                removedProperties.getOrDefault(relationship.getId(), Collections.emptyMap())
+            ));
+        }
+
+        return changes.isEmpty() ? null : changes;
+    }
+
+    @Override
+    public synchronized void afterCommit(TransactionData data, TransactionChanges changes) {
+        if (changes != null && !positions.isEmpty()) {
+            entries.add(changes);
+            pendingChanges += changes.size();
+            if (exceedsLimits()) {
+                discardLaggingGraphs();
+            }
+        }
+    }
+
+    @Override
+    public void afterRollback(TransactionData data, TransactionChanges changes) {
+    }
+
+    /**
+     * Removes the change log of a database that is shutting down.
+     */
+    private static final class ShutdownHandler implements KernelEventHandler {
+
+        private final GraphDatabaseService db;
+
+        ShutdownHandler(GraphDatabaseService db) {
+            this.db = db;
+        }
+
+        @Override
+        public void beforeShutdown() {
+            GraphChangeLog changeLog = LOGS.remove(db);
+            if (changeLog != null) {
+                changeLog.unregister();
+            }
+        }
+
+        @Override
+        public void kernelPanic(ErrorState error) {
+        }
+
+        @Override
+        public Object getResource() {
+            return null;
+        }
+
+        @Override
+        public ExecutionOrder orderComparedTo(KernelEventHandler other) {
+            return ExecutionOrder.DOESNT_MATTER;
+        }
+    }
+
+    private static Map<String, Double> numericProperties(Map<String, Object> properties) {
+        Map<String, Double> numericProperties = new HashMap<>();
+        properties.forEach((key, value) -> {
+            if (value instanceof Number) {
+                numericProperties.put(key, ((Number) value).doubleValue());
+            }
+        });
+        return numericProperties;
+    }
+
+    /**
+     * The changes of a single committed transaction.
+     */
+    public static final class TransactionChanges {
+        public final List<NodeChange> createdNodes = new ArrayList<>();
+        public final List<Long> deletedNodes = new ArrayList<>();
+        public final List<RelationshipChange> createdRelationships = new ArrayList<>();
+        public final List<RelationshipChange> deletedRelationships = new ArrayList<>();
+
+        int size() {
+            return createdNodes.size() + deletedNodes.size() + createdRelationships.size() + deletedRelationships.size();
+        }
+
+        boolean isEmpty() {
+            return createdNodes.isEmpty()
+                   && deletedNodes.isEmpty()
+                   && createdRelationships.isEmpty()
+                   && deletedRelationships.isEmpty();
+        }
+    }
+
+    public static final class NodeChange {
+        public final long nodeId;
+        public final Set<String> labels;
+        public final Map<String, Double> properties;
+
+        NodeChange(long nodeId, Set<String> labels, Map<String, Double> properties) {
+            this.nodeId = nodeId;
+            this.labels = labels;
+            this.properties = properties;
+        }
+    }
+
+    public static final class RelationshipChange {
+        public final long sourceNodeId;
+        public final long targetNodeId;
+        public final String type;
+        public final Map<String, Double> properties;
+
+        RelationshipChange(long sourceNodeId, long targetNodeId, String type, Map<String, Double> properties) {
+            this.sourceNodeId = sourceNodeId;
+            this.targetNodeId = targetNodeId;
+            this.type = type;
+            this.properties = properties;
+        }
+    }
+}
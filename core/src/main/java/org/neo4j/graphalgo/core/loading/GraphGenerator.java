@@ -21,6 +21,8 @@ package org.neo4j.graphalgo.core.loading;
 
 import com.carrotsearch.hppc.BitSet;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
@@ -86,6 +88,30 @@ public class GraphGenerator {
         );
     }
 
+    public static RelImporter createRelImporter(
+        IdMap idMap,
+        Direction direction,
+        boolean undirected,
+        boolean loadRelationshipProperty,
+        DeduplicationStrategy deduplicationStrategy,
+        AdjacencyStorage storage,
+        AdjacencyCodec codec,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        return new RelImporter(
+            idMap,
+            direction,
+            undirected,
+            loadRelationshipProperty,
+            deduplicationStrategy,
+            storage,
+            codec,
+            executorService,
+            tracker
+        );
+    }
+
     public static class NodeImporter {
 
         final AllocationTracker tracker;
@@ -163,6 +189,30 @@ public class GraphGenerator {
             boolean loadRelationshipProperty,
             DeduplicationStrategy deduplicationStrategy,
             ExecutorService executorService, AllocationTracker tracker
+        ) {
+            this(
+                idMap,
+                direction,
+                undirected,
+                loadRelationshipProperty,
+                deduplicationStrategy,
+                AdjacencyStorage.HEAP,
+                AdjacencyCodec.VAR_LONG,
+                executorService,
+                tracker
+            );
+        }
+
+        public RelImporter(
+            IdMap idMap,
+            Direction direction,
+            boolean undirected,
+            boolean loadRelationshipProperty,
+            DeduplicationStrategy deduplicationStrategy,
+            AdjacencyStorage storage,
+            AdjacencyCodec codec,
+            ExecutorService executorService,
+            AllocationTracker tracker
         ) {
             this.direction = direction;
             this.undirected = undirected;
@@ -194,7 +244,9 @@ public class GraphGenerator {
                 this.outRelationshipsBuilder = new RelationshipsBuilder(
                     new DeduplicationStrategy[]{deduplicationStrategy},
                     tracker,
-                    loadRelationshipProperty ? 1 : 0
+                    loadRelationshipProperty ? 1 : 0,
+                    storage,
+                    codec
                 );
 
                 outAdjacencyBuilder = AdjacencyBuilder.compressing(
@@ -212,7 +264,9 @@ public class GraphGenerator {
                 this.inRelationshipsBuilder = new RelationshipsBuilder(
                     new DeduplicationStrategy[]{deduplicationStrategy},
                     tracker,
-                    loadRelationshipProperty ? 1 : 0
+                    loadRelationshipProperty ? 1 : 0,
+                    storage,
+                    codec
                 );
 
                 inAdjacencyBuilder = AdjacencyBuilder.compressing(
@@ -282,8 +336,7 @@ public class GraphGenerator {
         }
 
         public HugeGraph buildGraph() {
-            flushBuffer();
-            Relationships relationships = buildRelationships();
+            Relationships relationships = relationships();
 
             return HugeGraph.create(
                 tracker,
@@ -303,6 +356,11 @@ public class GraphGenerator {
             );
         }
 
+        Relationships relationships() {
+            flushBuffer();
+            return buildRelationships();
+        }
+
         private void flushBuffer() {
             RelationshipImporter.PropertyReader propertyReader = loadRelationshipProperty ? RelationshipImporter.preLoadedPropertyReader() : null;
 
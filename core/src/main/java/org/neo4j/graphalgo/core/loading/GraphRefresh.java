@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.ElementIdentifier;
+import org.neo4j.graphalgo.NodeProjection;
+import org.neo4j.graphalgo.Projection;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.RelationshipProjection;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencySkipIndex;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.newapi.GraphCreateConfig;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.neo4j.graphalgo.AbstractProjections.PROJECT_ALL;
+
+/**
+ * Applies the changes recorded by a {@link GraphChangeLog} to the graphs of a catalog entry.
+ * <p>
+ * The changes are applied as {@link DeltaGraph} overlays, the cost of a refresh depends only on
+ * the number of changes and the degrees of the touched nodes. {@link #compact}
+ * rewrites the overlays into new adjacency lists and drops the deleted nodes.
+ */
+public final class GraphRefresh {
+
+    private final GraphCreateFromStoreConfig config;
+    private final Set<String> nodeLabels;
+    private final Map<String, PropertyMapping> nodePropertyMappings;
+    private final Map<String, PropertyMapping> relationshipPropertyMappings;
+
+    private long nodesAdded;
+    private long nodesDeleted;
+    private long relationshipsAdded;
+    private long relationshipsDeleted;
+
+    public GraphRefresh(GraphCreateConfig config) {
+        if (!(config instanceof GraphCreateFromStoreConfig)) {
+            throw new IllegalArgumentException("Only graphs that have been created from a native projection can be refreshed.");
+        }
+        this.config = (GraphCreateFromStoreConfig) config;
+        this.nodeLabels = nodeLabels(this.config);
+        this.nodePropertyMappings = new HashMap<>();
+        this.config.nodeProjection().allProjections().forEach(projection -> projection.properties().forEach(
+            mapping -> nodePropertyMappings.putIfAbsent(mapping.propertyKey(), mapping)
+        ));
+        this.relationshipPropertyMappings = new HashMap<>();
+        this.config.relationshipProjection().allFilters().forEach(projection -> projection.properties().forEach(
+            mapping -> relationshipPropertyMappings.putIfAbsent(mapping.propertyKey(), mapping)
+        ));
+    }
+
+    public long nodesAdded() {
+        return nodesAdded;
+    }
+
+    public long nodesDeleted() {
+        return nodesDeleted;
+    }
+
+    public long relationshipsAdded() {
+        return relationshipsAdded;
+    }
+
+    public long relationshipsDeleted() {
+        return relationshipsDeleted;
+    }
+
+    /**
+     * Returns new graphs with all changes applied, the given graphs are not modified.
+     */
+    public GraphsByRelationshipType apply(GraphsByRelationshipType graphs, List<GraphChangeLog.TransactionChanges> changes) {
+        return apply(graphs, changes, 0);
+    }
+
+    /**
+     * Returns new graphs with all changes applied, the given graphs are not modified.
+     * The first {@code importedChanges} changes have been committed while the graphs were imported,
+     * their relationships are only added if the graphs do not contain them yet.
+     */
+    public GraphsByRelationshipType apply(
+        GraphsByRelationshipType graphs,
+        List<GraphChangeLog.TransactionChanges> changes,
+        int importedChanges
+    ) {
+        Optional<Graph> anyGraph = graphs.graphs().values().stream()
+            .flatMap(graphsByProperty -> graphsByProperty.values().stream())
+            .findFirst();
+        if (!anyGraph.isPresent() || changes.isEmpty()) {
+            return graphs;
+        }
+
+        Graph first = anyGraph.get();
+        DeltaGraph.NodeOverlay.Builder nodes = (first instanceof DeltaGraph
+            ? ((DeltaGraph) first).nodes()
+            : DeltaGraph.NodeOverlay.empty(first, nodePropertyDefaults())).builder();
+
+        Map<String, Map<String, DeltaGraph.Builder>> builders = new HashMap<>();
+        graphs.graphs().forEach((relationshipType, graphsByProperty) -> {
+            Map<String, DeltaGraph.Builder> buildersByProperty = new HashMap<>();
+            graphsByProperty.forEach((propertyKey, graph) -> buildersByProperty.put(
+                propertyKey,
+                new DeltaGraph.Builder(graph, relationshipPropertyDefault(propertyKey))
+            ));
+            builders.put(relationshipType, buildersByProperty);
+        });
+
+        for (int i = 0; i < changes.size(); i++) {
+            GraphChangeLog.TransactionChanges transaction = changes.get(i);
+            boolean imported = i < importedChanges;
+            for (GraphChangeLog.NodeChange node : transaction.createdNodes) {
+                if (nodes.toMappedNodeId(node.nodeId) == -1L && matchesLabels(node.labels)) {
+                    Map<String, Double> properties = new HashMap<>();
+                    nodePropertyMappings.forEach((propertyKey, mapping) -> properties.put(
+                        propertyKey,
+                        node.properties.getOrDefault(mapping.neoPropertyKey(), Double.NaN)
+                    ));
+                    nodes.addNode(node.nodeId, properties);
+                    nodesAdded++;
+                }
+            }
+            for (GraphChangeLog.RelationshipChange relationship : transaction.createdRelationships) {
+                if (apply(relationship, nodes, builders, true, imported)) {
+                    relationshipsAdded++;
+                }
+            }
+            for (GraphChangeLog.RelationshipChange relationship : transaction.deletedRelationships) {
+                if (apply(relationship, nodes, builders, false, false)) {
+                    relationshipsDeleted++;
+                }
+            }
+            for (long neoId : transaction.deletedNodes) {
+                long nodeId = nodes.toMappedNodeId(neoId);
+                if (nodeId != -1L) {
+                    nodes.deleteNode(nodeId);
+                    builders.values().forEach(buildersByProperty -> buildersByProperty
+                        .values()
+                        .forEach(builder -> builder.isolate(nodeId)));
+                    nodesDeleted++;
+                }
+            }
+        }
+
+        DeltaGraph.NodeOverlay nodeOverlay = nodes.build();
+        Map<String, Map<String, Graph>> refreshed = new HashMap<>();
+        builders.forEach((relationshipType, buildersByProperty) -> {
+            Map<String, Graph> graphsByProperty = new HashMap<>();
+            buildersByProperty.forEach((propertyKey, builder) -> graphsByProperty.put(propertyKey, builder.build(nodeOverlay)));
+            refreshed.put(relationshipType, graphsByProperty);
+        });
+        return graphs.withGraphs(refreshed);
+    }
+
+    private boolean apply(
+        GraphChangeLog.RelationshipChange relationship,
+        DeltaGraph.NodeOverlay.Builder nodes,
+        Map<String, Map<String, DeltaGraph.Builder>> builders,
+        boolean add,
+        boolean imported
+    ) {
+        long source = nodes.toMappedNodeId(relationship.sourceNodeId);
+        long target = nodes.toMappedNodeId(relationship.targetNodeId);
+        if (source == -1L || target == -1L) {
+            return false;
+        }
+
+        boolean applied = false;
+        for (Map.Entry<ElementIdentifier, RelationshipProjection> entry : config.relationshipProjection().projections().entrySet()) {
+            RelationshipProjection projection = entry.getValue();
+            Map<String, DeltaGraph.Builder> buildersByProperty = builders.get(entry.getKey().name);
+            if (buildersByProperty == null || !matchesType(projection, relationship.type)) {
+                continue;
+            }
+            for (Map.Entry<String, DeltaGraph.Builder> builderEntry : buildersByProperty.entrySet()) {
+                DeltaGraph.Builder builder = builderEntry.getValue();
+                double property = relationshipProperty(builderEntry.getKey(), relationship.properties);
+                if (projection.projection() != Projection.REVERSE) {
+                    applied |= update(builder, source, target, property, add, imported);
+                }
+                if (projection.projection() != Projection.NATURAL) {
+                    applied |= update(builder, target, source, property, add, imported);
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static boolean update(
+        DeltaGraph.Builder builder,
+        long source,
+        long target,
+        double property,
+        boolean add,
+        boolean imported
+    ) {
+        if (!add) {
+            return builder.removeRelationship(source, target, property);
+        }
+        if (imported) {
+            return builder.addRelationshipIfAbsent(source, target, property);
+        }
+        builder.addRelationship(source, target, property);
+        return true;
+    }
+
+    private Map<String, Double> nodePropertyDefaults() {
+        Map<String, Double> defaults = new HashMap<>();
+        nodePropertyMappings.forEach((propertyKey, mapping) -> defaults.put(propertyKey, mapping.defaultValue()));
+        return defaults;
+    }
+
+    private double relationshipProperty(String propertyKey, Map<String, Double> properties) {
+        PropertyMapping mapping = relationshipPropertyMappings.get(propertyKey);
+        if (mapping == null) {
+            return Double.NaN;
+        }
+        return properties.getOrDefault(mapping.neoPropertyKey(), mapping.defaultValue());
+    }
+
+    private double relationshipPropertyDefault(String propertyKey) {
+        PropertyMapping mapping = relationshipPropertyMappings.get(propertyKey);
+        return mapping != null ? mapping.defaultValue() : Double.NaN;
+    }
+
+    private boolean matchesLabels(Set<String> labels) {
+        return nodeLabels.isEmpty() || labels.stream().anyMatch(nodeLabels::contains);
+    }
+
+    private static boolean matchesType(RelationshipProjection projection, String type) {
+        return projection.type()
+            .map(projectedType -> projectedType.isEmpty() || projectedType.equals(PROJECT_ALL.name) || projectedType.equals(type))
+            .orElse(true);
+    }
+
+    private static Set<String> nodeLabels(GraphCreateFromStoreConfig config) {
+        Set<String> labels = new HashSet<>();
+        for (NodeProjection projection : config.nodeProjection().projections().values()) {
+            Optional<String> label = projection.label();
+            if (!label.isPresent() || label.get().isEmpty() || label.get().equals(PROJECT_ALL.name)) {
+                return Collections.emptySet();
+            }
+            labels.add(label.get());
+        }
+        return labels;
+    }
+
+    /**
+     * Rewrites refreshed graphs into new {@link HugeGraph}s. Deleted nodes are removed and the remaining
+     * nodes are renumbered, keeping their relative order. Graphs that have not been refreshed are returned as is.
+     * The new graphs use the adjacency storage, codec and skip index of the create configuration.
+     */
+    public GraphsByRelationshipType compact(
+        GraphsByRelationshipType graphs,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        Optional<Graph> anyGraph = graphs.graphs().values().stream()
+            .flatMap(graphsByProperty -> graphsByProperty.values().stream())
+            .findFirst();
+        if (!anyGraph.isPresent() || !(anyGraph.get() instanceof DeltaGraph)) {
+            return graphs;
+        }
+
+        DeltaGraph first = (DeltaGraph) anyGraph.get();
+        DeltaGraph.NodeOverlay nodes = first.nodes();
+        long nodeCount = nodes.nodeCount();
+        long maxOriginalId = 0L;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            if (!nodes.isDeleted(nodeId)) {
+                maxOriginalId = Math.max(maxOriginalId, nodes.toOriginalNodeId(nodeId));
+            }
+        }
+
+        GraphGenerator.NodeImporter nodeImporter = GraphGenerator.createNodeImporter(maxOriginalId, executorService, tracker);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            if (!nodes.isDeleted(nodeId)) {
+                nodeImporter.addNode(nodes.toOriginalNodeId(nodeId));
+            }
+        }
+        IdMap idMap = nodeImporter.idMap();
+
+        HugeLongArray oldToNew = HugeLongArray.newArray(nodeCount, tracker);
+        oldToNew.setAll(nodeId -> nodes.isDeleted(nodeId) ? -1L : idMap.toMappedNodeId(nodes.toOriginalNodeId(nodeId)));
+
+        HugeLongArray newToOld = HugeLongArray.newArray(idMap.nodeCount(), tracker);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            long newNodeId = oldToNew.get(nodeId);
+            if (newNodeId != -1L) {
+                newToOld.set(newNodeId, nodeId);
+            }
+        }
+        Map<String, NodeProperties> nodeProperties = new HashMap<>();
+        for (String propertyKey : first.availableNodeProperties()) {
+            NodeProperties properties = first.nodeProperties(propertyKey);
+            nodeProperties.put(
+                propertyKey,
+                NodePropertiesBuilder.copyOf(properties, idMap.nodeCount(), newToOld::get, tracker)
+            );
+        }
+        tracker.remove(newToOld.release());
+
+        Map<String, Map<String, Graph>> compacted = new HashMap<>();
+        graphs.graphs().forEach((relationshipType, graphsByProperty) -> {
+            Map<String, Graph> compactedByProperty = new HashMap<>();
+            graphsByProperty.forEach((propertyKey, graph) -> compactedByProperty.put(
+                propertyKey,
+                compact(graph, propertyKey, idMap, nodeProperties, oldToNew, executorService, tracker)
+            ));
+            compacted.put(relationshipType, compactedByProperty);
+        });
+        tracker.remove(oldToNew.release());
+        return graphs.withGraphs(compacted);
+    }
+
+    /**
+     * Rewrites a single graph with the adjacency storage, codec and skip index it has been created with.
+     */
+    private HugeGraph compact(
+        Graph graph,
+        String propertyKey,
+        IdMap idMap,
+        Map<String, NodeProperties> nodeProperties,
+        HugeLongArray oldToNew,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        boolean hasProperty = graph.hasRelationshipProperty();
+        double defaultPropertyValue = relationshipPropertyDefault(propertyKey);
+        GraphGenerator.RelImporter relImporter = GraphGenerator.createRelImporter(
+            idMap,
+            Direction.OUTGOING,
+            false,
+            hasProperty,
+            DeduplicationStrategy.NONE,
+            config.adjacencyStorage(),
+            config.adjacencyCodec(),
+            executorService,
+            tracker
+        );
+        graph.forEachNode(nodeId -> {
+            long source = oldToNew.get(nodeId);
+            if (source != -1L) {
+                graph.forEachRelationship(nodeId, Direction.OUTGOING, defaultPropertyValue, (s, t, property) -> {
+                    long target = oldToNew.get(t);
+                    if (target != -1L) {
+                        relImporter.addFromInternal(source, target, property);
+                    }
+                    return true;
+                });
+            }
+            return true;
+        });
+
+        Relationships relationships = relImporter.relationships();
+        // like the loader, the default value is only used if the property does not exist in the store
+        Optional<Double> maybeDefaultPropertyValue = hasProperty || !relationshipPropertyMappings.containsKey(propertyKey)
+            ? Optional.empty()
+            : Optional.of(defaultPropertyValue);
+        HugeGraph compacted = HugeGraph.create(
+            tracker,
+            idMap,
+            nodeProperties,
+            relationships.relationshipCount(),
+            null,
+            relationships.outAdjacency(),
+            null,
+            relationships.outOffsets(),
+            maybeDefaultPropertyValue,
+            Optional.empty(),
+            Optional.ofNullable(hasProperty ? relationships.outRelProperties() : null),
+            Optional.empty(),
+            Optional.ofNullable(hasProperty ? relationships.outRelPropertyOffsets() : null),
+            graph.isUndirected()
+        );
+        if (config.indexAdjacency()) {
+            compacted.useSkipIndex(null, AdjacencySkipIndex.build(
+                relationships.outAdjacency(),
+                relationships.outOffsets(),
+                idMap.nodeCount(),
+                config.concurrency(),
+                tracker
+            ));
+        }
+        return compacted;
+    }
+}
@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.NodeProjections;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.RelationshipProjections;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PageUtil;
+import org.neo4j.graphalgo.newapi.GraphCreateConfig;
+import org.neo4j.graphalgo.newapi.GraphCreateFromCypherConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromCypherConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Writes a {@link GraphsByRelationshipType} into a single binary file and reads it back.
+ * <p>
+ * The file contains the projections of the create config, the id mapping, the node properties and,
+ * per relationship type and property, the adjacency lists and offsets of every {@link HugeGraph}.
+ * Adjacency lists that are shared between graphs are only written once.
+ * <p>
+ * On {@link #read(Path, String, String, AllocationTracker)} the adjacency pages are mapped read-only from the file,
+ * so that loading costs no more than reading the (much smaller) offsets, ids and node properties.
+ * The pages stay valid until the graph is released, the file must not be modified in the meantime.
+ * {@link #write(GraphsByRelationshipType, GraphCreateConfig, Path)} therefore never writes into an existing file,
+ * but writes a temporary file next to it and moves that over the existing one.
+ */
+public final class GraphSnapshot {
+
+    private static final long MAGIC = 0x4744_5347_5241_5048L; // GDSGRAPH
+    private static final int VERSION = 4;
+
+    private static final int OFFSETS_PAGE_SHIFT = 16;
+    private static final int OFFSETS_PAGE_SIZE = 1 << OFFSETS_PAGE_SHIFT;
+    private static final long OFFSETS_PAGE_MASK = OFFSETS_PAGE_SIZE - 1;
+
+    private static final byte ABSENT = 0;
+    private static final byte NEW_SECTION = 1;
+    private static final byte REFERENCE = 2;
+
+    private static final byte FROM_STORE = 0;
+    private static final byte FROM_CYPHER = 1;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte DOUBLE_VALUE = 3;
+    private static final byte BOOLEAN_VALUE = 4;
+    private static final byte MAP_VALUE = 5;
+    private static final byte LIST_VALUE = 6;
+
+    private static final String ADJACENCY_STORAGE_KEY = "adjacencyStorage";
+    private static final String ADJACENCY_CODEC_KEY = "adjacencyCodec";
+    private static final String INDEX_ADJACENCY_KEY = "indexAdjacency";
+    private static final String NODE_ORDERING_KEY = "nodeOrdering";
+    private static final String MERGE_RELATIONSHIP_TYPES_KEY = "mergeRelationshipTypes";
+    private static final String MERGE_DEDUPLICATION_STRATEGY_KEY = "mergeDeduplicationStrategy";
+    private static final String CONCURRENCY_KEY = "concurrency";
+    private static final String NODE_PROPERTIES_KEY = "nodeProperties";
+    private static final String RELATIONSHIP_PROPERTIES_KEY = "relationshipProperties";
+
+    public static void write(GraphsByRelationshipType graphs, GraphCreateConfig config, Path file) {
+        Path tempFile = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                new Writer(channel).write(graphs, config);
+                channel.force(false);
+            }
+            // graphs that have been loaded from the existing file keep their mapping of the replaced file
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new UncheckedIOException("Could not write graph snapshot to " + file, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the failure that made us delete the file is more relevant
+        }
+    }
+
+    /**
+     * Reads the snapshot and restores its create config for the given user and graph name.
+     */
+    public static GraphWithConfig read(Path file, String username, String graphName, AllocationTracker tracker) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Reader(channel, tracker).read(username, graphName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read graph snapshot from " + file, e);
+        }
+    }
+
+    private GraphSnapshot() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final Map<Object, Integer> writtenSections;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            this.writtenSections = new IdentityHashMap<>();
+        }
+
+        private void write(GraphsByRelationshipType graphs, GraphCreateConfig config) throws IOException {
+            Map<String, Map<String, Graph>> graphsByType = graphs.graphs();
+            HugeGraph anyGraph = graphsByType
+                .values()
+                .stream()
+                .flatMap(g -> g.values().stream())
+                .findFirst()
+                .map(Writer::asHugeGraph)
+                .orElseThrow(() -> new IllegalArgumentException("Cannot write a snapshot of an empty graph"));
+
+            putLong(MAGIC);
+            putInt(VERSION);
+            writeConfig(config);
+
+            IdMap idMap = anyGraph.idMapping();
+            long nodeCount = idMap.nodeCount();
+            putLong(nodeCount);
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                putLong(idMap.toOriginalNodeId(nodeId));
+            }
+
+            Map<String, NodeProperties> nodeProperties = anyGraph.nodeProperties();
+            putInt(nodeProperties.size());
+            for (Map.Entry<String, NodeProperties> entry : nodeProperties.entrySet()) {
+                putString(entry.getKey());
+                NodeProperties properties = entry.getValue();
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    putDouble(properties.nodeProperty(nodeId));
+                }
+            }
+
+            putInt(graphsByType.size());
+            for (Map.Entry<String, Map<String, Graph>> typeEntry : graphsByType.entrySet()) {
+                putString(typeEntry.getKey());
+                putInt(typeEntry.getValue().size());
+                for (Map.Entry<String, Graph> propertyEntry : typeEntry.getValue().entrySet()) {
+                    putString(propertyEntry.getKey());
+                    HugeGraph graph = asHugeGraph(propertyEntry.getValue());
+                    if (graph.idMapping() != idMap) {
+                        throw new IllegalArgumentException("All graphs of a snapshot must share the same id mapping");
+                    }
+                    writeRelationships(graph, nodeCount);
+                }
+            }
+            flush();
+        }
+
+        private void writeConfig(GraphCreateConfig config) throws IOException {
+            if (config instanceof GraphCreateFromCypherConfig) {
+                GraphCreateFromCypherConfig cypherConfig = (GraphCreateFromCypherConfig) config;
+                put(FROM_CYPHER);
+                putValue(cypherConfig.nodeQuery());
+                putValue(cypherConfig.relationshipQuery());
+            } else {
+                put(FROM_STORE);
+            }
+            putValue(config.nodeProjection().toObject());
+            putValue(config.relationshipProjection().toObject());
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put(NODE_PROPERTIES_KEY, config.nodeProperties().toObject(true));
+            settings.put(RELATIONSHIP_PROPERTIES_KEY, config.relationshipProperties().toObject(true));
+            settings.put(CONCURRENCY_KEY, config.concurrency());
+            settings.put(ADJACENCY_STORAGE_KEY, config.adjacencyStorage().name());
+            settings.put(ADJACENCY_CODEC_KEY, config.adjacencyCodec().name());
+            settings.put(INDEX_ADJACENCY_KEY, config.indexAdjacency());
+            settings.put(NODE_ORDERING_KEY, config.nodeOrdering().name());
+            settings.put(MERGE_RELATIONSHIP_TYPES_KEY, config.mergeRelationshipTypes());
+            settings.put(MERGE_DEDUPLICATION_STRATEGY_KEY, config.mergeDeduplicationStrategy().name());
+            putValue(settings);
+        }
+
+        private void putValue(Object value) throws IOException {
+            if (value == null) {
+                put(NULL_VALUE);
+            } else if (value instanceof String) {
+                put(STRING_VALUE);
+                putString((String) value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                put(LONG_VALUE);
+                putLong(((Number) value).longValue());
+            } else if (value instanceof Number) {
+                put(DOUBLE_VALUE);
+                putDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                put(BOOLEAN_VALUE);
+                put((Boolean) value ? (byte) 1 : (byte) 0);
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                put(MAP_VALUE);
+                putInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    putString(String.valueOf(entry.getKey()));
+                    putValue(entry.getValue());
+                }
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                put(LIST_VALUE);
+                putInt(list.size());
+                for (Object item : list) {
+                    putValue(item);
+                }
+            } else {
+                throw new IllegalArgumentException(String.format(
+                    "Cannot write a config value of type %s to a snapshot",
+                    value.getClass().getSimpleName()
+                ));
+            }
+        }
+
+        private void writeRelationships(HugeGraph graph, long nodeCount) throws IOException {
+            Relationships relationships = graph.relationships();
+            putLong(relationships.relationshipCount());
+            put(graph.isUndirected() ? (byte) 1 : (byte) 0);
+            Optional<Double> defaultProperty = relationships.maybeDefaultRelProperty();
+            put(defaultProperty.isPresent() ? (byte) 1 : (byte) 0);
+            putDouble(defaultProperty.orElse(HugeGraph.NO_PROPERTY_VALUE));
+
+            writeAdjacency(relationships.inAdjacency());
+            writeOffsets(relationships.inOffsets(), nodeCount);
+            writeAdjacency(relationships.outAdjacency());
+            writeOffsets(relationships.outOffsets(), nodeCount);
+            writeAdjacency(relationships.inRelProperties());
+            writeOffsets(relationships.inRelPropertyOffsets(), nodeCount);
+            writeAdjacency(relationships.outRelProperties());
+            writeOffsets(relationships.outRelPropertyOffsets(), nodeCount);
+        }
+
+        private void writeAdjacency(AdjacencyList adjacencyList) throws IOException {
+            if (writeSectionHeader(adjacencyList)) {
+                put((byte) adjacencyList.codec().ordinal());
+                List<ByteBuffer> pages = new ArrayList<>();
+                adjacencyList.forEachPage(pages::add);
+                putInt(pages.size());
+                for (ByteBuffer page : pages) {
+                    putInt(page.remaining());
+                }
+                flush();
+                for (ByteBuffer page : pages) {
+                    while (page.hasRemaining()) {
+                        channel.write(page);
+                    }
+                }
+            }
+        }
+
+        private void writeOffsets(AdjacencyOffsets offsets, long nodeCount) throws IOException {
+            if (writeSectionHeader(offsets)) {
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    putLong(offsets.get(nodeId));
+                }
+            }
+        }
+
+        /**
+         * Returns true iff the section content needs to be written.
+         */
+        private boolean writeSectionHeader(Object section) throws IOException {
+            if (section == null) {
+                put(ABSENT);
+                return false;
+            }
+            Integer existing = writtenSections.get(section);
+            if (existing != null) {
+                put(REFERENCE);
+                putInt(existing);
+                return false;
+            }
+            writtenSections.put(section, writtenSections.size());
+            put(NEW_SECTION);
+            return true;
+        }
+
+        private static HugeGraph asHugeGraph(Graph graph) {
+            if (graph instanceof HugeGraph) {
+                return (HugeGraph) graph;
+            }
+            throw new IllegalArgumentException(String.format(
+                "Only graphs of type %s can be written to a snapshot, got %s",
+                HugeGraph.class.getSimpleName(),
+                graph.getClass().getSimpleName()
+            ));
+        }
+
+        private void put(byte value) throws IOException {
+            ensureCapacity(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        private void putInt(int value) throws IOException {
+            ensureCapacity(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensureCapacity(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensureCapacity(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (byte b : bytes) {
+                put(b);
+            }
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static final class Reader {
+        private final FileChannel channel;
+        private final AllocationTracker tracker;
+        private final ByteBuffer buffer;
+        private final List<Object> readSections;
+        private long nodeCount;
+
+        private Reader(FileChannel channel, AllocationTracker tracker) {
+            this.channel = channel;
+            this.tracker = tracker;
+            this.buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            this.buffer.limit(0);
+            this.readSections = new ArrayList<>();
+        }
+
+        private GraphWithConfig read(String username, String graphName) throws IOException {
+            if (getLong() != MAGIC) {
+                throw new IllegalArgumentException("File is not a graph snapshot");
+            }
+            int version = getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(String.format(
+                    "Unsupported snapshot version %d, expected %d",
+                    version,
+                    VERSION
+                ));
+            }
+            GraphCreateConfig config = readConfig(username, graphName);
+
+            nodeCount = getLong();
+            HugeLongArray graphIds = HugeLongArray.newArray(nodeCount, tracker);
+            long highestNeoId = -1L;
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                long neoId = getLong();
+                graphIds.set(nodeId, neoId);
+                highestNeoId = Math.max(highestNeoId, neoId);
+            }
+            SparseNodeMapping.Builder nodeMappingBuilder = SparseNodeMapping.Builder.create(highestNeoId + 1, tracker);
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                nodeMappingBuilder.set(graphIds.get(nodeId), nodeId);
+            }
+            IdMap idMap = new IdMap(graphIds, nodeMappingBuilder.build(), nodeCount);
+
+            int propertyCount = getInt();
+            Map<String, NodeProperties> nodeProperties = new HashMap<>(propertyCount);
+            for (int i = 0; i < propertyCount; i++) {
+                String propertyKey = getString();
+                NodePropertiesBuilder builder = NodePropertiesBuilder.of(nodeCount, Double.NaN, tracker);
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    double value = getDouble();
+                    if (!Double.isNaN(value)) {
+                        builder.set(nodeId, value);
+                    }
+                }
+                nodeProperties.put(propertyKey, builder.build());
+            }
+
+            int typeCount = getInt();
+            Map<String, Map<String, Graph>> graphs = new HashMap<>(typeCount);
+            for (int i = 0; i < typeCount; i++) {
+                String relationshipType = getString();
+                int graphCount = getInt();
+                Map<String, Graph> graphsByProperty = new HashMap<>(graphCount);
+                for (int j = 0; j < graphCount; j++) {
+                    String relationshipProperty = getString();
+                    graphsByProperty.put(relationshipProperty, readGraph(idMap, nodeProperties));
+                }
+                graphs.put(relationshipType, graphsByProperty);
+            }
+            return ImmutableGraphWithConfig.of(GraphsByRelationshipType.of(graphs), config);
+        }
+
+        /**
+         * Snapshots do not track changes, so graphs loaded from a store config never restore {@code trackChanges}.
+         */
+        @SuppressWarnings("unchecked")
+        private GraphCreateConfig readConfig(String username, String graphName) throws IOException {
+            byte kind = get();
+            String nodeQuery = null;
+            String relationshipQuery = null;
+            if (kind == FROM_CYPHER) {
+                nodeQuery = (String) getValue();
+                relationshipQuery = (String) getValue();
+            }
+            NodeProjections nodeProjection = NodeProjections.fromObject(getValue());
+            RelationshipProjections relationshipProjection = RelationshipProjections.fromObject(getValue());
+
+            Map<String, Object> settings = (Map<String, Object>) getValue();
+            PropertyMappings nodeProperties = PropertyMappings.fromObject(settings.get(NODE_PROPERTIES_KEY));
+            PropertyMappings relationshipProperties = PropertyMappings.fromObject(settings.get(RELATIONSHIP_PROPERTIES_KEY));
+            int concurrency = ((Number) settings.get(CONCURRENCY_KEY)).intValue();
+            AdjacencyStorage adjacencyStorage = AdjacencyStorage.parse(settings.get(ADJACENCY_STORAGE_KEY));
+            AdjacencyCodec adjacencyCodec = AdjacencyCodec.parse(settings.get(ADJACENCY_CODEC_KEY));
+            boolean indexAdjacency = (Boolean) settings.get(INDEX_ADJACENCY_KEY);
+            NodeOrdering nodeOrdering = NodeOrdering.parse(settings.get(NODE_ORDERING_KEY));
+            boolean mergeRelationshipTypes = (Boolean) settings.get(MERGE_RELATIONSHIP_TYPES_KEY);
+            DeduplicationStrategy mergeDeduplicationStrategy = DeduplicationStrategy.lookup(
+                (String) settings.get(MERGE_DEDUPLICATION_STRATEGY_KEY)
+            );
+
+            if (kind == FROM_CYPHER) {
+                return ImmutableGraphCreateFromCypherConfig.builder()
+                    .username(username)
+                    .graphName(graphName)
+                    .nodeQuery(nodeQuery)
+                    .relationshipQuery(relationshipQuery)
+                    .nodeProjection(nodeProjection)
+                    .relationshipProjection(relationshipProjection)
+                    .nodeProperties(nodeProperties)
+                    .relationshipProperties(relationshipProperties)
+                    .concurrency(concurrency)
+                    .adjacencyStorage(adjacencyStorage)
+                    .adjacencyCodec(adjacencyCodec)
+                    .indexAdjacency(indexAdjacency)
+                    .nodeOrdering(nodeOrdering)
+                    .mergeRelationshipTypes(mergeRelationshipTypes)
+                    .mergeDeduplicationStrategy(mergeDeduplicationStrategy)
+                    .build();
+            }
+            return ImmutableGraphCreateFromStoreConfig.builder()
+                .username(username)
+                .graphName(graphName)
+                .nodeProjection(nodeProjection)
+                .relationshipProjection(relationshipProjection)
+                .nodeProperties(nodeProperties)
+                .relationshipProperties(relationshipProperties)
+                .concurrency(concurrency)
+                .adjacencyStorage(adjacencyStorage)
+                .adjacencyCodec(adjacencyCodec)
+                .indexAdjacency(indexAdjacency)
+                .nodeOrdering(nodeOrdering)
+                .mergeRelationshipTypes(mergeRelationshipTypes)
+                .mergeDeduplicationStrategy(mergeDeduplicationStrategy)
+                .build();
+        }
+
+        private Object getValue() throws IOException {
+            byte type = get();
+            switch (type) {
+                case NULL_VALUE:
+                    return null;
+                case STRING_VALUE:
+                    return getString();
+                case LONG_VALUE:
+                    return getLong();
+                case DOUBLE_VALUE:
+                    return getDouble();
+                case BOOLEAN_VALUE:
+                    return get() == 1;
+                case MAP_VALUE:
+                    int size = getInt();
+                    Map<String, Object> map = new LinkedHashMap<>(size);
+                    for (int i = 0; i < size; i++) {
+                        String key = getString();
+                        map.put(key, getValue());
+                    }
+                    return map;
+                case LIST_VALUE:
+                    int length = getInt();
+                    List<Object> list = new ArrayList<>(length);
+                    for (int i = 0; i < length; i++) {
+                        list.add(getValue());
+                    }
+                    return list;
+                default:
+                    throw new IllegalArgumentException("Unknown config value type " + type + " in graph snapshot");
+            }
+        }
+
+        private HugeGraph readGraph(IdMap idMap, Map<String, NodeProperties> nodeProperties) throws IOException {
+            long relationshipCount = getLong();
+            boolean isUndirected = get() == 1;
+            boolean hasDefaultProperty = get() == 1;
+            double defaultProperty = getDouble();
+
+            AdjacencyList inAdjacency = readAdjacency();
+            AdjacencyOffsets inOffsets = readOffsets();
+            AdjacencyList outAdjacency = readAdjacency();
+            AdjacencyOffsets outOffsets = readOffsets();
+            AdjacencyList inProperties = readAdjacency();
+            AdjacencyOffsets inPropertyOffsets = readOffsets();
+            AdjacencyList outProperties = readAdjacency();
+            AdjacencyOffsets outPropertyOffsets = readOffsets();
+
+            return HugeGraph.create(
+                tracker,
+                idMap,
+                nodeProperties,
+                relationshipCount,
+                inAdjacency,
+                outAdjacency,
+                inOffsets,
+                outOffsets,
+                hasDefaultProperty ? Optional.of(defaultProperty) : Optional.empty(),
+                Optional.ofNullable(inProperties),
+                Optional.ofNullable(outProperties),
+                Optional.ofNullable(inPropertyOffsets),
+                Optional.ofNullable(outPropertyOffsets),
+                isUndirected
+            );
+        }
+
+        private AdjacencyList readAdjacency() throws IOException {
+            byte header = get();
+            if (header == ABSENT) {
+                return null;
+            }
+            if (header == REFERENCE) {
+                return (AdjacencyList) readSections.get(getInt());
+            }
+            AdjacencyCodec codec = AdjacencyCodec.values()[get()];
+            int numPages = getInt();
+            int[] pageSizes = new int[numPages];
+            for (int i = 0; i < numPages; i++) {
+                pageSizes[i] = getInt();
+            }
+
+            // pages start right after what we have consumed from the buffer
+            long position = channel.position() - buffer.remaining();
+            long mappedBytes = 0L;
+            ByteBuffer[] pages = new ByteBuffer[numPages];
+            for (int i = 0; i < numPages; i++) {
+                pages[i] = channel
+                    .map(FileChannel.MapMode.READ_ONLY, position, pageSizes[i])
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                position += pageSizes[i];
+                mappedBytes += pageSizes[i];
+            }
+            channel.position(position);
+            buffer.limit(0);
+
+            tracker.add(sizeOfObjectArray(numPages));
+            tracker.addOffHeap(mappedBytes);
+            AdjacencyList adjacencyList = AdjacencyList.offHeap(pages, mappedBytes, null, codec, tracker);
+            readSections.add(adjacencyList);
+            return adjacencyList;
+        }
+
+        private AdjacencyOffsets readOffsets() throws IOException {
+            byte header = get();
+            if (header == ABSENT) {
+                return null;
+            }
+            if (header == REFERENCE) {
+                return (AdjacencyOffsets) readSections.get(getInt());
+            }
+            int numPages = PageUtil.numPagesFor(nodeCount, OFFSETS_PAGE_SHIFT, OFFSETS_PAGE_MASK);
+            long[][] pages = new long[Math.max(1, numPages)][];
+            tracker.add(sizeOfObjectArray(pages.length));
+            for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+                long pageStart = PageUtil.capacityFor(pageIndex, OFFSETS_PAGE_SHIFT);
+                int pageLength = (int) Math.min(OFFSETS_PAGE_SIZE, nodeCount - pageStart);
+                long[] page = new long[OFFSETS_PAGE_SIZE];
+                tracker.add(sizeOfLongArray(OFFSETS_PAGE_SIZE));
+                for (int i = 0; i < pageLength; i++) {
+                    page[i] = getLong();
+                }
+                pages[pageIndex] = page;
+            }
+            AdjacencyOffsets offsets = AdjacencyOffsets.of(pages, OFFSETS_PAGE_SIZE);
+            readSections.add(offsets);
+            return offsets;
+        }
+
+        private byte get() throws IOException {
+            ensureAvailable(Byte.BYTES);
+            return buffer.get();
+        }
+
+        private int getInt() throws IOException {
+            ensureAvailable(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        private long getLong() throws IOException {
+            ensureAvailable(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        private double getDouble() throws IOException {
+            ensureAvailable(Double.BYTES);
+            return buffer.getDouble();
+        }
+
+        private String getString() throws IOException {
+            byte[] bytes = new byte[getInt()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = get();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void ensureAvailable(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new IllegalArgumentException("Unexpected end of graph snapshot");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -19,9 +19,12 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.UnionGraph;
 import org.neo4j.graphalgo.core.utils.ProjectionParser;
@@ -29,11 +32,14 @@ import org.neo4j.graphalgo.core.utils.ProjectionParser;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -58,9 +64,39 @@ public final class GraphsByRelationshipType {
     }
 
     private final Map<String, Map<String, Graph>> graphs;
+    private final @Nullable RelationshipTypeMerger merger;
+    private final Map<String, HugeGraph> mergedGraphs;
+    private volatile boolean canRelease;
 
     private GraphsByRelationshipType(Map<String, Map<String, Graph>> graphs) {
+        this(graphs, null, new ConcurrentHashMap<>());
+    }
+
+    private GraphsByRelationshipType(
+        Map<String, Map<String, Graph>> graphs,
+        @Nullable RelationshipTypeMerger merger,
+        Map<String, HugeGraph> mergedGraphs
+    ) {
         this.graphs = graphs;
+        this.merger = merger;
+        this.mergedGraphs = mergedGraphs;
+        this.canRelease = true;
+    }
+
+    /**
+     * Returns graphs that answer projections onto multiple relationship types with a single merged graph
+     * instead of a {@link UnionGraph}. The merged graph is built once per combination of relationship types
+     * and property and is reused until the graphs are released.
+     */
+    GraphsByRelationshipType withMergedRelationshipTypes(RelationshipTypeMerger merger) {
+        return new GraphsByRelationshipType(graphs, merger, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Returns the given graphs, which have a new topology, and merges their relationship types like these graphs do.
+     */
+    GraphsByRelationshipType withGraphs(Map<String, Map<String, Graph>> graphs) {
+        return new GraphsByRelationshipType(graphs, merger, new ConcurrentHashMap<>());
     }
 
     @Deprecated
@@ -116,12 +152,35 @@ public final class GraphsByRelationshipType {
                 "Cannot find graphs for relationship types: '%s' and relationship properties '%s'.",
                 relationshipTypes, maybeRelationshipProperty.orElse("<NOT DEFINED>")
             ));
+        } else if (merger != null && RelationshipTypeMerger.canMerge(filteredGraphs)) {
+            String key = new TreeSet<>(graphsWithRelTypes.keySet()) + maybeRelationshipProperty.map(p -> "." + p).orElse("");
+            HugeGraph existing = mergedGraphs.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            // merging can take a while, it must not block other projections of the map
+            HugeGraph merged = merger.merge(filteredGraphs);
+            merged.canRelease(canRelease);
+            HugeGraph concurrentlyMerged = mergedGraphs.putIfAbsent(key, merged);
+            if (concurrentlyMerged != null) {
+                merged.canRelease(true);
+                merged.releaseTopology();
+                return concurrentlyMerged;
+            }
+            return merged;
         } else {
             return UnionGraph.of(filteredGraphs);
         }
     }
 
+    /**
+     * Returns the union of all graphs. If relationship types are merged, the merged graph
+     * of all relationship types without relationship properties is returned instead.
+     */
     public Graph getUnion() {
+        if (merger != null) {
+            return getGraphProjection(Collections.singletonList("*"), Optional.empty());
+        }
         Collection<Graph> graphParts = new ArrayList<>();
         forEach(graphParts::add);
         return UnionGraph.of(graphParts);
@@ -144,7 +203,33 @@ public final class GraphsByRelationshipType {
     }
 
     public void canRelease(boolean canRelease) {
+        this.canRelease = canRelease;
         forEach(g -> g.canRelease(canRelease));
+        mergedGraphs.values().forEach(g -> g.canRelease(canRelease));
+    }
+
+    /**
+     * Releases all graphs, including the merged graphs that have been built for them.
+     */
+    public void release() {
+        canRelease(true);
+        forEach(Graph::release);
+        // merged graphs share their node properties with the other graphs
+        mergedGraphs.values().forEach(Graph::releaseTopology);
+        mergedGraphs.clear();
+    }
+
+    /**
+     * Returns an action that releases the merged graphs that are not shared with the given graphs, which replace these graphs.
+     * The merged graphs are determined when this method is called.
+     */
+    Runnable mergedGraphsNotSharedWith(GraphsByRelationshipType replacement) {
+        Map<String, HugeGraph> notShared = new HashMap<>(mergedGraphs);
+        notShared.keySet().removeAll(replacement.mergedGraphs.keySet());
+        return () -> notShared.values().forEach(merged -> {
+            merged.canRelease(true);
+            merged.releaseTopology();
+        });
     }
 
     public String getGraphType() {
@@ -167,10 +252,77 @@ public final class GraphsByRelationshipType {
                 .sum();
     }
 
+    /**
+     * Returns all graphs, grouped by relationship type and then by relationship property.
+     */
+    public Map<String, Map<String, Graph>> graphs() {
+        return Collections.unmodifiableMap(graphs);
+    }
+
     public Set<String> availableRelationshipTypes() {
         return graphs.keySet();
     }
 
+    public Set<String> availableNodeProperties() {
+        return graphs
+            .values().stream()
+            .flatMap(g -> g.values().stream())
+            .map(Graph::availableNodeProperties)
+            .findFirst()
+            .orElse(Collections.emptySet());
+    }
+
+    /**
+     * Returns graphs that share the topology with these graphs, but have the given node property added.
+     * All graphs of the returned instance share the same node properties, as the graphs of a loaded graph do.
+     */
+    public GraphsByRelationshipType withNodeProperty(String propertyKey, NodeProperties properties) {
+        if (availableNodeProperties().contains(propertyKey)) {
+            throw new IllegalArgumentException(String.format(
+                "Node property `%s` already exists in the graph.",
+                propertyKey
+            ));
+        }
+
+        Map<String, NodeProperties> nodeProperties = null;
+        Map<String, Map<String, Graph>> graphsWithProperty = new HashMap<>();
+        for (Map.Entry<String, Map<String, Graph>> graphsByType : graphs.entrySet()) {
+            Map<String, Graph> graphsByProperty = new HashMap<>();
+            for (Map.Entry<String, Graph> entry : graphsByType.getValue().entrySet()) {
+                Graph graph = entry.getValue();
+                HugeGraph hugeGraph = graph instanceof DeltaGraph
+                    ? baseGraph(((DeltaGraph) graph).base())
+                    : baseGraph(graph);
+                if (nodeProperties == null) {
+                    Map<String, NodeProperties> newProperties = new HashMap<>(hugeGraph.nodeProperties());
+                    newProperties.put(propertyKey, properties);
+                    nodeProperties = Collections.unmodifiableMap(newProperties);
+                }
+                HugeGraph graphWithProperty = hugeGraph.withNodeProperties(nodeProperties);
+                graphsByProperty.put(
+                    entry.getKey(),
+                    graph instanceof DeltaGraph ? ((DeltaGraph) graph).withBase(graphWithProperty) : graphWithProperty
+                );
+            }
+            graphsWithProperty.put(graphsByType.getKey(), graphsByProperty);
+        }
+        Map<String, HugeGraph> mergedGraphsWithProperty = new ConcurrentHashMap<>();
+        for (Map.Entry<String, HugeGraph> entry : mergedGraphs.entrySet()) {
+            mergedGraphsWithProperty.put(entry.getKey(), entry.getValue().withNodeProperties(nodeProperties));
+        }
+        return new GraphsByRelationshipType(graphsWithProperty, merger, mergedGraphsWithProperty);
+    }
+
+    private static HugeGraph baseGraph(Graph graph) {
+        if (!(graph instanceof HugeGraph)) {
+            throw new UnsupportedOperationException(String.format(
+                "Cannot add node properties to a graph of type %s.",
+                graph.getClass().getSimpleName()
+            ));
+        }
+        return (HugeGraph) graph;
+    }
+
     private void forEach(Consumer<? super Graph> action) {
         for (Map<String, ? extends Graph> graphsByProperty : graphs.values()) {
             for (Graph graph : graphsByProperty.values()) {
@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.core.loading;
 import com.carrotsearch.hppc.ObjectLongMap;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.tuple.Tuples;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.Projection;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.ResolvedPropertyMapping;
@@ -31,8 +32,10 @@ import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
 import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.AdjacencySkipIndex;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
@@ -42,6 +45,7 @@ import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -69,13 +73,55 @@ public final class HugeGraphFactory extends GraphFactory {
     }
 
     public static MemoryEstimation getMemoryEstimation(GraphSetup setup, GraphDimensions dimensions) {
-        return getMemoryEstimation(setup.loadOutgoing(), setup.loadIncoming(), setup.loadAsUndirected(), dimensions);
+        MemoryEstimation graph = getMemoryEstimation(
+            setup.loadOutgoing(),
+            setup.loadIncoming(),
+            setup.loadAsUndirected(),
+            setup.indexAdjacency(),
+            setup.adjacencyCodec(),
+            dimensions
+        );
+        if (setup.nodeOrdering() == NodeOrdering.NONE) {
+            return graph;
+        }
+        return MemoryEstimations.builder(HugeGraph.class)
+            .add("graph", graph)
+            .add("reordering", NodeReordering.memoryEstimation(setup.nodeOrdering(), graph))
+            .build();
+    }
+
+    public static MemoryEstimation getMemoryEstimation(
+        boolean loadOutgoing,
+        boolean loadIncoming,
+        boolean loadAsUndirected,
+        GraphDimensions dimensions
+    ) {
+        return getMemoryEstimation(loadOutgoing, loadIncoming, loadAsUndirected, false, dimensions);
+    }
+
+    public static MemoryEstimation getMemoryEstimation(
+        boolean loadOutgoing,
+        boolean loadIncoming,
+        boolean loadAsUndirected,
+        boolean indexAdjacency,
+        GraphDimensions dimensions
+    ) {
+        return getMemoryEstimation(
+            loadOutgoing,
+            loadIncoming,
+            loadAsUndirected,
+            indexAdjacency,
+            AdjacencyCodec.VAR_LONG,
+            dimensions
+        );
     }
 
     public static MemoryEstimation getMemoryEstimation(
         boolean loadOutgoing,
         boolean loadIncoming,
         boolean loadAsUndirected,
+        boolean indexAdjacency,
+        AdjacencyCodec codec,
         GraphDimensions dimensions
     ) {
         MemoryEstimations.Builder builder = MemoryEstimations
@@ -85,7 +131,7 @@ public final class HugeGraphFactory extends GraphFactory {
         // Node properties
         for (ResolvedPropertyMapping resolvedPropertyMapping : dimensions.nodeProperties()) {
             if (resolvedPropertyMapping.exists()) {
-                builder.add(resolvedPropertyMapping.propertyKey(), NodePropertyMap.memoryEstimation());
+                builder.add(resolvedPropertyMapping.propertyKey(), NodePropertiesBuilder.memoryEstimation());
             } else {
                 builder.add(resolvedPropertyMapping.propertyKey(), NullPropertyMap.MEMORY_USAGE);
             }
@@ -110,16 +156,22 @@ public final class HugeGraphFactory extends GraphFactory {
         }
 
         // Adjacency lists and Adjacency offsets
-        MemoryEstimation adjacencyListSize = AdjacencyList.compressedMemoryEstimation(loadAsUndirected);
+        MemoryEstimation adjacencyListSize = AdjacencyList.compressedMemoryEstimation(loadAsUndirected, codec);
         MemoryEstimation adjacencyOffsetsSetup = AdjacencyOffsets.memoryEstimation();
+        MemoryEstimation skipIndexSize = AdjacencySkipIndex.memoryEstimation(loadAsUndirected);
         if (loadOutgoing || loadAsUndirected) {
             builder.add("outgoing", adjacencyListSize);
             builder.add("outgoing offsets", adjacencyOffsetsSetup);
-
+            if (indexAdjacency) {
+                builder.add("outgoing skip index", skipIndexSize);
+            }
         }
         if (loadIncoming && !loadAsUndirected) {
             builder.add("incoming", adjacencyListSize);
             builder.add("incoming offsets", adjacencyOffsetsSetup);
+            if (indexAdjacency) {
+                builder.add("incoming skip index", skipIndexSize);
+            }
         }
 
         return builder.build();
@@ -172,6 +224,19 @@ public final class HugeGraphFactory extends GraphFactory {
                 tracker,
                 mappingAndProperties,
                 concurrency);
+        if (setup.nodeOrdering() != NodeOrdering.NONE) {
+            graphs = new NodeReordering(
+                setup.nodeOrdering(),
+                setup.adjacencyStorage(),
+                setup.adjacencyCodec(),
+                concurrency,
+                threadPool,
+                tracker
+            ).reorder(graphs);
+        }
+        if (setup.indexAdjacency()) {
+            indexAdjacency(graphs, concurrency, tracker);
+        }
         progressLogger.logDone(tracker);
 
         return ImportResult.of(dimensions, GraphsByRelationshipType.of(graphs));
@@ -300,6 +365,48 @@ public final class HugeGraphFactory extends GraphFactory {
                 }));
     }
 
+    /**
+     * Builds the skip indices once per relationship type, all graphs of a type share the same topology.
+     * This runs after an optional node reordering, as the indices point into the final adjacency lists.
+     */
+    private void indexAdjacency(
+        Map<String, Map<String, Graph>> graphs,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        graphs.values().forEach(graphsByProperty -> {
+            Iterator<Graph> graphIterator = graphsByProperty.values().iterator();
+            if (!graphIterator.hasNext()) {
+                return;
+            }
+            HugeGraph first = (HugeGraph) graphIterator.next();
+            long nodeCount = first.nodeCount();
+            Relationships relationships = first.relationships();
+            AdjacencySkipIndex inSkipIndex = skipIndex(relationships.inAdjacency(), relationships.inOffsets(), nodeCount, concurrency, tracker);
+            AdjacencySkipIndex outSkipIndex = skipIndex(relationships.outAdjacency(), relationships.outOffsets(), nodeCount, concurrency, tracker);
+            graphsByProperty.values().forEach(graph -> ((HugeGraph) graph).useSkipIndex(inSkipIndex, outSkipIndex));
+        });
+    }
+
+    private static @Nullable AdjacencySkipIndex skipIndex(
+        @Nullable AdjacencyList adjacencyList,
+        @Nullable AdjacencyOffsets adjacencyOffsets,
+        long nodeCount,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        if (adjacencyList == null) {
+            return null;
+        }
+        return AdjacencySkipIndex.build(
+            adjacencyList,
+            adjacencyOffsets,
+            nodeCount,
+            concurrency,
+            tracker
+        );
+    }
+
     private Pair<RelationshipsBuilder, RelationshipsBuilder> createBuildersForRelationshipType(
         RelationshipProjectionMapping relationshipProjectionMapping,
         AllocationTracker tracker
@@ -329,21 +436,27 @@ public final class HugeGraphFactory extends GraphFactory {
                 outgoingRelationshipsBuilder = new RelationshipsBuilder(
                     deduplicationStrategies,
                     tracker,
-                    setup.relationshipPropertyMappings().numberOfMappings()
+                    setup.relationshipPropertyMappings().numberOfMappings(),
+                    setup.adjacencyStorage(),
+                    setup.adjacencyCodec()
                 );
             } else {
                 if (setup.loadOutgoing()) {
                     outgoingRelationshipsBuilder = new RelationshipsBuilder(
                         deduplicationStrategies,
                         tracker,
-                        setup.relationshipPropertyMappings().numberOfMappings()
+                        setup.relationshipPropertyMappings().numberOfMappings(),
+                        setup.adjacencyStorage(),
+                        setup.adjacencyCodec()
                     );
                 }
                 if (setup.loadIncoming()) {
                     incomingRelationshipsBuilder = new RelationshipsBuilder(
                         deduplicationStrategies,
                         tracker,
-                        setup.relationshipPropertyMappings().numberOfMappings()
+                        setup.relationshipPropertyMappings().numberOfMappings(),
+                        setup.adjacencyStorage(),
+                        setup.adjacencyCodec()
                     );
                 }
             }
@@ -352,14 +465,18 @@ public final class HugeGraphFactory extends GraphFactory {
                 outgoingRelationshipsBuilder = new RelationshipsBuilder(
                     deduplicationStrategies,
                     tracker,
-                    setup.relationshipPropertyMappings().numberOfMappings()
+                    setup.relationshipPropertyMappings().numberOfMappings(),
+                    setup.adjacencyStorage(),
+                    setup.adjacencyCodec()
                 );
             }
             if (relationshipProjectionMapping.projection() == Projection.REVERSE) {
                 incomingRelationshipsBuilder = new RelationshipsBuilder(
                     deduplicationStrategies,
                     tracker,
-                    setup.relationshipPropertyMappings().numberOfMappings()
+                    setup.relationshipPropertyMappings().numberOfMappings(),
+                    setup.adjacencyStorage(),
+                    setup.adjacencyCodec()
                 );
             }
         }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Selects how the internal node ids are relabeled after the graph has been imported.
+ * Without reordering, internal ids are assigned in store-scan order.
+ * Reordering places nodes that are accessed together close to each other, so that
+ * neighbour accesses into node-indexed arrays stay within fewer pages.
+ */
+public enum NodeOrdering {
+    /**
+     * Keep the store-scan order.
+     */
+    NONE,
+    /**
+     * Order nodes by descending degree, so that hubs share the first pages.
+     */
+    DEGREE,
+    /**
+     * Order nodes by a breadth-first traversal, so that neighbours get nearby ids.
+     */
+    BFS,
+    /**
+     * Order nodes by greedily merged communities in the style of Rabbit Order,
+     * so that members of the same community get consecutive ids.
+     */
+    COMMUNITY;
+
+    public static NodeOrdering parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof NodeOrdering) {
+            return (NodeOrdering) object;
+        }
+        if (object instanceof String) {
+            try {
+                return NodeOrdering.valueOf(((String) object).toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                // fall through to the error listing the valid values
+            }
+        }
+        String availableOrderings = Arrays
+            .stream(NodeOrdering.values())
+            .map(NodeOrdering::name)
+            .collect(Collectors.joining(", "));
+        throw new IllegalArgumentException(String.format(
+            "Node ordering `%s` is not supported. Must be one of: %s.",
+            object,
+            availableOrderings
+        ));
+    }
+}
@@ -20,16 +20,37 @@
 package org.neo4j.graphalgo.core.loading;
 
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedLongDoubleMap;
 import org.neo4j.kernel.api.StatementConstants;
 
+import java.util.OptionalLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Collects node property values during import into a sparse {@link PagedLongDoubleMap} and
+ * decides on {@link #build()} which layout to keep:
+ * If at least {@link #DENSE_PROPERTY_RATIO} of all nodes have a value, the values are
+ * copied into a {@link DenseNodePropertyMap}, otherwise the sparse map is kept as {@link NodePropertyMap}.
+ */
 public final class NodePropertiesBuilder {
 
+    /**
+     * A sparse entry costs about three times as much as a dense one, due to the stored key
+     * and the load factor of the underlying hash maps. Below this ratio the sparse layout is smaller.
+     */
+    static final double DENSE_PROPERTY_RATIO = 0.25;
+
+    private final long numberOfNodes;
     private final double defaultValue;
     private final int propertyId;
     private final PagedLongDoubleMap properties;
     private final String propertyKey;
+    private final AllocationTracker tracker;
 
     public static NodePropertiesBuilder of(
             long numberOfNodes,
@@ -38,19 +59,75 @@ public final class NodePropertiesBuilder {
             int propertyId,
             String propertyKey) {
         assert propertyId != StatementConstants.NO_SUCH_PROPERTY_KEY;
-        PagedLongDoubleMap properties = PagedLongDoubleMap.of(numberOfNodes, tracker);
-        return new NodePropertiesBuilder(defaultValue, propertyId, properties, propertyKey);
+        return new NodePropertiesBuilder(numberOfNodes, defaultValue, propertyId, propertyKey, tracker);
+    }
+
+    /**
+     * Creates a builder for properties that are not backed by a property key, e.g. when restoring a snapshot.
+     */
+    static NodePropertiesBuilder of(long numberOfNodes, double defaultValue, AllocationTracker tracker) {
+        return new NodePropertiesBuilder(
+                numberOfNodes,
+                defaultValue,
+                StatementConstants.NO_SUCH_PROPERTY_KEY,
+                "",
+                tracker);
+    }
+
+    /**
+     * Copies the values of {@code properties} into new {@link NodeProperties} with {@code nodeCount} nodes,
+     * e.g. after relabeling the nodes. The value of a node is read from {@code sourceNodeId(nodeId)}.
+     */
+    static NodeProperties copyOf(
+            NodeProperties properties,
+            long nodeCount,
+            LongUnaryOperator sourceNodeId,
+            AllocationTracker tracker) {
+        double defaultValue = Double.NaN;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long sourceId = sourceNodeId.applyAsLong(nodeId);
+            if (Double.isNaN(properties.nodeProperty(sourceId, Double.NaN))) {
+                defaultValue = properties.nodeProperty(sourceId);
+                break;
+            }
+        }
+        NodePropertiesBuilder builder = of(nodeCount, defaultValue, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            double value = properties.nodeProperty(sourceNodeId.applyAsLong(nodeId), Double.NaN);
+            if (!Double.isNaN(value)) {
+                builder.set(nodeId, value);
+            }
+        }
+        return builder.build();
+    }
+
+    private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations
+            .builder(NodePropertiesBuilder.class)
+            .add("sparse values", PagedLongDoubleMap.memoryEstimation())
+            .add("dense values", DenseNodePropertyMap.memoryEstimation())
+            .build();
+
+    /**
+     * Estimates the peak memory of building the {@link NodeProperties}, which is reached when the
+     * collected sparse map is copied into the dense layout. A sparse map is only kept if it is smaller
+     * than the dense layout, so this is also an upper bound for the built properties.
+     */
+    static MemoryEstimation memoryEstimation() {
+        return MEMORY_ESTIMATION;
     }
 
     private NodePropertiesBuilder(
+            final long numberOfNodes,
             final double defaultValue,
             final int propertyId,
-            final PagedLongDoubleMap properties,
-            final String propertyKey) {
+            final String propertyKey,
+            final AllocationTracker tracker) {
+        this.numberOfNodes = numberOfNodes;
         this.defaultValue = defaultValue;
         this.propertyId = propertyId;
-        this.properties = properties;
+        this.properties = PagedLongDoubleMap.of(numberOfNodes, tracker);
         this.propertyKey = propertyKey;
+        this.tracker = tracker;
     }
 
     double defaultValue() {
@@ -70,6 +147,21 @@ public final class NodePropertiesBuilder {
     }
 
     public NodeProperties build() {
-        return new NodePropertyMap(properties, defaultValue);
+        long size = properties.size();
+        if (size == 0 || size < numberOfNodes * DENSE_PROPERTY_RATIO) {
+            return new NodePropertyMap(properties, defaultValue);
+        }
+
+        OptionalLong maxValue = properties.getMaxValue();
+        HugeDoubleArray values = HugeDoubleArray.newArray(numberOfNodes, tracker);
+        HugeAtomicBitSet presence = size < numberOfNodes ? HugeAtomicBitSet.create(numberOfNodes, tracker) : null;
+        properties.forEach((nodeId, value) -> {
+            values.set(nodeId, value);
+            if (presence != null) {
+                presence.set(nodeId);
+            }
+        });
+        properties.release();
+        return new DenseNodePropertyMap(values, presence, defaultValue, size, maxValue);
     }
 }
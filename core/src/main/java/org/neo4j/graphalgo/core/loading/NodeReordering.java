@@ -0,0 +1,649 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.apache.lucene.util.InPlaceMergeSorter;
+import org.apache.lucene.util.LongsRef;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Relabels the internal node ids of freshly imported graphs according to a {@link NodeOrdering}.
+ *
+ * The order is computed on the topology of the first graph, all graphs must share the same {@link IdMap}.
+ * The id map, the node properties and all adjacency lists are rewritten to the new ids,
+ * adjacency lists are written in the new node order, so that consecutive nodes also
+ * have their relationships next to each other.
+ * The original node ids are unaffected, so that results written through
+ * {@link IdMap#toOriginalNodeId(long)} do not change.
+ */
+final class NodeReordering {
+
+    private static final long NO_NODE = -1L;
+
+    private final NodeOrdering ordering;
+    private final AdjacencyStorage storage;
+    private final AdjacencyCodec codec;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    NodeReordering(
+        NodeOrdering ordering,
+        AdjacencyStorage storage,
+        AdjacencyCodec codec,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        this.ordering = ordering;
+        this.storage = storage;
+        this.codec = codec;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Estimates the memory that reordering needs on top of the graph described by {@code graph}:
+     * the graph is rewritten while the original is still alive, so it is accounted for a second time,
+     * together with the mappings between old and new ids and the temporary arrays of the ordering.
+     */
+    static MemoryEstimation memoryEstimation(NodeOrdering ordering, MemoryEstimation graph) {
+        return MemoryEstimations.builder(NodeReordering.class)
+            .add("reordered graph", graph)
+            .perNode("newToOld, oldToNew", nodeCount -> 2 * HugeLongArray.memoryEstimation(nodeCount))
+            .perNode("node ordering", nodeCount -> orderingMemory(ordering, nodeCount))
+            .build();
+    }
+
+    private static long orderingMemory(NodeOrdering ordering, long nodeCount) {
+        switch (ordering) {
+            case BFS:
+                // start nodes and visited set
+                return HugeLongArray.memoryEstimation(nodeCount) + sizeOfLongArray(BitSet.bits2words(nodeCount));
+            case COMMUNITY:
+                // merge order, communities, volumes, first child, next sibling and the traversal stack
+                return 5 * HugeLongArray.memoryEstimation(nodeCount) + HugeDoubleArray.memoryEstimation(nodeCount);
+            default:
+                return 0L;
+        }
+    }
+
+    Map<String, Map<String, Graph>> reorder(Map<String, Map<String, Graph>> graphs) {
+        HugeGraph topology = graphs.values().stream()
+            .flatMap(graphsByProperty -> graphsByProperty.values().stream())
+            .map(HugeGraph.class::cast)
+            .findFirst()
+            .orElse(null);
+        if (topology == null) {
+            return graphs;
+        }
+
+        Direction direction = topology.getLoadDirection();
+        HugeLongArray newToOld = order(topology, direction);
+        HugeLongArray oldToNew = HugeLongArray.newArray(newToOld.size(), tracker);
+        for (long nodeId = 0; nodeId < newToOld.size(); nodeId++) {
+            oldToNew.set(newToOld.get(nodeId), nodeId);
+        }
+
+        IdMap idMap = reorder(topology.idMapping(), newToOld);
+        Map<String, NodeProperties> nodeProperties = reorder(topology.nodeProperties(), newToOld);
+
+        Map<AdjacencyList, Rewritten> rewrittenTopologies = new IdentityHashMap<>();
+        Map<String, Map<String, Graph>> reordered = new HashMap<>();
+        graphs.forEach((relationshipType, graphsByProperty) -> {
+            Map<String, Graph> reorderedByProperty = new HashMap<>();
+            graphsByProperty.forEach((propertyKey, graph) -> reorderedByProperty.put(
+                propertyKey,
+                reorder((HugeGraph) graph, idMap, nodeProperties, newToOld, oldToNew, rewrittenTopologies)
+            ));
+            reordered.put(relationshipType, reorderedByProperty);
+        });
+
+        graphs.values().forEach(graphsByProperty -> graphsByProperty.values().forEach(Graph::releaseTopology));
+        topology.releaseProperties();
+        tracker.remove(newToOld.release());
+        tracker.remove(oldToNew.release());
+        return reordered;
+    }
+
+    private HugeGraph reorder(
+        HugeGraph graph,
+        IdMap idMap,
+        Map<String, NodeProperties> nodeProperties,
+        HugeLongArray newToOld,
+        HugeLongArray oldToNew,
+        Map<AdjacencyList, Rewritten> rewrittenTopologies
+    ) {
+        Relationships relationships = graph.relationships();
+        Rewritten out = rewrite(
+            graph,
+            Direction.OUTGOING,
+            idMap,
+            newToOld,
+            oldToNew,
+            relationships.outAdjacency(),
+            relationships.outRelProperties() != null,
+            rewrittenTopologies
+        );
+        Rewritten in = rewrite(
+            graph,
+            Direction.INCOMING,
+            idMap,
+            newToOld,
+            oldToNew,
+            relationships.inAdjacency(),
+            relationships.inRelProperties() != null,
+            rewrittenTopologies
+        );
+
+        return HugeGraph.create(
+            tracker,
+            idMap,
+            nodeProperties,
+            graph.relationshipCount(),
+            in != null ? in.adjacency : null,
+            out != null ? out.adjacency : null,
+            in != null ? in.offsets : null,
+            out != null ? out.offsets : null,
+            relationships.maybeDefaultRelProperty(),
+            Optional.ofNullable(in != null ? in.properties : null),
+            Optional.ofNullable(out != null ? out.properties : null),
+            Optional.ofNullable(in != null ? in.propertyOffsets : null),
+            Optional.ofNullable(out != null ? out.propertyOffsets : null),
+            graph.isUndirected()
+        );
+    }
+
+    private HugeLongArray order(HugeGraph graph, Direction direction) {
+        switch (ordering) {
+            case DEGREE:
+                return degreeOrder(graph, direction, true);
+            case BFS:
+                return bfsOrder(graph, direction);
+            case COMMUNITY:
+                return communityOrder(graph, direction);
+            default:
+                throw new IllegalArgumentException("Unsupported node ordering: " + ordering);
+        }
+    }
+
+    /**
+     * Counting sort of all nodes by their degree, ties are kept in id order.
+     */
+    private HugeLongArray degreeOrder(Graph graph, Direction direction, boolean descending) {
+        long nodeCount = graph.nodeCount();
+        int maxDegree = 0;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            maxDegree = Math.max(maxDegree, graph.degree(nodeId, direction));
+        }
+
+        long[] bucketStarts = new long[maxDegree + 2];
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            bucketStarts[bucket(graph.degree(nodeId, direction), maxDegree, descending) + 1]++;
+        }
+        for (int i = 1; i < bucketStarts.length; i++) {
+            bucketStarts[i] += bucketStarts[i - 1];
+        }
+
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            order.set(bucketStarts[bucket(graph.degree(nodeId, direction), maxDegree, descending)]++, nodeId);
+        }
+        return order;
+    }
+
+    private static int bucket(int degree, int maxDegree, boolean descending) {
+        return descending ? maxDegree - degree : degree;
+    }
+
+    /**
+     * Breadth-first traversal, starting new traversals from the unvisited node with the highest degree.
+     */
+    private HugeLongArray bfsOrder(Graph graph, Direction direction) {
+        long nodeCount = graph.nodeCount();
+        HugeLongArray startNodes = degreeOrder(graph, direction, true);
+        // the order doubles as the queue of the traversal
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        BitSet visited = new BitSet(nodeCount);
+        long[] targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+
+        long tail = 0L;
+        for (long i = 0; i < nodeCount; i++) {
+            long startNode = startNodes.get(i);
+            if (visited.getAndSet(startNode)) {
+                continue;
+            }
+            long head = tail;
+            order.set(tail++, startNode);
+            while (head < tail) {
+                RelationshipBatchCursor cursor = graph.batchCursor(order.get(head++), direction);
+                int count;
+                while ((count = cursor.nextBatch(targets)) > 0) {
+                    for (int j = 0; j < count; j++) {
+                        if (!visited.getAndSet(targets[j])) {
+                            order.set(tail++, targets[j]);
+                        }
+                    }
+                }
+            }
+        }
+
+        tracker.remove(startNodes.release());
+        return order;
+    }
+
+    /**
+     * A sequential variant of Rabbit Order: Nodes are visited by increasing degree and merged into the
+     * neighbouring community with the highest positive modularity gain. Only the relationships of the
+     * merged node are considered, relationships of previously merged members are not aggregated.
+     * The merges form a dendrogram which is traversed depth-first, so that every community
+     * is assigned a consecutive range of ids.
+     */
+    private HugeLongArray communityOrder(Graph graph, Direction direction) {
+        long nodeCount = graph.nodeCount();
+        HugeLongArray mergeOrder = degreeOrder(graph, direction, false);
+
+        HugeLongArray communities = HugeLongArray.newArray(nodeCount, tracker);
+        communities.setAll(nodeId -> nodeId);
+        HugeDoubleArray volumes = HugeDoubleArray.newArray(nodeCount, tracker);
+        double totalVolume = 0.0;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int degree = graph.degree(nodeId, direction);
+            volumes.set(nodeId, degree);
+            totalVolume += degree;
+        }
+        HugeLongArray firstChild = HugeLongArray.newArray(nodeCount, tracker);
+        firstChild.fill(NO_NODE);
+        HugeLongArray nextSibling = HugeLongArray.newArray(nodeCount, tracker);
+        nextSibling.fill(NO_NODE);
+
+        LongDoubleHashMap communityWeights = new LongDoubleHashMap();
+        long[] targets = new long[RelationshipBatchCursor.BATCH_SIZE];
+        for (long i = 0; i < nodeCount; i++) {
+            long nodeId = mergeOrder.get(i);
+            communityWeights.clear();
+            RelationshipBatchCursor cursor = graph.batchCursor(nodeId, direction);
+            int count;
+            while ((count = cursor.nextBatch(targets)) > 0) {
+                for (int j = 0; j < count; j++) {
+                    long community = find(communities, targets[j]);
+                    if (community != nodeId) {
+                        communityWeights.addTo(community, 1.0);
+                    }
+                }
+            }
+
+            double volume = volumes.get(nodeId);
+            long bestCommunity = NO_NODE;
+            double bestGain = 0.0;
+            for (LongDoubleCursor entry : communityWeights) {
+                double gain = entry.value - volume * volumes.get(entry.key) / totalVolume;
+                if (gain > bestGain || (gain == bestGain && gain > 0.0 && entry.key < bestCommunity)) {
+                    bestGain = gain;
+                    bestCommunity = entry.key;
+                }
+            }
+
+            if (bestCommunity != NO_NODE) {
+                communities.set(nodeId, bestCommunity);
+                volumes.addTo(bestCommunity, volume);
+                nextSibling.set(nodeId, firstChild.get(bestCommunity));
+                firstChild.set(bestCommunity, nodeId);
+            }
+        }
+        tracker.remove(volumes.release());
+
+        // depth-first traversal of the dendrogram, the largest communities were merged last
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray stack = HugeLongArray.newArray(nodeCount, tracker);
+        long next = 0L;
+        for (long i = nodeCount - 1; i >= 0; i--) {
+            long root = mergeOrder.get(i);
+            if (communities.get(root) != root) {
+                continue;
+            }
+            long stackSize = 0L;
+            stack.set(stackSize++, root);
+            while (stackSize > 0) {
+                long nodeId = stack.get(--stackSize);
+                order.set(next++, nodeId);
+                for (long child = firstChild.get(nodeId); child != NO_NODE; child = nextSibling.get(child)) {
+                    stack.set(stackSize++, child);
+                }
+            }
+        }
+
+        tracker.remove(stack.release());
+        tracker.remove(firstChild.release());
+        tracker.remove(nextSibling.release());
+        tracker.remove(communities.release());
+        tracker.remove(mergeOrder.release());
+        return order;
+    }
+
+    private static long find(HugeLongArray communities, long nodeId) {
+        long parent;
+        while ((parent = communities.get(nodeId)) != nodeId) {
+            long grandParent = communities.get(parent);
+            communities.set(nodeId, grandParent);
+            nodeId = grandParent;
+        }
+        return nodeId;
+    }
+
+    private IdMap reorder(IdMap idMap, HugeLongArray newToOld) {
+        long nodeCount = idMap.nodeCount();
+        HugeLongArray graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        long highestNeoId = -1L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long neoId = idMap.toOriginalNodeId(newToOld.get(nodeId));
+            graphIds.set(nodeId, neoId);
+            highestNeoId = Math.max(highestNeoId, neoId);
+        }
+        SparseNodeMapping.Builder nodeMappingBuilder = SparseNodeMapping.Builder.create(highestNeoId + 1, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            nodeMappingBuilder.set(graphIds.get(nodeId), nodeId);
+        }
+        return new IdMap(graphIds, nodeMappingBuilder.build(), nodeCount);
+    }
+
+    private Map<String, NodeProperties> reorder(Map<String, NodeProperties> nodeProperties, HugeLongArray newToOld) {
+        Map<String, NodeProperties> reordered = new HashMap<>();
+        nodeProperties.forEach((propertyKey, properties) -> {
+            if (properties instanceof NullPropertyMap) {
+                reordered.put(propertyKey, properties);
+                return;
+            }
+            reordered.put(propertyKey, NodePropertiesBuilder.copyOf(properties, newToOld.size(), newToOld::get, tracker));
+        });
+        return reordered;
+    }
+
+    private @Nullable Rewritten rewrite(
+        HugeGraph graph,
+        Direction direction,
+        IdMap idMap,
+        HugeLongArray newToOld,
+        HugeLongArray oldToNew,
+        @Nullable AdjacencyList adjacency,
+        boolean hasProperties,
+        Map<AdjacencyList, Rewritten> rewrittenTopologies
+    ) {
+        if (adjacency == null) {
+            return null;
+        }
+        Rewritten topology = rewrittenTopologies.get(adjacency);
+        if (topology != null && !hasProperties) {
+            return topology;
+        }
+
+        long nodeCount = idMap.nodeCount();
+        ImportSizing sizing = ImportSizing.of(concurrency, nodeCount);
+        int pageSize = sizing.pageSize();
+        int numberOfPages = sizing.numberOfPages();
+
+        AdjacencyListBuilder adjacencyBuilder = topology == null
+            ? AdjacencyListBuilder.newBuilder(tracker, storage, codec)
+            : null;
+        AdjacencyListBuilder propertiesBuilder = hasProperties
+            ? AdjacencyListBuilder.newBuilder(tracker, storage)
+            : null;
+        long[][] adjacencyOffsets = topology == null ? new long[numberOfPages][] : null;
+        long[][] propertyOffsets = hasProperties ? new long[numberOfPages][] : null;
+
+        List<Runnable> tasks = new ArrayList<>(numberOfPages);
+        for (int pageIndex = 0; pageIndex < numberOfPages; pageIndex++) {
+            long startNode = (long) pageIndex * pageSize;
+            long endNode = Math.min(nodeCount, startNode + pageSize);
+            if (adjacencyOffsets != null) {
+                tracker.add(sizeOfLongArray(pageSize));
+                adjacencyOffsets[pageIndex] = new long[pageSize];
+            }
+            if (propertyOffsets != null) {
+                tracker.add(sizeOfLongArray(pageSize));
+                propertyOffsets[pageIndex] = new long[pageSize];
+            }
+            tasks.add(new RewriteTask(
+                graph.concurrentCopy(),
+                codec,
+                direction,
+                newToOld,
+                oldToNew,
+                startNode,
+                endNode,
+                adjacencyBuilder != null ? adjacencyBuilder.newAllocator() : null,
+                propertiesBuilder != null ? propertiesBuilder.newAllocator() : null,
+                adjacencyOffsets != null ? adjacencyOffsets[pageIndex] : null,
+                propertyOffsets != null ? propertyOffsets[pageIndex] : null
+            ));
+        }
+        if (adjacencyOffsets != null) {
+            tracker.add(sizeOfObjectArray(numberOfPages));
+        }
+        if (propertyOffsets != null) {
+            tracker.add(sizeOfObjectArray(numberOfPages));
+        }
+        ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+
+        if (topology == null) {
+            topology = new Rewritten(
+                adjacencyBuilder.build(),
+                AdjacencyOffsets.of(adjacencyOffsets, pageSize),
+                null,
+                null
+            );
+            rewrittenTopologies.put(adjacency, topology);
+        }
+        if (!hasProperties) {
+            return topology;
+        }
+        return new Rewritten(
+            topology.adjacency,
+            topology.offsets,
+            propertiesBuilder.build(),
+            AdjacencyOffsets.of(propertyOffsets, pageSize)
+        );
+    }
+
+    private static final class Rewritten {
+        final AdjacencyList adjacency;
+        final AdjacencyOffsets offsets;
+        final @Nullable AdjacencyList properties;
+        final @Nullable AdjacencyOffsets propertyOffsets;
+
+        Rewritten(
+            AdjacencyList adjacency,
+            AdjacencyOffsets offsets,
+            @Nullable AdjacencyList properties,
+            @Nullable AdjacencyOffsets propertyOffsets
+        ) {
+            this.adjacency = adjacency;
+            this.offsets = offsets;
+            this.properties = properties;
+            this.propertyOffsets = propertyOffsets;
+        }
+    }
+
+    /**
+     * Writes the relabeled and sorted adjacency lists of a range of new node ids.
+     * If {@code adjacencyAllocator} is {@code null}, only the relationship properties are written,
+     * they are sorted in the same way as the already written adjacency lists.
+     */
+    private static final class RewriteTask extends InPlaceMergeSorter implements Runnable {
+
+        private final Graph graph;
+        private final AdjacencyCodec codec;
+        private final Direction direction;
+        private final HugeLongArray newToOld;
+        private final HugeLongArray oldToNew;
+        private final long startNode;
+        private final long endNode;
+        private final @Nullable AdjacencyListBuilder.Allocator adjacencyAllocator;
+        private final @Nullable AdjacencyListBuilder.Allocator propertiesAllocator;
+        private final @Nullable long[] adjacencyOffsets;
+        private final @Nullable long[] propertyOffsets;
+
+        private final long[] batch;
+        private final double[] batchProperties;
+        private long[] targets;
+        private long[] properties;
+        private byte[] compressed;
+
+        RewriteTask(
+            Graph graph,
+            AdjacencyCodec codec,
+            Direction direction,
+            HugeLongArray newToOld,
+            HugeLongArray oldToNew,
+            long startNode,
+            long endNode,
+            @Nullable AdjacencyListBuilder.Allocator adjacencyAllocator,
+            @Nullable AdjacencyListBuilder.Allocator propertiesAllocator,
+            @Nullable long[] adjacencyOffsets,
+            @Nullable long[] propertyOffsets
+        ) {
+            this.graph = graph;
+            this.codec = codec;
+            this.direction = direction;
+            this.newToOld = newToOld;
+            this.oldToNew = oldToNew;
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.adjacencyAllocator = adjacencyAllocator;
+            this.propertiesAllocator = propertiesAllocator;
+            this.adjacencyOffsets = adjacencyOffsets;
+            this.propertyOffsets = propertyOffsets;
+            this.batch = new long[RelationshipBatchCursor.BATCH_SIZE];
+            this.batchProperties = new double[RelationshipBatchCursor.BATCH_SIZE];
+            this.targets = new long[0];
+            this.properties = new long[0];
+            this.compressed = new byte[0];
+        }
+
+        @Override
+        public void run() {
+            if (adjacencyAllocator != null) {
+                adjacencyAllocator.prepare();
+            }
+            if (propertiesAllocator != null) {
+                propertiesAllocator.prepare();
+            }
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                int localId = (int) (nodeId - startNode);
+                int degree = collect(newToOld.get(nodeId));
+                if (degree == 0) {
+                    continue;
+                }
+                sort(0, degree);
+                if (adjacencyAllocator != null) {
+                    adjacencyOffsets[localId] = writeTargets(degree);
+                }
+                if (propertiesAllocator != null) {
+                    long address = propertiesAllocator.allocate(Integer.BYTES + degree * Long.BYTES);
+                    propertiesAllocator.writeInt(degree);
+                    propertiesAllocator.writeLongs(properties, degree);
+                    propertyOffsets[localId] = address;
+                }
+            }
+        }
+
+        private int collect(long oldNodeId) {
+            int degree = graph.degree(oldNodeId, direction);
+            if (targets.length < degree) {
+                targets = new long[degree];
+                properties = new long[degree];
+            }
+            RelationshipBatchCursor cursor = graph.batchCursor(oldNodeId, direction, Double.NaN);
+            int length = 0;
+            int count;
+            while ((count = cursor.nextBatch(batch, batchProperties)) > 0) {
+                for (int i = 0; i < count; i++, length++) {
+                    targets[length] = oldToNew.get(batch[i]);
+                    properties[length] = Double.doubleToLongBits(batchProperties[i]);
+                }
+            }
+            return length;
+        }
+
+        private long writeTargets(int degree) {
+            for (int i = degree - 1; i > 0; i--) {
+                targets[i] -= targets[i - 1];
+            }
+            int maxSize = Math.max(degree * (Long.BYTES + 2), PackedDeltaEncoding.maxEncodedSize(degree));
+            if (compressed.length < maxSize) {
+                compressed = new byte[maxSize];
+            }
+            int requiredBytes = AdjacencyCompression.compress(
+                new LongsRef(targets, 0, degree),
+                compressed,
+                codec
+            );
+            long address = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
+            adjacencyAllocator.writeInt(degree);
+            adjacencyAllocator.writeBytes(compressed, requiredBytes);
+            return address;
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+            return Long.compare(targets[i], targets[j]);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            long target = targets[i];
+            targets[i] = targets[j];
+            targets[j] = target;
+            long property = properties[i];
+            properties[i] = properties[j];
+            properties[j] = property;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+
+import java.util.Arrays;
+
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodeVLong;
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+
+/**
+ * Bit-packs blocks of {@link AdjacencyCodec#BLOCK_SIZE} deltas, see {@link AdjacencyCodec#PACKED}.
+ *
+ * Every block uses the bit width that minimises its encoded size. Deltas that need more bits than
+ * that width are stored with their lower bits in the packed area and patched with their remaining
+ * bits from an exception list, so that a few large deltas - like the first target of every list -
+ * do not widen the whole block.
+ */
+public final class PackedDeltaEncoding {
+
+    private static final int BLOCK_SIZE = AdjacencyCodec.BLOCK_SIZE;
+    private static final int HEADER_BYTES = 2;
+
+    /**
+     * An upper bound for the number of bytes that {@link #encodeDeltas(long[], int, byte[], int)}
+     * writes for {@code length} deltas.
+     */
+    static int maxEncodedSize(int length) {
+        return (int) ceilDiv(length, BLOCK_SIZE) * HEADER_BYTES + length * Long.BYTES;
+    }
+
+    static int encodeDeltas(long[] values, int length, byte[] out, int into) {
+        for (int start = 0; start < length; start += BLOCK_SIZE) {
+            into = encodeBlock(values, start, Math.min(length, start + BLOCK_SIZE), out, into);
+        }
+        return into;
+    }
+
+    /**
+     * The number of bytes that are needed to encode {@code length} deltas of {@code bits} bits each.
+     */
+    public static long encodedSize(long length, int bits) {
+        long fullBlocks = length / BLOCK_SIZE;
+        int lastBlock = (int) (length % BLOCK_SIZE);
+        long size = fullBlocks * (HEADER_BYTES + ceilDiv(BLOCK_SIZE * bits, Byte.SIZE));
+        if (lastBlock > 0) {
+            size += HEADER_BYTES + ceilDiv(lastBlock * bits, Byte.SIZE);
+        }
+        return size;
+    }
+
+    private static int encodeBlock(long[] values, int start, int end, byte[] out, int into) {
+        int width = bestWidth(values, start, end);
+
+        int exceptions = 0;
+        for (int i = start; i < end; i++) {
+            if (highBits(values[i], width) != 0L) {
+                exceptions++;
+            }
+        }
+
+        out[into++] = (byte) width;
+        out[into++] = (byte) exceptions;
+        into = pack(values, start, end, width, out, into);
+
+        if (exceptions > 0) {
+            for (int i = start; i < end; i++) {
+                long high = highBits(values[i], width);
+                if (high != 0L) {
+                    out[into++] = (byte) (i - start);
+                    into = encodeVLong(out, high, into);
+                }
+            }
+        }
+        return into;
+    }
+
+    private static int pack(long[] values, int start, int end, int width, byte[] out, int into) {
+        int bytes = (int) ceilDiv((end - start) * width, Byte.SIZE);
+        if (width == 0) {
+            return into;
+        }
+        Arrays.fill(out, into, into + bytes, (byte) 0);
+        long mask = width == Long.SIZE ? -1L : (1L << width) - 1L;
+        int bitPosition = 0;
+        for (int i = start; i < end; i++, bitPosition += width) {
+            long value = values[i] & mask;
+            int index = into + (bitPosition >>> 3);
+            int shift = bitPosition & 7;
+            int usedBytes = (int) Math.min(Long.BYTES, ceilDiv(shift + width, Byte.SIZE));
+            long shifted = value << shift;
+            for (int j = 0; j < usedBytes; j++) {
+                out[index + j] |= (byte) (shifted >>> (j << 3));
+            }
+            if (shift + width > Long.SIZE) {
+                out[index + Long.BYTES] |= (byte) (value >>> (Long.SIZE - shift));
+            }
+        }
+        return into + bytes;
+    }
+
+    /**
+     * Picks the bit width with the smallest encoded size of the block,
+     * based on a histogram of the number of significant bits of each delta.
+     */
+    private static int bestWidth(long[] values, int start, int end) {
+        int[] histogram = new int[Long.SIZE + 1];
+        int maxBits = 0;
+        for (int i = start; i < end; i++) {
+            int bits = Long.SIZE - Long.numberOfLeadingZeros(values[i]);
+            histogram[bits]++;
+            maxBits = Math.max(maxBits, bits);
+        }
+
+        int length = end - start;
+        int bestWidth = maxBits;
+        long bestSize = ceilDiv(length * maxBits, Byte.SIZE);
+        for (int width = 0; width < maxBits; width++) {
+            long size = ceilDiv(length * width, Byte.SIZE);
+            for (int bits = width + 1; bits <= maxBits; bits++) {
+                // index byte + variable-length remainder
+                size += histogram[bits] * (1L + ceilDiv(bits - width, 7));
+            }
+            if (size < bestSize) {
+                bestSize = size;
+                bestWidth = width;
+            }
+        }
+        return bestWidth;
+    }
+
+    private static long highBits(long value, int width) {
+        return width == Long.SIZE ? 0L : value >>> width;
+    }
+
+    private PackedDeltaEncoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.apache.lucene.util.InPlaceMergeSorter;
+import org.apache.lucene.util.LongsRef;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.AdjacencySkipIndex;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Merges the adjacency lists of several relationship types into a single compressed adjacency list.
+ *
+ * A {@link org.neo4j.graphalgo.core.huge.UnionGraph} visits the adjacency list of every type for each node,
+ * the merged graph only has one sorted adjacency list per node, which is also the basis for
+ * relationship existence checks and for removing parallel relationships of different types.
+ * All graphs must share the same {@link IdMap} and have been loaded in the same direction.
+ * The adjacency lists are written in parallel, one task per {@link ImportSizing} page.
+ */
+final class RelationshipTypeMerger {
+
+    private final AdjacencyStorage storage;
+    private final AdjacencyCodec codec;
+    private final DeduplicationStrategy deduplicationStrategy;
+    private final boolean indexAdjacency;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    RelationshipTypeMerger(
+        AdjacencyStorage storage,
+        AdjacencyCodec codec,
+        DeduplicationStrategy deduplicationStrategy,
+        boolean indexAdjacency,
+        int concurrency,
+        ExecutorService executor
+    ) {
+        this.storage = storage;
+        this.codec = codec;
+        this.deduplicationStrategy = deduplicationStrategy == DeduplicationStrategy.DEFAULT
+            ? DeduplicationStrategy.NONE
+            : deduplicationStrategy;
+        this.indexAdjacency = indexAdjacency;
+        this.concurrency = concurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns {@code true} if the graphs can be merged, which requires them to be {@link HugeGraph}s
+     * that share the same id map, load direction and default relationship property.
+     */
+    static boolean canMerge(List<? extends Graph> graphs) {
+        if (graphs.size() < 2) {
+            return false;
+        }
+        HugeGraph first = null;
+        for (Graph graph : graphs) {
+            if (!(graph instanceof HugeGraph)) {
+                return false;
+            }
+            HugeGraph hugeGraph = (HugeGraph) graph;
+            if (first == null) {
+                first = hugeGraph;
+            } else if (hugeGraph.idMapping() != first.idMapping()
+                       || hugeGraph.getLoadDirection() != first.getLoadDirection()
+                       || hugeGraph.isUndirected() != first.isUndirected()
+                       || hugeGraph.hasRelationshipProperty() != first.hasRelationshipProperty()
+                       || !hugeGraph.relationships().maybeDefaultRelProperty().equals(first.relationships().maybeDefaultRelProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    HugeGraph merge(List<? extends Graph> graphs) {
+        assert canMerge(graphs);
+        HugeGraph first = (HugeGraph) graphs.get(0);
+        Direction loadDirection = first.getLoadDirection();
+        boolean hasProperties = first.hasRelationshipProperty();
+        // the merged graph is accounted for like the graphs it has been merged from
+        AllocationTracker tracker = first.tracker();
+
+        Merged outgoing = loadDirection != Direction.INCOMING
+            ? merge(graphs, Direction.OUTGOING, hasProperties, tracker)
+            : null;
+        Merged incoming = loadDirection != Direction.OUTGOING
+            ? merge(graphs, Direction.INCOMING, hasProperties, tracker)
+            : null;
+        long relationshipCount = outgoing != null ? outgoing.relationshipCount : incoming.relationshipCount;
+
+        HugeGraph merged = HugeGraph.create(
+            tracker,
+            first.idMapping(),
+            first.nodeProperties(),
+            relationshipCount,
+            incoming != null ? incoming.adjacency : null,
+            outgoing != null ? outgoing.adjacency : null,
+            incoming != null ? incoming.offsets : null,
+            outgoing != null ? outgoing.offsets : null,
+            first.relationships().maybeDefaultRelProperty(),
+            Optional.ofNullable(incoming != null ? incoming.properties : null),
+            Optional.ofNullable(outgoing != null ? outgoing.properties : null),
+            Optional.ofNullable(incoming != null ? incoming.propertyOffsets : null),
+            Optional.ofNullable(outgoing != null ? outgoing.propertyOffsets : null),
+            first.isUndirected()
+        );
+        if (indexAdjacency) {
+            merged.useSkipIndex(
+                skipIndex(incoming, first.nodeCount(), tracker),
+                skipIndex(outgoing, first.nodeCount(), tracker)
+            );
+        }
+        return merged;
+    }
+
+    private @Nullable AdjacencySkipIndex skipIndex(@Nullable Merged merged, long nodeCount, AllocationTracker tracker) {
+        if (merged == null) {
+            return null;
+        }
+        return AdjacencySkipIndex.build(merged.adjacency, merged.offsets, nodeCount, concurrency, tracker);
+    }
+
+    private Merged merge(
+        List<? extends Graph> graphs,
+        Direction direction,
+        boolean hasProperties,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = graphs.get(0).nodeCount();
+        ImportSizing sizing = ImportSizing.of(concurrency, nodeCount);
+        int pageSize = sizing.pageSize();
+        int numberOfPages = sizing.numberOfPages();
+
+        AdjacencyListBuilder adjacencyBuilder = AdjacencyListBuilder.newBuilder(tracker, storage, codec);
+        AdjacencyListBuilder propertiesBuilder = hasProperties
+            ? AdjacencyListBuilder.newBuilder(tracker, storage)
+            : null;
+        long[][] adjacencyOffsets = new long[numberOfPages][];
+        long[][] propertyOffsets = hasProperties ? new long[numberOfPages][] : null;
+        tracker.add(sizeOfObjectArray(numberOfPages) * (hasProperties ? 2 : 1));
+
+        List<MergeTask> tasks = new ArrayList<>(numberOfPages);
+        for (int pageIndex = 0; pageIndex < numberOfPages; pageIndex++) {
+            long startNode = (long) pageIndex * pageSize;
+            long endNode = Math.min(nodeCount, startNode + pageSize);
+            adjacencyOffsets[pageIndex] = new long[pageSize];
+            tracker.add(sizeOfLongArray(pageSize));
+            if (propertyOffsets != null) {
+                propertyOffsets[pageIndex] = new long[pageSize];
+                tracker.add(sizeOfLongArray(pageSize));
+            }
+            List<Graph> copies = new ArrayList<>(graphs.size());
+            for (Graph graph : graphs) {
+                copies.add(graph.concurrentCopy());
+            }
+            tasks.add(new MergeTask(
+                copies,
+                codec,
+                direction,
+                deduplicationStrategy,
+                startNode,
+                endNode,
+                adjacencyBuilder.newAllocator(),
+                propertiesBuilder != null ? propertiesBuilder.newAllocator() : null,
+                adjacencyOffsets[pageIndex],
+                propertyOffsets != null ? propertyOffsets[pageIndex] : null
+            ));
+        }
+        ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+
+        long relationshipCount = 0L;
+        for (MergeTask task : tasks) {
+            relationshipCount += task.relationshipCount;
+        }
+        return new Merged(
+            adjacencyBuilder.build(),
+            AdjacencyOffsets.of(adjacencyOffsets, pageSize),
+            propertiesBuilder != null ? propertiesBuilder.build() : null,
+            propertyOffsets != null ? AdjacencyOffsets.of(propertyOffsets, pageSize) : null,
+            relationshipCount
+        );
+    }
+
+    private static final class Merged {
+        final AdjacencyList adjacency;
+        final AdjacencyOffsets offsets;
+        final @Nullable AdjacencyList properties;
+        final @Nullable AdjacencyOffsets propertyOffsets;
+        final long relationshipCount;
+
+        Merged(
+            AdjacencyList adjacency,
+            AdjacencyOffsets offsets,
+            @Nullable AdjacencyList properties,
+            @Nullable AdjacencyOffsets propertyOffsets,
+            long relationshipCount
+        ) {
+            this.adjacency = adjacency;
+            this.offsets = offsets;
+            this.properties = properties;
+            this.propertyOffsets = propertyOffsets;
+            this.relationshipCount = relationshipCount;
+        }
+    }
+
+    /**
+     * Collects the relationships of a range of nodes from all graphs, sorts them by target and
+     * writes them as a single adjacency list per node.
+     * Unless the deduplication strategy is {@link DeduplicationStrategy#NONE}, relationships to the same target
+     * are merged into one relationship, whose property is aggregated by the strategy.
+     */
+    private static final class MergeTask extends InPlaceMergeSorter implements Runnable {
+
+        private final List<Graph> graphs;
+        private final AdjacencyCodec codec;
+        private final Direction direction;
+        private final DeduplicationStrategy deduplicationStrategy;
+        private final long startNode;
+        private final long endNode;
+        private final AdjacencyListBuilder.Allocator adjacencyAllocator;
+        private final @Nullable AdjacencyListBuilder.Allocator propertiesAllocator;
+        private final long[] adjacencyOffsets;
+        private final @Nullable long[] propertyOffsets;
+
+        private final long[] batch;
+        private final double[] batchProperties;
+        private long[] targets;
+        private double[] properties;
+        private long[] propertyBits;
+        private byte[] compressed;
+        private long relationshipCount;
+
+        MergeTask(
+            List<Graph> graphs,
+            AdjacencyCodec codec,
+            Direction direction,
+            DeduplicationStrategy deduplicationStrategy,
+            long startNode,
+            long endNode,
+            AdjacencyListBuilder.Allocator adjacencyAllocator,
+            @Nullable AdjacencyListBuilder.Allocator propertiesAllocator,
+            long[] adjacencyOffsets,
+            @Nullable long[] propertyOffsets
+        ) {
+            this.graphs = graphs;
+            this.codec = codec;
+            this.direction = direction;
+            this.deduplicationStrategy = deduplicationStrategy;
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.adjacencyAllocator = adjacencyAllocator;
+            this.propertiesAllocator = propertiesAllocator;
+            this.adjacencyOffsets = adjacencyOffsets;
+            this.propertyOffsets = propertyOffsets;
+            this.batch = new long[RelationshipBatchCursor.BATCH_SIZE];
+            this.batchProperties = new double[RelationshipBatchCursor.BATCH_SIZE];
+            this.targets = new long[0];
+            this.properties = new double[0];
+            this.propertyBits = new long[0];
+            this.compressed = new byte[0];
+        }
+
+        @Override
+        public void run() {
+            adjacencyAllocator.prepare();
+            if (propertiesAllocator != null) {
+                propertiesAllocator.prepare();
+            }
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                int localId = (int) (nodeId - startNode);
+                int degree = collect(nodeId);
+                if (degree == 0) {
+                    continue;
+                }
+                sort(0, degree);
+                if (deduplicationStrategy != DeduplicationStrategy.NONE) {
+                    degree = deduplicate(degree);
+                }
+                relationshipCount += degree;
+                if (propertiesAllocator != null) {
+                    for (int i = 0; i < degree; i++) {
+                        propertyBits[i] = Double.doubleToLongBits(properties[i]);
+                    }
+                    long address = propertiesAllocator.allocate(Integer.BYTES + degree * Long.BYTES);
+                    propertiesAllocator.writeInt(degree);
+                    propertiesAllocator.writeLongs(propertyBits, degree);
+                    propertyOffsets[localId] = address;
+                }
+                adjacencyOffsets[localId] = writeTargets(degree);
+            }
+        }
+
+        private int collect(long nodeId) {
+            int degree = 0;
+            for (Graph graph : graphs) {
+                degree += graph.degree(nodeId, direction);
+            }
+            if (targets.length < degree) {
+                targets = new long[degree];
+                properties = new double[degree];
+                propertyBits = new long[degree];
+            }
+            int length = 0;
+            for (Graph graph : graphs) {
+                RelationshipBatchCursor cursor = graph.batchCursor(nodeId, direction, Double.NaN);
+                int count;
+                while ((count = cursor.nextBatch(batch, batchProperties)) > 0) {
+                    System.arraycopy(batch, 0, targets, length, count);
+                    System.arraycopy(batchProperties, 0, properties, length, count);
+                    length += count;
+                }
+            }
+            return length;
+        }
+
+        private int deduplicate(int degree) {
+            int length = 0;
+            for (int i = 1; i < degree; i++) {
+                if (targets[i] == targets[length]) {
+                    properties[length] = deduplicationStrategy.merge(properties[length], properties[i]);
+                } else {
+                    length++;
+                    targets[length] = targets[i];
+                    properties[length] = properties[i];
+                }
+            }
+            return length + 1;
+        }
+
+        private long writeTargets(int degree) {
+            for (int i = degree - 1; i > 0; i--) {
+                targets[i] -= targets[i - 1];
+            }
+            int maxSize = Math.max(degree * (Long.BYTES + 2), PackedDeltaEncoding.maxEncodedSize(degree));
+            if (compressed.length < maxSize) {
+                compressed = new byte[maxSize];
+            }
+            int requiredBytes = AdjacencyCompression.compress(
+                new LongsRef(targets, 0, degree),
+                compressed,
+                codec
+            );
+            long address = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
+            adjacencyAllocator.writeInt(degree);
+            adjacencyAllocator.writeBytes(compressed, requiredBytes);
+            return address;
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+            return Long.compare(targets[i], targets[j]);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            long target = targets[i];
+            targets[i] = targets[j];
+            targets[j] = target;
+            double property = properties[i];
+            properties[i] = properties[j];
+            properties[j] = property;
+        }
+    }
+}
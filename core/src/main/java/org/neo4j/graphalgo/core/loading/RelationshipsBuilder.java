@@ -21,8 +21,10 @@ package org.neo4j.graphalgo.core.loading;
 
 
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
 import java.util.Arrays;
@@ -32,6 +34,7 @@ public class RelationshipsBuilder {
     private static final AdjacencyListBuilder[] EMPTY_WEIGHTS = new AdjacencyListBuilder[0];
 
     private final DeduplicationStrategy[] deduplicationStrategies;
+    private final AdjacencyCodec codec;
     final AdjacencyListBuilder adjacency;
     final AdjacencyListBuilder[] weights;
 
@@ -42,6 +45,25 @@ public class RelationshipsBuilder {
         DeduplicationStrategy[] deduplicationStrategies,
         AllocationTracker tracker,
         int numberOfRelationshipProperties
+    ) {
+        this(deduplicationStrategies, tracker, numberOfRelationshipProperties, AdjacencyStorage.HEAP);
+    }
+
+    public RelationshipsBuilder(
+        DeduplicationStrategy[] deduplicationStrategies,
+        AllocationTracker tracker,
+        int numberOfRelationshipProperties,
+        AdjacencyStorage storage
+    ) {
+        this(deduplicationStrategies, tracker, numberOfRelationshipProperties, storage, AdjacencyCodec.VAR_LONG);
+    }
+
+    public RelationshipsBuilder(
+        DeduplicationStrategy[] deduplicationStrategies,
+        AllocationTracker tracker,
+        int numberOfRelationshipProperties,
+        AdjacencyStorage storage,
+        AdjacencyCodec codec
     ) {
         if (Arrays.stream(deduplicationStrategies).anyMatch(d -> d == DeduplicationStrategy.DEFAULT)) {
             throw new IllegalArgumentException(String.format(
@@ -50,12 +72,13 @@ public class RelationshipsBuilder {
             ));
         }
         this.deduplicationStrategies = deduplicationStrategies;
-        adjacency = AdjacencyListBuilder.newBuilder(tracker);
+        this.codec = codec;
+        adjacency = AdjacencyListBuilder.newBuilder(tracker, storage, codec);
         if (numberOfRelationshipProperties > 0) {
             weights = new AdjacencyListBuilder[numberOfRelationshipProperties];
             // TODO: can we avoid to create an allocator/complete adjacency list
             //  if we know that the property does not exist?
-            Arrays.setAll(weights, i -> AdjacencyListBuilder.newBuilder(tracker));
+            Arrays.setAll(weights, i -> AdjacencyListBuilder.newBuilder(tracker, storage));
         } else {
             weights = EMPTY_WEIGHTS;
         }
@@ -66,6 +89,7 @@ public class RelationshipsBuilder {
             long[][] weightOffsets) {
         return new ThreadLocalRelationshipsBuilder(
                 deduplicationStrategies,
+                codec,
                 adjacency.newAllocator(),
                 Arrays.stream(weights)
                         .map(AdjacencyListBuilder::newAllocator)
@@ -21,26 +21,28 @@ package org.neo4j.graphalgo.core.loading;
 
 import org.apache.lucene.util.LongsRef;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.concurrent.locks.ReentrantLock;
 
-import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeDegree;
-
 class ThreadLocalRelationshipsBuilder {
 
     private final ReentrantLock lock;
     private final DeduplicationStrategy[] deduplicationStrategies;
+    private final AdjacencyCodec codec;
     private final AdjacencyListBuilder.Allocator adjacencyAllocator;
     private final AdjacencyListBuilder.Allocator[] propertiesAllocators;
     private final long[] adjacencyOffsets;
     private final long[][] weightOffsets;
     private final boolean noDeduplication;
 
+    // only used for AdjacencyCodec.PACKED, the storage of the compressed array is sized for var-long encoding
+    private byte[] packedBuffer;
+
     ThreadLocalRelationshipsBuilder(
             DeduplicationStrategy[] deduplicationStrategies,
+            AdjacencyCodec codec,
             AdjacencyListBuilder.Allocator adjacencyAllocator,
             final AdjacencyListBuilder.Allocator[] propertiesAllocators,
             long[] adjacencyOffsets,
@@ -49,6 +51,8 @@ class ThreadLocalRelationshipsBuilder {
             throw new IllegalArgumentException("Needs at least one deduplication strategy");
         }
         this.deduplicationStrategies = deduplicationStrategies;
+        this.codec = codec;
+        this.packedBuffer = new byte[0];
         this.noDeduplication = Arrays.stream(deduplicationStrategies).allMatch(d -> d == DeduplicationStrategy.NONE);
         this.adjacencyAllocator = adjacencyAllocator;
         this.propertiesAllocators = propertiesAllocators;
@@ -91,10 +95,10 @@ class ThreadLocalRelationshipsBuilder {
             CompressedLongArray array,
             LongsRef buffer,
             int localId) {
-        byte[] storage = array.storage();
         AdjacencyCompression.copyFrom(buffer, array);
         int degree = AdjacencyCompression.applyDeltaEncoding(buffer, deduplicationStrategies[0]);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
+        byte[] storage = storage(array, degree);
+        int requiredBytes = AdjacencyCompression.compress(buffer, storage, codec);
         long address = copyIds(storage, requiredBytes, degree);
         adjacencyOffsets[localId] = address;
         array.release();
@@ -105,11 +109,11 @@ class ThreadLocalRelationshipsBuilder {
             CompressedLongArray array,
             LongsRef buffer,
             int localId) {
-        byte[] storage = array.storage();
         long[][] weights = array.weights();
         AdjacencyCompression.copyFrom(buffer, array);
         int degree = AdjacencyCompression.applyDeltaEncoding(buffer, weights, deduplicationStrategies, noDeduplication);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
+        byte[] storage = storage(array, degree);
+        int requiredBytes = AdjacencyCompression.compress(buffer, storage, codec);
 
         adjacencyOffsets[localId] = copyIds(storage, requiredBytes, degree);
         copyProperties(weights, degree, localId, weightOffsets);
@@ -118,13 +122,22 @@ class ThreadLocalRelationshipsBuilder {
         return degree;
     }
 
+    private byte[] storage(CompressedLongArray array, int degree) {
+        if (codec == AdjacencyCodec.VAR_LONG) {
+            return array.storage();
+        }
+        int requiredBytes = PackedDeltaEncoding.maxEncodedSize(degree);
+        if (packedBuffer.length < requiredBytes) {
+            packedBuffer = new byte[requiredBytes];
+        }
+        return packedBuffer;
+    }
+
     private long copyIds(byte[] targets, int requiredBytes, int degree) {
         // sizeOf(degree) + compression bytes
         long address = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
-        int offset = adjacencyAllocator.offset;
-        offset = writeDegree(adjacencyAllocator.page, offset, degree);
-        System.arraycopy(targets, 0, adjacencyAllocator.page, offset, requiredBytes);
-        adjacencyAllocator.offset = (offset + requiredBytes);
+        adjacencyAllocator.writeInt(degree);
+        adjacencyAllocator.writeBytes(targets, requiredBytes);
         return address;
     }
 
@@ -140,14 +153,8 @@ class ThreadLocalRelationshipsBuilder {
     private long copyProperties(long[] properties, int degree, AdjacencyListBuilder.Allocator propertiesAllocator) {
         int requiredBytes = degree * Long.BYTES;
         long address = propertiesAllocator.allocate(Integer.BYTES /* degree */ + requiredBytes);
-        int offset = propertiesAllocator.offset;
-        offset = writeDegree(propertiesAllocator.page, offset, degree);
-        ByteBuffer
-                .wrap(propertiesAllocator.page, offset, requiredBytes)
-                .order(ByteOrder.LITTLE_ENDIAN)
-                .asLongBuffer()
-                .put(properties, 0, degree);
-        propertiesAllocator.offset = (offset + requiredBytes);
+        propertiesAllocator.writeInt(degree);
+        propertiesAllocator.writeLongs(properties, degree);
         return address;
     }
 }
@@ -33,7 +33,7 @@ public final class VarLongEncoding {
     }
 
     //@formatter:off
-    private static int encodeVLong(final byte[] buffer, final long val, int output) {
+    static int encodeVLong(final byte[] buffer, final long val, int output) {
         if (val < 128L) {
             buffer[    output] = (byte) (val       | 128L);
             return 1 + output;
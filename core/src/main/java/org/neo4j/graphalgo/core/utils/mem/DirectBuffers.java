@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Frees direct and mapped {@link ByteBuffer}s eagerly instead of waiting for the garbage collector,
+ * which does not see the off-heap memory behind a buffer and may keep it around for a long time.
+ */
+public final class DirectBuffers {
+
+    private static final @Nullable MethodHandle CLEANER = lookupCleaner();
+
+    /**
+     * Frees the memory of the given buffer, or unmaps it if it is a mapped buffer.
+     * The buffer must have been allocated or mapped directly, not be a slice or duplicate,
+     * and must not be accessed afterwards. Heap buffers are ignored.
+     */
+    public static void free(ByteBuffer buffer) {
+        if (!buffer.isDirect() || CLEANER == null) {
+            return;
+        }
+        try {
+            CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not free direct buffer", e);
+        }
+    }
+
+    private static @Nullable MethodHandle lookupCleaner() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return lookup
+                .findVirtual(unsafeClass, "invokeCleaner", methodType(void.class, ByteBuffer.class))
+                .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException notJava9) {
+            // Java 8, ((DirectBuffer) buffer).cleaner().clean()
+            try {
+                Class<?> directBuffer = Class.forName("sun.nio.ch.DirectBuffer");
+                Class<?> cleaner = Class.forName("sun.misc.Cleaner");
+                MethodHandle getCleaner = lookup.findVirtual(directBuffer, "cleaner", methodType(cleaner));
+                MethodHandle clean = lookup.findVirtual(cleaner, "clean", methodType(void.class));
+                return MethodHandles
+                    .filterReturnValue(getCleaner, clean)
+                    .asType(methodType(void.class, ByteBuffer.class));
+            } catch (ReflectiveOperationException | RuntimeException unsupported) {
+                // leave the buffers to the garbage collector
+                return null;
+            }
+        }
+    }
+
+    private DirectBuffers() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
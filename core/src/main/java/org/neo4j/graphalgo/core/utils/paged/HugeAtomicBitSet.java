@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfInstance;
+
+/**
+ * A thread-safe bit set that can contain more than 2 bn. bits, backed by a {@link HugeAtomicLongArray}.
+ * <p>
+ * Setting and reading individual bits is safe to do concurrently,
+ * bulk operations such as {@link #clear()} and iterating via {@link #nextSetBit(long)} are not atomic.
+ */
+public final class HugeAtomicBitSet {
+
+    private static final int NUM_BITS = Long.SIZE;
+
+    private final HugeAtomicLongArray bits;
+    private final long numBits;
+
+    public static HugeAtomicBitSet create(long size, AllocationTracker tracker) {
+        long wordsSize = wordsSize(size);
+        return new HugeAtomicBitSet(HugeAtomicLongArray.newArray(wordsSize, tracker), size);
+    }
+
+    public static long memoryEstimation(long size) {
+        return sizeOfInstance(HugeAtomicBitSet.class) + HugeAtomicLongArray.memoryEstimation(wordsSize(size));
+    }
+
+    private HugeAtomicBitSet(HugeAtomicLongArray bits, long numBits) {
+        this.bits = bits;
+        this.numBits = numBits;
+    }
+
+    public boolean get(long index) {
+        assert index < numBits;
+        long word = bits.get(index / NUM_BITS);
+        return (word & bitmask(index)) != 0;
+    }
+
+    public void set(long index) {
+        getAndSet(index);
+    }
+
+    /**
+     * Sets the bit at the given index and returns its previous state.
+     */
+    public boolean getAndSet(long index) {
+        assert index < numBits;
+        long wordIndex = index / NUM_BITS;
+        long bitmask = bitmask(index);
+        while (true) {
+            long oldWord = bits.get(wordIndex);
+            if ((oldWord & bitmask) != 0) {
+                return true;
+            }
+            if (bits.compareAndSet(wordIndex, oldWord, oldWord | bitmask)) {
+                return false;
+            }
+        }
+    }
+
+    public void clear(long index) {
+        assert index < numBits;
+        long wordIndex = index / NUM_BITS;
+        long bitmask = ~bitmask(index);
+        while (true) {
+            long oldWord = bits.get(wordIndex);
+            long newWord = oldWord & bitmask;
+            if (newWord == oldWord || bits.compareAndSet(wordIndex, oldWord, newWord)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first set bit at or after the given index, or {@code -1} if there is none.
+     */
+    public long nextSetBit(long index) {
+        if (index >= numBits) {
+            return -1L;
+        }
+        long wordIndex = index / NUM_BITS;
+        long wordCount = bits.size();
+        long word = bits.get(wordIndex) & (-1L << index);
+        while (true) {
+            if (word != 0) {
+                long setBit = wordIndex * NUM_BITS + Long.numberOfTrailingZeros(word);
+                return setBit < numBits ? setBit : -1L;
+            }
+            if (++wordIndex == wordCount) {
+                return -1L;
+            }
+            word = bits.get(wordIndex);
+        }
+    }
+
+    public long cardinality() {
+        long setBitCount = 0L;
+        for (long wordIndex = 0; wordIndex < bits.size(); wordIndex++) {
+            setBitCount += Long.bitCount(bits.get(wordIndex));
+        }
+        return setBitCount;
+    }
+
+    /**
+     * Resets all bits, this is not an atomic operation.
+     */
+    public void clear() {
+        for (long wordIndex = 0; wordIndex < bits.size(); wordIndex++) {
+            bits.set(wordIndex, 0L);
+        }
+    }
+
+    public long size() {
+        return numBits;
+    }
+
+    public long release() {
+        return bits.release();
+    }
+
+    private static long wordsSize(long size) {
+        return (size + NUM_BITS - 1) / NUM_BITS;
+    }
+
+    private static long bitmask(long index) {
+        // the shift only considers the lowest 6 bits of the index
+        return 1L << index;
+    }
+}
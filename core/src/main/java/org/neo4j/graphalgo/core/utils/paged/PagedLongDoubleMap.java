@@ -20,6 +20,8 @@
 package org.neo4j.graphalgo.core.utils.paged;
 
 import com.carrotsearch.hppc.IntDoubleMap;
+import com.carrotsearch.hppc.cursors.IntDoubleCursor;
+import com.carrotsearch.hppc.procedures.LongDoubleProcedure;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
@@ -127,6 +129,22 @@ public final class PagedLongDoubleMap {
         return subMap;
     }
 
+    /**
+     * Calls {@code procedure} for every entry, page by page.
+     * Must not be called concurrently with {@link #put(long, double)}.
+     */
+    public void forEach(LongDoubleProcedure procedure) {
+        for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+            TrackingIntDoubleHashMap page = pages[pageIndex];
+            if (page != null) {
+                long base = ((long) pageIndex) << PAGE_SHIFT;
+                for (IntDoubleCursor cursor : page) {
+                    procedure.apply(base + cursor.key, cursor.value);
+                }
+            }
+        }
+    }
+
     public OptionalLong getMaxValue() {
         return parallelStream(Arrays.stream(pages), stream -> stream
                 .filter(Objects::nonNull)
@@ -87,10 +87,11 @@ public final class HugeAtomicDisjointSetStruct implements DisjointSetStruct {
 
     public HugeAtomicDisjointSetStruct(long capacity, NodeProperties communityMapping, AllocationTracker tracker) {
         this.parent = HugeAtomicLongArray.newArray(capacity, i -> i, tracker);
-        this.communities = HugeAtomicLongArray.newArray(capacity, nodeId -> {
-            double communityIdValue = communityMapping.nodeProperty(nodeId, Double.NaN);
-            return Double.isNaN(communityIdValue) ? -1L : (long) communityIdValue;
-        }, tracker);
+        this.communities = HugeAtomicLongArray.newArray(
+            capacity,
+            nodeId -> communityMapping.longNodeProperty(nodeId, -1L),
+            tracker
+        );
         maxCommunityId = new AtomicLong(communityMapping.getMaxPropertyValue().orElse(NO_SUCH_SEED_VALUE));
     }
 
@@ -98,7 +99,11 @@ public final class HugeAtomicDisjointSetStruct implements DisjointSetStruct {
         return parent.get(id);
     }
 
-    private long find(long id) {
+    /**
+     * Returns the root of the tree that contains {@code id}.
+     * Unlike {@link #setIdOf(long)}, this does not resolve seeded set ids.
+     */
+    public long find(long id) {
         long parent;
         while (id != (parent = parent(id))) {
             long grandParent = parent(parent);
@@ -33,7 +33,6 @@ import org.neo4j.graphalgo.core.utils.paged.HugeLongLongMap;
  * Note that this does not use <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure#by_rank">Union by Rank</a>
  * but prefers the minimum set id instead when merging two sets.
  */
-@Deprecated
 public final class IncrementalDisjointSetStruct extends SequentialDisjointSetStruct {
 
     private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations.builder(
@@ -87,7 +86,7 @@ public final class IncrementalDisjointSetStruct extends SequentialDisjointSetStr
             double communityIdValue = communityMapping.nodeProperty(nodeId, Double.NaN);
 
             if (!Double.isNaN(communityIdValue)) {
-                long communityId = (long) communityIdValue;
+                long communityId = communityMapping.longNodeProperty(nodeId, (long) communityIdValue);
 
                 long internalCommunityId = internalMapping.getOrDefault(communityId, -1);
                 if (internalCommunityId != -1) {
@@ -28,7 +28,6 @@ import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
  *
  * @see <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">Wiki</a>
  */
-@Deprecated
 public abstract class SequentialDisjointSetStruct implements DisjointSetStruct {
 
     @Override
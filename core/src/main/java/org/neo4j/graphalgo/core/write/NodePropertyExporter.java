@@ -19,22 +19,27 @@
  */
 package org.neo4j.graphalgo.core.write;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.IdMapping;
-import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.StatementApi;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.internal.kernel.api.Write;
-import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongToDoubleFunction;
 import java.util.function.LongUnaryOperator;
 
 public final class NodePropertyExporter extends StatementApi {
@@ -42,6 +47,9 @@ public final class NodePropertyExporter extends StatementApi {
     static final long MIN_BATCH_SIZE = 10_000L;
     static final long MAX_BATCH_SIZE = 100_000L;
 
+    // batches are resized so that a single transaction, including its commit, takes roughly this long
+    static final long TARGET_TRANSACTION_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
     private final TerminationFlag terminationFlag;
     private final ExecutorService executorService;
     private final ProgressLogger progressLogger;
@@ -49,6 +57,7 @@ public final class NodePropertyExporter extends StatementApi {
     private final long nodeCount;
     private final LongUnaryOperator toOriginalId;
     private final LongAdder propertiesWritten;
+    private final LongAdder nodesWritten;
 
     public static Builder of(GraphDatabaseAPI db, IdMapping idMapping, TerminationFlag terminationFlag) {
         return new Builder(db, idMapping, terminationFlag);
@@ -76,8 +85,118 @@ public final class NodePropertyExporter extends StatementApi {
         }
     }
 
-    public interface WriteConsumer {
-        void accept(Write ops, long value) throws KernelException;
+    /**
+     * A column of node property values that is written by the exporter.
+     * Columns backed by huge arrays or primitive functions read the values directly instead of going through a {@link PropertyTranslator}.
+     */
+    public abstract static class NodeProperty {
+
+        private final String propertyKey;
+
+        NodeProperty(String propertyKey) {
+            this.propertyKey = propertyKey;
+        }
+
+        public String propertyKey() {
+            return propertyKey;
+        }
+
+        /**
+         * Returns the value to write for the given node, or {@code null} if nothing should be written.
+         */
+        abstract @Nullable Value value(int propertyToken, long nodeId);
+
+        public static NodeProperty of(String propertyKey, HugeLongArray values) {
+            return new OfLongs(propertyKey, values);
+        }
+
+        public static NodeProperty of(String propertyKey, HugeDoubleArray values) {
+            return new OfDoubles(propertyKey, values);
+        }
+
+        public static NodeProperty ofLongs(String propertyKey, LongUnaryOperator values) {
+            return new OfLongFunction(propertyKey, values);
+        }
+
+        public static NodeProperty ofDoubles(String propertyKey, LongToDoubleFunction values) {
+            return new OfDoubleFunction(propertyKey, values);
+        }
+
+        public static <T> NodeProperty of(String propertyKey, T data, PropertyTranslator<T> translator) {
+            return new OfTranslator<>(propertyKey, data, translator);
+        }
+    }
+
+    private static final class OfLongs extends NodeProperty {
+        private final HugeLongArray values;
+
+        OfLongs(String propertyKey, HugeLongArray values) {
+            super(propertyKey);
+            this.values = values;
+        }
+
+        @Override
+        Value value(int propertyToken, long nodeId) {
+            return Values.longValue(values.get(nodeId));
+        }
+    }
+
+    private static final class OfDoubles extends NodeProperty {
+        private final HugeDoubleArray values;
+
+        OfDoubles(String propertyKey, HugeDoubleArray values) {
+            super(propertyKey);
+            this.values = values;
+        }
+
+        @Override
+        Value value(int propertyToken, long nodeId) {
+            return Values.doubleValue(values.get(nodeId));
+        }
+    }
+
+    private static final class OfLongFunction extends NodeProperty {
+        private final LongUnaryOperator values;
+
+        OfLongFunction(String propertyKey, LongUnaryOperator values) {
+            super(propertyKey);
+            this.values = values;
+        }
+
+        @Override
+        Value value(int propertyToken, long nodeId) {
+            return Values.longValue(values.applyAsLong(nodeId));
+        }
+    }
+
+    private static final class OfDoubleFunction extends NodeProperty {
+        private final LongToDoubleFunction values;
+
+        OfDoubleFunction(String propertyKey, LongToDoubleFunction values) {
+            super(propertyKey);
+            this.values = values;
+        }
+
+        @Override
+        Value value(int propertyToken, long nodeId) {
+            return Values.doubleValue(values.applyAsDouble(nodeId));
+        }
+    }
+
+    private static final class OfTranslator<T> extends NodeProperty {
+        private final T data;
+        private final PropertyTranslator<T> translator;
+
+        OfTranslator(String propertyKey, T data, PropertyTranslator<T> translator) {
+            super(propertyKey);
+            this.data = data;
+            this.translator = translator;
+        }
+
+        @Override
+        Value value(int propertyToken, long nodeId) {
+            return translator.toProperty(propertyToken, data, nodeId);
+        }
     }
 
     private NodePropertyExporter(
@@ -96,21 +215,14 @@ public final class NodePropertyExporter extends StatementApi {
         this.concurrency = concurrency;
         this.executorService = executorService;
         this.propertiesWritten = new LongAdder();
+        this.nodesWritten = new LongAdder();
     }
 
     public <T> void write(
             String property,
             T data,
             PropertyTranslator<T> translator) {
-        final int propertyId = getOrCreatePropertyToken(property);
-        if (propertyId == -1) {
-            throw new IllegalStateException("no write property id is set");
-        }
-        if (ParallelUtil.canRunInParallel(executorService)) {
-            writeParallel(propertyId, data, translator);
-        } else {
-            writeSequential(propertyId, data, translator);
-        }
+        write(NodeProperty.of(property, data, translator));
     }
 
     public <T, U> void write(
@@ -120,175 +232,104 @@ public final class NodePropertyExporter extends StatementApi {
             String property2,
             U data2,
             PropertyTranslator<U> translator2) {
-        final int propertyId1 = getOrCreatePropertyToken(property1);
-        if (propertyId1 == -1) {
-            throw new IllegalStateException("no write property id is set");
-        }
-        final int propertyId2 = getOrCreatePropertyToken(property2);
-        if (propertyId2 == -1) {
-            throw new IllegalStateException("no write property id is set");
-        }
-        if (ParallelUtil.canRunInParallel(executorService)) {
-            writeParallel(propertyId1, data1, translator1, propertyId2, data2, translator2);
-        } else {
-            writeSequential(propertyId1, data1, translator1, propertyId2, data2, translator2);
-        }
+        write(
+            NodeProperty.of(property1, data1, translator1),
+            NodeProperty.of(property2, data2, translator2)
+        );
     }
 
-    public long propertiesWritten() {
-        return propertiesWritten.longValue();
+    public void write(NodeProperty... properties) {
+        write(Arrays.asList(properties));
     }
 
-    private <T> void writeSequential(
-            int propertyId,
-            T data,
-            PropertyTranslator<T> translator) {
-        writeSequential((ops, offset) -> doWrite(propertyId, data, translator, ops, offset));
-    }
+    /**
+     * Writes all given properties in a single pass over the nodes.
+     * Every batch of nodes is written in its own transaction, the batch size adapts to the measured transaction latency.
+     */
+    public void write(List<NodeProperty> properties) {
+        int[] propertyTokens = new int[properties.size()];
+        for (int i = 0; i < propertyTokens.length; i++) {
+            propertyTokens[i] = getOrCreatePropertyToken(properties.get(i).propertyKey());
+            if (propertyTokens[i] == -1) {
+                throw new IllegalStateException("no write property id is set");
+            }
+        }
+        NodeProperty[] columns = properties.toArray(new NodeProperty[0]);
 
-    private <T, U> void writeSequential(
-            int propertyId1,
-            T data1,
-            PropertyTranslator<T> translator1,
-            int propertyId2,
-            U data2,
-            PropertyTranslator<U> translator2) {
-        writeSequential((ops, offset) -> doWrite(
-                propertyId1,
-                data1,
-                translator1,
-                propertyId2,
-                data2,
-                translator2,
-                ops,
-                offset));
+        int workers = ParallelUtil.canRunInParallel(executorService) ? concurrency : 1;
+        AtomicLong batchSize = new AtomicLong(ParallelUtil.adjustedBatchSize(
+            nodeCount,
+            workers,
+            MIN_BATCH_SIZE,
+            MAX_BATCH_SIZE
+        ));
+        AtomicLong nextNode = new AtomicLong(0L);
+        AtomicLong progress = new AtomicLong(0L);
+
+        List<Runnable> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(() -> {
+                while (true) {
+                    long size = batchSize.get();
+                    long start = nextNode.getAndAdd(size);
+                    if (start >= nodeCount) {
+                        break;
+                    }
+                    long end = Math.min(nodeCount, start + size);
+                    long startTime = System.nanoTime();
+                    writeBatch(columns, propertyTokens, start, end);
+                    adaptBatchSize(batchSize, size, System.nanoTime() - startTime);
+                    progressLogger.logProgress(progress.addAndGet(end - start), nodeCount);
+                }
+            });
+        }
+
+        ParallelUtil.runWithConcurrency(workers, tasks, terminationFlag, executorService);
     }
 
-    private <T> void writeParallel(
-            int propertyId,
-            T data,
-            PropertyTranslator<T> translator) {
-        writeParallel((ops, offset) -> doWrite(propertyId, data, translator, ops, offset));
+    public long propertiesWritten() {
+        return propertiesWritten.longValue();
     }
 
-    private <T, U> void writeParallel(
-            int propertyId1,
-            T data1,
-            PropertyTranslator<T> translator1,
-            int propertyId2,
-            U data2,
-            PropertyTranslator<U> translator2) {
-        writeParallel((ops, offset) -> doWrite(
-                propertyId1,
-                data1,
-                translator1,
-                propertyId2,
-                data2,
-                translator2,
-                ops,
-                offset));
+    /**
+     * Returns the number of nodes that have been processed, regardless of whether a property has been written for them.
+     */
+    public long nodesWritten() {
+        return nodesWritten.longValue();
     }
 
-    private void writeSequential(WriteConsumer writer) {
+    private void writeBatch(NodeProperty[] columns, int[] propertyTokens, long start, long end) {
         acceptInTransaction(stmt -> {
             terminationFlag.assertRunning();
-            long progress = 0L;
             Write ops = stmt.dataWrite();
-            for (long i = 0L; i < nodeCount; i++) {
-                writer.accept(ops, i);
-                ++progress;
-                if (progress % TerminationFlag.RUN_CHECK_NODE_COUNT == 0) {
-                    progressLogger.logProgress(progress, nodeCount);
+            long written = 0L;
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long originalNodeId = toOriginalId.applyAsLong(nodeId);
+                for (int i = 0; i < columns.length; i++) {
+                    Value value = columns[i].value(propertyTokens[i], nodeId);
+                    if (value != null) {
+                        ops.nodeSetProperty(originalNodeId, propertyTokens[i], value);
+                        ++written;
+                    }
+                }
+                if ((nodeId - start) % TerminationFlag.RUN_CHECK_NODE_COUNT == 0) {
                     terminationFlag.assertRunning();
                 }
             }
-            progressLogger.logProgress(
-                    nodeCount,
-                    nodeCount);
+            propertiesWritten.add(written);
+            nodesWritten.add(end - start);
         });
     }
 
-    private void writeParallel(WriteConsumer writer) {
-        final long batchSize = ParallelUtil.adjustedBatchSize(
-                nodeCount,
-                concurrency,
-                MIN_BATCH_SIZE,
-                MAX_BATCH_SIZE);
-        final AtomicLong progress = new AtomicLong(0L);
-        final Collection<Runnable> runnables = LazyBatchCollection.of(
-                nodeCount,
-                batchSize,
-                (start, len) -> () -> {
-                    acceptInTransaction(stmt -> {
-                        terminationFlag.assertRunning();
-                        long end = start + len;
-                        Write ops = stmt.dataWrite();
-                        for (long currentNode = start; currentNode < end; currentNode++) {
-                            writer.accept(ops, currentNode);
-
-                            // Only log every 10_000 written nodes
-                            if ((currentNode - start) % TerminationFlag.RUN_CHECK_NODE_COUNT == 0) {
-                                long currentProgress = progress.addAndGet(TerminationFlag.RUN_CHECK_NODE_COUNT);
-                                progressLogger.logProgress(
-                                        currentProgress,
-                                        nodeCount);
-                                terminationFlag.assertRunning();
-                            }
-                        }
-
-                        // log progress for the last batch of written nodes
-                        progressLogger.logProgress(
-                                progress.addAndGet((end - start + 1) % TerminationFlag.RUN_CHECK_NODE_COUNT),
-                                nodeCount);
-                    });
-                });
-        ParallelUtil.runWithConcurrency(
-                concurrency,
-                runnables,
-                Integer.MAX_VALUE,
-                10L,
-                TimeUnit.MICROSECONDS,
-                terminationFlag,
-                executorService
-        );
-    }
-
-    private <T> void doWrite(
-            int propertyId,
-            T data,
-            PropertyTranslator<T> trans,
-            Write ops,
-            long nodeId) throws KernelException {
-        final Value prop = trans.toProperty(propertyId, data, nodeId);
-        if (prop != null) {
-            ops.nodeSetProperty(
-                    toOriginalId.applyAsLong(nodeId),
-                    propertyId,
-                    prop
-            );
-            propertiesWritten.increment();
-        }
-    }
-
-    private <T, U> void doWrite(
-            int propertyId1,
-            T data1,
-            PropertyTranslator<T> translator1,
-            int propertyId2,
-            U data2,
-            PropertyTranslator<U> translator2,
-            Write ops,
-            long nodeId) throws KernelException {
-        final long originalNodeId = toOriginalId.applyAsLong(nodeId);
-        Value prop1 = translator1.toProperty(propertyId1, data1, nodeId);
-        if (prop1 != null) {
-            ops.nodeSetProperty(originalNodeId, propertyId1, prop1);
-            propertiesWritten.increment();
+    static void adaptBatchSize(AtomicLong batchSize, long usedBatchSize, long transactionNanos) {
+        long newBatchSize = usedBatchSize;
+        if (transactionNanos < TARGET_TRANSACTION_NANOS / 2) {
+            newBatchSize = Math.min(MAX_BATCH_SIZE, usedBatchSize * 2);
+        } else if (transactionNanos > TARGET_TRANSACTION_NANOS * 2) {
+            newBatchSize = Math.max(MIN_BATCH_SIZE, usedBatchSize / 2);
         }
-        Value prop2 = translator2.toProperty(propertyId2, data2, nodeId);
-        if (prop2 != null) {
-            ops.nodeSetProperty(originalNodeId, propertyId2, prop2);
-            propertiesWritten.increment();
+        if (newBatchSize != usedBatchSize) {
+            batchSize.compareAndSet(usedBatchSize, newBatchSize);
         }
     }
 }
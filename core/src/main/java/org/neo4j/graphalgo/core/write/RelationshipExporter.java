@@ -33,20 +33,31 @@ import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.internal.kernel.api.Write;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.DeadlockDetectedException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.values.storable.Values;
 
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
 
 import static org.neo4j.graphalgo.core.utils.Pools.DEFAULT_SINGLE_THREAD_POOL;
 import static org.neo4j.graphalgo.core.write.NodePropertyExporter.MIN_BATCH_SIZE;
 
 public final class RelationshipExporter extends StatementApi {
 
+    static final int MAX_DEADLOCK_RETRIES = 10;
+    private static final long DEADLOCK_BACKOFF_NANOS = 1_000_000L;
+
     private final Graph graph;
     private final Direction readDirection;
     private final long nodeCount;
+    private final long batchSize;
+    private final int concurrency;
     private final TerminationFlag terminationFlag;
     private final ProgressLogger progressLogger;
     private final ExecutorService executorService;
@@ -69,6 +80,7 @@ public final class RelationshipExporter extends StatementApi {
 
         private final Graph graph;
         private final Direction readDirection;
+        private long batchSize = MIN_BATCH_SIZE;
 
         Builder(
             GraphDatabaseAPI db,
@@ -81,18 +93,38 @@ public final class RelationshipExporter extends StatementApi {
             this.readDirection = readDirection;
         }
 
+        /**
+         * Sets the number of relationships that are written per transaction, defaults to {@code MIN_BATCH_SIZE}.
+         * <p>
+         * Every batch is committed on its own, so if a batch fails, the batches that have been committed before stay written.
+         */
+        public Builder withBatchSize(long batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Batch size must be at least 1, but got %d.",
+                    batchSize
+                ));
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
         @Override
         public RelationshipExporter build() {
             ProgressLogger progressLogger = loggerAdapter == null
                 ? ProgressLogger.NULL_LOGGER
                 : loggerAdapter;
 
+            boolean parallel = executorService != null && writeConcurrency > 1;
             return new RelationshipExporter(
                 db,
                 graph,
                 readDirection,
+                batchSize,
+                parallel ? writeConcurrency : 1,
                 terminationFlag,
-                progressLogger
+                progressLogger,
+                parallel ? executorService : DEFAULT_SINGLE_THREAD_POOL
             );
         }
     }
@@ -101,22 +133,34 @@ public final class RelationshipExporter extends StatementApi {
         GraphDatabaseAPI db,
         Graph graph,
         Direction readDirection,
+        long batchSize,
+        int concurrency,
         TerminationFlag terminationFlag,
-        ProgressLogger progressLogger
+        ProgressLogger progressLogger,
+        ExecutorService executorService
     ) {
         super(db);
         this.nodeCount = graph.nodeCount();
         this.graph = graph;
         this.readDirection = readDirection;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
         this.terminationFlag = terminationFlag;
         this.progressLogger = progressLogger;
-        this.executorService = DEFAULT_SINGLE_THREAD_POOL;
+        this.executorService = executorService;
     }
 
     public void write(String relationshipType, String propertyKey) {
         write(relationshipType, propertyKey, null);
     }
 
+    /**
+     * Writes all relationships of the graph in batches of source nodes, each in its own transaction.
+     * The write is not atomic, if a batch fails, all batches that have been committed before stay written.
+     * <p>
+     * If the exporter is configured to run in parallel, the {@code afterWriteConsumer} is called concurrently
+     * and must be thread-safe. It is called once per relationship after the batch has been committed.
+     */
     public void write(
         String relationshipType,
         String propertyKey,
@@ -128,9 +172,12 @@ public final class RelationshipExporter extends StatementApi {
         final int relationshipToken = getOrCreateRelationshipToken(relationshipType);
         final int propertyToken = getOrCreatePropertyToken(propertyKey);
 
-        // We use MIN_BATCH_SIZE since writing relationships
-        // is performed batch-wise, but single-threaded.
-        PartitionUtils.degreePartition(graph, readDirection, MIN_BATCH_SIZE)
+        // Every batch covers a contiguous range of source nodes, so concurrent
+        // transactions only contend for the locks on shared target nodes.
+        // Batches that fail with a deadlock are rolled back and retried.
+        // Batches that still deadlock after all retries are written once the concurrent batches are done.
+        Queue<Runnable> deferredBatches = concurrency > 1 ? new ConcurrentLinkedQueue<>() : null;
+        List<Runnable> tasks = PartitionUtils.degreePartition(graph, readDirection, batchSize)
             .stream()
             .map(partition -> createBatchRunnable(
                 readDirection,
@@ -139,9 +186,22 @@ public final class RelationshipExporter extends StatementApi {
                 propertyToken,
                 partition.startNode,
                 partition.nodeCount,
-                afterWriteConsumer
+                afterWriteConsumer,
+                deferredBatches
             ))
-            .forEach(runnable -> ParallelUtil.run(runnable, executorService));
+            .collect(Collectors.toList());
+
+        ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, executorService);
+
+        if (deferredBatches != null && !deferredBatches.isEmpty()) {
+            // like a single-threaded export, the transactions must not be bound to the calling thread
+            ParallelUtil.runWithConcurrency(
+                1,
+                deferredBatches,
+                terminationFlag,
+                DEFAULT_SINGLE_THREAD_POOL
+            );
+        }
     }
 
     private Runnable createBatchRunnable(
@@ -151,36 +211,66 @@ public final class RelationshipExporter extends StatementApi {
         int propertyToken,
         long start,
         long length,
-        @Nullable RelationshipWithPropertyConsumer afterWrite
+        @Nullable RelationshipWithPropertyConsumer afterWrite,
+        @Nullable Queue<Runnable> deferredBatches
     ) {
-        return () -> acceptInTransaction(stmt -> {
-            terminationFlag.assertRunning();
+        return () -> {
             long end = start + length;
-            Write ops = stmt.dataWrite();
-            RelationshipWithPropertyConsumer writeConsumer = new WriteConsumer(graph, ops, relationshipToken, propertyToken);
+            RelationshipIterator relationshipIterator = graph.concurrentCopy();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    writeBatch(direction, relationshipToken, propertyToken, start, end, relationshipIterator);
+                    break;
+                } catch (DeadlockDetectedException e) {
+                    if (attempt >= MAX_DEADLOCK_RETRIES) {
+                        if (deferredBatches == null) {
+                            throw e;
+                        }
+                        deferredBatches.add(createBatchRunnable(
+                            direction,
+                            progress,
+                            relationshipToken,
+                            propertyToken,
+                            start,
+                            length,
+                            afterWrite,
+                            null
+                        ));
+                        return;
+                    }
+                    LockSupport.parkNanos(DEADLOCK_BACKOFF_NANOS * attempt);
+                }
+            }
+
             if (afterWrite != null) {
-                writeConsumer = writeConsumer.andThen(afterWrite);
+                for (long currentNode = start; currentNode < end; currentNode++) {
+                    relationshipIterator.forEachRelationship(currentNode, direction, Double.NaN, afterWrite);
+                }
             }
-            RelationshipIterator relationshipIterator = graph.concurrentCopy();
+
+            progressLogger.logProgress(progress.addAndGet(length), nodeCount);
+        };
+    }
+
+    private void writeBatch(
+        Direction direction,
+        int relationshipToken,
+        int propertyToken,
+        long start,
+        long end,
+        RelationshipIterator relationshipIterator
+    ) {
+        acceptInTransaction(stmt -> {
+            terminationFlag.assertRunning();
+            Write ops = stmt.dataWrite();
+            RelationshipWithPropertyConsumer writeConsumer = new WriteConsumer(graph, ops, relationshipToken, propertyToken);
             for (long currentNode = start; currentNode < end; currentNode++) {
                 relationshipIterator.forEachRelationship(currentNode, direction, Double.NaN, writeConsumer);
 
-                // Only log after writing relationships for 10_000 nodes
                 if ((currentNode - start) % TerminationFlag.RUN_CHECK_NODE_COUNT == 0) {
-                    long currentProgress = progress.addAndGet(TerminationFlag.RUN_CHECK_NODE_COUNT);
-                    progressLogger.logProgress(
-                        currentProgress,
-                        nodeCount
-                    );
                     terminationFlag.assertRunning();
                 }
             }
-
-            // log progress for the last batch of written relationships
-            progressLogger.logProgress(
-                progress.addAndGet((end - start + 1) % TerminationFlag.RUN_CHECK_NODE_COUNT),
-                nodeCount
-            );
         });
     }
 
@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.core.write;
 
 import com.carrotsearch.hppc.IntDoubleMap;
 import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
 
 import java.util.concurrent.atomic.AtomicIntegerArray;
 
@@ -29,6 +30,9 @@ public class Translators {
     public static final PropertyTranslator.OfDouble<AtomicDoubleArray> ATOMIC_DOUBLE_ARRAY_TRANSLATOR =
         (data, nodeId) -> data.get((int) nodeId);
 
+    public static final PropertyTranslator.OfDouble<HugeAtomicDoubleArray> HUGE_ATOMIC_DOUBLE_ARRAY_TRANSLATOR =
+        HugeAtomicDoubleArray::get;
+
     public static final PropertyTranslator.OfInt<AtomicIntegerArray> ATOMIC_INTEGER_ARRAY_TRANSLATOR =
         (data, nodeId) -> data.get((int) nodeId);
 
@@ -25,7 +25,11 @@ import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.loading.NodeOrdering;
 import org.neo4j.graphalgo.core.utils.Pools;
 
 import static org.neo4j.graphalgo.newapi.GraphCreateFromCypherConfig.NODE_QUERY_KEY;
@@ -77,6 +81,45 @@ public interface GraphCreateConfig extends BaseConfig {
         return -1;
     }
 
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.huge.AdjacencyStorage#parse")
+    default AdjacencyStorage adjacencyStorage() {
+        return AdjacencyStorage.HEAP;
+    }
+
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.huge.AdjacencyCodec#parse")
+    default AdjacencyCodec adjacencyCodec() {
+        return AdjacencyCodec.VAR_LONG;
+    }
+
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean indexAdjacency() {
+        return false;
+    }
+
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.loading.NodeOrdering#parse")
+    default NodeOrdering nodeOrdering() {
+        return NodeOrdering.NONE;
+    }
+
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean mergeRelationshipTypes() {
+        return false;
+    }
+
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.DeduplicationStrategy#lookup")
+    default DeduplicationStrategy mergeDeduplicationStrategy() {
+        return DeduplicationStrategy.NONE;
+    }
 
     static GraphCreateConfig createImplicit(String username, CypherMapWrapper config) {
         if (config.containsKey(NODE_QUERY_KEY) || config.containsKey(RELATIONSHIP_QUERY_KEY)) {
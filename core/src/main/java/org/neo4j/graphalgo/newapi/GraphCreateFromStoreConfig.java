@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.newapi;
 import org.immutables.value.Value;
 import org.neo4j.graphalgo.NodeProjections;
 import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.Projection;
 import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.annotation.Configuration;
@@ -48,6 +49,37 @@ public interface GraphCreateFromStoreConfig extends GraphCreateConfig {
     @ConvertWith("org.neo4j.graphalgo.AbstractRelationshipProjections#fromObject")
     RelationshipProjections relationshipProjection();
 
+    /**
+     * Records changes to the store after the graph has been created, so that the graph can be refreshed.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean trackChanges() {
+        return false;
+    }
+
+    /**
+     * Refreshed graphs store all relationships in their outgoing adjacency list,
+     * which reverse projections are not loaded into.
+     */
+    @Value.Check
+    default void validateTrackChanges() {
+        if (!trackChanges()) {
+            return;
+        }
+        relationshipProjection().projections().forEach((identifier, projection) -> {
+            if (projection.projection() == Projection.REVERSE) {
+                throw new IllegalArgumentException(String.format(
+                    "Relationship projection `%s` is %s, but graphs that track changes only support %s and %s projections.",
+                    identifier.name,
+                    Projection.REVERSE,
+                    Projection.NATURAL,
+                    Projection.UNDIRECTED
+                ));
+            }
+        });
+    }
+
     @Value.Check
     default GraphCreateFromStoreConfig withNormalizedPropertyMappings() {
         PropertyMappings nodeProperties = nodeProperties();
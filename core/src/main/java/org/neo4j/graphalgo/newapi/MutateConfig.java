@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.newapi;
+
+import org.neo4j.graphalgo.annotation.Configuration;
+
+/**
+ * Config for procedures that add their result as a node property to a graph in the catalog
+ * instead of writing it to Neo4j. The mutated property takes the place of the write property,
+ * so that the write paths of the procedures can be reused.
+ */
+public interface MutateConfig extends WriteConfig {
+
+    @Configuration.ConvertWith("org.apache.commons.lang3.StringUtils#trimToNull")
+    String mutateProperty();
+
+    @Override
+    @Configuration.Ignore
+    default String writeProperty() {
+        return mutateProperty();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
+import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
+import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+
+class AdjacencySkipIndexTest {
+
+    private static final int NODE_COUNT = 3000;
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, "UNWIND range(0, " + (NODE_COUNT - 1) + ") AS i CREATE (:Node {id: i})");
+        runQuery(db,
+            "MATCH (hub:Node {id: 0}), (target:Node) WHERE target.id % 3 = 1 " +
+            "CREATE (hub)-[:TYPE {weight: toFloat(target.id)}]->(target)"
+        );
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @Test
+    void shouldFindTheSameRelationshipsAsWithoutIndex() {
+        Graph plain = load(false);
+        Graph indexed = load(true);
+
+        long hub = indexed.toMappedNodeId(nodeId(0));
+        int found = 0;
+        for (long target = 0; target < NODE_COUNT; target++) {
+            boolean exists = indexed.exists(hub, target, Direction.OUTGOING);
+            assertEquals(plain.exists(hub, target, Direction.OUTGOING), exists);
+            assertEquals(plain.relationshipProperty(hub, target), indexed.relationshipProperty(hub, target));
+            if (exists) {
+                found++;
+            }
+        }
+        assertEquals(NODE_COUNT / 3, found);
+    }
+
+    @Test
+    void shouldFindRelationshipPropertiesInEveryBlock() {
+        Graph indexed = load(true);
+
+        long hub = indexed.toMappedNodeId(nodeId(0));
+        indexed.forEachRelationship(hub, Direction.OUTGOING, 42.0, (source, target, weight) -> {
+            assertEquals(weight, indexed.relationshipProperty(source, target), 1e-9);
+            return true;
+        });
+        assertEquals(-1.0, indexed.relationshipProperty(hub, hub, -1.0));
+    }
+
+    @Test
+    void shouldEstimateSkipIndex() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder()
+            .nodeCount(NODE_COUNT)
+            .maxRelCount(NODE_COUNT / 3)
+            .build();
+        MemoryTree withoutIndex = HugeGraphFactory
+            .getMemoryEstimation(true, false, false, false, dimensions)
+            .estimate(dimensions, 1);
+        MemoryTree withIndex = HugeGraphFactory
+            .getMemoryEstimation(true, false, false, true, dimensions)
+            .estimate(dimensions, 1);
+
+        assertTrue(withIndex.memoryUsage().min > withoutIndex.memoryUsage().min);
+        assertTrue(withIndex.memoryUsage().max > withoutIndex.memoryUsage().max);
+    }
+
+    private long nodeId(int id) {
+        return runQuery(db, "MATCH (n:Node {id: " + id + "}) RETURN id(n) AS id", result -> (long) result.next().get("id"));
+    }
+
+    private Graph load(boolean indexAdjacency) {
+        GraphCreateFromStoreConfig config = ImmutableGraphCreateFromStoreConfig
+            .builder()
+            .from(GraphCreateFromStoreConfig.all("", ""))
+            .relationshipProperties(PropertyMappings.of(PropertyMapping.of("weight", 0.0)))
+            .indexAdjacency(indexAdjacency)
+            .build();
+
+        return ImmutableModernGraphLoader
+            .builder()
+            .api(db)
+            .log(NullLog.getInstance())
+            .tracker(AllocationTracker.EMPTY)
+            .legacyMode(false)
+            .createConfig(config)
+            .build()
+            .graph(HugeGraphFactory.class);
+    }
+}
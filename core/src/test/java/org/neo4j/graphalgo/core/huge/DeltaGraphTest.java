@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+
+class DeltaGraphTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:A {seed: 1})" +
+        ", (b:A {seed: 2})" +
+        ", (c:A)" +
+        ", (a)-[:REL]->(b)" +
+        ", (a)-[:REL]->(c)" +
+        ", (b)-[:REL]->(a)";
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, DB_CYPHER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void shouldIntersectThroughOverlay() {
+        Graph base = loadGraph();
+        long a = base.toMappedNodeId(0L);
+        long b = base.toMappedNodeId(1L);
+        long c = base.toMappedNodeId(2L);
+
+        DeltaGraph.Builder builder = new DeltaGraph.Builder(base, Double.NaN);
+        builder.addRelationship(b, c, Double.NaN);
+        DeltaGraph deltaGraph = builder.build(DeltaGraph.NodeOverlay.empty(base, Collections.emptyMap()));
+
+        runQuery(db, "MATCH (b:A {seed: 2}), (c:A) WHERE c.seed IS NULL CREATE (b)-[:REL]->(c)");
+        Graph expected = loadGraph();
+
+        assertEquals(triangles(expected), triangles(deltaGraph));
+        assertEquals(Collections.singletonList(Arrays.asList(a, b, c)), triangles(deltaGraph));
+    }
+
+    @Test
+    void shouldNotAddRelationshipsThatExistInBaseGraph() {
+        Graph base = loadGraph();
+        long a = base.toMappedNodeId(0L);
+        long b = base.toMappedNodeId(1L);
+        long c = base.toMappedNodeId(2L);
+
+        DeltaGraph.Builder builder = new DeltaGraph.Builder(base, Double.NaN);
+        assertFalse(builder.addRelationshipIfAbsent(a, b, Double.NaN));
+        assertTrue(builder.addRelationshipIfAbsent(c, a, Double.NaN));
+        assertFalse(builder.addRelationshipIfAbsent(c, a, Double.NaN));
+        DeltaGraph deltaGraph = builder.build(DeltaGraph.NodeOverlay.empty(base, Collections.emptyMap()));
+
+        assertEquals(base.relationshipCount() + 1, deltaGraph.relationshipCount());
+        assertEquals(2, deltaGraph.degree(a, Direction.OUTGOING));
+        assertEquals(1, deltaGraph.degree(c, Direction.OUTGOING));
+        assertEquals(1, deltaGraph.touchedNodes());
+    }
+
+    @Test
+    void shouldStackAndMergeOverlays() {
+        Graph base = loadGraph();
+        long a = base.toMappedNodeId(0L);
+        long b = base.toMappedNodeId(1L);
+        long c = base.toMappedNodeId(2L);
+        DeltaGraph.NodeOverlay nodes = DeltaGraph.NodeOverlay.empty(base, Collections.emptyMap());
+
+        List<DeltaGraph> snapshots = new ArrayList<>();
+        Graph graph = base;
+        for (int i = 0; i <= DeltaGraph.RelationshipOverlay.MAX_DEPTH; i++) {
+            DeltaGraph.Builder builder = new DeltaGraph.Builder(graph, Double.NaN);
+            builder.addRelationship(i % 2 == 0 ? c : b, a, Double.NaN);
+            DeltaGraph deltaGraph = builder.build(nodes);
+            snapshots.add(deltaGraph);
+            graph = deltaGraph;
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            DeltaGraph snapshot = snapshots.get(i);
+            assertEquals(Math.min(i + 1, 2), snapshot.touchedNodes());
+            assertEquals(base.relationshipCount() + i + 1, snapshot.relationshipCount());
+            assertEquals(2, snapshot.degree(a, Direction.OUTGOING));
+            assertEquals(1 + (i + 1) / 2, snapshot.degree(b, Direction.OUTGOING));
+            assertEquals(i / 2 + 1, snapshot.degree(c, Direction.OUTGOING));
+        }
+    }
+
+    @Test
+    void shouldResolveMissingPropertiesOfAddedNodesToDefaultValue() {
+        Graph base = loadGraph();
+
+        DeltaGraph.NodeOverlay.Builder nodes = DeltaGraph.NodeOverlay
+            .empty(base, Collections.singletonMap("seed", 42.0))
+            .builder();
+        long withoutSeed = nodes.addNode(100L, Collections.singletonMap("seed", Double.NaN));
+        long withSeed = nodes.addNode(101L, Collections.singletonMap("seed", 5.0));
+        DeltaGraph deltaGraph = new DeltaGraph.Builder(base, Double.NaN).build(nodes.build());
+
+        NodeProperties seeds = deltaGraph.nodeProperties("seed");
+        assertEquals(42.0, seeds.nodeProperty(withoutSeed));
+        assertEquals(7.0, seeds.nodeProperty(withoutSeed, 7.0));
+        assertEquals(5.0, seeds.nodeProperty(withSeed));
+        assertEquals(42.0, seeds.nodeProperty(withSeed + 1));
+        assertEquals(base.nodeProperties("seed").size() + 1, seeds.size());
+    }
+
+    private Graph loadGraph() {
+        return new GraphLoader(db)
+            .withDirection(Direction.OUTGOING)
+            .withLabel("A")
+            .withRelationshipType("REL")
+            .withOptionalNodeProperties(PropertyMapping.of("seed", "seed", 42.0))
+            .load(HugeGraphFactory.class);
+    }
+
+    private static List<List<Long>> triangles(Graph graph) {
+        List<List<Long>> triangles = new ArrayList<>();
+        graph.forEachNode(nodeId -> {
+            graph.intersection().intersectAll(nodeId, (a, b, c) -> triangles.add(Arrays.asList(a, b, c)));
+            return true;
+        });
+        return triangles;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipBatchCursor;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+
+final class HugeRelationshipBatchCursorTest {
+
+    // node 0 has more relationships than fit into a single compressed block
+    private static final String DB_CYPHER =
+        "UNWIND range(0, 299) AS id CREATE (:Node {id: id})";
+
+    private static final String REL_CYPHER =
+        "MATCH (a:Node), (b:Node)" +
+        " WHERE (a.id = 0 AND b.id % 2 = 1) OR (a.id > 0 AND b.id = (a.id * 7) % 300)" +
+        " CREATE (a)-[:TYPE {weight: a.id + b.id / 1000.0}]->(b)";
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, DB_CYPHER);
+        runQuery(db, REL_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, RelationshipBatchCursor.BATCH_SIZE, 200})
+    void shouldReturnSameTargetsAsForEach(int bufferSize) {
+        Graph graph = new GraphLoader(db)
+            .withDirection(Direction.BOTH)
+            .load(HugeGraphFactory.class);
+
+        for (Direction direction : Direction.values()) {
+            graph.forEachNode(nodeId -> {
+                LongArrayList expected = new LongArrayList();
+                graph.forEachRelationship(nodeId, direction, (s, t) -> {
+                    expected.add(t);
+                    return true;
+                });
+
+                LongArrayList actual = new LongArrayList();
+                long[] targets = new long[bufferSize];
+                RelationshipBatchCursor cursor = graph.batchCursor(nodeId, direction);
+                int count;
+                while ((count = cursor.nextBatch(targets)) > 0) {
+                    actual.add(targets, 0, count);
+                }
+
+                assertArrayEquals(expected.toArray(), actual.toArray(), direction + " targets of " + nodeId);
+                return true;
+            });
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, RelationshipBatchCursor.BATCH_SIZE, 200})
+    void shouldReturnSameTargetsAsForEachForUnionGraphs(int bufferSize) {
+        GraphLoader loader = new GraphLoader(db).withDirection(Direction.BOTH);
+        Graph graph = UnionGraph.of(Arrays.asList(
+            loader.load(HugeGraphFactory.class),
+            loader.load(HugeGraphFactory.class)
+        ));
+
+        for (Direction direction : Direction.values()) {
+            graph.forEachNode(nodeId -> {
+                LongArrayList expected = new LongArrayList();
+                graph.forEachRelationship(nodeId, direction, (s, t) -> {
+                    expected.add(t);
+                    return true;
+                });
+
+                LongArrayList actual = new LongArrayList();
+                long[] targets = new long[bufferSize];
+                RelationshipBatchCursor cursor = graph.batchCursor(nodeId, direction);
+                int count;
+                while ((count = cursor.nextBatch(targets)) > 0) {
+                    actual.add(targets, 0, count);
+                }
+
+                assertArrayEquals(expected.toArray(), actual.toArray(), direction + " targets of " + nodeId);
+                return true;
+            });
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, RelationshipBatchCursor.BATCH_SIZE, 200})
+    void shouldReturnSamePropertiesAsForEach(int bufferSize) {
+        Graph graph = new GraphLoader(db)
+            .withDirection(Direction.BOTH)
+            .withRelationshipProperties(PropertyMapping.of("weight", 0.0))
+            .load(HugeGraphFactory.class);
+
+        for (Direction direction : Direction.values()) {
+            graph.forEachNode(nodeId -> {
+                LongArrayList expectedTargets = new LongArrayList();
+                DoubleArrayList expectedProperties = new DoubleArrayList();
+                graph.forEachRelationship(nodeId, direction, 42.0, (s, t, p) -> {
+                    expectedTargets.add(t);
+                    expectedProperties.add(p);
+                    return true;
+                });
+
+                LongArrayList actualTargets = new LongArrayList();
+                DoubleArrayList actualProperties = new DoubleArrayList();
+                long[] targets = new long[bufferSize];
+                double[] properties = new double[bufferSize];
+                RelationshipBatchCursor cursor = graph.batchCursor(nodeId, direction, 42.0);
+                int count;
+                while ((count = cursor.nextBatch(targets, properties)) > 0) {
+                    actualTargets.add(targets, 0, count);
+                    actualProperties.add(properties, 0, count);
+                }
+
+                assertArrayEquals(expectedTargets.toArray(), actualTargets.toArray());
+                assertArrayEquals(expectedProperties.toArray(), actualProperties.toArray());
+                return true;
+            });
+        }
+    }
+}
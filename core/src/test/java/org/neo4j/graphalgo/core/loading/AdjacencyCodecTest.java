@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class AdjacencyCodecTest {
+
+    private static final String NODES_CYPHER = "UNWIND range(0, 2999) AS id CREATE (:Node {id: id})";
+
+    // The hub has targets with gaps of very different sizes,
+    // so that the packed blocks need exceptions for the large gaps.
+    private static final String HUB_CYPHER =
+        "MATCH (hub:Node {id: 0}), (n:Node)" +
+        " WHERE n.id % 7 = 1 OR n.id % 331 = 0 OR n.id > 2900" +
+        " CREATE (hub)-[:TYPE]->(n)";
+
+    private static final String SPARSE_CYPHER =
+        "MATCH (a:Node), (b:Node)" +
+        " WHERE a.id > 0 AND a.id < 500 AND b.id = (a.id * a.id) % 3000" +
+        " CREATE (a)-[:TYPE]->(b)";
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, NODES_CYPHER);
+        runQuery(db, HUB_CYPHER);
+        runQuery(db, SPARSE_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(AdjacencyStorage.class)
+    void shouldLoadIdenticalGraphForEachCodec(AdjacencyStorage storage) {
+        Graph expected = load(AdjacencyCodec.VAR_LONG, storage);
+        Graph packed = load(AdjacencyCodec.PACKED, storage);
+
+        assertGraphEquals(expected, packed);
+        packed.release();
+        expected.release();
+    }
+
+    @Test
+    void shouldAdvanceToTargetsWithPackedCodec() {
+        Graph expected = load(AdjacencyCodec.VAR_LONG, AdjacencyStorage.HEAP);
+        Graph packed = load(AdjacencyCodec.PACKED, AdjacencyStorage.HEAP);
+
+        long hubNeoId = hubNeoId();
+        long hub = packed.toMappedNodeId(hubNeoId);
+        long expectedHub = expected.toMappedNodeId(hubNeoId);
+        assertTrue(packed.degree(hub, Direction.OUTGOING) > AdjacencyCodec.BLOCK_SIZE);
+
+        packed.forEachNode(target -> {
+            long expectedTarget = expected.toMappedNodeId(packed.toOriginalNodeId(target));
+            assertEquals(
+                expected.exists(expectedHub, expectedTarget, Direction.OUTGOING),
+                packed.exists(hub, target, Direction.OUTGOING),
+                "relationship from hub to " + target
+            );
+            return true;
+        });
+    }
+
+    @Test
+    void shouldParseAdjacencyCodec() {
+        assertNull(AdjacencyCodec.parse(null));
+        assertEquals(AdjacencyCodec.PACKED, AdjacencyCodec.parse("packed"));
+        assertEquals(AdjacencyCodec.PACKED, AdjacencyCodec.parse(AdjacencyCodec.PACKED));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "DELTA"})
+    void shouldFailOnUnknownAdjacencyCodec(String value) {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> AdjacencyCodec.parse(value)
+        );
+        assertEquals(
+            "Adjacency codec `" + value + "` is not supported. Must be one of: VAR_LONG, PACKED.",
+            exception.getMessage()
+        );
+    }
+
+    @Test
+    void shouldFailOnUnsupportedAdjacencyCodecType() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> AdjacencyCodec.parse(42L)
+        );
+        assertEquals(
+            "Adjacency codec `42` is not supported. Must be one of: VAR_LONG, PACKED.",
+            exception.getMessage()
+        );
+    }
+
+    private long hubNeoId() {
+        return runQuery(db, "MATCH (n:Node {id: 0}) RETURN id(n) AS id", result -> (long) result.next().get("id"));
+    }
+
+    private Graph load(AdjacencyCodec codec, AdjacencyStorage storage) {
+        GraphCreateFromStoreConfig config = ImmutableGraphCreateFromStoreConfig
+            .builder()
+            .from(GraphCreateFromStoreConfig.all("", ""))
+            .adjacencyCodec(codec)
+            .adjacencyStorage(storage)
+            .build();
+
+        return ImmutableModernGraphLoader
+            .builder()
+            .api(db)
+            .log(NullLog.getInstance())
+            .tracker(AllocationTracker.EMPTY)
+            .legacyMode(false)
+            .createConfig(config)
+            .build()
+            .graph(HugeGraphFactory.class);
+    }
+}
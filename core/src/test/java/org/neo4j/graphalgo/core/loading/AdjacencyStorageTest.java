@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class AdjacencyStorageTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (a)-[:TYPE {weight: 1.0}]->(b)" +
+        ", (a)-[:TYPE {weight: 2.0}]->(c)" +
+        ", (b)-[:TYPE {weight: 3.0}]->(c)" +
+        ", (c)-[:TYPE]->(a)";
+
+    private static final double DEFAULT_WEIGHT = 4.2;
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, DB_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(AdjacencyStorage.class)
+    void shouldLoadIdenticalGraphForEachStorage(AdjacencyStorage storage) {
+        AllocationTracker tracker = AllocationTracker.create();
+        Graph graph = load(storage, tracker);
+
+        assertGraphEquals(fromGdl("(a)-->(b), (a)-->(c), (b)-->(c), (c)-->(a)"), graph);
+        assertEquals(storage.isOffHeap(), tracker.trackedOffHeap() > 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = AdjacencyStorage.class, names = {"OFF_HEAP", "MAPPED"})
+    void shouldReleaseOffHeapMemory(AdjacencyStorage storage) {
+        AllocationTracker tracker = AllocationTracker.create();
+        Graph graph = load(storage, tracker);
+        assertTrue(tracker.trackedOffHeap() > 0);
+
+        graph.releaseTopology();
+
+        assertEquals(0L, tracker.trackedOffHeap());
+    }
+
+    @ParameterizedTest
+    @EnumSource(AdjacencyStorage.class)
+    void shouldLoadRelationshipPropertiesForEachStorage(AdjacencyStorage storage) {
+        Graph graph = load(storage, AllocationTracker.EMPTY, true);
+
+        assertGraphEquals(
+            fromGdl(
+                "  (a)-[{w: 1.0}]->(b)" +
+                ", (a)-[{w: 2.0}]->(c)" +
+                ", (b)-[{w: 3.0}]->(c)" +
+                ", (c)-[{w: " + DEFAULT_WEIGHT + "}]->(a)"
+            ),
+            graph
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = AdjacencyStorage.class, names = {"OFF_HEAP", "MAPPED"})
+    void shouldReleaseOffHeapMemoryOfRelationshipProperties(AdjacencyStorage storage) {
+        AllocationTracker withoutPropertiesTracker = AllocationTracker.create();
+        load(storage, withoutPropertiesTracker);
+        AllocationTracker tracker = AllocationTracker.create();
+        Graph graph = load(storage, tracker, true);
+        assertTrue(tracker.trackedOffHeap() > withoutPropertiesTracker.trackedOffHeap());
+
+        graph.releaseTopology();
+
+        assertEquals(0L, tracker.trackedOffHeap());
+    }
+
+    @Test
+    void shouldParseAdjacencyStorage() {
+        assertNull(AdjacencyStorage.parse(null));
+        assertEquals(AdjacencyStorage.OFF_HEAP, AdjacencyStorage.parse("off_heap"));
+        assertEquals(AdjacencyStorage.MAPPED, AdjacencyStorage.parse(AdjacencyStorage.MAPPED));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "DISK"})
+    void shouldFailOnUnknownAdjacencyStorage(String storage) {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> AdjacencyStorage.parse(storage)
+        );
+        assertEquals(
+            "Adjacency storage `" + storage + "` is not supported. Must be one of: HEAP, OFF_HEAP, MAPPED.",
+            exception.getMessage()
+        );
+    }
+
+    @Test
+    void shouldFailOnUnsupportedAdjacencyStorageType() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> AdjacencyStorage.parse(42L)
+        );
+        assertEquals(
+            "Adjacency storage `42` is not supported. Must be one of: HEAP, OFF_HEAP, MAPPED.",
+            exception.getMessage()
+        );
+    }
+
+    private Graph load(AdjacencyStorage storage, AllocationTracker tracker) {
+        return load(storage, tracker, false);
+    }
+
+    private Graph load(AdjacencyStorage storage, AllocationTracker tracker, boolean loadWeights) {
+        ImmutableGraphCreateFromStoreConfig.Builder configBuilder = ImmutableGraphCreateFromStoreConfig
+            .builder()
+            .from(GraphCreateFromStoreConfig.all("", ""))
+            .adjacencyStorage(storage);
+        if (loadWeights) {
+            configBuilder.relationshipProperties(PropertyMappings.of(PropertyMapping.of("weight", DEFAULT_WEIGHT)));
+        }
+        GraphCreateFromStoreConfig config = configBuilder.build();
+
+        return ImmutableModernGraphLoader
+            .builder()
+            .api(db)
+            .log(NullLog.getInstance())
+            .tracker(tracker)
+            .legacyMode(false)
+            .createConfig(config)
+            .build()
+            .graph(HugeGraphFactory.class);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class CommunityGraphAggregatorTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (e:Node)" +
+        ", (f:Node)" +
+        ", (a)-[:TYPE {weight: 1.0}]->(b)" +
+        ", (a)-[:TYPE {weight: 2.0}]->(c)" +
+        ", (b)-[:TYPE {weight: 3.0}]->(c)" +
+        ", (b)-[:TYPE {weight: 4.0}]->(d)" +
+        ", (c)-[:TYPE {weight: 5.0}]->(d)" +
+        ", (d)-[:TYPE {weight: 6.0}]->(e)" +
+        ", (e)-[:TYPE {weight: 7.0}]->(a)" +
+        ", (f)-[:TYPE {weight: 8.0}]->(f)";
+
+    // community ids by original node id
+    private static final long[] COMMUNITIES = {5, 5, 3, 3, 5, 0};
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, DB_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @Test
+    void shouldAggregateRelationshipsBetweenCommunities() {
+        Graph graph = load();
+        LongUnaryOperator communities = nodeId -> COMMUNITIES[(int) graph.toOriginalNodeId(nodeId)];
+
+        Graph expected = summarizeSequentially(graph, communities);
+        Graph actual = new CommunityGraphAggregator(
+            graph,
+            communities,
+            5,
+            1,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        ).aggregate();
+
+        assertEquals(3, actual.nodeCount());
+        assertGraphEquals(expected, actual);
+        // 3->3, 3->5, 5->3, 5->5 and 0->0
+        assertEquals(5, actual.relationshipCount());
+        assertEquals(5.0, weight(actual, 3, 3));
+        assertEquals(6.0, weight(actual, 3, 5));
+        assertEquals(2.0 + 3.0 + 4.0, weight(actual, 5, 3));
+        assertEquals(1.0 + 7.0, weight(actual, 5, 5));
+        assertEquals(8.0, weight(actual, 0, 0));
+    }
+
+    @Test
+    void shouldAssignCommunityIdsIndependentOfConcurrency() {
+        Graph graph = load();
+        LongUnaryOperator communities = nodeId -> COMMUNITIES[(int) graph.toOriginalNodeId(nodeId)];
+
+        Graph sequential = new CommunityGraphAggregator(graph, communities, 5, 1, Pools.DEFAULT, AllocationTracker.EMPTY)
+            .aggregate();
+        Graph parallel = new CommunityGraphAggregator(graph, communities, 5, 4, Pools.DEFAULT, AllocationTracker.EMPTY)
+            .aggregate();
+
+        assertGraphEquals(sequential, parallel);
+        for (long nodeId = 0; nodeId < sequential.nodeCount(); nodeId++) {
+            assertEquals(sequential.toOriginalNodeId(nodeId), parallel.toOriginalNodeId(nodeId));
+        }
+        // community ids are assigned in the order of their first member
+        assertEquals(5, sequential.toOriginalNodeId(0));
+        assertEquals(3, sequential.toOriginalNodeId(1));
+        assertEquals(0, sequential.toOriginalNodeId(2));
+    }
+
+    private static double weight(Graph graph, long sourceCommunity, long targetCommunity) {
+        return graph.relationshipProperty(
+            graph.toMappedNodeId(sourceCommunity),
+            graph.toMappedNodeId(targetCommunity),
+            Double.NaN
+        );
+    }
+
+    private Graph load() {
+        return new GraphLoader(db)
+            .withAnyLabel()
+            .withAnyRelationshipType()
+            .withRelationshipProperties(PropertyMapping.of("weight", 1.0))
+            .withDirection(Direction.OUTGOING)
+            .load(HugeGraphFactory.class);
+    }
+
+    private Graph summarizeSequentially(Graph graph, LongUnaryOperator communities) {
+        GraphGenerator.NodeImporter nodeImporter = GraphGenerator.createNodeImporter(
+            5,
+            Pools.DEFAULT,
+            AllocationTracker.EMPTY
+        );
+        graph.forEachNode(nodeId -> {
+            nodeImporter.addNode(communities.applyAsLong(nodeId));
+            return true;
+        });
+        GraphGenerator.RelImporter relImporter = GraphGenerator.createRelImporter(
+            nodeImporter,
+            Direction.OUTGOING,
+            false,
+            true,
+            DeduplicationStrategy.SUM
+        );
+        graph.forEachNode(nodeId -> {
+            graph.forEachRelationship(nodeId, 1.0, (source, target, weight) -> {
+                relImporter.add(communities.applyAsLong(source), communities.applyAsLong(target), weight);
+                return true;
+            });
+            return true;
+        });
+        return relImporter.buildGraph();
+    }
+}
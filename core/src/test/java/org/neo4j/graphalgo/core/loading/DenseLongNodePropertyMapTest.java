@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.dss.HugeAtomicDisjointSetStruct;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DenseLongNodePropertyMapTest {
+
+    private static final long LARGE_VALUE = (1L << 53) + 1L;
+
+    @Test
+    void shouldKeepPrecisionAbove2Pow53() {
+        HugeLongArray values = HugeLongArray.of(LARGE_VALUE, LARGE_VALUE + 2L);
+        DenseLongNodePropertyMap properties = DenseLongNodePropertyMap.of(values, OptionalLong.of(LARGE_VALUE + 2L));
+
+        assertEquals(LARGE_VALUE, properties.longNodeProperty(0, -1L));
+        assertEquals(LARGE_VALUE + 2L, properties.longNodeProperty(1, -1L));
+        assertNotEquals(LARGE_VALUE, (long) properties.nodeProperty(0));
+        assertEquals(OptionalLong.of(LARGE_VALUE + 2L), properties.getMaxPropertyValue());
+        assertEquals(2L, properties.size());
+    }
+
+    @Test
+    void shouldSeedDisjointSetStructWithExactValues() {
+        HugeLongArray values = HugeLongArray.of(LARGE_VALUE, LARGE_VALUE + 2L);
+        DenseLongNodePropertyMap properties = DenseLongNodePropertyMap.of(values, OptionalLong.of(LARGE_VALUE + 2L));
+
+        HugeAtomicDisjointSetStruct dss = new HugeAtomicDisjointSetStruct(2, properties, AllocationTracker.EMPTY);
+
+        assertEquals(LARGE_VALUE, dss.setIdOf(0));
+        assertEquals(LARGE_VALUE + 2L, dss.setIdOf(1));
+    }
+}
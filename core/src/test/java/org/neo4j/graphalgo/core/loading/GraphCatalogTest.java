@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.core.loading;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -32,10 +33,12 @@ import org.neo4j.graphalgo.RelationshipProjection;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.TestDatabaseCreator;
 import org.neo4j.graphalgo.TestLog;
+import org.neo4j.graphalgo.api.FilterGraph;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.DeduplicationStrategy;
 import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
 import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
@@ -45,6 +48,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphalgo.QueryRunner.runQuery;
 import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
 import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
@@ -136,6 +142,33 @@ class GraphCatalogTest {
         );
     }
 
+    @Test
+    void shouldReleaseReplacedTopologyOnceLeasesAreClosed() {
+        ReleaseTrackingGraph original = new ReleaseTrackingGraph(fromGdl("(a)-->(b)"));
+        ReleaseTrackingGraph refreshed = new ReleaseTrackingGraph(fromGdl("(a)-->(b), (b)-->(a)"));
+        ReleaseTrackingGraph compacted = new ReleaseTrackingGraph(fromGdl("(a)-->(b), (b)-->(a)"));
+        GraphCatalog.set(GraphCreateFromStoreConfig.emptyWithName("", "myGraph"), GraphsByRelationshipType.of(original));
+
+        GraphCatalog.Lease lease = GraphCatalog.acquire("", "myGraph");
+        GraphsByRelationshipType originalGraphs = lease.graphWithConfig().graph();
+        GraphsByRelationshipType refreshedGraphs = GraphsByRelationshipType.of(refreshed);
+        assertTrue(GraphCatalog.replace("", "myGraph", originalGraphs, refreshedGraphs));
+        assertTrue(GraphCatalog.replaceTopology("", "myGraph", refreshedGraphs, GraphsByRelationshipType.of(compacted)));
+
+        // graphs that share their topology with the catalog entry are never released by the catalog
+        assertFalse(original.released);
+        assertFalse(refreshed.released);
+
+        GraphCatalog.Lease laterLease = GraphCatalog.acquire("", "myGraph");
+        lease.close();
+        assertTrue(refreshed.released);
+        assertFalse(compacted.released);
+
+        laterLease.close();
+        assertFalse(compacted.released);
+        assertSame(compacted, GraphCatalog.get("", "myGraph").graph().getUnion());
+    }
+
     static Stream<Arguments> validFilterParameters() {
         return Stream.of(
             Arguments.of(
@@ -182,4 +215,18 @@ class GraphCatalogTest {
             )
         );
     }
-}
\ No newline at end of file
+
+    private static final class ReleaseTrackingGraph extends FilterGraph {
+
+        boolean released;
+
+        ReleaseTrackingGraph(Graph graph) {
+            super(graph);
+        }
+
+        @Override
+        public void releaseTopology() {
+            released = true;
+        }
+    }
+}
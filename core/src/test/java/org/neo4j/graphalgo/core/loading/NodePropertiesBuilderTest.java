@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedLongDoubleMap;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodePropertiesBuilderTest {
+
+    @Test
+    void shouldBuildDensePropertiesIfMostNodesHaveAValue() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(10, AllocationTracker.EMPTY, 42.0, 0, "foo");
+        for (long nodeId = 0; nodeId < 8; nodeId++) {
+            builder.set(nodeId, nodeId);
+        }
+
+        NodeProperties properties = builder.build();
+
+        assertTrue(properties instanceof DenseNodePropertyMap);
+        assertEquals(8L, properties.size());
+        assertEquals(OptionalLong.of(7L), properties.getMaxPropertyValue());
+        assertEquals(5.0, properties.nodeProperty(5));
+        assertEquals(42.0, properties.nodeProperty(9));
+        assertEquals(-1.0, properties.nodeProperty(9, -1.0));
+        assertEquals(5.0, properties.nodeProperty(5, -1.0));
+    }
+
+    @Test
+    void shouldBuildSparsePropertiesIfFewNodesHaveAValue() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(100, AllocationTracker.EMPTY, 42.0, 0, "foo");
+        builder.set(13, 1.0);
+        builder.set(37, 2.0);
+
+        NodeProperties properties = builder.build();
+
+        assertTrue(properties instanceof NodePropertyMap);
+        assertEquals(2L, properties.size());
+        assertEquals(OptionalLong.of(2L), properties.getMaxPropertyValue());
+        assertEquals(1.0, properties.nodeProperty(13));
+        assertEquals(42.0, properties.nodeProperty(14));
+        assertEquals(-1.0, properties.nodeProperty(14, -1.0));
+    }
+
+    @Test
+    void shouldNotAllocateDenseArrayForSparseProperties() {
+        AllocationTracker tracker = AllocationTracker.create();
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(100_000, tracker, 42.0, 0, "foo");
+        builder.set(1337, 1.0);
+
+        builder.build();
+
+        assertTrue(tracker.tracked() < HugeDoubleArray.memoryEstimation(100_000L));
+    }
+
+    @Test
+    void shouldKeepNaNValuesApartFromMissingValues() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(10, AllocationTracker.EMPTY, 42.0, 0, "foo");
+        for (long nodeId = 0; nodeId < 8; nodeId++) {
+            builder.set(nodeId, Double.NaN);
+        }
+
+        NodeProperties properties = builder.build();
+
+        assertTrue(properties instanceof DenseNodePropertyMap);
+        assertEquals(8L, properties.size());
+        assertTrue(Double.isNaN(properties.nodeProperty(5)));
+        assertTrue(Double.isNaN(properties.nodeProperty(5, -1.0)));
+        assertEquals(42.0, properties.nodeProperty(9));
+        assertEquals(-1.0, properties.nodeProperty(9, -1.0));
+    }
+
+    @Test
+    void shouldCopyPropertiesInNewOrder() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(4, AllocationTracker.EMPTY, 42.0, 0, "foo");
+        builder.set(0, 1.0);
+        builder.set(1, 2.0);
+        builder.set(2, 3.0);
+
+        NodeProperties copy = NodePropertiesBuilder.copyOf(builder.build(), 4, nodeId -> 3 - nodeId, AllocationTracker.EMPTY);
+
+        assertEquals(42.0, copy.nodeProperty(0));
+        assertEquals(-1.0, copy.nodeProperty(0, -1.0));
+        assertEquals(3.0, copy.nodeProperty(1));
+        assertEquals(2.0, copy.nodeProperty(2));
+        assertEquals(1.0, copy.nodeProperty(3));
+    }
+
+    @Test
+    void shouldEstimateSparseAndDenseLayout() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder().nodeCount(100_000L).build();
+        MemoryTree memRec = NodePropertiesBuilder.memoryEstimation().estimate(dimensions, 1);
+
+        long dense = MemoryUsage.sizeOfInstance(DenseNodePropertyMap.class) +
+                     HugeDoubleArray.memoryEstimation(100_000L) +
+                     HugeAtomicBitSet.memoryEstimation(100_000L);
+        MemoryRange sparse = PagedLongDoubleMap.memoryEstimation().estimate(dimensions, 1).memoryUsage();
+        MemoryRange expected = sparse.add(MemoryRange.of(MemoryUsage.sizeOfInstance(NodePropertiesBuilder.class) + dense));
+        assertEquals(expected, memRec.memoryUsage());
+    }
+}
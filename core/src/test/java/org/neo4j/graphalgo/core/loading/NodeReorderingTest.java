@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
+import org.neo4j.graphalgo.core.ModernGraphLoader;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class NodeReorderingTest {
+
+    private static final String NODES_CYPHER =
+        "UNWIND range(0, 499) AS id CREATE (:Node {id: id, score: CASE WHEN id % 3 = 0 THEN id * 0.5 END})";
+
+    // a few dense clusters that are connected sparsely, and a hub connected to every 13th node
+    private static final String RELATIONSHIPS_CYPHER =
+        "MATCH (a:Node), (b:Node)" +
+        " WHERE (a.id <> b.id AND a.id % 50 = b.id % 50 AND (a.id + b.id) % 3 = 0)" +
+        "    OR (a.id = 7 AND b.id % 13 = 0)" +
+        " CREATE (a)-[:TYPE {weight: a.id * 1000 + b.id}]->(b)";
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, NODES_CYPHER);
+        runQuery(db, RELATIONSHIPS_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = NodeOrdering.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+    void shouldLoadIdenticalGraphForEachOrdering(NodeOrdering ordering) {
+        Graph expected = load(NodeOrdering.NONE);
+        Graph reordered = load(ordering);
+
+        assertGraphEquals(expected, reordered);
+
+        NodeProperties expectedScores = expected.nodeProperties("score");
+        NodeProperties reorderedScores = reordered.nodeProperties("score");
+        reordered.forEachNode(nodeId -> {
+            long expectedNodeId = expected.toMappedNodeId(reordered.toOriginalNodeId(nodeId));
+            assertEquals(expectedScores.nodeProperty(expectedNodeId), reorderedScores.nodeProperty(nodeId));
+            assertEquals(
+                expected.degree(expectedNodeId, Direction.OUTGOING),
+                reordered.degree(nodeId, Direction.OUTGOING)
+            );
+            return true;
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = NodeOrdering.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+    void shouldEstimateBothCopiesOfTheGraph(NodeOrdering ordering) {
+        MemoryRange graph = estimate(NodeOrdering.NONE);
+        MemoryRange reordering = estimate(ordering);
+
+        assertTrue(reordering.min >= 2 * graph.min);
+        assertTrue(reordering.max >= 2 * graph.max);
+    }
+
+    @Test
+    void shouldParseNodeOrdering() {
+        assertNull(NodeOrdering.parse(null));
+        assertEquals(NodeOrdering.BFS, NodeOrdering.parse("bfs"));
+        assertEquals(NodeOrdering.BFS, NodeOrdering.parse(NodeOrdering.BFS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "RANDOM"})
+    void shouldFailOnUnknownNodeOrdering(String value) {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> NodeOrdering.parse(value)
+        );
+        assertEquals(
+            "Node ordering `" + value + "` is not supported. Must be one of: NONE, DEGREE, BFS, COMMUNITY.",
+            exception.getMessage()
+        );
+    }
+
+    @Test
+    void shouldFailOnUnsupportedNodeOrderingType() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> NodeOrdering.parse(42L)
+        );
+        assertEquals(
+            "Node ordering `42` is not supported. Must be one of: NONE, DEGREE, BFS, COMMUNITY.",
+            exception.getMessage()
+        );
+    }
+
+    private MemoryRange estimate(NodeOrdering ordering) {
+        HugeGraphFactory factory = loader(ordering).build(HugeGraphFactory.class);
+        return factory.memoryEstimation().estimate(factory.dimensions(), 1).memoryUsage();
+    }
+
+    private Graph load(NodeOrdering ordering) {
+        return loader(ordering).graph(HugeGraphFactory.class);
+    }
+
+    private ModernGraphLoader loader(NodeOrdering ordering) {
+        GraphCreateFromStoreConfig config = ImmutableGraphCreateFromStoreConfig
+            .builder()
+            .from(GraphCreateFromStoreConfig.all("", ""))
+            .nodeProperties(PropertyMappings.of(PropertyMapping.of("score", 42.0)))
+            .relationshipProperties(PropertyMappings.of(PropertyMapping.of("weight", 0.0)))
+            .nodeOrdering(ordering)
+            .build();
+
+        return ImmutableModernGraphLoader
+            .builder()
+            .api(db)
+            .log(NullLog.getInstance())
+            .tracker(AllocationTracker.EMPTY)
+            .legacyMode(false)
+            .createConfig(config)
+            .build();
+    }
+}
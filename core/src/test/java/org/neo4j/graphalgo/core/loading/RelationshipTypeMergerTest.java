@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.AbstractRelationshipProjections;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.ImmutableModernGraphLoader;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.UnionGraph;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.newapi.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.newapi.ImmutableGraphCreateFromStoreConfig;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.QueryRunner.runQuery;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class RelationshipTypeMergerTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (a)-[:A {weight: 1.0}]->(b)" +
+        ", (a)-[:B {weight: 2.0}]->(b)" +
+        ", (a)-[:B {weight: 3.0}]->(c)" +
+        ", (b)-[:A {weight: 4.0}]->(c)" +
+        ", (c)-[:C {weight: 5.0}]->(d)";
+
+    private static final List<String> TYPES = Arrays.asList("A", "B");
+
+    private GraphDatabaseAPI db;
+
+    @BeforeEach
+    void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        runQuery(db, DB_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        db.shutdown();
+    }
+
+    @Test
+    void shouldMergeRelationshipTypes() {
+        GraphsByRelationshipType graphs = load();
+        GraphsByRelationshipType mergedGraphs = graphs.withMergedRelationshipTypes(merger(DeduplicationStrategy.NONE));
+
+        Graph union = graphs.getGraphProjection(TYPES, Optional.of("weight"));
+        Graph merged = mergedGraphs.getGraphProjection(TYPES, Optional.of("weight"));
+
+        assertTrue(union instanceof UnionGraph);
+        assertTrue(merged instanceof HugeGraph);
+        assertGraphEquals(union, merged);
+        assertEquals(4L, merged.relationshipCount());
+        assertEquals(2, merged.degree(0, Direction.OUTGOING));
+        assertSame(merged, mergedGraphs.getGraphProjection(TYPES, Optional.of("weight")));
+    }
+
+    @Test
+    void shouldDeduplicateParallelRelationships() {
+        Graph merged = load()
+            .withMergedRelationshipTypes(merger(DeduplicationStrategy.SUM))
+            .getGraphProjection(TYPES, Optional.of("weight"));
+
+        assertEquals(3L, merged.relationshipCount());
+        assertEquals(2, merged.degree(0, Direction.OUTGOING));
+        assertEquals(3.0, merged.relationshipProperty(0, 1, Double.NaN));
+        assertEquals(3.0, merged.relationshipProperty(0, 2, Double.NaN));
+        assertEquals(4.0, merged.relationshipProperty(1, 2, Double.NaN));
+    }
+
+    @Test
+    void shouldUseDefaultPropertyOfProjection() {
+        Graph merged = load()
+            .withMergedRelationshipTypes(merger(DeduplicationStrategy.NONE))
+            .getGraphProjection(TYPES, Optional.of("weight"));
+
+        // (a)-->(d) does not exist
+        assertEquals(0.0, merged.relationshipProperty(0, 3));
+    }
+
+    @Test
+    void shouldKeepMergingRelationshipTypesOfReplacedGraphs() {
+        GraphsByRelationshipType mergedGraphs = load().withMergedRelationshipTypes(merger(DeduplicationStrategy.NONE));
+        Graph merged = mergedGraphs.getGraphProjection(TYPES, Optional.of("weight"));
+
+        GraphsByRelationshipType replaced = mergedGraphs.withGraphs(mergedGraphs.graphs());
+        Graph mergedAgain = replaced.getGraphProjection(TYPES, Optional.of("weight"));
+
+        assertTrue(mergedAgain instanceof HugeGraph);
+        assertNotSame(merged, mergedAgain);
+        assertGraphEquals(merged, mergedAgain);
+    }
+
+    @Test
+    void shouldNotMergeSingleRelationshipType() {
+        GraphsByRelationshipType graphs = load();
+        Graph single = graphs
+            .withMergedRelationshipTypes(merger(DeduplicationStrategy.NONE))
+            .getGraphProjection(Arrays.asList("C"), Optional.of("weight"));
+
+        assertSame(graphs.getGraphProjection(Arrays.asList("C"), Optional.of("weight")), single);
+    }
+
+    private RelationshipTypeMerger merger(DeduplicationStrategy deduplicationStrategy) {
+        return new RelationshipTypeMerger(
+            AdjacencyStorage.HEAP,
+            AdjacencyCodec.VAR_LONG,
+            deduplicationStrategy,
+            false,
+            4,
+            Pools.DEFAULT
+        );
+    }
+
+    private GraphsByRelationshipType load() {
+        GraphCreateFromStoreConfig config = ImmutableGraphCreateFromStoreConfig
+            .builder()
+            .from(GraphCreateFromStoreConfig.all("", ""))
+            .relationshipProjection(AbstractRelationshipProjections.fromList(Arrays.asList("A", "B", "C")))
+            .relationshipProperties(PropertyMappings.of(PropertyMapping.of("weight", 0.0)))
+            .build();
+
+        return ImmutableModernGraphLoader
+            .builder()
+            .api(db)
+            .log(NullLog.getInstance())
+            .tracker(AllocationTracker.EMPTY)
+            .legacyMode(false)
+            .createConfig(config)
+            .build()
+            .graphs(HugeGraphFactory.class);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class HugeAtomicBitSetTest {
+
+    @Test
+    void testGetAndSet() {
+        HugeAtomicBitSet bitSet = HugeAtomicBitSet.create(130, AllocationTracker.EMPTY);
+        assertFalse(bitSet.get(65));
+        assertFalse(bitSet.getAndSet(65));
+        assertTrue(bitSet.get(65));
+        assertTrue(bitSet.getAndSet(65));
+        assertFalse(bitSet.get(64));
+        assertFalse(bitSet.get(66));
+
+        bitSet.clear(65);
+        assertFalse(bitSet.get(65));
+    }
+
+    @Test
+    void testNextSetBit() {
+        HugeAtomicBitSet bitSet = HugeAtomicBitSet.create(200, AllocationTracker.EMPTY);
+        bitSet.set(3);
+        bitSet.set(63);
+        bitSet.set(64);
+        bitSet.set(199);
+
+        assertEquals(3, bitSet.nextSetBit(0));
+        assertEquals(3, bitSet.nextSetBit(3));
+        assertEquals(63, bitSet.nextSetBit(4));
+        assertEquals(64, bitSet.nextSetBit(64));
+        assertEquals(199, bitSet.nextSetBit(65));
+        assertEquals(-1, bitSet.nextSetBit(200));
+        assertEquals(4, bitSet.cardinality());
+
+        bitSet.clear();
+        assertEquals(-1, bitSet.nextSetBit(0));
+        assertEquals(0, bitSet.cardinality());
+    }
+
+    @Test
+    void testConcurrentSet() {
+        long size = 10_000;
+        HugeAtomicBitSet bitSet = HugeAtomicBitSet.create(size, AllocationTracker.EMPTY);
+        ParallelUtil.readParallel(4, size, Pools.DEFAULT, (start, end) -> {
+            for (long i = start; i < end; i++) {
+                if (i % 3 == 0) {
+                    bitSet.set(i);
+                }
+            }
+        });
+        assertEquals((size + 2) / 3, bitSet.cardinality());
+    }
+}
@@ -190,6 +190,22 @@ final class HugeAtomicLongArrayTest {
         });
     }
 
+    /**
+     * getAndAdd returns previous value and adds the delta
+     */
+    @Test
+    void testGetAndAdd() {
+        testArray(SIZE, aa -> {
+            for (int i = 0; i < SIZE; i++) {
+                aa.set(i, 1);
+                assertEquals(1L, aa.getAndAdd(i, 17));
+                assertEquals(18L, aa.get(i));
+                assertEquals(18L, aa.getAndAdd(i, -20));
+                assertEquals(-2L, aa.get(i));
+            }
+        });
+    }
+
     static class Counter extends CheckedRunnable {
         final HugeAtomicLongArray aa;
         int decs;
@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 
 import static io.qala.datagen.RandomShortApi.integer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 final class HugeIntArrayTest extends HugeArrayTestBase<int[], Integer, HugeIntArray> {
 
@@ -63,6 +64,18 @@ final class HugeIntArrayTest extends HugeArrayTestBase<int[], Integer, HugeIntAr
         });
     }
 
+    @Test
+    void shouldComputeMemoryEstimation() {
+        assertEquals(40, HugeIntArray.memoryEstimation(0L));
+        assertEquals(440, HugeIntArray.memoryEstimation(100L));
+        assertEquals(400_122_070_368L, HugeIntArray.memoryEstimation(100_000_000_000L));
+    }
+
+    @Test
+    void shouldFailForNegativeMemRecSize() {
+        assertThrows(AssertionError.class, () -> HugeIntArray.memoryEstimation(-1L));
+    }
+
     @Override
     HugeIntArray singleArray(final int size) {
         return HugeIntArray.newSingleArray(size, AllocationTracker.EMPTY);
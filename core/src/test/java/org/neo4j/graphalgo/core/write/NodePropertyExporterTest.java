@@ -25,18 +25,24 @@ import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.core.huge.DirectIdMapping;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.values.storable.Values;
 
 import java.io.File;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphalgo.QueryRunner.runQuery;
 import static org.neo4j.graphalgo.QueryRunner.runQueryWithRowConsumer;
 
@@ -76,6 +82,73 @@ class NodePropertyExporterTest {
         transactionTerminationTest(Pools.DEFAULT);
     }
 
+    @Test
+    void writesMultiplePropertiesInASinglePass() {
+        HugeLongArray communities = HugeLongArray.of(10L, 11L, 12L);
+        HugeDoubleArray scores = HugeDoubleArray.of(0.5, 1.5, 2.5);
+        NodePropertyExporter exporter = NodePropertyExporter.of(DB, new DirectIdMapping(3), TerminationFlag.RUNNING_TRUE)
+                .parallel(Pools.DEFAULT, 4)
+                .build();
+
+        exporter.write(
+                NodePropertyExporter.NodeProperty.of("community", communities),
+                NodePropertyExporter.NodeProperty.of("score", scores)
+        );
+
+        assertEquals(6L, exporter.propertiesWritten());
+        assertEquals(3L, exporter.nodesWritten());
+        runQueryWithRowConsumer(DB, "MATCH (n) RETURN id(n) AS id, n.community AS community, n.score AS score", row -> {
+            long nodeId = row.getNumber("id").longValue();
+            assertEquals(communities.get(nodeId), row.getNumber("community").longValue());
+            assertEquals(scores.get(nodeId), row.getNumber("score").doubleValue());
+        });
+    }
+
+    @Test
+    void writesFunctionColumnsAndPassesPropertyTokenToTranslator() {
+        AtomicInteger translatorToken = new AtomicInteger(-1);
+        PropertyTranslator<Double> translator = (propertyId, data, nodeId) -> {
+            translatorToken.set(propertyId);
+            return Values.doubleValue(data);
+        };
+        NodePropertyExporter exporter = NodePropertyExporter.of(DB, new DirectIdMapping(3), TerminationFlag.RUNNING_TRUE)
+                .build();
+
+        exporter.write(
+                NodePropertyExporter.NodeProperty.ofLongs("offset", nodeId -> nodeId + 100L),
+                NodePropertyExporter.NodeProperty.ofDoubles("half", nodeId -> nodeId / 2.0),
+                NodePropertyExporter.NodeProperty.of("translated", 42.0, translator)
+        );
+
+        assertEquals(9L, exporter.propertiesWritten());
+        assertTrue(translatorToken.get() >= 0);
+        runQueryWithRowConsumer(DB, "MATCH (n) RETURN id(n) AS id, n.offset AS offset, n.half AS half, n.translated AS translated", row -> {
+            long nodeId = row.getNumber("id").longValue();
+            assertEquals(nodeId + 100L, row.getNumber("offset").longValue());
+            assertEquals(nodeId / 2.0, row.getNumber("half").doubleValue());
+            assertEquals(42.0, row.getNumber("translated").doubleValue());
+        });
+    }
+
+    @Test
+    void adaptsBatchSizeToTransactionLatency() {
+        long batchSize = NodePropertyExporter.MIN_BATCH_SIZE * 2;
+        AtomicLong adaptive = new AtomicLong(batchSize);
+
+        NodePropertyExporter.adaptBatchSize(adaptive, batchSize, NodePropertyExporter.TARGET_TRANSACTION_NANOS / 4);
+        assertEquals(batchSize * 2, adaptive.get());
+
+        NodePropertyExporter.adaptBatchSize(adaptive, batchSize * 2, NodePropertyExporter.TARGET_TRANSACTION_NANOS * 4);
+        assertEquals(batchSize, adaptive.get());
+
+        NodePropertyExporter.adaptBatchSize(adaptive, batchSize, NodePropertyExporter.TARGET_TRANSACTION_NANOS);
+        assertEquals(batchSize, adaptive.get());
+
+        NodePropertyExporter.adaptBatchSize(adaptive, batchSize, Long.MAX_VALUE);
+        NodePropertyExporter.adaptBatchSize(adaptive, adaptive.get(), Long.MAX_VALUE);
+        assertEquals(NodePropertyExporter.MIN_BATCH_SIZE, adaptive.get());
+    }
+
     private void transactionTerminationTest(ExecutorService executorService) {
         TerminationFlag terminationFlag = () -> false;
         NodePropertyExporter exporter = NodePropertyExporter.of(DB, new DirectIdMapping(3), terminationFlag)
@@ -26,12 +26,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.FilterGraph;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.DeadlockDetectedException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.neo4j.graphalgo.QueryRunner.runQuery;
 import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
 import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
@@ -84,6 +91,18 @@ class RelationshipExporterTest {
         validateWrittenGraphWithoutProperties();
     }
 
+    @Test
+    void exportRelationshipsInParallel() {
+        AtomicInteger count = new AtomicInteger();
+        setupExportTest(/* includeProperties */ true, /* parallel */ true)
+            .write("FOOBAR", "weight", (sourceNodeId, targetNodeId, property) -> {
+                count.incrementAndGet();
+                return true;
+            });
+        Assertions.assertEquals(4, count.get());
+        validateWrittenGraph();
+    }
+
     @Test
     void exportRelationshipsWithAfterWriteConsumer() {
         RelationshipExporter exporter = setupExportTest(/* includeProperties */ true);
@@ -108,8 +127,63 @@ class RelationshipExporterTest {
         validateWrittenGraphWithoutProperties();
     }
 
+    @Test
+    void retryBatchesThatFailWithADeadlock() {
+        DeadlockingGraph graph = new DeadlockingGraph(loadGraphToExport(/* includeProperties */ true), 2);
+        RelationshipExporter.of(db, graph, Direction.OUTGOING, RUNNING_TRUE)
+            .build()
+            .write("FOOBAR", "weight");
+
+        // the relationships of the failed attempts have been rolled back
+        Assertions.assertEquals(3, graph.attempts.get());
+        validateWrittenGraph();
+    }
+
+    @Test
+    void failAfterTooManyDeadlocks() {
+        DeadlockingGraph graph = new DeadlockingGraph(loadGraphToExport(/* includeProperties */ true), Integer.MAX_VALUE);
+        RelationshipExporter exporter = RelationshipExporter.of(db, graph, Direction.OUTGOING, RUNNING_TRUE).build();
+
+        assertThrows(DeadlockDetectedException.class, () -> exporter.write("FOOBAR", "weight"));
+        Assertions.assertEquals(RelationshipExporter.MAX_DEADLOCK_RETRIES, graph.attempts.get());
+        long written = runQuery(db, "MATCH ()-[r:FOOBAR]->() RETURN count(r) AS count", result ->
+            ((Number) result.next().get("count")).longValue()
+        );
+        Assertions.assertEquals(0L, written);
+    }
+
+    @Test
+    void writeBatchesThatKeepDeadlockingAfterTheConcurrentBatches() {
+        DeadlockingGraph graph = new DeadlockingGraph(
+            loadGraphToExport(/* includeProperties */ true),
+            RelationshipExporter.MAX_DEADLOCK_RETRIES + 1
+        );
+        RelationshipExporter.of(db, graph, Direction.OUTGOING, RUNNING_TRUE)
+            .withBatchSize(1)
+            .parallel(Pools.DEFAULT, 4)
+            .build()
+            .write("FOOBAR", "weight");
+
+        Assertions.assertEquals(RelationshipExporter.MAX_DEADLOCK_RETRIES + 2, graph.attempts.get());
+        validateWrittenGraph();
+    }
+
     private RelationshipExporter setupExportTest(boolean includeProperties) {
-        // create graph to export
+        return setupExportTest(includeProperties, false);
+    }
+
+    private RelationshipExporter setupExportTest(boolean includeProperties, boolean parallel) {
+        Graph fromGraph = loadGraphToExport(includeProperties);
+
+        // export into new database
+        RelationshipExporter.Builder builder = RelationshipExporter.of(db, fromGraph, Direction.OUTGOING, RUNNING_TRUE);
+        if (parallel) {
+            builder.withBatchSize(1).parallel(Pools.DEFAULT, 4);
+        }
+        return builder.build();
+    }
+
+    private Graph loadGraphToExport(boolean includeProperties) {
         GraphDatabaseAPI fromDb = TestDatabaseCreator.createTestDatabase();
         runQuery(fromDb, NODE_QUERY_PART + RELS_QUERY_PART);
         GraphLoader loader = new GraphLoader(fromDb)
@@ -118,12 +192,7 @@ class RelationshipExporterTest {
         if (includeProperties) {
             loader.withRelationshipProperties(PropertyMapping.of("weight", PROPERTY_VALUE_IF_MISSING));
         }
-        Graph fromGraph = loader.load(HugeGraphFactory.class);
-
-        // export into new database
-        return RelationshipExporter
-            .of(db, fromGraph, Direction.OUTGOING, RUNNING_TRUE)
-            .build();
+        return loader.load(HugeGraphFactory.class);
     }
 
     private void validateWrittenGraph() {
@@ -159,4 +228,35 @@ class RelationshipExporterTest {
             .withRelationshipProperties(PropertyMapping.of("weight", PROPERTY_VALUE_IF_NOT_WRITTEN))
             .load(HugeGraphFactory.class);
     }
+
+    /**
+     * Fails the first write attempts of a batch with a deadlock after the relationships
+     * of the first source node have been written.
+     */
+    private static final class DeadlockingGraph extends FilterGraph {
+
+        private final AtomicInteger remainingDeadlocks;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        DeadlockingGraph(Graph graph, int deadlocks) {
+            super(graph);
+            this.remainingDeadlocks = new AtomicInteger(deadlocks);
+        }
+
+        @Override
+        public void forEachRelationship(
+            long nodeId,
+            Direction direction,
+            double fallbackValue,
+            RelationshipWithPropertyConsumer consumer
+        ) {
+            super.forEachRelationship(nodeId, direction, fallbackValue, consumer);
+            if (nodeId == 0L) {
+                attempts.incrementAndGet();
+                if (remainingDeadlocks.getAndDecrement() > 0) {
+                    throw new DeadlockDetectedException("Deadlock while writing the relationships of node " + nodeId);
+                }
+            }
+        }
+    }
 }
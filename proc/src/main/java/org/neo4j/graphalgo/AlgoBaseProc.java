@@ -24,14 +24,18 @@ import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.ModernGraphLoader;
+import org.neo4j.graphalgo.core.loading.DenseLongNodePropertyMap;
+import org.neo4j.graphalgo.core.loading.DenseNodePropertyMap;
 import org.neo4j.graphalgo.core.loading.GraphCatalog;
 import org.neo4j.graphalgo.core.loading.GraphWithConfig;
 import org.neo4j.graphalgo.core.loading.GraphsByRelationshipType;
 import org.neo4j.graphalgo.core.loading.ImmutableGraphWithConfig;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
@@ -39,24 +43,33 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTreeWithDimensions;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.AlgoBaseConfig;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.newapi.GraphCreateFromCypherConfig;
+import org.neo4j.graphalgo.newapi.MutateConfig;
 import org.neo4j.graphalgo.newapi.NodeWeightConfig;
 import org.neo4j.graphalgo.newapi.RelationshipWeightConfig;
 import org.neo4j.graphalgo.newapi.SeedConfig;
 import org.neo4j.graphalgo.newapi.WriteConfig;
 import org.neo4j.graphalgo.result.AbstractResultBuilder;
+import org.neo4j.graphalgo.result.MutateResult;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
 import org.neo4j.helpers.collection.Pair;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.Value;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.stream.Stream;
 
 public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFIG extends AlgoBaseConfig> extends BaseProc {
@@ -64,6 +77,9 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
     protected static final String ESTIMATE_DESCRIPTION = "Returns an estimation of the memory consumption for that procedure.";
     protected static final String STATS_DESCRIPTION = "Executes the algorithm and returns result statistics without writing the result to Neo4j.";
 
+    // keeps a graph from the catalog from being released by a compaction while the algorithm uses it
+    private @Nullable GraphCatalog.Lease graphLease;
+
     public String algoName() {
         return this.getClass().getSimpleName();
     }
@@ -84,6 +100,9 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
             config = config.withoutAny(createConfig.configKeys());
         }
         CONFIG algoConfig = newConfig(getUsername(), graphName, maybeImplicitCreate, config);
+        if (algoConfig instanceof MutateConfig && !graphName.isPresent()) {
+            throw new IllegalArgumentException("Mutate procedures can only be run on a named graph from the graph catalog.");
+        }
         validateConfig(config, algoConfig);
         return algoConfig;
     }
@@ -189,7 +208,8 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
         List<String> relationshipTypes;
 
         if (maybeGraphName.isPresent()) {
-            graphCandidate = GraphCatalog.get(getUsername(), maybeGraphName.get());
+            graphLease = GraphCatalog.acquire(getUsername(), maybeGraphName.get());
+            graphCandidate = graphLease.graphWithConfig();
             relationshipTypes = config.relationshipTypes();
         } else if (config.implicitCreateConfig().isPresent()) {
             GraphCreateConfig createConfig = config.implicitCreateConfig().get();
@@ -202,16 +222,29 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
             throw new IllegalStateException("There must be either a graph name or an implicit create config");
         }
 
-        validateConfig(graphCandidate.config(), config);
+        validateConfig(graphCandidate, config);
         return graphCandidate.graph().getGraphProjection(relationshipTypes, weightProperty);
     }
 
-    private void validateConfig(GraphCreateConfig graphCreateConfig, CONFIG config) {
+    private void validateConfig(GraphWithConfig graphCandidate, CONFIG config) {
+        GraphCreateConfig graphCreateConfig = graphCandidate.config();
+        // properties that have been added by mutate procedures are not part of the projection
+        Set<String> mutatedProperties = graphCandidate.graph().availableNodeProperties();
+        if (config instanceof MutateConfig) {
+            String mutateProperty = ((MutateConfig) config).mutateProperty();
+            if (mutatedProperties.contains(mutateProperty)) {
+                throw new IllegalArgumentException(String.format(
+                    "Node property `%s` already exists in the graph.",
+                    mutateProperty
+                ));
+            }
+        }
         if (graphCreateConfig instanceof GraphCreateFromCypherConfig) {
             return;
         }
         if (config instanceof SeedConfig) {
-            Set<String> nodeProperties = graphCreateConfig.nodeProjection().allProperties();
+            Set<String> nodeProperties = new HashSet<>(graphCreateConfig.nodeProjection().allProperties());
+            nodeProperties.addAll(mutatedProperties);
             String seedProperty = ((SeedConfig) config).seedProperty();
             if (seedProperty != null && !nodeProperties.contains(seedProperty)) {
                 throw new IllegalArgumentException(String.format(
@@ -223,6 +256,7 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
         }
         if (config instanceof NodeWeightConfig) {
             Set<String> properties = new HashSet<>(graphCreateConfig.nodeProjection().allProperties());
+            properties.addAll(mutatedProperties);
 
             String weightProperty = ((NodeWeightConfig) config).nodeWeightProperty();
             if (weightProperty != null && !properties.contains(weightProperty)) {
@@ -274,9 +308,13 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
 
         try (ProgressTimer timer = ProgressTimer.start(builder::createMillis)) {
             graph = createGraph(input);
+        } catch (RuntimeException e) {
+            releaseGraphLease();
+            throw e;
         }
 
         if (graph.isEmpty()) {
+            releaseGraphLease();
             return builder
                 .isGraphEmpty(true)
                 .graph(graph)
@@ -288,16 +326,22 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
                 .build();
         }
 
-        A algo = newAlgorithm(graph, config, tracker);
-
-        RESULT result = runWithExceptionLogging(
-            "Computation failed",
-            () -> {
-                try (ProgressTimer ignored = ProgressTimer.start(builder::computeMillis)) {
-                    return algo.compute();
+        A algo;
+        RESULT result;
+        try {
+            algo = newAlgorithm(graph, config, tracker);
+            result = runWithExceptionLogging(
+                "Computation failed",
+                () -> {
+                    try (ProgressTimer ignored = ProgressTimer.start(builder::computeMillis)) {
+                        return algo.compute();
+                    }
                 }
-            }
-        );
+            );
+        } catch (RuntimeException e) {
+            releaseGraphLease();
+            throw e;
+        }
 
         log.info(algoName() + ": overall memory usage %s", tracker.getUsageString());
 
@@ -306,6 +350,7 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
         }
         if (releaseTopology) {
             graph.releaseTopology();
+            releaseGraphLease();
         }
 
         return builder
@@ -324,12 +369,24 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
             "Write procedures needs to implement org.neo4j.graphalgo.BaseAlgoProc.nodePropertyTranslator");
     }
 
+    /**
+     * The node property columns that are written for the result, all columns are written in a single pass over the nodes.
+     * Defaults to a single column for the {@code writeProperty} that reads the result through {@link #nodePropertyTranslator}.
+     */
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(
+        ComputationResult<A, RESULT, CONFIG> computationResult
+    ) {
+        return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+            ((WriteConfig) computationResult.config()).writeProperty(),
+            computationResult.result(),
+            nodePropertyTranslator(computationResult)
+        ));
+    }
+
     protected void writeNodeProperties(
         AbstractResultBuilder<?, ?> writeBuilder,
         ComputationResult<A, RESULT, CONFIG> computationResult
     ) {
-        PropertyTranslator<RESULT> resultPropertyTranslator = nodePropertyTranslator(computationResult);
-
         CONFIG config = computationResult.config();
         if (!(config instanceof WriteConfig)) {
             throw new IllegalArgumentException(String.format(
@@ -349,13 +406,141 @@ public abstract class AlgoBaseProc<A extends Algorithm<A, RESULT>, RESULT, CONFI
                 .parallel(Pools.DEFAULT, writeConfig.writeConcurrency())
                 .build();
 
-            exporter.write(
-                writeConfig.writeProperty(),
-                computationResult.result(),
-                resultPropertyTranslator
-            );
+            exporter.write(nodePropertyColumns(computationResult));
             writeBuilder.withNodePropertiesWritten(exporter.propertiesWritten());
+            writeBuilder.withNodesWritten(exporter.nodesWritten());
+        }
+    }
+
+    /**
+     * Runs {@link #mutateNodeProperties} for a computation with a {@link MutateConfig}
+     * and returns the single result row of the mutate procedures.
+     */
+    protected Stream<MutateResult> mutate(ComputationResult<A, RESULT, CONFIG> computationResult) {
+        MutateResult.Builder builder = new MutateResult.Builder((MutateConfig) computationResult.config());
+        builder.withCreateMillis(computationResult.createMillis());
+        builder.withComputeMillis(computationResult.computeMillis());
+        if (!computationResult.isGraphEmpty()) {
+            mutateNodeProperties(builder, computationResult);
+        }
+        return Stream.of(builder.build());
+    }
+
+    /**
+     * Adds the result as a node property to the graph in the catalog, where it can be used by further algorithms.
+     * The graph in the catalog is replaced by a graph that shares the topology with it,
+     * graphs that are in use by other procedures are not affected.
+     */
+    protected void mutateNodeProperties(
+        AbstractResultBuilder<?, ?> writeBuilder,
+        ComputationResult<A, RESULT, CONFIG> computationResult
+    ) {
+        PropertyTranslator<RESULT> resultPropertyTranslator = nodePropertyTranslator(computationResult);
+
+        MutateConfig mutateConfig = (MutateConfig) computationResult.config();
+        String graphName = mutateConfig.graphName().orElseThrow(() -> new IllegalArgumentException(
+            "Mutate procedures can only be run on a named graph from the graph catalog."));
+
+        try (ProgressTimer ignored = ProgressTimer.start(writeBuilder::withWriteMillis)) {
+            log.debug("Mutating graph");
+
+            long nodeCount = computationResult.graph().nodeCount();
+            NodeProperties properties = resultPropertyTranslator instanceof PropertyTranslator.OfLong
+                ? longNodeProperties((PropertyTranslator.OfLong<RESULT>) resultPropertyTranslator, computationResult)
+                : doubleNodeProperties(resultPropertyTranslator, computationResult);
+
+            GraphWithConfig graphWithConfig;
+            do {
+                graphWithConfig = GraphCatalog.get(getUsername(), graphName);
+            } while (!GraphCatalog.replace(
+                getUsername(),
+                graphName,
+                graphWithConfig.graph(),
+                graphWithConfig.graph().withNodeProperty(mutateConfig.mutateProperty(), properties)
+            ));
+            writeBuilder.withNodePropertiesWritten(nodeCount);
+            writeBuilder.withNodesWritten(nodeCount);
+        }
+    }
+
+    /**
+     * Integral results, e.g. community ids, are stored as longs, so that they keep their precision above 2^53
+     * and can be used as seeds by further algorithms.
+     */
+    private NodeProperties longNodeProperties(
+        PropertyTranslator.OfLong<RESULT> translator,
+        ComputationResult<A, RESULT, CONFIG> computationResult
+    ) {
+        RESULT result = computationResult.result();
+        long nodeCount = computationResult.graph().nodeCount();
+        HugeLongArray values = HugeLongArray.newArray(nodeCount, computationResult.tracker());
+        LongAccumulator maxValue = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        ParallelUtil.readParallel(
+            ((MutateConfig) computationResult.config()).writeConcurrency(),
+            nodeCount,
+            Pools.DEFAULT,
+            (start, end) -> {
+                long localMax = Long.MIN_VALUE;
+                for (long nodeId = start; nodeId < end; nodeId++) {
+                    long value = translator.toLong(result, nodeId);
+                    values.set(nodeId, value);
+                    localMax = Math.max(localMax, value);
+                }
+                maxValue.accumulate(localMax);
+            }
+        );
+        return DenseLongNodePropertyMap.of(
+            values,
+            nodeCount > 0 ? OptionalLong.of(maxValue.get()) : OptionalLong.empty()
+        );
+    }
+
+    private NodeProperties doubleNodeProperties(
+        PropertyTranslator<RESULT> translator,
+        ComputationResult<A, RESULT, CONFIG> computationResult
+    ) {
+        RESULT result = computationResult.result();
+        long nodeCount = computationResult.graph().nodeCount();
+        HugeDoubleArray values = HugeDoubleArray.newArray(nodeCount, computationResult.tracker());
+        ParallelUtil.readParallel(
+            ((MutateConfig) computationResult.config()).writeConcurrency(),
+            nodeCount,
+            Pools.DEFAULT,
+            (start, end) -> {
+                for (long nodeId = start; nodeId < end; nodeId++) {
+                    values.set(nodeId, toDouble(translator.toProperty(-1, result, nodeId)));
+                }
+            }
+        );
+        return DenseNodePropertyMap.of(values, OptionalLong.empty());
+    }
+
+    /**
+     * Keeps the graph from the catalog in use until the results are closed.
+     * Procedures that compute with {@code releaseTopology} set to {@code false} must return their results through this method.
+     */
+    protected <T> Stream<T> withGraphLease(Stream<T> results) {
+        return results.onClose(this::releaseGraphLease);
+    }
+
+    private void releaseGraphLease() {
+        if (graphLease != null) {
+            graphLease.close();
+            graphLease = null;
+        }
+    }
+
+    private static double toDouble(@Nullable Value value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        if (value instanceof NumberValue) {
+            return ((NumberValue) value).doubleValue();
         }
+        throw new IllegalArgumentException(String.format(
+            "Only numeric results can be added to the graph, but got a value of type %s.",
+            value.getClass().getSimpleName()
+        ));
     }
 
     protected Stream<MemoryEstimateResult> computeEstimate(
@@ -22,12 +22,143 @@ package org.neo4j.graphalgo.beta.k1coloring;
 import org.neo4j.graphalgo.AlgoBaseProc;
 import org.neo4j.graphalgo.AlgorithmFactory;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.result.AbstractResultBuilder;
+
+import java.util.stream.Stream;
 
 public abstract class K1ColoringBaseProc<T extends K1ColoringConfig> extends AlgoBaseProc<K1Coloring, HugeLongArray, T> {
     static final String DESCRIPTION = "The K-1 Coloring algorithm assigns a color to every node in the graph.";
+    private static final String COLOR_COUNT_FIELD_NAME = "colorCount";
 
     @Override
     protected AlgorithmFactory<K1Coloring, T> algorithmFactory(T config) {
         return new K1ColoringFactory<>();
     }
+
+    protected Stream<WriteResult> write(ComputationResult<K1Coloring, HugeLongArray, T> compute) {
+        K1ColoringWriteConfig config = (K1ColoringWriteConfig) compute.config();
+        K1Coloring result = compute.algorithm();
+        WriteResultBuilder builder = new WriteResultBuilder(config);
+
+        if (callContext.outputFields().anyMatch((field) -> field.equals(COLOR_COUNT_FIELD_NAME))) {
+            builder.withColorCount(result.usedColors().cardinality());
+        }
+
+        builder
+            .withWriteProperty(config.writeProperty())
+            .withRanIterations(result.ranIterations())
+            .withDidConverge(result.didConverge())
+            .withCreateMillis(compute.createMillis())
+            .withComputeMillis(compute.computeMillis());
+
+        writeNodeProperties(builder, compute);
+        return Stream.of(builder.build());
+    }
+
+    @Override
+    protected PropertyTranslator<HugeLongArray> nodePropertyTranslator(ComputationResult<K1Coloring, HugeLongArray, T> computationResult) {
+        return HugeLongArray.Translator.INSTANCE;
+    }
+
+    public static class WriteResultBuilder extends AbstractResultBuilder<K1ColoringWriteConfig, WriteResult> {
+
+        private long colorCount = -1L;
+        private long ranIterations;
+        private boolean didConverge;
+        private String writeProperty;
+
+        WriteResultBuilder(K1ColoringWriteConfig config) {
+            super(config);
+        }
+
+        WriteResultBuilder withColorCount(long colorCount) {
+            this.colorCount = colorCount;
+            return this;
+        }
+
+        WriteResultBuilder withRanIterations(long ranIterations) {
+            this.ranIterations = ranIterations;
+            return this;
+        }
+
+        WriteResultBuilder withDidConverge(boolean didConverge) {
+            this.didConverge = didConverge;
+            return this;
+        }
+
+        WriteResultBuilder withWriteProperty(String writeProperty) {
+            this.writeProperty = writeProperty;
+            return this;
+        }
+
+        @Override
+        public WriteResult build() {
+            return new WriteResult(
+                createMillis,
+                computeMillis,
+                writeMillis,
+                nodesWrittenPerSecond(),
+                nodePropertiesWritten,
+                colorCount,
+                ranIterations,
+                true,
+                didConverge,
+                writeProperty
+            );
+        }
+    }
+
+    public static class WriteResult {
+
+        public static final WriteResult EMPTY = new WriteResult(
+            0,
+            0,
+            0,
+            0,
+            0,
+            0,
+            0,
+            false,
+            false,
+            null
+        );
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long nodesWrittenPerSecond;
+
+        public final long nodes;
+        public final long colorCount;
+        public final long ranIterations;
+        public final boolean didConverge;
+        public final String writeProperty;
+
+        public final boolean write;
+
+        WriteResult(
+            long loadMillis,
+            long computeMillis,
+            long writeMillis,
+            long nodesWrittenPerSecond,
+            long nodes,
+            long colorCount,
+            long ranIterations,
+            boolean write,
+            boolean didConverge,
+            String writeProperty
+        ) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
+            this.nodes = nodes;
+            this.colorCount = colorCount;
+            this.ranIterations = ranIterations;
+            this.write = write;
+            this.didConverge = didConverge;
+            this.writeProperty = writeProperty;
+        }
+    }
 }
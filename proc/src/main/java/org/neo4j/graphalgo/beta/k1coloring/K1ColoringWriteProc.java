@@ -21,9 +21,7 @@ package org.neo4j.graphalgo.beta.k1coloring;
 
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
-import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
-import org.neo4j.graphalgo.result.AbstractResultBuilder;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
 import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Mode;
@@ -37,7 +35,6 @@ import java.util.stream.Stream;
 import static org.neo4j.procedure.Mode.READ;
 
 public class K1ColoringWriteProc extends K1ColoringBaseProc<K1ColoringWriteConfig> {
-    private static final String COLOR_COUNT_FIELD_NAME = "colorCount";
 
     @Procedure(name = "gds.beta.k1coloring.write", mode = Mode.WRITE)
     @Description(DESCRIPTION)
@@ -63,26 +60,6 @@ public class K1ColoringWriteProc extends K1ColoringBaseProc<K1ColoringWriteConfi
         return computeEstimate(graphNameOrConfig, configuration);
     }
 
-    private Stream<WriteResult> write(ComputationResult<K1Coloring, HugeLongArray, K1ColoringWriteConfig> compute) {
-        K1ColoringWriteConfig config = compute.config();
-        K1Coloring result = compute.algorithm();
-        WriteResultBuilder builder = new WriteResultBuilder(config);
-
-        if (callContext.outputFields().anyMatch((field) -> field.equals(COLOR_COUNT_FIELD_NAME))) {
-            builder.withColorCount(result.usedColors().cardinality());
-        }
-
-        builder
-            .withWriteProperty(config.writeProperty())
-            .withRanIterations(result.ranIterations())
-            .withDidConverge(result.didConverge())
-            .withCreateMillis(compute.createMillis())
-            .withComputeMillis(compute.computeMillis());
-
-        writeNodeProperties(builder, compute);
-        return Stream.of(builder.build());
-    }
-
     @Override
     protected K1ColoringWriteConfig newConfig(
         String username,
@@ -92,106 +69,4 @@ public class K1ColoringWriteProc extends K1ColoringBaseProc<K1ColoringWriteConfi
     ) {
         return K1ColoringWriteConfig.of(username, graphName, maybeImplicitCreate, config);
     }
-
-    @Override
-    protected PropertyTranslator<HugeLongArray> nodePropertyTranslator(ComputationResult<K1Coloring, HugeLongArray, K1ColoringWriteConfig> computationResult) {
-        return HugeLongArray.Translator.INSTANCE;
-    }
-
-    public static class WriteResultBuilder extends AbstractResultBuilder<K1ColoringWriteConfig, WriteResult> {
-
-        private long colorCount = -1L;
-        private long ranIterations;
-        private boolean didConverge;
-        private String writeProperty;
-
-        WriteResultBuilder(K1ColoringWriteConfig config) {
-            super(config);
-        }
-
-        WriteResultBuilder withColorCount(long colorCount) {
-            this.colorCount = colorCount;
-            return this;
-        }
-
-        WriteResultBuilder withRanIterations(long ranIterations) {
-            this.ranIterations = ranIterations;
-            return this;
-        }
-
-        WriteResultBuilder withDidConverge(boolean didConverge) {
-            this.didConverge = didConverge;
-            return this;
-        }
-
-        WriteResultBuilder withWriteProperty(String writeProperty) {
-            this.writeProperty = writeProperty;
-            return this;
-        }
-
-        @Override
-        public WriteResult build() {
-            return new WriteResult(
-                createMillis,
-                computeMillis,
-                writeMillis,
-                nodePropertiesWritten,
-                colorCount,
-                ranIterations,
-                true,
-                didConverge,
-                writeProperty
-            );
-        }
-    }
-
-    public static class WriteResult {
-
-        public static final WriteResult EMPTY = new WriteResult(
-            0,
-            0,
-            0,
-            0,
-            0,
-            0,
-            false,
-            false,
-            null
-        );
-
-        public final long loadMillis;
-        public final long computeMillis;
-        public final long writeMillis;
-
-        public final long nodes;
-        public final long colorCount;
-        public final long ranIterations;
-        public final boolean didConverge;
-        public final String writeProperty;
-
-        public final boolean write;
-
-        WriteResult(
-            long loadMillis,
-            long computeMillis,
-            long writeMillis,
-            long nodes,
-            long colorCount,
-            long ranIterations,
-            boolean write,
-            boolean didConverge,
-            String writeProperty
-        ) {
-            this.loadMillis = loadMillis;
-            this.computeMillis = computeMillis;
-            this.writeMillis = writeMillis;
-            this.nodes = nodes;
-            this.colorCount = colorCount;
-            this.ranIterations = ranIterations;
-            this.write = write;
-            this.didConverge = didConverge;
-            this.writeProperty = writeProperty;
-        }
-    }
-
 }
@@ -22,6 +22,14 @@ package org.neo4j.graphalgo.beta.modularity;
 
 import org.neo4j.graphalgo.AlgoBaseProc;
 import org.neo4j.graphalgo.AlgorithmFactory;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.result.AbstractCommunityResultBuilder;
+import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
+
+import java.util.Map;
+import java.util.stream.Stream;
 
 public abstract class ModularityOptimizationBaseProc<T extends ModularityOptimizationConfig> extends AlgoBaseProc<ModularityOptimization, ModularityOptimization, T> {
     static final String DESCRIPTION = "The Modularity Optimization algorithm groups the nodes in the graph by optimizing the graphs modularity.";
@@ -30,4 +38,143 @@ public abstract class ModularityOptimizationBaseProc<T extends ModularityOptimiz
     protected AlgorithmFactory<ModularityOptimization, T> algorithmFactory(T config) {
         return new ModularityOptimizationFactory<>();
     }
+
+    protected Stream<WriteResult> write(ComputationResult<ModularityOptimization, ModularityOptimization, T> computationResult) {
+        ModularityOptimizationWriteConfig config = (ModularityOptimizationWriteConfig) computationResult.config();
+        ModularityOptimization result = computationResult.result();
+        Graph graph = computationResult.graph();
+
+        AbstractCommunityResultBuilder<ModularityOptimizationWriteConfig, WriteResult> builder = new WriteResultBuilder(config, graph.nodeCount(), callContext, computationResult.tracker())
+            .withCommunityProperty(config.writeProperty())
+            .withModularity(result.getModularity())
+            .withRanIterations(result.getIterations())
+            .withDidConverge(result.didConverge())
+            .withCommunityFunction(result::getCommunityId);
+
+        if (graph.isEmpty()) {
+            graph.release();
+            return Stream.of(builder.build());
+        }
+
+        writeNodeProperties(builder, computationResult);
+
+        graph.release();
+        return Stream.of(builder.build());
+    }
+
+    @Override
+    protected PropertyTranslator<ModularityOptimization> nodePropertyTranslator(ComputationResult<ModularityOptimization, ModularityOptimization, T> computationResult) {
+        return ModularityOptimizationTranslator.INSTANCE;
+    }
+
+    static final class ModularityOptimizationTranslator implements PropertyTranslator.OfLong<ModularityOptimization> {
+        public static final ModularityOptimizationTranslator INSTANCE = new ModularityOptimizationTranslator();
+
+        @Override
+        public long toLong(ModularityOptimization data, long nodeId) {
+            return data.getCommunityId(nodeId);
+        }
+    }
+
+    public static class WriteResult {
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long nodesWrittenPerSecond;
+        public final long postProcessingMillis;
+        public final long nodes;
+        public final String communityProperty;
+        public final String writeProperty;
+        public boolean didConverge;
+        public long ranIterations;
+        public double modularity;
+        public final long communityCount;
+        public final Map<String, Object> communityDistribution;
+
+        WriteResult(
+            long loadMillis,
+            long computeMillis,
+            long postProcessingMillis,
+            long writeMillis,
+            long nodesWrittenPerSecond,
+            long nodes,
+            String communityProperty,
+            String writeProperty,
+            boolean didConverge,
+            long ranIterations,
+            double modularity,
+            long communityCount,
+            Map<String, Object> communityDistribution
+        ) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
+            this.postProcessingMillis = postProcessingMillis;
+            this.nodes = nodes;
+            this.communityProperty = communityProperty;
+            this.writeProperty = writeProperty;
+            this.didConverge = didConverge;
+            this.ranIterations = ranIterations;
+            this.modularity = modularity;
+            this.communityCount = communityCount;
+            this.communityDistribution = communityDistribution;
+        }
+    }
+
+    public static class WriteResultBuilder extends AbstractCommunityResultBuilder<ModularityOptimizationWriteConfig, WriteResult> {
+        private String communityProperty;
+        private long ranIterations;
+        private boolean didConverge;
+        private double modularity;
+
+        WriteResultBuilder(
+            ModularityOptimizationWriteConfig config,
+            long nodeCount,
+            ProcedureCallContext context,
+            AllocationTracker tracker
+        ) {
+            super(config, nodeCount, context, tracker);
+        }
+
+        WriteResultBuilder withRanIterations(long ranIterations) {
+            this.ranIterations = ranIterations;
+            return this;
+        }
+
+        WriteResultBuilder withDidConverge(boolean didConverge) {
+            this.didConverge = didConverge;
+            return this;
+        }
+
+        WriteResultBuilder withCommunityProperty(String communityProperty) {
+            this.communityProperty = communityProperty;
+            return this;
+        }
+
+        WriteResultBuilder withModularity(double modularity) {
+            this.modularity = modularity;
+            return this;
+        }
+
+        @Override
+        protected WriteResult buildResult() {
+            return new WriteResult(
+                createMillis,
+                computeMillis,
+                postProcessingDuration,
+                writeMillis,
+                nodesWrittenPerSecond(),
+                nodePropertiesWritten,
+                communityProperty,
+                writeProperty,
+                didConverge,
+                ranIterations,
+                modularity,
+                maybeCommunityCount.orElse(0),
+                communityHistogramOrNull()
+            );
+        }
+    }
 }
@@ -20,19 +20,17 @@
 
 package org.neo4j.graphalgo.beta.modularity;
 
-import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
-import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
-import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
-import org.neo4j.graphalgo.result.AbstractCommunityResultBuilder;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
-import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -65,29 +63,6 @@ public class ModularityOptimizationWriteProc extends ModularityOptimizationBaseP
         return computeEstimate(graphNameOrConfig, configuration);
     }
 
-    private Stream<WriteResult> write(ComputationResult<ModularityOptimization, ModularityOptimization, ModularityOptimizationWriteConfig> computationResult) {
-        ModularityOptimizationWriteConfig config = computationResult.config();
-        ModularityOptimization result = computationResult.result();
-        Graph graph = computationResult.graph();
-
-        AbstractCommunityResultBuilder<ModularityOptimizationWriteConfig, WriteResult> builder = new WriteResultBuilder(config, graph.nodeCount(), callContext, computationResult.tracker())
-            .withCommunityProperty(config.writeProperty())
-            .withModularity(result.getModularity())
-            .withRanIterations(result.getIterations())
-            .withDidConverge(result.didConverge())
-            .withCommunityFunction(result::getCommunityId);
-
-        if (graph.isEmpty()) {
-            graph.release();
-            return Stream.of(builder.build());
-        }
-
-        writeNodeProperties(builder, computationResult);
-
-        graph.release();
-        return Stream.of(builder.build());
-    }
-
     @Override
     protected ModularityOptimizationWriteConfig newConfig(
         String username,
@@ -99,114 +74,13 @@ public class ModularityOptimizationWriteProc extends ModularityOptimizationBaseP
     }
 
     @Override
-    protected PropertyTranslator<ModularityOptimization> nodePropertyTranslator(ComputationResult<ModularityOptimization, ModularityOptimization, ModularityOptimizationWriteConfig> computationResult) {
-        return ModularityOptimizationTranslator.INSTANCE;
-    }
-
-    static final class ModularityOptimizationTranslator implements PropertyTranslator.OfLong<ModularityOptimization> {
-        public static final ModularityOptimizationTranslator INSTANCE = new ModularityOptimizationTranslator();
-
-        @Override
-        public long toLong(ModularityOptimization data, long nodeId) {
-            return data.getCommunityId(nodeId);
-        }
-    }
-
-    public static class WriteResult {
-
-        public final long loadMillis;
-        public final long computeMillis;
-        public final long writeMillis;
-        public final long postProcessingMillis;
-        public final long nodes;
-        public final String communityProperty;
-        public final String writeProperty;
-        public boolean didConverge;
-        public long ranIterations;
-        public double modularity;
-        public final long communityCount;
-        public final Map<String, Object> communityDistribution;
-
-        WriteResult(
-            long loadMillis,
-            long computeMillis,
-            long postProcessingMillis,
-            long writeMillis,
-            long nodes,
-            String communityProperty,
-            String writeProperty,
-            boolean didConverge,
-            long ranIterations,
-            double modularity,
-            long communityCount,
-            Map<String, Object> communityDistribution
-        ) {
-            this.loadMillis = loadMillis;
-            this.computeMillis = computeMillis;
-            this.writeMillis = writeMillis;
-            this.postProcessingMillis = postProcessingMillis;
-            this.nodes = nodes;
-            this.communityProperty = communityProperty;
-            this.writeProperty = writeProperty;
-            this.didConverge = didConverge;
-            this.ranIterations = ranIterations;
-            this.modularity = modularity;
-            this.communityCount = communityCount;
-            this.communityDistribution = communityDistribution;
-        }
-    }
-
-    public static class WriteResultBuilder extends AbstractCommunityResultBuilder<ModularityOptimizationWriteConfig, WriteResult> {
-        private String communityProperty;
-        private long ranIterations;
-        private boolean didConverge;
-        private double modularity;
-
-        WriteResultBuilder(
-            ModularityOptimizationWriteConfig config,
-            long nodeCount,
-            ProcedureCallContext context,
-            AllocationTracker tracker
-        ) {
-            super(config, nodeCount, context, tracker);
-        }
-
-        WriteResultBuilder withRanIterations(long ranIterations) {
-            this.ranIterations = ranIterations;
-            return this;
-        }
-
-        WriteResultBuilder withDidConverge(boolean didConverge) {
-            this.didConverge = didConverge;
-            return this;
-        }
-
-        WriteResultBuilder withCommunityProperty(String communityProperty) {
-            this.communityProperty = communityProperty;
-            return this;
-        }
-
-        WriteResultBuilder withModularity(double modularity) {
-            this.modularity = modularity;
-            return this;
-        }
-
-        @Override
-        protected WriteResult buildResult() {
-            return new WriteResult(
-                createMillis,
-                computeMillis,
-                postProcessingDuration,
-                writeMillis,
-                nodePropertiesWritten,
-                communityProperty,
-                writeProperty,
-                didConverge,
-                ranIterations,
-                modularity,
-                maybeCommunityCount.orElse(0),
-                communityHistogramOrNull()
-            );
-        }
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(
+        ComputationResult<ModularityOptimization, ModularityOptimization, ModularityOptimizationWriteConfig> computationResult
+    ) {
+        ModularityOptimization modularityOptimization = computationResult.result();
+        return Collections.singletonList(NodePropertyExporter.NodeProperty.ofLongs(
+            computationResult.config().writeProperty(),
+            modularityOptimization::getCommunityId
+        ));
     }
 }
@@ -25,7 +25,10 @@ import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.result.AbstractCommunityResultBuilder;
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBaseConfig> extends AlgoBaseProc<LabelPropagation, LabelPropagation, CONFIG> {
@@ -71,6 +74,7 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
             builder
                 .didConverge(result.didConverge())
                 .ranIterations(result.ranIterations())
+                .withIterationStats(result.activeNodesPerIteration(), result.iterationMillis())
                 .withCommunityFunction((nodeId) -> result.labels().get(nodeId));
             if (write) {
                 writeNodeProperties(builder, computationResult);
@@ -88,6 +92,7 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
         public long createMillis;
         public long computeMillis;
         public long writeMillis;
+        public long nodesWrittenPerSecond;
         public long maxIterations;
         public String seedProperty;
         public String nodeWeightProperty;
@@ -96,6 +101,8 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
         public long communityCount;
         public long ranIterations;
         public boolean didConverge;
+        public List<Long> activeNodesPerIteration;
+        public List<Long> iterationMillis;
         public Map<String, Object> communityDistribution;
 
         WriteResult(
@@ -105,10 +112,13 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
             long createMillis,
             long computeMillis,
             long writeMillis,
+            long nodesWrittenPerSecond,
             long postProcessingMillis,
             long communityCount,
             long ranIterations,
             boolean didConverge,
+            long[] activeNodesPerIteration,
+            long[] iterationMillis,
             Map<String, Object> communityDistribution
         ) {
             this.writeProperty = config.writeProperty();
@@ -121,10 +131,13 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
             this.createMillis = createMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
             this.postProcessingMillis = postProcessingMillis;
             this.communityCount = communityCount;
             this.ranIterations = ranIterations;
             this.didConverge = didConverge;
+            this.activeNodesPerIteration = Arrays.stream(activeNodesPerIteration).boxed().collect(Collectors.toList());
+            this.iterationMillis = Arrays.stream(iterationMillis).boxed().collect(Collectors.toList());
             this.communityDistribution = communityDistribution;
         }
     }
@@ -135,6 +148,8 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
 
         private long ranIterations;
         private boolean didConverge;
+        private long[] activeNodesPerIteration = new long[]{};
+        private long[] iterationMillis = new long[]{};
 
         WriteResultBuilder(
             LabelPropagationWriteConfig config,
@@ -161,6 +176,12 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
             return this;
         }
 
+        WriteResultBuilder withIterationStats(long[] activeNodesPerIteration, long[] iterationMillis) {
+            this.activeNodesPerIteration = activeNodesPerIteration;
+            this.iterationMillis = iterationMillis;
+            return this;
+        }
+
         @Override
         protected WriteResult buildResult() {
             return new WriteResult(
@@ -170,10 +191,13 @@ public abstract class LabelPropagationBaseProc<CONFIG extends LabelPropagationBa
                 createMillis,
                 computeMillis,
                 writeMillis,
+                nodesWrittenPerSecond(),
                 postProcessingDuration,
                 maybeCommunityCount.orElse(-1L),
                 ranIterations,
                 didConverge,
+                activeNodesPerIteration,
+                iterationMillis,
                 communityHistogramOrNull()
             );
         }
@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.labelpropagation;
 
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
@@ -29,6 +30,8 @@ import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -60,23 +63,26 @@ public class LabelPropagationWriteProc extends LabelPropagationBaseProc<LabelPro
     }
 
     @Override
-    protected PropertyTranslator<LabelPropagation> nodePropertyTranslator(ComputationResult<LabelPropagation, LabelPropagation, LabelPropagationWriteConfig> computationResult) {
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(ComputationResult<LabelPropagation, LabelPropagation, LabelPropagationWriteConfig> computationResult) {
 
         LabelPropagationWriteConfig config = computationResult.config();
+        LabelPropagation labelPropagation = computationResult.result();
 
         boolean writePropertyEqualsSeedProperty = config.writeProperty().equals(config.seedProperty());
-        NodeProperties seedProperties = computationResult.graph().nodeProperties(config.seedProperty());
 
         if (writePropertyEqualsSeedProperty) {
-            return new PropertyTranslator.OfLongIfChanged<>(
-                seedProperties,
-                (data, nodeId) -> data.labels().get(nodeId)
-            );
+            NodeProperties seedProperties = computationResult.graph().nodeProperties(config.seedProperty());
+            return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+                config.writeProperty(),
+                labelPropagation,
+                new PropertyTranslator.OfLongIfChanged<>(seedProperties, (data, nodeId) -> data.labels().get(nodeId))
+            ));
         }
 
-        return (PropertyTranslator.OfLong<LabelPropagation>) (data, nodeId) -> data
-            .labels()
-            .get(nodeId);
+        return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+            config.writeProperty(),
+            labelPropagation.labels()
+        ));
     }
 
     @Override
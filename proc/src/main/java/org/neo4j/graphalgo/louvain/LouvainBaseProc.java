@@ -62,8 +62,8 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
                 new WriteResult(
                     writeConfig,
                     0, computeResult.createMillis(),
-                    0, 0, 0, 0, 0, 0,
-                    new double[0], Collections.emptyMap()
+                    0, 0, 0, 0, 0, 0, 0,
+                    new double[0], new long[0], new long[0], Collections.emptyMap()
                 )
             );
         }
@@ -84,6 +84,7 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
             .withLevels(louvain.levels())
             .withModularity(louvain.modularities()[louvain.levels() - 1])
             .withModularities(louvain.modularities())
+            .withLevelMillis(louvain.modularityOptimizationMillis(), louvain.summarizationMillis())
             .withCommunityFunction(louvain::getCommunity);
 
         if (write && !writeConfig.writeProperty().isEmpty()) {
@@ -104,6 +105,7 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
         public long createMillis;
         public long computeMillis;
         public long writeMillis;
+        public long nodesWrittenPerSecond;
         public long postProcessingMillis;
         public long maxIterations;
         public long maxLevels;
@@ -113,6 +115,8 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
         public boolean includeIntermediateCommunities;
         public double modularity;
         public List<Double> modularities;
+        public List<Long> modularityOptimizationMillis;
+        public List<Long> summarizationMillis;
         public Map<String, Object> communityDistribution;
 
         WriteResult(
@@ -121,11 +125,14 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
             long createMillis,
             long computeMillis,
             long writeMillis,
+            long nodesWrittenPerSecond,
             long postProcessingMillis,
             long ranLevels,
             long communityCount,
             double modularity,
             double[] modularities,
+            long[] modularityOptimizationMillis,
+            long[] summarizationMillis,
             Map<String, Object> communityDistribution
         ) {
             this.relationshipPropertiesWritten = 0;
@@ -142,11 +149,14 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
             this.createMillis = createMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
             this.postProcessingMillis = postProcessingMillis;
             this.ranLevels = ranLevels;
             this.communityCount = communityCount;
             this.modularity = modularity;
             this.modularities = Arrays.stream(modularities).boxed().collect(Collectors.toList());
+            this.modularityOptimizationMillis = Arrays.stream(modularityOptimizationMillis).boxed().collect(Collectors.toList());
+            this.summarizationMillis = Arrays.stream(summarizationMillis).boxed().collect(Collectors.toList());
             this.communityDistribution = communityDistribution;
         }
     }
@@ -156,6 +166,8 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
         private long levels = -1;
         private double[] modularities = new double[]{};
         private double modularity = -1;
+        private long[] modularityOptimizationMillis = new long[]{};
+        private long[] summarizationMillis = new long[]{};
 
         WriteResultBuilder(
             LouvainWriteConfig config,
@@ -186,6 +198,12 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
             return this;
         }
 
+        WriteResultBuilder withLevelMillis(long[] modularityOptimizationMillis, long[] summarizationMillis) {
+            this.modularityOptimizationMillis = modularityOptimizationMillis;
+            this.summarizationMillis = summarizationMillis;
+            return this;
+        }
+
         @Override
         protected WriteResult buildResult() {
             return new WriteResult(
@@ -194,11 +212,14 @@ abstract class LouvainBaseProc<CONFIG extends LouvainBaseConfig> extends AlgoBas
                 createMillis,
                 computeMillis,
                 writeMillis,
+                nodesWrittenPerSecond(),
                 postProcessingDuration,
                 levels,
                 maybeCommunityCount.orElse(-1L),
                 modularity,
                 modularities,
+                modularityOptimizationMillis,
+                summarizationMillis,
                 communityHistogramOrNull()
             );
         }
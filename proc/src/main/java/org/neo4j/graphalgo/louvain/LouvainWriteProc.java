@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.louvain;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
@@ -29,6 +30,9 @@ import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -62,22 +66,38 @@ public class LouvainWriteProc extends LouvainBaseProc<LouvainWriteConfig> {
     }
 
     @Override
-    protected PropertyTranslator<Louvain> nodePropertyTranslator(ComputationResult<Louvain, Louvain, LouvainWriteConfig> computationResult) {
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(ComputationResult<Louvain, Louvain, LouvainWriteConfig> computationResult) {
         Graph graph = computationResult.graph();
         Louvain louvain = computationResult.result();
         LouvainWriteConfig config = computationResult.config();
         Optional<NodeProperties> seed = Optional.ofNullable(louvain.config().seedProperty()).map(graph::nodeProperties);
-        PropertyTranslator<Louvain> translator;
-        if (!louvain.config().includeIntermediateCommunities()) {
+
+        if (!config.includeIntermediateCommunities()) {
             if (seed.isPresent() && Objects.equals(config.seedProperty(), config.writeProperty())) {
-                translator = new PropertyTranslator.OfLongIfChanged<>(seed.get(), Louvain::getCommunity);
-            } else {
-                translator = CommunityTranslator.INSTANCE;
+                return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+                    config.writeProperty(),
+                    louvain,
+                    new PropertyTranslator.OfLongIfChanged<>(seed.get(), Louvain::getCommunity)
+                ));
             }
-        } else {
-            translator = CommunitiesTranslator.INSTANCE;
+            return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+                config.writeProperty(),
+                louvain.finalDendrogram()
+            ));
+        }
+
+        String intermediateCommunitiesWriteProperty = config.intermediateCommunitiesWriteProperty();
+        if (intermediateCommunitiesWriteProperty == null) {
+            return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+                config.writeProperty(),
+                louvain,
+                CommunitiesTranslator.INSTANCE
+            ));
         }
-        return translator;
+        return Arrays.asList(
+            NodePropertyExporter.NodeProperty.of(config.writeProperty(), louvain.finalDendrogram()),
+            NodePropertyExporter.NodeProperty.of(intermediateCommunitiesWriteProperty, louvain, CommunitiesTranslator.INSTANCE)
+        );
     }
 
     @Override
@@ -28,6 +28,7 @@ import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ModernGraphLoader;
 import org.neo4j.graphalgo.core.loading.CypherGraphFactory;
 import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.core.loading.GraphChangeLog;
 import org.neo4j.graphalgo.core.loading.GraphsByRelationshipType;
 import org.neo4j.graphalgo.core.loading.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -54,7 +55,7 @@ public class GraphCreateProc extends CatalogProc {
 
         // input
         CypherMapWrapper cypherConfig = CypherMapWrapper.create(configuration);
-        GraphCreateConfig config = GraphCreateFromStoreConfig.of(
+        GraphCreateFromStoreConfig config = GraphCreateFromStoreConfig.of(
             getUsername(),
             graphName,
             nodeProjection,
@@ -63,11 +64,26 @@ public class GraphCreateProc extends CatalogProc {
         );
         validateConfig(cypherConfig, config);
 
+        // changes are recorded from before the import, so that none are missed,
+        // changes committed during the import are deduplicated by the first refresh
+        if (config.trackChanges()) {
+            GraphChangeLog.track(api, getUsername(), graphName);
+        }
+
         // computation
-        GraphCreateResult result = runWithExceptionLogging(
-            "Graph creation failed",
-            () -> createGraph(config, HugeGraphFactory.class)
-        );
+        GraphCreateResult result;
+        try {
+            result = runWithExceptionLogging(
+                "Graph creation failed",
+                () -> createGraph(config, HugeGraphFactory.class)
+            );
+        } catch (RuntimeException e) {
+            GraphChangeLog.untrack(api, getUsername(), graphName);
+            throw e;
+        }
+        if (config.trackChanges()) {
+            GraphChangeLog.imported(api, getUsername(), graphName);
+        }
         // result
         return Stream.of(result);
     }
@@ -20,6 +20,7 @@
 package org.neo4j.graphalgo.newapi;
 
 import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.core.loading.GraphChangeLog;
 import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
@@ -39,6 +40,7 @@ public class GraphDropProc extends CatalogProc {
         GraphCatalog.remove(getUsername(), graphName, (removedGraph) -> {
             result.set(new GraphInfo(removedGraph.config(), removedGraph.getGraph(), computeHistogram()));
         });
+        GraphChangeLog.untrack(api, getUsername(), graphName);
 
         return Stream.of(result.get());
     }
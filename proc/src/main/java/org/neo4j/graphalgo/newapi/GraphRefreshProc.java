@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.newapi;
+
+import org.jetbrains.annotations.TestOnly;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.core.loading.GraphChangeLog;
+import org.neo4j.graphalgo.core.loading.GraphRefresh;
+import org.neo4j.graphalgo.core.loading.GraphWithConfig;
+import org.neo4j.graphalgo.core.loading.GraphsByRelationshipType;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class GraphRefreshProc extends CatalogProc {
+
+    /**
+     * Refreshed graphs are compacted once the overlay covers this fraction of the nodes.
+     */
+    static final double COMPACTION_THRESHOLD = 0.05;
+
+    /**
+     * Compactions run one at a time and hand their parallel work to {@link Pools#DEFAULT}.
+     */
+    private static final Executor DEFAULT_COMPACTION_EXECUTOR = Pools.createDefaultSingleThreadPool();
+
+    private static volatile Executor compactionExecutor = DEFAULT_COMPACTION_EXECUTOR;
+
+    /**
+     * Replaces the executor that runs background compactions and returns the previous one.
+     * {@code null} restores the default executor.
+     */
+    @TestOnly
+    static Executor compactionExecutor(Executor executor) {
+        Executor previous = compactionExecutor;
+        compactionExecutor = executor != null ? executor : DEFAULT_COMPACTION_EXECUTOR;
+        return previous;
+    }
+
+    @Procedure(name = "gds.graph.refresh", mode = Mode.READ)
+    @Description("Applies the changes to the store since the last refresh to a named graph that tracks changes.")
+    public Stream<GraphRefreshResult> refresh(@Name(value = "graphName") String graphName) {
+        validateGraphName(graphName);
+        String username = getUsername();
+
+        GraphChangeLog changeLog = GraphChangeLog.of(api, graphName);
+        GraphRefreshResult result = runWithExceptionLogging("Graph refresh failed", () -> {
+            AtomicLong millis = new AtomicLong();
+            GraphRefresh refresh;
+            GraphsByRelationshipType refreshed;
+            // compactions swap the catalog entry under the same lock, the changes are only
+            // marked as applied once the refreshed graphs are in the catalog
+            synchronized (changeLog.refreshLock()) {
+                try (ProgressTimer ignored = ProgressTimer.start(millis::set)) {
+                    GraphWithConfig graphWithConfig = GraphCatalog.get(username, graphName);
+                    refresh = new GraphRefresh(graphWithConfig.config());
+                    List<GraphChangeLog.TransactionChanges> changes = changeLog.peek(username, graphName);
+                    int importedChanges = changeLog.importedChanges(username, graphName);
+                    refreshed = refresh.apply(graphWithConfig.graph(), changes, importedChanges);
+                    if (!GraphCatalog.replace(username, graphName, graphWithConfig.graph(), refreshed)) {
+                        throw new IllegalStateException(String.format(
+                            "Graph `%s` has been modified during the refresh.",
+                            graphName
+                        ));
+                    }
+                    changeLog.advance(username, graphName, changes.size());
+                }
+            }
+
+            boolean compacting = needsCompaction(refreshed);
+            if (compacting) {
+                compactInBackground(username, graphName, changeLog, refresh, refreshed, log);
+            }
+
+            return new GraphRefreshResult(
+                graphName,
+                refresh.nodesAdded(),
+                refresh.nodesDeleted(),
+                refresh.relationshipsAdded(),
+                refresh.relationshipsDeleted(),
+                refreshed.nodeCount(),
+                refreshed.relationshipCount(),
+                compacting,
+                millis.get()
+            );
+        });
+
+        return Stream.of(result);
+    }
+
+    private static boolean needsCompaction(GraphsByRelationshipType graphs) {
+        return graphs.graphs().values().stream()
+            .flatMap(graphsByProperty -> graphsByProperty.values().stream())
+            .anyMatch(graph -> overlaySize(graph) > COMPACTION_THRESHOLD * graph.nodeCount());
+    }
+
+    private static long overlaySize(Graph graph) {
+        if (!(graph instanceof DeltaGraph)) {
+            return 0L;
+        }
+        DeltaGraph deltaGraph = (DeltaGraph) graph;
+        return deltaGraph.touchedNodes() + deltaGraph.nodes().addedNodeCount() + deltaGraph.nodes().deletedNodeCount();
+    }
+
+    /**
+     * The compacted graphs only replace the refreshed graphs if no other refresh happened in the meantime.
+     * The refreshed graphs are released once no algorithm that started before the compaction uses them anymore.
+     */
+    private static void compactInBackground(
+        String username,
+        String graphName,
+        GraphChangeLog changeLog,
+        GraphRefresh refresh,
+        GraphsByRelationshipType refreshed,
+        Log log
+    ) {
+        compactionExecutor.execute(() -> {
+            try {
+                AllocationTracker tracker = AllocationTracker.create();
+                GraphsByRelationshipType compacted = refresh.compact(refreshed, Pools.DEFAULT, tracker);
+                boolean replaced;
+                synchronized (changeLog.refreshLock()) {
+                    replaced = GraphCatalog.replaceTopology(username, graphName, refreshed, compacted);
+                }
+                if (replaced) {
+                    log.info(tracker.getUsageString(String.format("Graph `%s` compacted, memory usage: ", graphName)));
+                } else {
+                    compacted.canRelease(true);
+                    compacted.getUnion().release();
+                }
+            } catch (Exception e) {
+                log.warn("Graph compaction failed", e);
+            }
+        });
+    }
+
+    public static class GraphRefreshResult {
+        public final String graphName;
+        public final long nodesAdded;
+        public final long nodesDeleted;
+        public final long relationshipsAdded;
+        public final long relationshipsDeleted;
+        public final long nodeCount;
+        public final long relationshipCount;
+        public final boolean compacting;
+        public final long refreshMillis;
+
+        GraphRefreshResult(
+            String graphName,
+            long nodesAdded,
+            long nodesDeleted,
+            long relationshipsAdded,
+            long relationshipsDeleted,
+            long nodeCount,
+            long relationshipCount,
+            boolean compacting,
+            long refreshMillis
+        ) {
+            this.graphName = graphName;
+            this.nodesAdded = nodesAdded;
+            this.nodesDeleted = nodesDeleted;
+            this.relationshipsAdded = relationshipsAdded;
+            this.relationshipsDeleted = relationshipsDeleted;
+            this.nodeCount = nodeCount;
+            this.relationshipCount = relationshipCount;
+            this.compacting = compacting;
+            this.refreshMillis = refreshMillis;
+        }
+    }
+}
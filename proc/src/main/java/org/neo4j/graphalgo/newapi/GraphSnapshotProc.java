@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.newapi;
+
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.core.loading.GraphSnapshot;
+import org.neo4j.graphalgo.core.loading.GraphWithConfig;
+import org.neo4j.graphalgo.core.loading.GraphsByRelationshipType;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.neo4j.kernel.configuration.Settings.NO_DEFAULT;
+import static org.neo4j.kernel.configuration.Settings.STRING;
+import static org.neo4j.kernel.configuration.Settings.setting;
+
+public class GraphSnapshotProc extends CatalogProc {
+
+    /**
+     * The directory that snapshots are written to and loaded from. Snapshot procedures are disabled if it is not set.
+     */
+    public static final Setting<String> EXPORT_LOCATION = setting("gds.export.location", STRING, NO_DEFAULT);
+
+    @Procedure(name = "gds.graph.export", mode = Mode.READ)
+    @Description("Writes a named graph from the catalog into a binary snapshot file.")
+    public Stream<GraphSnapshotResult> export(
+        @Name(value = "graphName") String graphName,
+        @Name(value = "path") String path
+    ) {
+        validateGraphName(graphName);
+        Path file = validatePath(path);
+
+        GraphWithConfig graphWithConfig = GraphCatalog.get(getUsername(), graphName);
+        GraphsByRelationshipType graphs = graphWithConfig.graph();
+
+        AtomicLong millis = new AtomicLong();
+        runWithExceptionLogging("Graph export failed", () -> {
+            try (ProgressTimer ignored = ProgressTimer.start(millis::set)) {
+                GraphSnapshot.write(graphs, graphWithConfig.config(), file);
+            }
+        });
+
+        return Stream.of(new GraphSnapshotResult(
+            graphName,
+            file.toString(),
+            graphs.nodeCount(),
+            graphs.relationshipCount(),
+            millis.get()
+        ));
+    }
+
+    @Procedure(name = "gds.graph.load", mode = Mode.READ)
+    @Description("Loads a graph snapshot file into the catalog under the given name.")
+    public Stream<GraphSnapshotResult> load(
+        @Name(value = "graphName") String graphName,
+        @Name(value = "path") String path
+    ) {
+        validateGraphName(getUsername(), graphName);
+        Path file = validatePath(path);
+
+        AllocationTracker tracker = AllocationTracker.create();
+        AtomicLong millis = new AtomicLong();
+        GraphWithConfig graphWithConfig = runWithExceptionLogging("Graph load failed", () -> {
+            try (ProgressTimer ignored = ProgressTimer.start(millis::set)) {
+                return GraphSnapshot.read(file, getUsername(), graphName, tracker);
+            }
+        });
+        log.info(tracker.getUsageString("Graph snapshot loaded, memory usage: "));
+
+        GraphsByRelationshipType graphs = graphWithConfig.graph();
+        GraphCatalog.set(graphWithConfig.config(), graphs);
+
+        return Stream.of(new GraphSnapshotResult(
+            graphName,
+            file.toString(),
+            graphs.nodeCount(),
+            graphs.relationshipCount(),
+            millis.get()
+        ));
+    }
+
+    /**
+     * Resolves the path against the configured export location and rejects paths outside of it.
+     */
+    private Path validatePath(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("`path` can not be null or blank");
+        }
+        String exportLocation = api.getDependencyResolver().resolveDependency(Config.class).get(EXPORT_LOCATION);
+        if (exportLocation == null || exportLocation.trim().isEmpty()) {
+            throw new IllegalStateException(String.format(
+                "Graph snapshots are disabled, set `%s` to a directory to enable them",
+                EXPORT_LOCATION.name()
+            ));
+        }
+
+        Path directory;
+        try {
+            directory = Paths.get(exportLocation).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("The export location " + exportLocation + " does not exist", e);
+        }
+        Path file = directory.resolve(path).normalize();
+        // resolve symbolic links of the parent, the file itself may not exist yet
+        Path parent = file.getParent();
+        if (parent != null && Files.exists(parent)) {
+            try {
+                file = parent.toRealPath().resolve(file.getFileName());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException(String.format(
+                "The path `%s` must point into the export location `%s`",
+                path,
+                exportLocation
+            ));
+        }
+        return file;
+    }
+
+    public static class GraphSnapshotResult {
+        public final String graphName;
+        public final String path;
+        public final long nodeCount;
+        public final long relationshipCount;
+        public final long millis;
+
+        GraphSnapshotResult(String graphName, String path, long nodeCount, long relationshipCount, long millis) {
+            this.graphName = graphName;
+            this.path = path;
+            this.nodeCount = nodeCount;
+            this.relationshipCount = relationshipCount;
+            this.millis = millis;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.neo4j.graphalgo.AlgorithmFactory;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.compat.MapUtil;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.write.RelationshipExporter;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
@@ -111,6 +112,8 @@ public abstract class NodeSimilarityBaseProc<CONFIG extends NodeSimilarityBaseCo
                                 algorithm.getTerminationFlag()
                             )
                             .withLog(log)
+                            .withBatchSize(writeConfig.writeBatchSize())
+                            .parallel(Pools.DEFAULT, writeConfig.writeConcurrency())
                             .build();
                         if (shouldComputeHistogram) {
                             DoubleHistogram histogram = new DoubleHistogram(5);
@@ -118,7 +121,9 @@ public abstract class NodeSimilarityBaseProc<CONFIG extends NodeSimilarityBaseCo
                                 writeRelationshipType,
                                 writeProperty,
                                 (node1, node2, similarity) -> {
-                                    histogram.recordValue(similarity);
+                                    synchronized (histogram) {
+                                        histogram.recordValue(similarity);
+                                    }
                                     return true;
                                 }
                             );
@@ -62,6 +62,7 @@ abstract class PageRankBaseProc<CONFIG extends PageRankBaseConfig> extends AlgoB
                     0,
                     0,
                     0,
+                    0,
                     computeResult.config().dampingFactor(),
                     false
                 )
@@ -95,6 +96,7 @@ abstract class PageRankBaseProc<CONFIG extends PageRankBaseConfig> extends AlgoB
         public long createMillis;
         public long computeMillis;
         public long writeMillis;
+        public long nodesWrittenPerSecond;
         public long maxIterations;
         public long ranIterations;
         public double dampingFactor;
@@ -108,6 +110,7 @@ abstract class PageRankBaseProc<CONFIG extends PageRankBaseConfig> extends AlgoB
             long createMillis,
             long computeMillis,
             long writeMillis,
+            long nodesWrittenPerSecond,
             long ranIterations,
             double dampingFactor,
             boolean didConverge
@@ -120,6 +123,7 @@ abstract class PageRankBaseProc<CONFIG extends PageRankBaseConfig> extends AlgoB
             this.createMillis = createMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
             this.ranIterations = ranIterations;
             this.didConverge = didConverge;
             this.dampingFactor = dampingFactor;
@@ -155,6 +159,7 @@ abstract class PageRankBaseProc<CONFIG extends PageRankBaseConfig> extends AlgoB
                 createMillis,
                 computeMillis,
                 writeMillis,
+                nodesWrittenPerSecond(),
                 ranIterations,
                 config.dampingFactor(),
                 didConverge
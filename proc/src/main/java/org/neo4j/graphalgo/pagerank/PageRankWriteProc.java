@@ -20,6 +20,7 @@
 package org.neo4j.graphalgo.pagerank;
 
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
@@ -27,6 +28,8 @@ import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -59,8 +62,11 @@ public class PageRankWriteProc extends PageRankBaseProc<PageRankWriteConfig> {
     }
 
     @Override
-    protected PropertyTranslator<PageRank> nodePropertyTranslator(ComputationResult<PageRank, PageRank, PageRankWriteConfig> computationResult) {
-        return ScoresTranslator.INSTANCE;
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(ComputationResult<PageRank, PageRank, PageRankWriteConfig> computationResult) {
+        return Collections.singletonList(NodePropertyExporter.NodeProperty.of(
+            computationResult.config().writeProperty(),
+            computationResult.result().result().array()
+        ));
     }
 
     @Override
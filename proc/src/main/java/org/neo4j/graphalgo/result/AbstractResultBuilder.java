@@ -31,6 +31,7 @@ public abstract class AbstractResultBuilder<CONFIG extends WriteConfig, WRITE_RE
     protected long writeMillis = -1;
     protected long nodePropertiesWritten;
     protected long relationshipsWritten;
+    protected long nodesWritten;
 
     protected AbstractResultBuilder(CONFIG config) {
         this.config = config;
@@ -57,10 +58,19 @@ public abstract class AbstractResultBuilder<CONFIG extends WriteConfig, WRITE_RE
         return this;
     }
 
+    public AbstractResultBuilder<CONFIG, WRITE_RESULT> withNodesWritten(long nodesWritten) {
+        this.nodesWritten = nodesWritten;
+        return this;
+    }
+
     public AbstractResultBuilder<CONFIG, WRITE_RESULT> withRelationshipsWritten(long relationshipPropertiesWritten) {
         this.relationshipsWritten = relationshipPropertiesWritten;
         return this;
     }
 
+    protected long nodesWrittenPerSecond() {
+        return nodesWritten * 1000L / Math.max(1L, writeMillis);
+    }
+
     public abstract WRITE_RESULT build();
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.result;
+
+import org.neo4j.graphalgo.newapi.MutateConfig;
+
+/**
+ * Result row of procedures that add their result as a node property to a graph in the catalog.
+ */
+public final class MutateResult {
+
+    public final String mutateProperty;
+    public final long nodePropertiesMutated;
+    public final long createMillis;
+    public final long computeMillis;
+    public final long mutateMillis;
+
+    MutateResult(
+        String mutateProperty,
+        long nodePropertiesMutated,
+        long createMillis,
+        long computeMillis,
+        long mutateMillis
+    ) {
+        this.mutateProperty = mutateProperty;
+        this.nodePropertiesMutated = nodePropertiesMutated;
+        this.createMillis = createMillis;
+        this.computeMillis = computeMillis;
+        this.mutateMillis = mutateMillis;
+    }
+
+    /**
+     * Collects the mutated properties and the mutate time in the fields for written properties
+     * and the write time, so that the write paths of the procedures can fill it in.
+     */
+    public static final class Builder extends AbstractResultBuilder<MutateConfig, MutateResult> {
+
+        public Builder(MutateConfig config) {
+            super(config);
+        }
+
+        @Override
+        public MutateResult build() {
+            return new MutateResult(
+                config.mutateProperty(),
+                nodePropertiesWritten,
+                createMillis,
+                computeMillis,
+                writeMillis
+            );
+        }
+    }
+}
@@ -118,6 +118,10 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
         public long toLong(DisjointSetStruct data, long nodeId) {
             return communities.get(nodeId);
         }
+
+        HugeLongArray communities() {
+            return communities;
+        }
     }
 
     public static final class WriteResult {
@@ -130,6 +134,7 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
         public final long createMillis;
         public final long computeMillis;
         public final long writeMillis;
+        public final long nodesWrittenPerSecond;
         public final long postProcessingMillis;
         public final long componentCount;
         public final double threshold;
@@ -141,7 +146,7 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
                 config,
                 0,
                 createMillis,
-                0, 0, 0, 0,
+                0, 0, 0, 0, 0,
                 Collections.emptyMap()
             );
         }
@@ -152,6 +157,7 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
             long createMillis,
             long computeMillis,
             long writeMillis,
+            long nodesWrittenPerSecond,
             long postProcessingMillis,
             long componentCount,
             Map<String, Object> componentDistribution
@@ -167,6 +173,7 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
             this.createMillis = createMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
+            this.nodesWrittenPerSecond = nodesWrittenPerSecond;
             this.postProcessingMillis = postProcessingMillis;
             this.componentCount = componentCount;
             this.componentDistribution = componentDistribution;
@@ -200,6 +207,7 @@ public abstract class WccBaseProc<CONFIG extends WccBaseConfig> extends AlgoBase
                 createMillis,
                 computeMillis,
                 writeMillis,
+                nodesWrittenPerSecond(),
                 postProcessingDuration,
                 maybeCommunityCount.orElse(-1L),
                 communityHistogramOrNull()
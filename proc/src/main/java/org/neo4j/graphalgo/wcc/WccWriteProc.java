@@ -22,6 +22,7 @@ package org.neo4j.graphalgo.wcc;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 import org.neo4j.graphalgo.core.utils.paged.dss.DisjointSetStruct;
+import org.neo4j.graphalgo.core.write.NodePropertyExporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.newapi.GraphCreateConfig;
 import org.neo4j.graphalgo.results.MemoryEstimateResult;
@@ -29,6 +30,8 @@ import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -71,28 +74,33 @@ public class WccWriteProc extends WccBaseProc<WccWriteConfig> {
     }
 
     @Override
-    protected PropertyTranslator<DisjointSetStruct> nodePropertyTranslator(
+    protected List<NodePropertyExporter.NodeProperty> nodePropertyColumns(
         ComputationResult<Wcc, DisjointSetStruct, WccWriteConfig> computationResult
     ) {
         WccWriteConfig config = computationResult.config();
+        DisjointSetStruct dss = computationResult.result();
 
         boolean consecutiveIds = config.consecutiveIds();
         boolean isIncremental = config.isIncremental();
         boolean seedPropertyEqualsWriteProperty = config.writeProperty().equalsIgnoreCase(config.seedProperty());
 
-        PropertyTranslator<DisjointSetStruct> propertyTranslator;
+        NodePropertyExporter.NodeProperty column;
         if (seedPropertyEqualsWriteProperty && !consecutiveIds) {
             NodeProperties seedProperties = computationResult.graph().nodeProperties(config.seedProperty());
-            propertyTranslator = new PropertyTranslator.OfLongIfChanged<>(seedProperties, DisjointSetStruct::setIdOf);
+            column = NodePropertyExporter.NodeProperty.of(
+                config.writeProperty(),
+                dss,
+                new PropertyTranslator.OfLongIfChanged<>(seedProperties, DisjointSetStruct::setIdOf)
+            );
         } else if (consecutiveIds && !isIncremental) {
-            propertyTranslator = new ConsecutivePropertyTranslator(
-                computationResult.result(),
-                computationResult.tracker()
+            column = NodePropertyExporter.NodeProperty.of(
+                config.writeProperty(),
+                new ConsecutivePropertyTranslator(dss, computationResult.tracker()).communities()
             );
         } else {
-            propertyTranslator = (PropertyTranslator.OfLong<DisjointSetStruct>) DisjointSetStruct::setIdOf;
+            column = NodePropertyExporter.NodeProperty.ofLongs(config.writeProperty(), dss::setIdOf);
         }
 
-        return propertyTranslator;
+        return Collections.singletonList(column);
     }
 }
@@ -23,21 +23,29 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.beta.generator.GraphGenerateProc;
+import org.neo4j.graphalgo.beta.k1coloring.K1ColoringMutateProc;
 import org.neo4j.graphalgo.beta.k1coloring.K1ColoringStreamProc;
 import org.neo4j.graphalgo.beta.k1coloring.K1ColoringWriteProc;
+import org.neo4j.graphalgo.beta.modularity.ModularityOptimizationMutateProc;
 import org.neo4j.graphalgo.beta.modularity.ModularityOptimizationStreamProc;
 import org.neo4j.graphalgo.beta.modularity.ModularityOptimizationWriteProc;
 import org.neo4j.graphalgo.compat.MapUtil;
+import org.neo4j.graphalgo.labelpropagation.LabelPropagationMutateProc;
 import org.neo4j.graphalgo.labelpropagation.LabelPropagationStreamProc;
 import org.neo4j.graphalgo.labelpropagation.LabelPropagationWriteProc;
+import org.neo4j.graphalgo.louvain.LouvainMutateProc;
 import org.neo4j.graphalgo.louvain.LouvainStreamProc;
 import org.neo4j.graphalgo.louvain.LouvainWriteProc;
 import org.neo4j.graphalgo.newapi.GraphCreateProc;
 import org.neo4j.graphalgo.newapi.GraphDropProc;
 import org.neo4j.graphalgo.newapi.GraphExistsProc;
 import org.neo4j.graphalgo.newapi.GraphListProc;
+import org.neo4j.graphalgo.newapi.GraphRefreshProc;
+import org.neo4j.graphalgo.newapi.GraphSnapshotProc;
+import org.neo4j.graphalgo.pagerank.PageRankMutateProc;
 import org.neo4j.graphalgo.pagerank.PageRankStreamProc;
 import org.neo4j.graphalgo.pagerank.PageRankWriteProc;
+import org.neo4j.graphalgo.wcc.WccMutateProc;
 import org.neo4j.graphalgo.wcc.WccStreamProc;
 import org.neo4j.graphalgo.wcc.WccWriteProc;
 
@@ -54,11 +62,15 @@ class ListProcTest extends BaseProcTest {
     private static final List<String> PROCEDURES = asList(
         "gds.beta.graph.generate",
 
+        "gds.beta.k1coloring.mutate",
+        "gds.beta.k1coloring.mutate.estimate",
         "gds.beta.k1coloring.stream",
         "gds.beta.k1coloring.stream.estimate",
         "gds.beta.k1coloring.write",
         "gds.beta.k1coloring.write.estimate",
 
+        "gds.beta.modularityOptimization.mutate",
+        "gds.beta.modularityOptimization.mutate.estimate",
         "gds.beta.modularityOptimization.stream",
         "gds.beta.modularityOptimization.stream.estimate",
         "gds.beta.modularityOptimization.write",
@@ -68,8 +80,13 @@ class ListProcTest extends BaseProcTest {
         "gds.graph.create.cypher",
         "gds.graph.drop",
         "gds.graph.exists",
+        "gds.graph.export",
         "gds.graph.list",
+        "gds.graph.load",
+        "gds.graph.refresh",
 
+        "gds.labelPropagation.mutate",
+        "gds.labelPropagation.mutate.estimate",
         "gds.labelPropagation.stats",
         "gds.labelPropagation.stats.estimate",
         "gds.labelPropagation.stream",
@@ -77,6 +94,8 @@ class ListProcTest extends BaseProcTest {
         "gds.labelPropagation.write",
         "gds.labelPropagation.write.estimate",
 
+        "gds.louvain.mutate",
+        "gds.louvain.mutate.estimate",
         "gds.louvain.stats",
         "gds.louvain.stats.estimate",
         "gds.louvain.stream",
@@ -84,6 +103,8 @@ class ListProcTest extends BaseProcTest {
         "gds.louvain.write",
         "gds.louvain.write.estimate",
 
+        "gds.pageRank.mutate",
+        "gds.pageRank.mutate.estimate",
         "gds.pageRank.stats",
         "gds.pageRank.stats.estimate",
         "gds.pageRank.stream",
@@ -91,6 +112,8 @@ class ListProcTest extends BaseProcTest {
         "gds.pageRank.write",
         "gds.pageRank.write.estimate",
 
+        "gds.wcc.mutate",
+        "gds.wcc.mutate.estimate",
         "gds.wcc.stats",
         "gds.wcc.stats.estimate",
         "gds.wcc.stream",
@@ -108,6 +131,8 @@ class ListProcTest extends BaseProcTest {
     );
 
     private static final List<String> PAGE_RANK = asList(
+        "gds.pageRank.mutate",
+        "gds.pageRank.mutate.estimate",
         "gds.pageRank.stats",
         "gds.pageRank.stats.estimate",
         "gds.pageRank.stream",
@@ -126,20 +151,28 @@ class ListProcTest extends BaseProcTest {
             GraphDropProc.class,
             GraphExistsProc.class,
             GraphListProc.class,
+            GraphRefreshProc.class,
+            GraphSnapshotProc.class,
             GraphGenerateProc.class,
             K1ColoringWriteProc.class,
             K1ColoringStreamProc.class,
+            K1ColoringMutateProc.class,
             LabelPropagationWriteProc.class,
             LabelPropagationStreamProc.class,
+            LabelPropagationMutateProc.class,
             ListProc.class,
             LouvainWriteProc.class,
             LouvainStreamProc.class,
+            LouvainMutateProc.class,
             ModularityOptimizationWriteProc.class,
             ModularityOptimizationStreamProc.class,
+            ModularityOptimizationMutateProc.class,
             PageRankWriteProc.class,
             PageRankStreamProc.class,
+            PageRankMutateProc.class,
             WccWriteProc.class,
-            WccStreamProc.class
+            WccStreamProc.class,
+            WccMutateProc.class
         );
         registerFunctions(
             GetNodeFunc.class,
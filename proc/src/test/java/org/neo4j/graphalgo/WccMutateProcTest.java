@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.loading.DenseLongNodePropertyMap;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.newapi.GraphCreateProc;
+import org.neo4j.graphalgo.wcc.WccMutateProc;
+import org.neo4j.graphalgo.wcc.WccStreamProc;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class WccMutateProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (e:Node)" +
+        ", (a)-[:TYPE]->(b)" +
+        ", (b)-[:TYPE]->(c)" +
+        ", (d)-[:TYPE]->(e)";
+
+    @BeforeEach
+    void setup() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(
+            GraphCreateProc.class,
+            WccMutateProc.class,
+            WccStreamProc.class
+        );
+        runQuery(DB_CYPHER);
+        runQuery("CALL gds.graph.create('graph', 'Node', 'TYPE')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+        GraphCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldAddComponentsToTheGraph() {
+        Graph before = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+
+        assertCypherResult(
+            "CALL gds.wcc.mutate('graph', {mutateProperty: 'component'}) YIELD mutateProperty, nodePropertiesMutated",
+            singletonList(map(
+                "mutateProperty", "component",
+                "nodePropertiesMutated", 5L
+            ))
+        );
+
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+        NodeProperties components = graph.nodeProperties("component");
+        assertEquals(components.nodeProperty(0), components.nodeProperty(1));
+        assertEquals(components.nodeProperty(0), components.nodeProperty(2));
+        assertEquals(components.nodeProperty(3), components.nodeProperty(4));
+        assertNotEquals(components.nodeProperty(0), components.nodeProperty(3));
+        // component ids are kept as longs, together with their maximum for seeding
+        assertTrue(components instanceof DenseLongNodePropertyMap);
+        assertEquals(
+            Math.max(components.longNodeProperty(0, -1L), components.longNodeProperty(3, -1L)),
+            components.getMaxPropertyValue().getAsLong()
+        );
+
+        // graphs that are in use keep their node properties
+        assertNull(before.nodeProperties("component"));
+        assertEquals(0, countNodesWithProperty("component"));
+    }
+
+    @Test
+    void shouldUseMutatedPropertyAsSeed() {
+        runQuery("CALL gds.wcc.mutate('graph', {mutateProperty: 'component'})");
+
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+        NodeProperties components = graph.nodeProperties("component");
+        runQueryWithRowConsumer(
+            "CALL gds.wcc.stream('graph', {seedProperty: 'component'}) YIELD nodeId, componentId",
+            row -> assertEquals(
+                (long) components.nodeProperty(row.getNumber("nodeId").longValue()),
+                row.getNumber("componentId").longValue()
+            )
+        );
+    }
+
+    @Test
+    void shouldFailIfPropertyExists() {
+        runQuery("CALL gds.wcc.mutate('graph', {mutateProperty: 'component'})");
+
+        assertError(
+            "CALL gds.wcc.mutate('graph', {mutateProperty: 'component'})",
+            "Node property `component` already exists in the graph."
+        );
+    }
+
+    @Test
+    void shouldFailOnImplicitGraph() {
+        assertError(
+            "CALL gds.wcc.mutate({nodeProjection: '*', relationshipProjection: '*', mutateProperty: 'component'})",
+            "Mutate procedures can only be run on a named graph from the graph catalog."
+        );
+    }
+
+    private long countNodesWithProperty(String propertyKey) {
+        return runQuery(
+            "MATCH (n) WHERE exists(n[$key]) RETURN count(n) AS count",
+            map("key", propertyKey),
+            result -> (long) result.next().get("count")
+        );
+    }
+}
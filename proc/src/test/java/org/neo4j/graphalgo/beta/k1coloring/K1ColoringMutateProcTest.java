@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.k1coloring;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.newapi.GraphCreateProc;
+
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class K1ColoringMutateProcTest extends K1ColoringProcBaseTest {
+
+    @Override
+    void registerProcs() throws Exception {
+        registerProcedures(GraphCreateProc.class, K1ColoringMutateProc.class, K1ColoringStreamProc.class);
+    }
+
+    @Test
+    void shouldAddColorsToTheGraph() {
+        runQuery("CALL gds.graph.create('graph', '*', 'REL')");
+
+        assertCypherResult(
+            "CALL gds.beta.k1coloring.mutate('graph', {mutateProperty: 'color', concurrency: 1})" +
+            " YIELD mutateProperty, nodePropertiesMutated",
+            singletonList(map(
+                "mutateProperty", "color",
+                "nodePropertiesMutated", 4L
+            ))
+        );
+
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "REL", Optional.empty());
+        NodeProperties colors = graph.nodeProperties("color");
+        assertNotEquals(colors.nodeProperty(0), colors.nodeProperty(1));
+        assertNotEquals(colors.nodeProperty(0), colors.nodeProperty(2));
+
+        runQueryWithRowConsumer(
+            "CALL gds.beta.k1coloring.stream('graph', {concurrency: 1}) YIELD nodeId, color",
+            row -> assertEquals(
+                row.getNumber("color").longValue(),
+                (long) colors.nodeProperty(graph.toMappedNodeId(row.getNumber("nodeId").longValue()))
+            )
+        );
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.modularity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.neo4j.graphalgo.CommunityHelper.assertCommunities;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class ModularityOptimizationMutateProcTest extends ModularityOptimizationProcBaseTest {
+
+    @BeforeEach
+    void setupGraph() throws Exception {
+        registerProcedures(ModularityOptimizationMutateProc.class);
+        runQuery("CALL gds.graph.create('graph', '*', 'TYPE')");
+    }
+
+    @Test
+    void shouldAddCommunitiesToTheGraph() {
+        assertCypherResult(
+            "CALL gds.beta.modularityOptimization.mutate('graph', {mutateProperty: 'community'})" +
+            " YIELD mutateProperty, nodePropertiesMutated",
+            singletonList(map(
+                "mutateProperty", "community",
+                "nodePropertiesMutated", 6L
+            ))
+        );
+
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+        NodeProperties properties = graph.nodeProperties("community");
+        long[] communities = new long[6];
+        graph.forEachNode(nodeId -> {
+            communities[Math.toIntExact(graph.toOriginalNodeId(nodeId))] = (long) properties.nodeProperty(nodeId);
+            return true;
+        });
+        assertCommunities(communities, UNWEIGHTED_COMMUNITIES);
+    }
+}
@@ -75,8 +75,8 @@ class LabelPropagationStreamProcTest extends LabelPropagationBaseProcTest<LabelP
         assertCypherResult(query, Arrays.asList(MapUtil.map(
             "nodeCount", 12L,
             "relationshipCount", 10L,
-            "bytesMin", 1720L,
-            "bytesMax", 2232L
+            "bytesMin", 2272L,
+            "bytesMax", 2272L
         )));
     }
 
@@ -367,8 +367,8 @@ class LabelPropagationWriteProcTest extends LabelPropagationBaseProcTest<LabelPr
         assertCypherResult(query, Arrays.asList(MapUtil.map(
             "nodeCount", 12L,
             "relationshipCount", 10L,
-            "bytesMin", 1720L,
-            "bytesMax", 2232L
+            "bytesMin", 2272L,
+            "bytesMax", 2272L
         )));
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.louvain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.newapi.GraphCreateProc;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphalgo.CommunityHelper.assertCommunities;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class LouvainMutateProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (e:Node)" +
+        ", (f:Node)" +
+        ", (a)-[:TYPE]->(b)" +
+        ", (b)-[:TYPE]->(c)" +
+        ", (c)-[:TYPE]->(a)" +
+        ", (c)-[:TYPE]->(d)" +
+        ", (d)-[:TYPE]->(e)" +
+        ", (e)-[:TYPE]->(f)" +
+        ", (f)-[:TYPE]->(d)";
+
+    @BeforeEach
+    void setup() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(
+            GraphCreateProc.class,
+            LouvainMutateProc.class,
+            LouvainStreamProc.class
+        );
+        runQuery(DB_CYPHER);
+        runQuery("CALL gds.graph.create('graph', 'Node', {TYPE: {type: 'TYPE', projection: 'UNDIRECTED'}})");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+        GraphCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldAddCommunitiesToTheGraph() {
+        assertCypherResult(
+            "CALL gds.louvain.mutate('graph', {mutateProperty: 'community', concurrency: 1})" +
+            " YIELD mutateProperty, nodePropertiesMutated",
+            singletonList(map(
+                "mutateProperty", "community",
+                "nodePropertiesMutated", 6L
+            ))
+        );
+
+        long[] communities = mutatedValues("community");
+        assertCommunities(communities, new long[]{0, 1, 2}, new long[]{3, 4, 5});
+        runQueryWithRowConsumer(
+            "CALL gds.louvain.stream('graph', {concurrency: 1}) YIELD nodeId, communityId",
+            row -> assertEquals(
+                row.getNumber("communityId").longValue(),
+                communities[row.getNumber("nodeId").intValue()]
+            )
+        );
+    }
+
+    @Test
+    void shouldFailForIntermediateCommunities() {
+        assertError(
+            "CALL gds.louvain.mutate('graph', {mutateProperty: 'community', includeIntermediateCommunities: true})",
+            "Intermediate communities cannot be added to the graph"
+        );
+    }
+
+    private long[] mutatedValues(String propertyKey) {
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+        NodeProperties properties = graph.nodeProperties(propertyKey);
+        long[] values = new long[Math.toIntExact(graph.nodeCount())];
+        graph.forEachNode(nodeId -> {
+            values[Math.toIntExact(graph.toOriginalNodeId(nodeId))] = (long) properties.nodeProperty(nodeId);
+            return true;
+        });
+        return values;
+    }
+}
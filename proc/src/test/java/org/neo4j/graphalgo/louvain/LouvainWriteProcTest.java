@@ -69,6 +69,8 @@ class LouvainWriteProcTest extends LouvainBaseProcTest<LouvainWriteConfig> imple
                 "communityCount",
                 "modularity",
                 "modularities",
+                "modularityOptimizationMillis",
+                "summarizationMillis",
                 "ranLevels",
                 "tolerance",
                 "includeIntermediateCommunities",
@@ -83,6 +85,8 @@ class LouvainWriteProcTest extends LouvainBaseProcTest<LouvainWriteConfig> imple
             long communityCount = row.getNumber("communityCount").longValue();
             double modularity = row.getNumber("modularity").doubleValue();
             List<Double> modularities = (List<Double>) row.get("modularities");
+            List<Long> modularityOptimizationMillis = (List<Long>) row.get("modularityOptimizationMillis");
+            List<Long> summarizationMillis = (List<Long>) row.get("summarizationMillis");
             long levels = row.getNumber("ranLevels").longValue();
             double tolerance = row.getNumber("tolerance").doubleValue();
             boolean includeIntermediate = row.getBoolean("includeIntermediateCommunities");
@@ -93,6 +97,8 @@ class LouvainWriteProcTest extends LouvainBaseProcTest<LouvainWriteConfig> imple
             assertEquals(3, communityCount, "wrong community count");
             assertEquals(2, modularities.size(), "invalud modularities");
             assertEquals(2, levels, "invalid level count");
+            assertEquals(2, modularityOptimizationMillis.size(), "invalid modularity optimization timings");
+            assertEquals(2, summarizationMillis.size(), "invalid summarization timings");
             assertEquals(0.0001, tolerance, "invalid tolerance value");
             assertFalse(includeIntermediate, "invalid level count");
             assertTrue(modularity > 0, "wrong modularity value");
@@ -126,6 +132,34 @@ class LouvainWriteProcTest extends LouvainBaseProcTest<LouvainWriteConfig> imple
         });
     }
 
+    @ParameterizedTest(name = "{1}")
+    @MethodSource("org.neo4j.graphalgo.louvain.LouvainBaseProcTest#graphVariations")
+    void testWriteFinalAndIntermediateCommunities(GdsCypher.QueryBuilder queryBuilder, String testCaseName) {
+        String writeProperty = "myFancyCommunity";
+        String intermediateProperty = "myFancyCommunities";
+        String query = queryBuilder
+            .algo("louvain")
+            .writeMode()
+            .addParameter("writeProperty", writeProperty)
+            .addParameter("includeIntermediateCommunities", true)
+            .addParameter("intermediateCommunitiesWriteProperty", intermediateProperty)
+            .yields("nodePropertiesWritten");
+
+        runQueryWithRowConsumer(query, row -> {
+            assertEquals(2 * 15L, row.getNumber("nodePropertiesWritten").longValue());
+        });
+
+        runQueryWithRowConsumer(
+            String.format("MATCH (n) RETURN n.%s AS community, n.%s AS communities", writeProperty, intermediateProperty),
+            row -> {
+                long[] communities = (long[]) row.get("communities");
+                assertEquals(2, communities.length);
+                assertEquals(communities[1], row.getNumber("community").longValue());
+            }
+        );
+        assertWriteResult(RESULT, writeProperty);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
         "",
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.newapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class GraphRefreshProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:A {seed: 1})" +
+        ", (b:A {seed: 2})" +
+        ", (c:A {seed: 3})" +
+        ", (d:B {seed: 4})" +
+        ", (a)-[:REL {weight: 0.5}]->(b)" +
+        ", (a)-[:REL {weight: 1.5}]->(c)" +
+        ", (c)-[:REL {weight: 4.2}]->(b)" +
+        ", (c)-[:OTHER {weight: 1.0}]->(a)";
+
+    private static final String CREATE_CYPHER =
+        "CALL gds.graph.create($name, 'A', 'REL', {nodeProperties: 'seed', relationshipProperties: 'weight', trackChanges: $track})";
+
+    // compactions only run when a test asks for it
+    private final List<Runnable> compactions = new ArrayList<>();
+
+    @BeforeEach
+    void setup() throws KernelException {
+        GraphRefreshProc.compactionExecutor(compactions::add);
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(
+            GraphCreateProc.class,
+            GraphDropProc.class,
+            GraphRefreshProc.class
+        );
+        runQuery(DB_CYPHER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+        GraphCatalog.removeAllLoadedGraphs();
+        GraphRefreshProc.compactionExecutor(null);
+    }
+
+    @Test
+    void shouldApplyAddedNodesAndRelationships() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+
+        runQuery("MATCH (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(:A {seed: 5})-[:REL {weight: 3.0}]->(b)");
+        runQuery("MATCH (a:A {seed: 1}), (d:B) CREATE (a)-[:REL {weight: 7.0}]->(d)");
+        runQuery("MATCH (a:A {seed: 1}), (c:A {seed: 3}) CREATE (a)-[:OTHER]->(c)");
+
+        assertCypherResult(
+            "CALL gds.graph.refresh('refreshed')" +
+            " YIELD graphName, nodesAdded, nodesDeleted, relationshipsAdded, relationshipsDeleted, nodeCount, relationshipCount",
+            singletonList(map(
+                "graphName", "refreshed",
+                "nodesAdded", 1L,
+                "nodesDeleted", 0L,
+                "relationshipsAdded", 2L,
+                "relationshipsDeleted", 0L,
+                "nodeCount", 4L,
+                "relationshipCount", 5L
+            ))
+        );
+
+        assertRefreshedGraphEqualsNewGraph();
+    }
+
+    @Test
+    void shouldApplyDeletedNodesAndRelationships() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+
+        runQuery("MATCH (:A {seed: 1})-[r:REL]->(:A {seed: 2}) DELETE r");
+        runQuery("MATCH (c:A {seed: 3}) DETACH DELETE c");
+
+        assertCypherResult(
+            "CALL gds.graph.refresh('refreshed') YIELD nodesDeleted, relationshipsDeleted, relationshipCount",
+            singletonList(map("nodesDeleted", 1L, "relationshipsDeleted", 3L, "relationshipCount", 0L))
+        );
+
+        Graph refreshed = GraphCatalog.get(getUsername(), "refreshed", "REL", Optional.of("weight"));
+        refreshed.forEachNode(nodeId -> {
+            assertEquals(0, refreshed.degree(nodeId));
+            return true;
+        });
+    }
+
+    @Test
+    void shouldApplyChangesOnlyOnce() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+        runQuery("MATCH (a:A {seed: 1}), (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(a)");
+        runQuery("CALL gds.graph.refresh('refreshed')");
+
+        assertCypherResult(
+            "CALL gds.graph.refresh('refreshed') YIELD relationshipsAdded, relationshipCount",
+            singletonList(map("relationshipsAdded", 0L, "relationshipCount", 4L))
+        );
+        assertRefreshedGraphEqualsNewGraph();
+    }
+
+    @Test
+    void shouldFailForGraphsThatDoNotTrackChanges() {
+        runQuery(CREATE_CYPHER, map("name", "untracked", "track", false));
+
+        assertError(
+            "CALL gds.graph.refresh('untracked')",
+            "Graph `untracked` does not track changes."
+        );
+    }
+
+    @Test
+    void shouldFailToTrackChangesOfReverseProjections() {
+        assertError(
+            "CALL gds.graph.create('reversed', 'A', {REL: {type: 'REL', projection: 'REVERSE'}}, {trackChanges: true})",
+            "Relationship projection `REL` is REVERSE, but graphs that track changes only support NATURAL and UNDIRECTED projections."
+        );
+    }
+
+    @Test
+    void shouldKeepAdjacencySettingsWhenCompacting() {
+        runQuery(
+            "CALL gds.graph.create('refreshed', 'A', 'REL', {" +
+            "  nodeProperties: 'seed', relationshipProperties: 'weight', trackChanges: true," +
+            "  adjacencyStorage: 'OFF_HEAP', adjacencyCodec: 'PACKED', indexAdjacency: true" +
+            "})"
+        );
+        runQuery("MATCH (a:A {seed: 1}), (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(a)");
+        runQuery("CALL gds.graph.refresh('refreshed')");
+
+        compactions.remove(0).run();
+
+        assertTrue(refreshedGraph() instanceof HugeGraph);
+        AdjacencyList adjacency = ((HugeGraph) refreshedGraph()).relationships().outAdjacency();
+        assertTrue(adjacency.isOffHeap());
+        assertEquals(AdjacencyCodec.PACKED, adjacency.codec());
+        assertRefreshedGraphEqualsNewGraph();
+        Graph compacted = refreshedGraph();
+        long a = compacted.toMappedNodeId(0L);
+        long b = compacted.toMappedNodeId(1L);
+        assertTrue(compacted.exists(b, a, Direction.OUTGOING));
+        assertEquals(2.0, compacted.relationshipProperty(b, a));
+    }
+
+    @Test
+    void shouldCompactRefreshedGraph() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+        runQuery("MATCH (a:A {seed: 1}), (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(a)");
+
+        assertCypherResult(
+            "CALL gds.graph.refresh('refreshed') YIELD compacting",
+            singletonList(map("compacting", true))
+        );
+        assertEquals(1, compactions.size());
+        assertTrue(refreshedGraph() instanceof DeltaGraph);
+
+        compactions.remove(0).run();
+
+        assertFalse(refreshedGraph() instanceof DeltaGraph);
+        assertRefreshedGraphEqualsNewGraph();
+    }
+
+    @Test
+    void shouldApplyChangesToCompactedGraph() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+        runQuery("MATCH (a:A {seed: 1}), (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(a)");
+        runQuery("CALL gds.graph.refresh('refreshed')");
+        runQuery("MATCH (c:A {seed: 3}) CREATE (c)-[:REL {weight: 3.0}]->(:A {seed: 5})");
+
+        compactions.remove(0).run();
+
+        assertCypherResult(
+            "CALL gds.graph.refresh('refreshed') YIELD nodesAdded, relationshipsAdded, nodeCount, relationshipCount",
+            singletonList(map("nodesAdded", 1L, "relationshipsAdded", 1L, "nodeCount", 4L, "relationshipCount", 5L))
+        );
+        assertRefreshedGraphEqualsNewGraph();
+    }
+
+    @Test
+    void shouldDiscardCompactionOfOutdatedGraph() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+        runQuery("MATCH (a:A {seed: 1}), (b:A {seed: 2}) CREATE (b)-[:REL {weight: 2.0}]->(a)");
+        runQuery("CALL gds.graph.refresh('refreshed')");
+        runQuery("MATCH (c:A {seed: 3}) CREATE (c)-[:REL {weight: 3.0}]->(:A {seed: 5})");
+        runQuery("CALL gds.graph.refresh('refreshed')");
+        assertEquals(2, compactions.size());
+
+        // the first compaction was started before the second refresh and must not replace its result
+        compactions.remove(0).run();
+        assertTrue(refreshedGraph() instanceof DeltaGraph);
+        assertRefreshedGraphEqualsNewGraph();
+
+        compactions.remove(0).run();
+        assertFalse(refreshedGraph() instanceof DeltaGraph);
+        assertRefreshedGraphEqualsNewGraph();
+    }
+
+    @Test
+    void shouldStopTrackingDroppedGraphs() {
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", true));
+        runQuery("CALL gds.graph.drop('refreshed')");
+        runQuery(CREATE_CYPHER, map("name", "refreshed", "track", false));
+
+        assertError(
+            "CALL gds.graph.refresh('refreshed')",
+            "Graph `refreshed` does not track changes."
+        );
+    }
+
+    private Graph refreshedGraph() {
+        return GraphCatalog.get(getUsername(), "refreshed", "REL", Optional.of("weight"));
+    }
+
+    private void assertRefreshedGraphEqualsNewGraph() {
+        GraphCatalog.remove(getUsername(), "expected");
+        runQuery(CREATE_CYPHER, map("name", "expected", "track", false));
+        Graph expected = GraphCatalog.get(getUsername(), "expected", "REL", Optional.of("weight"));
+        assertGraphEquals(expected, refreshedGraph());
+    }
+}
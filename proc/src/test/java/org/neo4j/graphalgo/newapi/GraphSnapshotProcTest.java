@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.newapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.DeduplicationStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyStorage;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.wcc.WccStreamProc;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class GraphSnapshotProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:A {seed: 1})" +
+        ", (b:A {seed: 2})" +
+        ", (c:A {seed: 3})" +
+        ", (a)-[:REL {weight: 0.5}]->(b)" +
+        ", (a)-[:REL {weight: 1.5}]->(c)" +
+        ", (c)-[:REL {weight: 4.2}]->(b)";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase(builder ->
+            builder.setConfig(GraphSnapshotProc.EXPORT_LOCATION, tempDir.toString())
+        );
+        registerProcedures(
+            GraphCreateProc.class,
+            GraphDropProc.class,
+            GraphListProc.class,
+            GraphSnapshotProc.class,
+            WccStreamProc.class
+        );
+        runQuery(DB_CYPHER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+        GraphCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldExportAndLoadGraph() {
+        String path = "graph.snapshot";
+        runQuery(
+            "CALL gds.graph.create('original', 'A', 'REL', {nodeProperties: 'seed', relationshipProperties: 'weight'})"
+        );
+
+        assertCypherResult(
+            "CALL gds.graph.export('original', $path) YIELD graphName, nodeCount, relationshipCount",
+            map("path", path),
+            singletonList(map("graphName", "original", "nodeCount", 3L, "relationshipCount", 3L))
+        );
+        assertTrue(tempDir.resolve(path).toFile().exists());
+
+        assertCypherResult(
+            "CALL gds.graph.load('reloaded', $path) YIELD graphName, nodeCount, relationshipCount",
+            map("path", path),
+            singletonList(map("graphName", "reloaded", "nodeCount", 3L, "relationshipCount", 3L))
+        );
+
+        Graph original = GraphCatalog.get(getUsername(), "original", "REL", Optional.of("weight"));
+        Graph reloaded = GraphCatalog.get(getUsername(), "reloaded", "REL", Optional.of("weight"));
+        assertGraphEquals(original, reloaded);
+    }
+
+    @Test
+    void shouldLoadGraphAfterOriginalWasDropped() {
+        String path = "graph.snapshot";
+        runQuery("CALL gds.graph.create('original', 'A', 'REL')");
+        runQuery("CALL gds.graph.export('original', $path)", map("path", path));
+        runQuery("CALL gds.graph.drop('original')");
+
+        assertCypherResult(
+            "CALL gds.graph.load('original', $path) YIELD graphName, nodeCount, relationshipCount",
+            map("path", path),
+            singletonList(map("graphName", "original", "nodeCount", 3L, "relationshipCount", 3L))
+        );
+    }
+
+    @Test
+    void shouldRestoreProjections() {
+        runQuery(
+            "CALL gds.graph.create('original', 'A', 'REL', {nodeProperties: 'seed', relationshipProperties: 'weight'})"
+        );
+        runQuery("CALL gds.graph.export('original', 'graph.snapshot')");
+        runQuery("CALL gds.graph.load('reloaded', 'graph.snapshot')");
+
+        Map<String, Object> original = projections("original");
+        Map<String, Object> reloaded = projections("reloaded");
+        assertEquals(original, reloaded);
+    }
+
+    @Test
+    void shouldRestoreCreateSettings() {
+        runQuery(
+            "CALL gds.graph.create('original', 'A', 'REL', {" +
+            "  adjacencyStorage: 'OFF_HEAP', adjacencyCodec: 'PACKED', indexAdjacency: true," +
+            "  mergeRelationshipTypes: true, mergeDeduplicationStrategy: 'SUM'" +
+            "})"
+        );
+        runQuery("CALL gds.graph.export('original', 'graph.snapshot')");
+        runQuery("CALL gds.graph.load('reloaded', 'graph.snapshot')");
+
+        GraphCreateConfig config = GraphCatalog.get(getUsername(), "reloaded").config();
+        assertEquals(AdjacencyStorage.OFF_HEAP, config.adjacencyStorage());
+        assertEquals(AdjacencyCodec.PACKED, config.adjacencyCodec());
+        assertTrue(config.indexAdjacency());
+        assertTrue(config.mergeRelationshipTypes());
+        assertEquals(DeduplicationStrategy.SUM, config.mergeDeduplicationStrategy());
+    }
+
+    @Test
+    void shouldOverwriteSnapshotOfLoadedGraph() {
+        runQuery("CALL gds.graph.create('original', 'A', 'REL')");
+        runQuery("CALL gds.graph.export('original', 'graph.snapshot')");
+        runQuery("CALL gds.graph.load('reloaded', 'graph.snapshot')");
+
+        runQuery("CALL gds.graph.export('reloaded', 'graph.snapshot')");
+
+        Graph original = GraphCatalog.get(getUsername(), "original", "REL", Optional.empty());
+        Graph reloaded = GraphCatalog.get(getUsername(), "reloaded", "REL", Optional.empty());
+        assertGraphEquals(original, reloaded);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(singletonList(tempDir.resolve("graph.snapshot")), files.collect(Collectors.toList()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void shouldRunWeightedAndSeededAlgorithmsOnLoadedGraph() {
+        runQuery(
+            "CALL gds.graph.create('original', 'A', 'REL', {nodeProperties: 'seed', relationshipProperties: 'weight'})"
+        );
+        runQuery("CALL gds.graph.export('original', 'graph.snapshot')");
+        runQuery("CALL gds.graph.drop('original')");
+        runQuery("CALL gds.graph.load('reloaded', 'graph.snapshot')");
+
+        // only (c)-[:REL {weight: 4.2}]->(b) is above the threshold
+        assertCypherResult(
+            "CALL gds.wcc.stream('reloaded', {relationshipWeightProperty: 'weight', threshold: 2.0}) " +
+            "YIELD componentId RETURN count(DISTINCT componentId) AS components",
+            singletonList(map("components", 2L))
+        );
+
+        assertCypherResult(
+            "CALL gds.wcc.stream('reloaded', {seedProperty: 'seed'}) " +
+            "YIELD componentId RETURN count(DISTINCT componentId) AS components",
+            singletonList(map("components", 1L))
+        );
+    }
+
+    @Test
+    void shouldRejectPathsOutsideOfExportLocation() {
+        runQuery("CALL gds.graph.create('original', 'A', 'REL')");
+
+        assertError(
+            "CALL gds.graph.export('original', '../outside.snapshot')",
+            "must point into the export location"
+        );
+        assertError(
+            "CALL gds.graph.export('original', $path)",
+            map("path", tempDir.getParent().resolve("outside.snapshot").toString()),
+            "must point into the export location"
+        );
+        assertError(
+            "CALL gds.graph.load('reloaded', 'nested/../../outside.snapshot')",
+            "must point into the export location"
+        );
+    }
+
+    @Test
+    void shouldFailIfExportLocationIsNotConfigured() throws KernelException {
+        db.shutdown();
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(GraphCreateProc.class, GraphSnapshotProc.class);
+        runQuery(DB_CYPHER);
+        runQuery("CALL gds.graph.create('original', 'A', 'REL')");
+
+        assertError(
+            "CALL gds.graph.export('original', 'graph.snapshot')",
+            "Graph snapshots are disabled"
+        );
+    }
+
+    private Map<String, Object> projections(String graphName) {
+        return runQuery(
+            "CALL gds.graph.list($graphName) YIELD nodeProjection, relationshipProjection " +
+            "RETURN nodeProjection, relationshipProjection",
+            map("graphName", graphName),
+            result -> result.next()
+        );
+    }
+}
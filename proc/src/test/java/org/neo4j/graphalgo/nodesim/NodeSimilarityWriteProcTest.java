@@ -173,6 +173,46 @@ public class NodeSimilarityWriteProcTest extends NodeSimilarityBaseProcTest<Node
         );
     }
 
+    @ParameterizedTest(name = "writeBatchSize: {0}")
+    @ValueSource(longs = {1L, 2L, 10_000L})
+    void shouldWriteResultsInBatches(long writeBatchSize) {
+        String query = GdsCypher.call()
+            .withAnyLabel()
+            .withRelationshipType("LIKES")
+            .algo("nodeSimilarity")
+            .writeMode()
+            .addParameter("similarityCutoff", 0.0)
+            .addParameter("writeRelationshipType", "SIMILAR")
+            .addParameter("writeProperty", "score")
+            .addParameter("writeBatchSize", writeBatchSize)
+            .addParameter("writeConcurrency", 4)
+            .yields("relationshipsWritten");
+
+        runQueryWithRowConsumer(
+            query,
+            row -> assertEquals(6, row.getNumber("relationshipsWritten").longValue())
+        );
+        runQueryWithRowConsumer(
+            "MATCH ()-[r:SIMILAR]->() RETURN count(r) AS count",
+            row -> assertEquals(6, row.getNumber("count").longValue())
+        );
+    }
+
+    @ParameterizedTest(name = "writeBatchSize: {0}")
+    @ValueSource(longs = {0L, -1L})
+    void shouldFailOnInvalidWriteBatchSize(long writeBatchSize) {
+        CypherMapWrapper input = createMinimalConfig(CypherMapWrapper.empty().withNumber("writeBatchSize", writeBatchSize));
+
+        IllegalArgumentException illegalArgumentException = assertThrows(
+            IllegalArgumentException.class,
+            () -> createConfig(input)
+        );
+        assertThat(
+            illegalArgumentException.getMessage(),
+            is("Invalid value for writeBatchSize: must be a positive integer, but got " + writeBatchSize)
+        );
+    }
+
     @ParameterizedTest(name = "missing parameter: {0}")
     @ValueSource(strings = {"writeProperty", "writeRelationshipType"})
     void shouldFailIfConfigIsMissingWriteParameters(String parameter) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.pagerank;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.loading.GraphCatalog;
+import org.neo4j.graphalgo.newapi.GraphCreateProc;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class PageRankMutateProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (e:Node)" +
+        ", (f:Node)" +
+        ", (a)-[:TYPE]->(b)" +
+        ", (b)-[:TYPE]->(c)" +
+        ", (c)-[:TYPE]->(a)" +
+        ", (c)-[:TYPE]->(d)" +
+        ", (d)-[:TYPE]->(e)" +
+        ", (e)-[:TYPE]->(f)" +
+        ", (f)-[:TYPE]->(d)";
+
+    @BeforeEach
+    void setup() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        registerProcedures(
+            GraphCreateProc.class,
+            PageRankMutateProc.class,
+            PageRankStreamProc.class
+        );
+        runQuery(DB_CYPHER);
+        runQuery("CALL gds.graph.create('graph', 'Node', 'TYPE')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+        GraphCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldAddScoresToTheGraph() {
+        assertCypherResult(
+            "CALL gds.pageRank.mutate('graph', {mutateProperty: 'score'}) YIELD mutateProperty, nodePropertiesMutated",
+            singletonList(map(
+                "mutateProperty", "score",
+                "nodePropertiesMutated", 6L
+            ))
+        );
+
+        Graph graph = GraphCatalog.get(getUsername(), "graph", "TYPE", Optional.empty());
+        NodeProperties scores = graph.nodeProperties("score");
+        runQueryWithRowConsumer(
+            "CALL gds.pageRank.stream('graph') YIELD nodeId, score",
+            row -> assertEquals(
+                row.getNumber("score").doubleValue(),
+                scores.nodeProperty(graph.toMappedNodeId(row.getNumber("nodeId").longValue())),
+                1e-9
+            )
+        );
+    }
+}